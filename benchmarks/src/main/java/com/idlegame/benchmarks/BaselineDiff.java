@@ -0,0 +1,71 @@
+package com.idlegame.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and prints the change in time and allocation
+ * for every benchmark present in both.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.idlegame.benchmarks.BaselineDiff baseline/baseline.json target/jmh-result.json
+ * </pre>
+ */
+public final class BaselineDiff {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineDiff() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BaselineDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = readResults(new File(args[0]));
+        Map<String, JsonNode> current = readResults(new File(args[1]));
+
+        System.out.printf("%-60s %14s %14s %9s %14s %14s%n",
+            "Benchmark", "base ns/op", "new ns/op", "delta", "base B/op", "new B/op");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            System.out.printf("%-60s %14.1f %14.1f %8.1f%% %14.1f %14.1f%n",
+                entry.getKey(), baseScore, newScore, (newScore - baseScore) / baseScore * 100.0,
+                allocation(before), allocation(entry.getValue()));
+        }
+    }
+
+    private static Map<String, JsonNode> readResults(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(shortName(result.path("benchmark").asText()));
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static String shortName(String benchmark) {
+        String prefix = BaselineDiff.class.getPackageName() + ".";
+        return benchmark.startsWith(prefix) ? benchmark.substring(prefix.length()) : benchmark;
+    }
+
+    private static double allocation(JsonNode result) {
+        return result.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+    }
+}
@@ -0,0 +1,88 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.core.BuildingSystem;
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.ResourceSystem;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures "Buy N" and "Buy Max" at increasing owned counts. The closed-form
+ * methods should stay flat as {@code owned} grows; {@link #purchaseLoop} shows
+ * the one-at-a-time approach for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class BulkPurchaseBenchmark {
+    private static final String BUILDING = GameConstants.BUILDING_GROWER;
+    private static final int BATCH = 100;
+    private static final IdleNumber BANK = IdleNumber.parse("1e80000");
+
+    @Param({"10", "1000", "1000000"})
+    public int owned;
+
+    private ResourceSystem resourceSystem;
+    private BuildingSystem buildingSystem;
+    private BuildingSystem template;
+    private IdleNumber budget;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        ResourceSystem templateResources = new ResourceSystem();
+        templateResources.setResource(GameConstants.PRIMARY_CURRENCY, BANK);
+        template = new BuildingSystem(templateResources);
+        template.purchaseBulk(BUILDING, owned);
+
+        resourceSystem = new ResourceSystem();
+        buildingSystem = new BuildingSystem(resourceSystem);
+        budget = template.costOf(BUILDING, 1000);
+    }
+
+    /**
+     * Puts the system back at {@code owned} buildings with a full bank. Runs per
+     * invocation, so its cost is included in purchase measurements.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        buildingSystem.restoreState(template);
+        resourceSystem.setResource(GameConstants.PRIMARY_CURRENCY, BANK);
+    }
+
+    @Benchmark
+    public IdleNumber costOf() {
+        return buildingSystem.costOf(BUILDING, BATCH);
+    }
+
+    @Benchmark
+    public int maxAffordable() {
+        return buildingSystem.maxAffordable(BUILDING, budget);
+    }
+
+    @Benchmark
+    public boolean purchaseBulk() {
+        return buildingSystem.purchaseBulk(BUILDING, BATCH);
+    }
+
+    @Benchmark
+    public void purchaseLoop() {
+        for (int i = 0; i < BATCH; i++) {
+            buildingSystem.purchaseBuilding(BUILDING);
+        }
+    }
+}
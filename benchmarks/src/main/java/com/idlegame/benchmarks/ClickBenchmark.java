@@ -0,0 +1,46 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.core.PlayerCommand;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single player click on the main action button, and a tick that applies a
+ * whole batch of queued clicks. 500 clicks per 50 ms tick is a 10k clicks/s auto-clicker.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+public class ClickBenchmark {
+    private static final long TICK_MS = 50;
+
+    @State(Scope.Thread)
+    public static class Batch {
+        @Param({"1", "500"})
+        public int clicksPerTick;
+    }
+
+    @Benchmark
+    public void clickMainAction(GameFixture fixture) {
+        fixture.game.clickMainAction();
+    }
+
+    @Benchmark
+    public void queuedClicksTick(GameFixture fixture, Batch batch) {
+        for (int i = 0; i < batch.clicksPerTick; i++) {
+            fixture.game.submit(PlayerCommand.click());
+        }
+        fixture.game.tick(TICK_MS);
+    }
+}
@@ -0,0 +1,74 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.NumberFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formats a displayed number the way the UI used to ({@code String.format} with a K/M
+ * suffix) against {@link NumberFormatter}, both into a reused builder and through its
+ * cached {@code format}. The value changes every call except in {@code cachedUnchanged},
+ * which is a label whose value holds still between frames.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class FormatBenchmark {
+
+    @Param({"1234.5", "3.5e7", "2.7e20"})
+    public String value;
+
+    private final NumberFormatter formatter = NumberFormatter.standard();
+    private final StringBuilder out = new StringBuilder(32);
+    private IdleNumber number;
+    private IdleNumber step;
+
+    @Setup
+    public void setUp() {
+        number = IdleNumber.parse(value);
+        step = IdleNumber.of(1.0001);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        number.multiplyInPlace(step);
+        if (number.compareTo(1e15) >= 0) {
+            return number.toString();
+        } else if (number.compareTo(1000000) >= 0) {
+            return String.format("%.2fM", number.toDouble() / 1000000);
+        }
+        return String.format("%.2fK", number.toDouble() / 1000);
+    }
+
+    @Benchmark
+    public StringBuilder formatTo() {
+        number.multiplyInPlace(step);
+        out.setLength(0);
+        return formatter.formatTo(number, out);
+    }
+
+    @Benchmark
+    public String formatString() {
+        number.multiplyInPlace(step);
+        return formatter.format(number);
+    }
+
+    @Benchmark
+    public String cachedUnchanged() {
+        return formatter.format(number);
+    }
+}
@@ -0,0 +1,74 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.core.BuildingSystem;
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.IdleNumber;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared benchmark state: a fully wired {@link GameManager} at either an early-game
+ * or a late-game point of progression.
+ */
+@State(Scope.Thread)
+public class GameFixture {
+    /** Buildings of every type owned in the late-game state. */
+    static final int LATE_BUILDING_COUNT = 250;
+    /** Number of compounded efficiency bonuses applied in the late-game state. */
+    static final int LATE_EFFICIENCY_BONUSES = 10;
+    static final double LATE_EFFICIENCY_BONUS = 1.1;
+    static final IdleNumber LATE_BANK = IdleNumber.parse("1e60");
+
+    public enum Stage {
+        EARLY,
+        LATE
+    }
+
+    @Param({"EARLY", "LATE"})
+    public Stage stage;
+
+    public GameManager game;
+    public BuildingSystem buildingSystem;
+    /** The most expensive building owned in this stage, used for cost benchmarks. */
+    public BuildingSystem.Building building;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new GameManager();
+        // Benchmarks measure the game, not disk I/O; leave the save and journal alone
+        game.setAutoSaveEnabled(false);
+        game.initialize();
+        buildingSystem = game.getBuildingSystem();
+
+        if (stage == Stage.LATE) {
+            populateLateGame(game);
+        }
+
+        String[] ids = GameConstants.BUILDING_IDS;
+        building = buildingSystem.getBuilding(stage == Stage.LATE ? ids[ids.length - 1] : ids[0]);
+    }
+
+    /**
+     * Brings a fresh game to the late-game state: every building owned, efficiency bonuses
+     * applied and a full bank.
+     */
+    static void populateLateGame(GameManager game) {
+        BuildingSystem buildingSystem = game.getBuildingSystem();
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, LATE_BANK);
+        for (String buildingId : GameConstants.BUILDING_IDS) {
+            for (int i = 0; i < LATE_BUILDING_COUNT; i++) {
+                buildingSystem.purchaseBuilding(buildingId);
+            }
+        }
+        for (int i = 0; i < LATE_EFFICIENCY_BONUSES; i++) {
+            buildingSystem.applyEfficiencyBonus(LATE_EFFICIENCY_BONUS);
+        }
+        // Refill the bank so affordability checks see a rich player
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, LATE_BANK);
+        game.getAchievementSystem().checkAchievements();
+    }
+}
@@ -0,0 +1,98 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.GameSnapshot;
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.ProjectionEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ETAs for every building in one frame. {@code sameFrame} re-reads the last snapshot, the
+ * usual case at more frames than ticks; {@code newTick} projects a new snapshot with
+ * unchanged production; {@code productionChanged} pays for a refresh every call; and
+ * {@code perFrameDivision} divides {@code cost - amount} by the rate for every building
+ * each frame, without the engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class ProjectionBenchmark {
+    private final ProjectionEngine projections = new ProjectionEngine();
+    private final IdleNumber scratch = new IdleNumber();
+    // Two ticks apart with the same production, and one after a purchase
+    private GameSnapshot first;
+    private GameSnapshot second;
+    private GameSnapshot purchased;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setUp(GameFixture fixture) {
+        GameManager game = fixture.game;
+        // An empty bank, so no building is affordable and every ETA is computed
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.zero());
+        game.tick(GameConstants.GAME_TICK_DURATION);
+        first = game.getSnapshot();
+        game.tick(GameConstants.GAME_TICK_DURATION);
+        second = game.getSnapshot();
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, fixture.building.getNextCost());
+        fixture.buildingSystem.purchaseBuilding(fixture.building.getId());
+        game.tick(GameConstants.GAME_TICK_DURATION);
+        purchased = game.getSnapshot();
+        projections.update(first);
+    }
+
+    private double readAll() {
+        double total = 0;
+        for (int i = 0; i < first.getCatalog().size(); i++) {
+            total += projections.getBuildingEta(i);
+        }
+        return total + projections.getBestPrestigeEta();
+    }
+
+    @Benchmark
+    public double sameFrame() {
+        projections.update(projections.getSnapshot());
+        return readAll();
+    }
+
+    @Benchmark
+    public double newTick() {
+        flip = !flip;
+        projections.update(flip ? first : second);
+        return readAll();
+    }
+
+    @Benchmark
+    public double productionChanged() {
+        flip = !flip;
+        projections.update(flip ? second : purchased);
+        return readAll();
+    }
+
+    @Benchmark
+    public double perFrameDivision() {
+        GameSnapshot snapshot = second;
+        IdleNumber amount = snapshot.getPrimaryAmount();
+        IdleNumber rate = snapshot.getPrimaryRate();
+        double total = 0;
+        for (int i = 0; i < snapshot.getCatalog().size(); i++) {
+            total += scratch.set(snapshot.getBuildingCost(i)).subtractInPlace(amount).divideInPlace(rate).toDouble();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,127 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.SaveCodec;
+import com.idlegame.core.SaveData;
+import com.idlegame.core.legacy.GameState;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the binary save codec with the old Java-serialized {@code GameState} holding the
+ * same content. Encoded sizes are printed once per trial since JMH only reports times.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+public class SaveFormatBenchmark {
+
+    @State(Scope.Thread)
+    public static class Saves {
+        SaveData saveData;
+        GameState legacyState;
+        ByteBuffer binary;
+        byte[] serialized;
+
+        @Setup(Level.Trial)
+        public void setUp(GameFixture fixture) throws IOException {
+            saveData = fixture.game.createSaveData();
+            legacyState = toLegacy(saveData);
+            binary = SaveCodec.encode(saveData);
+            serialized = serialize(legacyState);
+            System.out.printf("%nSave size (%s): binary %d bytes, serialized %d bytes%n",
+                fixture.stage, binary.remaining(), serialized.length);
+        }
+
+        /**
+         * The same content laid out the way the old format stored it: boxed BigDecimals in maps.
+         */
+        private static GameState toLegacy(SaveData data) {
+            Map<String, Object> state = new HashMap<>();
+            Map<String, BigDecimal> resources = new HashMap<>();
+            Map<String, BigDecimal> rates = new HashMap<>();
+            for (String resourceId : data.getResourceIds()) {
+                resources.put(resourceId, data.getAmount(resourceId).toBigDecimal());
+                if (data.getGenerationRate(resourceId) != null) {
+                    rates.put(resourceId, data.getGenerationRate(resourceId).toBigDecimal());
+                }
+            }
+            Map<String, Integer> buildings = new HashMap<>();
+            Map<String, Double> bonuses = new HashMap<>();
+            for (String buildingId : data.getBuildingIds()) {
+                buildings.put(buildingId, data.getBuildingCount(buildingId));
+                bonuses.put(buildingId, data.getEfficiencyBonus(buildingId));
+            }
+            state.put("resources", resources);
+            state.put("generationRates", rates);
+            state.put("clickMultiplier", data.getClickMultiplier().toBigDecimal());
+            state.put("buildings", buildings);
+            state.put("efficiencyBonuses", bonuses);
+            state.put("prestigePoints", data.getPrestigePoints().toBigDecimal());
+            state.put("prestigeMultiplier", data.getPrestigeMultiplier().toBigDecimal());
+            state.put("achievements", new HashSet<>(data.getAchievements()));
+            state.put("totalClicks", data.getTotalClicks());
+            state.put(GameConstants.PRIMARY_CURRENCY + "Gained", data.getTotalResourcesGained().toBigDecimal());
+            return new GameState(Instant.ofEpochMilli(data.getSavedAtMillis()), state);
+        }
+    }
+
+    private static byte[] serialize(GameState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary(Saves saves) {
+        return SaveCodec.encode(saves.saveData);
+    }
+
+    @Benchmark
+    public byte[] encodeSerialized(Saves saves) throws IOException {
+        return serialize(saves.legacyState);
+    }
+
+    @Benchmark
+    public SaveData decodeBinary(Saves saves) throws IOException {
+        return SaveCodec.decode(saves.binary);
+    }
+
+    @Benchmark
+    public SaveData decodeBinaryMetaOnly(Saves saves) throws IOException {
+        return SaveCodec.decode(saves.binary, EnumSet.of(SaveData.Section.META));
+    }
+
+    @Benchmark
+    public Object decodeSerialized(Saves saves) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(saves.serialized))) {
+            return in.readObject();
+        }
+    }
+}
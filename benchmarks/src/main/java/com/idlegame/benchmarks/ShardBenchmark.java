@@ -0,0 +1,65 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.server.GameServer;
+import com.idlegame.server.Session;
+import com.idlegame.server.Shard;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one server shard pass, ticking every session once. A core sustains
+ * {@code sessions * 50 ms / pass time} sessions at the game tick rate, less the headroom
+ * kept for GC and load spikes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class ShardBenchmark {
+    private static final long TICK_MS = 50;
+
+    @Param({"1000", "4000"})
+    public int sessions;
+
+    @Param({"EARLY", "LATE"})
+    public GameFixture.Stage stage;
+
+    private GameServer server;
+    private Shard shard;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new GameServer(1, TICK_MS, null);
+        for (int i = 0; i < sessions; i++) {
+            Session session = server.openSession("bench-" + i);
+            if (stage == GameFixture.Stage.LATE) {
+                GameFixture.populateLateGame(session.getGame());
+            }
+        }
+        shard = server.getShards().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void shardPass() {
+        shard.tick(TICK_MS);
+    }
+}
@@ -0,0 +1,67 @@
+package com.idlegame.benchmarks;
+
+import com.idlegame.core.IdleNumber;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the work done on every 50 ms game tick. {@code idleTick} and
+ * {@code ticklessIdleTick} run a whole tick without player actions, ticking and in
+ * tickless mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+public class TickBenchmark {
+    private static final long TICK_MS = 50;
+
+    @State(Scope.Thread)
+    public static class TicklessFixture extends GameFixture {
+        @Setup(Level.Trial)
+        public void startTickless() {
+            game.setTickless(true);
+        }
+    }
+
+    @Benchmark
+    public void gameManagerUpdate(GameFixture fixture) {
+        fixture.game.update();
+    }
+
+    @Benchmark
+    public void updateResources(GameFixture fixture) {
+        fixture.game.getResourceSystem().updateResources(fixture.buildingSystem, TICK_MS);
+    }
+
+    @Benchmark
+    public IdleNumber buildingProduction(GameFixture fixture) {
+        return fixture.buildingSystem.getProduction();
+    }
+
+    @Benchmark
+    public void checkAchievements(GameFixture fixture) {
+        fixture.game.getAchievementSystem().checkAchievements();
+    }
+
+    @Benchmark
+    public void idleTick(GameFixture fixture) {
+        fixture.game.tick(TICK_MS);
+    }
+
+    @Benchmark
+    public void ticklessIdleTick(TicklessFixture fixture) {
+        fixture.game.tick(TICK_MS);
+    }
+}
@@ -1,5 +1,6 @@
 package com.idlegame;
 
+import com.idlegame.ui.MainController;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -7,6 +8,8 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 public class IdleGameApp extends Application {
+    private MainController controller;
+
     @Override
     public void start(Stage primaryStage) throws Exception {
         // Load FXML file
@@ -14,6 +17,7 @@ public class IdleGameApp extends Application {
             getClass().getResource("/com/idlegame/ui/main.fxml")
         );
         Parent root = loader.load();
+        controller = loader.getController();
         
         // Basic window setup
         primaryStage.setTitle("Idle Game");
@@ -23,6 +27,16 @@ public class IdleGameApp extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Runs when the last window closes, before the JVM kills the game's daemon threads.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,158 @@
+package com.idlegame.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, ordered set of {@link AchievementDefinition}s. Catalogs are built once and
+ * shared between all game instances; the standard catalog comes from {@link GameConstants}.
+ *
+ * <p>Achievements watching the same value (one metric, and for per-building achievements
+ * one building) form a track whose thresholds are sorted ascending. An
+ * {@link AchievementSystem} keeps one pointer per track to the next locked threshold, so
+ * its per-tick check costs one comparison per track however many achievements there are.
+ */
+public final class AchievementCatalog {
+    private final AchievementDefinition[] definitions;
+    private final Map<String, Integer> ids;
+
+    private final AchievementDefinition.Metric[] trackMetrics;
+    private final String[] trackBuildings;
+    private final double[][] trackThresholds;
+    private final int[][] trackAchievements;
+
+    private static final class StandardHolder {
+        static final AchievementCatalog INSTANCE = createStandard();
+    }
+
+    private AchievementCatalog(List<AchievementDefinition> definitions) {
+        this.definitions = definitions.toArray(new AchievementDefinition[0]);
+        Map<String, Integer> index = new HashMap<>(this.definitions.length * 2);
+        Map<String, List<AchievementDefinition>> tracks = new LinkedHashMap<>();
+        for (AchievementDefinition definition : this.definitions) {
+            if (index.put(definition.getKey(), definition.getId()) != null) {
+                throw new IllegalArgumentException("Duplicate achievement id: " + definition.getKey());
+            }
+            String track = definition.getMetric() + "/" + definition.getBuildingId();
+            tracks.computeIfAbsent(track, key -> new ArrayList<>()).add(definition);
+        }
+        this.ids = Collections.unmodifiableMap(index);
+
+        int count = tracks.size();
+        this.trackMetrics = new AchievementDefinition.Metric[count];
+        this.trackBuildings = new String[count];
+        this.trackThresholds = new double[count][];
+        this.trackAchievements = new int[count][];
+        int track = 0;
+        for (List<AchievementDefinition> members : tracks.values()) {
+            members.sort(Comparator.comparingDouble(AchievementDefinition::getThreshold));
+            trackMetrics[track] = members.get(0).getMetric();
+            trackBuildings[track] = members.get(0).getBuildingId();
+            trackThresholds[track] = new double[members.size()];
+            trackAchievements[track] = new int[members.size()];
+            for (int i = 0; i < members.size(); i++) {
+                trackThresholds[track][i] = members.get(i).getThreshold();
+                trackAchievements[track][i] = members.get(i).getId();
+            }
+            track++;
+        }
+    }
+
+    /**
+     * The achievements defined in {@link GameConstants}, loaded on first use: click,
+     * resource and total building milestones, and a milestone per building type for every
+     * {@link GameConstants#ACHIEVEMENT_THRESHOLDS} entry.
+     */
+    public static AchievementCatalog standard() {
+        return StandardHolder.INSTANCE;
+    }
+
+    private static AchievementCatalog createStandard() {
+        Builder builder = new Builder();
+        for (int threshold : GameConstants.CLICK_ACHIEVEMENT_THRESHOLDS) {
+            builder.add("clicks_" + threshold, AchievementDefinition.Metric.CLICKS, null, threshold,
+                AchievementDefinition.Reward.CLICK_MULTIPLIER);
+        }
+        for (double threshold : GameConstants.RESOURCE_ACHIEVEMENT_THRESHOLDS) {
+            builder.add("resources_" + (long) threshold, AchievementDefinition.Metric.RESOURCES_GAINED, null,
+                threshold, AchievementDefinition.Reward.GENERATION_RATE);
+        }
+        for (int threshold : GameConstants.BUILDING_COUNT_ACHIEVEMENTS) {
+            builder.add("buildings_" + threshold, AchievementDefinition.Metric.TOTAL_BUILDINGS, null, threshold,
+                AchievementDefinition.Reward.BUILDING_EFFICIENCY);
+        }
+        for (String buildingId : GameConstants.BUILDING_IDS) {
+            for (int threshold : GameConstants.ACHIEVEMENT_THRESHOLDS) {
+                builder.add(buildingId + "_" + threshold, AchievementDefinition.Metric.BUILDING_COUNT, buildingId,
+                    threshold, AchievementDefinition.Reward.NONE);
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return definitions.length;
+    }
+
+    public AchievementDefinition get(int id) {
+        return definitions[id];
+    }
+
+    /**
+     * Integer id of an achievement key, or -1 if the catalog does not contain it.
+     */
+    public int indexOf(String key) {
+        Integer id = ids.get(key);
+        return id == null ? -1 : id;
+    }
+
+    int getTrackCount() {
+        return trackMetrics.length;
+    }
+
+    AchievementDefinition.Metric getTrackMetric(int track) {
+        return trackMetrics[track];
+    }
+
+    /** Building watched by a track, null unless it is a {@code BUILDING_COUNT} track. */
+    String getTrackBuilding(int track) {
+        return trackBuildings[track];
+    }
+
+    /** Thresholds of a track in ascending order; callers must not modify the array. */
+    double[] getTrackThresholds(int track) {
+        return trackThresholds[track];
+    }
+
+    /** Achievement ids of a track, parallel to {@link #getTrackThresholds}. */
+    int[] getTrackAchievements(int track) {
+        return trackAchievements[track];
+    }
+
+    public static final class Builder {
+        private final List<AchievementDefinition> definitions = new ArrayList<>();
+
+        /**
+         * Adds an achievement; its integer id is the number of achievements added before it.
+         *
+         * @param buildingId building watched by a {@code BUILDING_COUNT} achievement, otherwise null
+         */
+        public Builder add(String key, AchievementDefinition.Metric metric, String buildingId, double threshold,
+                           AchievementDefinition.Reward reward) {
+            if ((metric == AchievementDefinition.Metric.BUILDING_COUNT) != (buildingId != null)) {
+                throw new IllegalArgumentException("Only building count achievements name a building: " + key);
+            }
+            definitions.add(new AchievementDefinition(definitions.size(), key, metric, buildingId, threshold, reward));
+            return this;
+        }
+
+        public AchievementCatalog build() {
+            return new AchievementCatalog(definitions);
+        }
+    }
+}
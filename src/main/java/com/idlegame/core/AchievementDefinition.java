@@ -0,0 +1,74 @@
+package com.idlegame.core;
+
+/**
+ * Immutable description of one achievement: the metric it watches, the threshold that
+ * unlocks it and the reward it grants. A single instance is shared by every
+ * {@link AchievementSystem}; unlock state lives in the system's bit set.
+ */
+public final class AchievementDefinition {
+
+    public enum Metric {
+        /** Clicks since the last prestige. */
+        CLICKS,
+        /** Resources gained since the last prestige. */
+        RESOURCES_GAINED,
+        /** Buildings owned, of every type. */
+        TOTAL_BUILDINGS,
+        /** Buildings owned of one type. */
+        BUILDING_COUNT
+    }
+
+    public enum Reward {
+        NONE,
+        CLICK_MULTIPLIER,
+        GENERATION_RATE,
+        BUILDING_EFFICIENCY
+    }
+
+    private final int id;
+    private final String key;
+    private final Metric metric;
+    private final String buildingId;
+    private final double threshold;
+    private final Reward reward;
+
+    AchievementDefinition(int id, String key, Metric metric, String buildingId, double threshold, Reward reward) {
+        this.id = id;
+        this.key = key;
+        this.metric = metric;
+        this.buildingId = buildingId;
+        this.threshold = threshold;
+        this.reward = reward;
+    }
+
+    /**
+     * Index of this achievement in its catalog and in every system's unlock bits.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Stable string id, such as {@code clicks_100}, used in saves, the journal and the UI.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    /** Building watched by a {@link Metric#BUILDING_COUNT} achievement, otherwise null. */
+    public String getBuildingId() {
+        return buildingId;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public Reward getReward() {
+        return reward;
+    }
+}
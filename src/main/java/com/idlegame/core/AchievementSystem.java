@@ -2,81 +2,214 @@ package com.idlegame.core;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Consumer;
 
+/**
+ * Tracks progress toward the achievements of an {@link AchievementCatalog}. Unlocks are
+ * bits indexed by achievement id, and every threshold track keeps a pointer to its next
+ * locked threshold, so a check is one comparison per track and allocates nothing.
+ * Per-building tracks are only checked for the buildings bought or restored since the
+ * last check.
+ */
 public class AchievementSystem {
     private static final Logger logger = LoggerFactory.getLogger(AchievementSystem.class);
-    private final Set<String> unlockedAchievements;
+    private final AchievementCatalog catalog;
+    private final BitSet unlockedAchievements;
     private final ResourceSystem resourceSystem;
     private final BuildingSystem buildingSystem;
     private long totalClicks;
-    private BigDecimal totalResourcesGained;
+    private final IdleNumber totalResourcesGained;
+    private Consumer<String> unlockListener = achievementId -> { };
+
+    // Per track: index of the next threshold still to check
+    private final int[] nextThreshold;
+    // Per track: building ordinal watched by a building count track, otherwise -1
+    private final int[] trackBuildingOrdinals;
+    private final int clickTrack;
+    private final int resourceTrack;
+    // TOTAL_BUILDINGS tracks, checked whenever any count changed
+    private final int[] totalBuildingTracks;
+    // Per building ordinal: the BUILDING_COUNT tracks watching it
+    private final int[][] tracksByBuilding;
     
     public AchievementSystem(ResourceSystem resourceSystem, BuildingSystem buildingSystem) {
-        this.unlockedAchievements = new HashSet<>();
+        this(resourceSystem, buildingSystem, AchievementCatalog.standard());
+    }
+
+    public AchievementSystem(ResourceSystem resourceSystem, BuildingSystem buildingSystem,
+                             AchievementCatalog catalog) {
+        this.catalog = catalog;
+        this.unlockedAchievements = new BitSet(catalog.size());
         this.resourceSystem = resourceSystem;
         this.buildingSystem = buildingSystem;
         this.totalClicks = 0;
-        this.totalResourcesGained = BigDecimal.ZERO;
+        this.totalResourcesGained = IdleNumber.zero();
+
+        int tracks = catalog.getTrackCount();
+        this.nextThreshold = new int[tracks];
+        this.trackBuildingOrdinals = new int[tracks];
+        int clicks = -1;
+        int resources = -1;
+        List<Integer> totals = new ArrayList<>();
+        List<List<Integer>> byBuilding = new ArrayList<>();
+        for (int i = 0; i < buildingSystem.getCatalog().size(); i++) {
+            byBuilding.add(new ArrayList<>());
+        }
+        for (int track = 0; track < tracks; track++) {
+            String buildingId = catalog.getTrackBuilding(track);
+            trackBuildingOrdinals[track] = buildingId == null ? -1 : buildingSystem.getCatalog().indexOf(buildingId);
+            switch (catalog.getTrackMetric(track)) {
+                case CLICKS:
+                    clicks = track;
+                    break;
+                case RESOURCES_GAINED:
+                    resources = track;
+                    break;
+                case TOTAL_BUILDINGS:
+                    totals.add(track);
+                    break;
+                default:
+                    // Tracks of buildings missing from the catalog can never be reached
+                    if (trackBuildingOrdinals[track] >= 0) {
+                        byBuilding.get(trackBuildingOrdinals[track]).add(track);
+                    }
+                    break;
+            }
+        }
+        this.clickTrack = clicks;
+        this.resourceTrack = resources;
+        this.totalBuildingTracks = totals.stream().mapToInt(Integer::intValue).toArray();
+        this.tracksByBuilding = new int[byBuilding.size()][];
+        for (int i = 0; i < tracksByBuilding.length; i++) {
+            tracksByBuilding[i] = byBuilding.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
         logger.info("Achievement system initialized");
     }
     
     public void registerClick() {
-        totalClicks++;
+        registerClicks(1);
+    }
+
+    /**
+     * Counts a batch of clicks with a single achievement check.
+     */
+    public void registerClicks(long count) {
+        totalClicks += count;
         checkClickAchievements();
     }
     
     public void checkAllAchievements() {
-        checkClickAchievements();
-        checkResourceAchievements();
-        checkBuildingAchievements();
+        checkAchievements();
     }
     
     private void checkClickAchievements() {
-        for (int threshold : GameConstants.CLICK_ACHIEVEMENT_THRESHOLDS) {
-            String achievementId = "clicks_" + threshold;
-            if (!unlockedAchievements.contains(achievementId) && totalClicks >= threshold) {
-                unlockAchievement(achievementId);
-            }
-        }
+        checkTrack(clickTrack);
     }
     
     private void checkResourceAchievements() {
-        for (BigDecimal threshold : GameConstants.RESOURCE_ACHIEVEMENT_THRESHOLDS) {
-            String achievementId = "resources_" + threshold;
-            if (!unlockedAchievements.contains(achievementId) && totalResourcesGained.compareTo(threshold) >= 0) {
-                unlockAchievement(achievementId);
-            }
-        }
+        checkTrack(resourceTrack);
     }
     
+    /**
+     * Checks the tracks of the buildings whose count changed since the last check, so a
+     * tick without purchases costs one empty-set test whatever the catalog's size.
+     */
     private void checkBuildingAchievements() {
-        int totalBuildings = buildingSystem.getTotalBuildingCount();
-        for (int threshold : GameConstants.BUILDING_COUNT_ACHIEVEMENTS) {
-            String achievementId = "buildings_" + threshold;
-            if (!unlockedAchievements.contains(achievementId) && totalBuildings >= threshold) {
-                unlockAchievement(achievementId);
+        BitSet changed = buildingSystem.getChangedCounts();
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (int ordinal = changed.nextSetBit(0); ordinal >= 0; ordinal = changed.nextSetBit(ordinal + 1)) {
+            for (int track : tracksByBuilding[ordinal]) {
+                checkTrack(track);
             }
         }
+        for (int track : totalBuildingTracks) {
+            checkTrack(track);
+        }
+        changed.clear();
+    }
+
+    /**
+     * Unlocks every threshold of a track the watched value has reached, stopping at the
+     * first one it has not; thresholds already unlocked (by the journal) are skipped.
+     */
+    private void checkTrack(int track) {
+        if (track < 0) {
+            return;
+        }
+        double[] thresholds = catalog.getTrackThresholds(track);
+        int[] achievements = catalog.getTrackAchievements(track);
+        int next = nextThreshold[track];
+        while (next < thresholds.length
+                && (unlockedAchievements.get(achievements[next]) || hasReached(track, thresholds[next]))) {
+            unlockAchievement(achievements[next]);
+            next++;
+        }
+        nextThreshold[track] = next;
+    }
+
+    private boolean hasReached(int track, double threshold) {
+        switch (catalog.getTrackMetric(track)) {
+            case CLICKS:
+                return totalClicks >= threshold;
+            case RESOURCES_GAINED:
+                return totalResourcesGained.compareTo(threshold) >= 0;
+            case TOTAL_BUILDINGS:
+                return buildingSystem.getTotalBuildingCount() >= threshold;
+            case BUILDING_COUNT:
+                int ordinal = trackBuildingOrdinals[track];
+                return ordinal >= 0 && buildingSystem.getCount(ordinal) >= threshold;
+            default:
+                return false;
+        }
     }
     
-    private void unlockAchievement(String achievementId) {
-        if (unlockedAchievements.add(achievementId)) {
-            logger.info("Achievement unlocked: {}", achievementId);
-            // Apply achievement rewards here
-            applyAchievementReward(achievementId);
+    private void unlockAchievement(int id) {
+        if (!unlockedAchievements.get(id)) {
+            unlockedAchievements.set(id);
+            AchievementDefinition achievement = catalog.get(id);
+            logger.info("Achievement unlocked: {}", achievement.getKey());
+            applyAchievementReward(achievement);
+            unlockListener.accept(achievement.getKey());
+        }
+    }
+
+    /**
+     * Unlocks an achievement and applies its reward unless it is already unlocked.
+     * Used when replaying the event journal.
+     */
+    void unlock(String achievementId) {
+        int id = catalog.indexOf(achievementId);
+        if (id < 0) {
+            logger.warn("Ignoring unknown achievement: {}", achievementId);
+            return;
         }
+        unlockAchievement(id);
+    }
+
+    /**
+     * Called with the id of every achievement unlocked from now on.
+     */
+    public void setUnlockListener(Consumer<String> listener) {
+        this.unlockListener = listener;
     }
     
-    private void applyAchievementReward(String achievementId) {
+    private void applyAchievementReward(AchievementDefinition achievement) {
         // Different rewards based on achievement type
-        if (achievementId.startsWith("clicks_")) {
-            resourceSystem.upgradeClickMultiplier(BigDecimal.valueOf(1.1));
-        } else if (achievementId.startsWith("resources_")) {
-            resourceSystem.upgradeGenerationRate(GameConstants.PRIMARY_CURRENCY, BigDecimal.valueOf(1.05));
-        } else if (achievementId.startsWith("buildings_")) {
-            buildingSystem.applyEfficiencyBonus(BigDecimal.valueOf(1.1));
+        switch (achievement.getReward()) {
+            case CLICK_MULTIPLIER:
+                resourceSystem.upgradeClickMultiplier(1.1);
+                break;
+            case GENERATION_RATE:
+                resourceSystem.upgradeGenerationRate(GameConstants.PRIMARY_CURRENCY, 1.05);
+                break;
+            case BUILDING_EFFICIENCY:
+                buildingSystem.applyEfficiencyBonus(1.1);
+                break;
+            default:
+                break;
         }
     }
     
@@ -85,73 +218,113 @@ public class AchievementSystem {
         checkResourceAchievements();
         checkBuildingAchievements();
     }
+
+    public AchievementCatalog getCatalog() {
+        return catalog;
+    }
     
+    /**
+     * Ids of the unlocked achievements, in catalog order. Builds a new set on every call;
+     * per-tick readers should use {@link #getUnlockedCount()} or {@link #isUnlocked(int)}.
+     */
     public Set<String> getUnlockedAchievements() {
-        return Collections.unmodifiableSet(unlockedAchievements);
+        Set<String> unlocked = new LinkedHashSet<>();
+        for (int id = unlockedAchievements.nextSetBit(0); id >= 0; id = unlockedAchievements.nextSetBit(id + 1)) {
+            unlocked.add(catalog.get(id).getKey());
+        }
+        return Collections.unmodifiableSet(unlocked);
+    }
+
+    public int getUnlockedCount() {
+        return unlockedAchievements.cardinality();
+    }
+
+    public boolean isUnlocked(int id) {
+        return unlockedAchievements.get(id);
     }
     
     public long getTotalClicks() {
         return totalClicks;
     }
     
-    public void onResourceGain(BigDecimal amount) {
-        totalResourcesGained = totalResourcesGained.add(amount);
+    public IdleNumber getTotalResourcesGained() {
+        return totalResourcesGained.copy();
+    }
+
+    /**
+     * Lowest resource-gain threshold whose achievement is still locked,
+     * or NaN if every resource achievement is unlocked.
+     */
+    public double getNextResourceThreshold() {
+        if (resourceTrack < 0) {
+            return Double.NaN;
+        }
+        double[] thresholds = catalog.getTrackThresholds(resourceTrack);
+        int[] achievements = catalog.getTrackAchievements(resourceTrack);
+        for (int next = nextThreshold[resourceTrack]; next < thresholds.length; next++) {
+            if (!unlockedAchievements.get(achievements[next])) {
+                return thresholds[next];
+            }
+        }
+        return Double.NaN;
+    }
+
+    public void onResourceGain(IdleNumber amount) {
+        totalResourcesGained.addInPlace(amount);
         checkResourceAchievements();
     }
     
     public boolean hasAchievement(String achievementId) {
-        return unlockedAchievements.contains(achievementId);
+        int id = catalog.indexOf(achievementId);
+        return id >= 0 && unlockedAchievements.get(id);
     }
     
-    public void reset() {
+    /**
+     * Restores unlocked achievements and progress counters without re-applying rewards;
+     * the rewards are part of the restored resource and building state. Ids missing from
+     * the catalog are dropped.
+     */
+    public void restoreState(Collection<String> unlocked, long clicks, IdleNumber resourcesGained) {
         unlockedAchievements.clear();
-        totalClicks = 0;
-        totalResourcesGained = BigDecimal.ZERO;
-    }
-    
-    private void checkBuildingAchievementsNew() {
-        for (String buildingId : GameConstants.BUILDING_IDS) {
-            BuildingSystem.Building building = buildingSystem.getBuilding(buildingId);
-            if (building != null) {
-                int count = building.getCount();
-                for (int threshold : GameConstants.ACHIEVEMENT_THRESHOLDS) {
-                    if (count >= threshold) {
-                        String achievementId = buildingId + "_" + threshold;
-                        unlockAchievement(achievementId);
-                    }
-                }
+        for (String achievementId : unlocked) {
+            int id = catalog.indexOf(achievementId);
+            if (id >= 0) {
+                unlockedAchievements.set(id);
+            } else {
+                logger.warn("Ignoring unknown achievement: {}", achievementId);
             }
         }
+        totalClicks = clicks;
+        totalResourcesGained.set(resourcesGained);
+        rewindTracks();
     }
-    
-    private void checkClickAchievementsNew() {
-        for (int threshold : GameConstants.CLICK_ACHIEVEMENT_THRESHOLDS) {
-            if (totalClicks >= threshold) {
-                String achievementId = "clicks_" + threshold;
-                unlockAchievement(achievementId);
-            }
-        }
+
+    public void reset() {
+        unlockedAchievements.clear();
+        totalClicks = 0;
+        totalResourcesGained.setZero();
+        rewindTracks();
     }
-    
-    private void checkResourceAchievementsNew() {
-        for (BigDecimal threshold : GameConstants.RESOURCE_ACHIEVEMENT_THRESHOLDS) {
-            if (totalResourcesGained.compareTo(threshold) >= 0) {
-                String achievementId = "resources_" + threshold;
-                unlockAchievement(achievementId);
+
+    /**
+     * Points every track at its lowest locked threshold.
+     */
+    private void rewindTracks() {
+        // Rewound tracks must be checked again against the current counts
+        buildingSystem.getChangedCounts().set(0, tracksByBuilding.length);
+        for (int track = 0; track < nextThreshold.length; track++) {
+            int[] achievements = catalog.getTrackAchievements(track);
+            int next = 0;
+            while (next < achievements.length && unlockedAchievements.get(achievements[next])) {
+                next++;
             }
-        }
-    }
-    
-    private void applyAchievementBonus(String achievementId) {
-        // Apply achievement-specific bonuses here
-        if (achievementId.startsWith("clicks_")) {
-            buildingSystem.setClickMultiplier(buildingSystem.getClickMultiplier().multiply(GameConstants.CLICK_ACHIEVEMENT_BONUS));
+            nextThreshold[track] = next;
         }
     }
 
-    public void addResourceGain(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            totalResourcesGained = totalResourcesGained.add(amount);
+    public void addResourceGain(IdleNumber amount) {
+        if (amount.signum() > 0) {
+            totalResourcesGained.addInPlace(amount);
             checkResourceAchievements();
         }
     }
@@ -0,0 +1,184 @@
+package com.idlegame.core;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes save snapshots on a background thread so disk latency never reaches the game loop.
+ * The game loop only captures an immutable {@link SaveData} and calls {@link #submit}; if the
+ * writer is still busy, newer snapshots replace the pending one instead of queueing up.
+ * Snapshots whose content equals the last one written are skipped.
+ *
+ * <p>The writer thread is started by the first submit and stopped by {@link #close()}; a
+ * later submit starts a new one.
+ */
+public class AutosaveWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AutosaveWriter.class);
+    public static final String METRIC_SAVE_DURATION = "save.duration";
+    public static final String METRIC_SAVE_BYTES = "save.bytes";
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    private final SaveStore saveStore;
+    // Guarded by this; null until the first submit and after close
+    private ExecutorService executor;
+    private final AtomicReference<SaveData> pending = new AtomicReference<>();
+    // Only touched by the writer thread
+    private SaveData lastWritten;
+    private volatile Consumer<SaveData> saveListener = snapshot -> { };
+    private final MetricsRegistry.Histogram saveDuration;
+    private final MetricsRegistry.Histogram saveBytes;
+
+    private volatile long saves;
+    private volatile long skippedSaves;
+    private volatile long replacedSnapshots;
+    private volatile long failedSaves;
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long totalLatencyNanos;
+
+    public AutosaveWriter(SaveStore saveStore) {
+        this(saveStore, new MetricsRegistry("autosave"));
+    }
+
+    /**
+     * Creates a writer that records save durations and sizes in {@code metrics}.
+     */
+    public AutosaveWriter(SaveStore saveStore, MetricsRegistry metrics) {
+        this.saveStore = saveStore;
+        this.saveDuration = metrics.histogram(METRIC_SAVE_DURATION, "ns");
+        this.saveBytes = metrics.histogram(METRIC_SAVE_BYTES, "bytes");
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "autosave");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Hands a snapshot to the writer thread and returns immediately.
+     */
+    public void submit(SaveData snapshot) {
+        if (pending.getAndSet(snapshot) == null) {
+            executor().execute(this::writePending);
+        } else {
+            replacedSnapshots++;
+        }
+    }
+
+    /**
+     * Called on the writer thread with every snapshot once it is safely on disk.
+     */
+    public void setSaveListener(Consumer<SaveData> listener) {
+        this.saveListener = listener;
+    }
+
+    /**
+     * Blocks until every snapshot submitted so far has been written or skipped.
+     */
+    public void flush() {
+        ExecutorService current;
+        synchronized (this) {
+            current = executor;
+        }
+        if (current == null) {
+            // Nothing was submitted since the last close
+            return;
+        }
+        try {
+            current.submit(this::writePending).get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.error("Failed to flush pending save", e);
+        }
+    }
+
+    /**
+     * Flushes, then stops the writer thread so it does not outlive the game.
+     */
+    public void close() {
+        flush();
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+    }
+
+    private void writePending() {
+        SaveData snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        if (lastWritten != null && snapshot.contentEquals(lastWritten)) {
+            skippedSaves++;
+            logger.debug("Skipping save, nothing changed since the last one");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            int bytes = saveStore.save(snapshot);
+            lastWritten = snapshot;
+            long latency = System.nanoTime() - start;
+            saves++;
+            lastLatencyNanos = latency;
+            totalLatencyNanos += latency;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+            saveDuration.record(latency);
+            saveBytes.record(bytes);
+            logger.info("Game state saved successfully ({} bytes in {} us)", bytes, latency / 1000);
+            saveListener.accept(snapshot);
+        } catch (IOException e) {
+            failedSaves++;
+            logger.error("Failed to save game state", e);
+        }
+    }
+
+    public long getSaves() {
+        return saves;
+    }
+
+    /** Snapshots not written because nothing changed since the previous save. */
+    public long getSkippedSaves() {
+        return skippedSaves;
+    }
+
+    /** Snapshots superseded by a newer one before the writer got to them. */
+    public long getReplacedSnapshots() {
+        return replacedSnapshots;
+    }
+
+    public long getFailedSaves() {
+        return failedSaves;
+    }
+
+    /** Time to encode, write, fsync and rename the most recent save. */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    public long getAverageLatencyNanos() {
+        long count = saves;
+        return count == 0 ? 0 : totalLatencyNanos / count;
+    }
+}
@@ -0,0 +1,61 @@
+package com.idlegame.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, ordered set of {@link BuildingDefinition}s. Catalogs are built once and
+ * shared between all game instances; the standard catalog comes from {@link GameConstants}.
+ */
+public final class BuildingCatalog {
+    private final BuildingDefinition[] definitions;
+    private final Map<String, Integer> ordinals;
+
+    private static final class StandardHolder {
+        static final BuildingCatalog INSTANCE = new BuildingCatalog(
+            GameConstants.BUILDING_IDS,
+            GameConstants.BUILDING_BASE_COSTS,
+            GameConstants.BUILDING_COST_MULTIPLIERS,
+            GameConstants.BUILDING_BASE_PRODUCTION
+        );
+    }
+
+    public BuildingCatalog(String[] ids, double[] baseCosts, double[] costMultipliers, double[] baseProduction) {
+        if (ids.length != baseCosts.length || ids.length != costMultipliers.length || ids.length != baseProduction.length) {
+            throw new IllegalArgumentException("Building definition arrays must have the same length");
+        }
+        this.definitions = new BuildingDefinition[ids.length];
+        Map<String, Integer> index = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            definitions[i] = new BuildingDefinition(ids[i], i, baseCosts[i], costMultipliers[i], baseProduction[i]);
+            if (index.put(ids[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate building id: " + ids[i]);
+            }
+        }
+        this.ordinals = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * The catalog of buildings defined in {@link GameConstants}, loaded on first use.
+     */
+    public static BuildingCatalog standard() {
+        return StandardHolder.INSTANCE;
+    }
+
+    public int size() {
+        return definitions.length;
+    }
+
+    public BuildingDefinition get(int ordinal) {
+        return definitions[ordinal];
+    }
+
+    /**
+     * Ordinal of a building id, or -1 if the catalog does not contain it.
+     */
+    public int indexOf(String buildingId) {
+        Integer ordinal = ordinals.get(buildingId);
+        return ordinal == null ? -1 : ordinal;
+    }
+}
@@ -0,0 +1,112 @@
+package com.idlegame.core;
+
+/**
+ * Immutable description of a building type. A single instance per type is shared by
+ * every {@link BuildingSystem}; per-player state lives in the system's arrays.
+ */
+public final class BuildingDefinition {
+    private final String id;
+    private final int ordinal;
+    private final IdleNumber baseCost;
+    private final double costMultiplier;
+    private final IdleNumber baseProduction;
+
+    public BuildingDefinition(String id, int ordinal, double baseCost, double costMultiplier, double baseProduction) {
+        this.id = id;
+        this.ordinal = ordinal;
+        this.baseCost = IdleNumber.of(baseCost);
+        this.costMultiplier = costMultiplier;
+        this.baseProduction = IdleNumber.of(baseProduction);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Index of this building in its catalog and in every system's state arrays.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public IdleNumber getBaseCost() {
+        return baseCost.copy();
+    }
+
+    public double getCostMultiplier() {
+        return costMultiplier;
+    }
+
+    public IdleNumber getBaseProduction() {
+        return baseProduction.copy();
+    }
+
+    /**
+     * Writes {@code baseCost * costMultiplier^count} into {@code out}.
+     */
+    public IdleNumber costAt(int count, IdleNumber out) {
+        return out.set(costMultiplier).powInPlace(count).multiplyInPlace(baseCost);
+    }
+
+    /**
+     * Writes the total cost of buying {@code amount} buildings when {@code owned} are
+     * already owned into {@code out}, using the geometric series
+     * {@code baseCost * r^owned * (r^amount - 1) / (r - 1)} so the work is O(1) in amount.
+     */
+    public IdleNumber bulkCostAt(int owned, long amount, IdleNumber out) {
+        if (amount <= 0) {
+            return out.setZero();
+        }
+        if (amount == 1) {
+            return costAt(owned, out);
+        }
+        if (costMultiplier == 1.0) {
+            return out.set(baseCost).multiplyInPlace(amount);
+        }
+        out.set(costMultiplier).powInPlace(amount).addInPlace(-1.0).divideInPlace(costMultiplier - 1.0);
+        return out.multiplyByPowerInPlace(costMultiplier, owned).multiplyInPlace(baseCost);
+    }
+
+    /**
+     * Largest number of buildings purchasable with {@code budget} when {@code owned} are
+     * already owned. Inverts the geometric series with a logarithm, then corrects the
+     * floating-point estimate against {@link #bulkCostAt}, so the work is O(1).
+     * {@code scratch} is overwritten.
+     */
+    public int maxAffordable(int owned, IdleNumber budget, IdleNumber scratch) {
+        long limit = (long) Integer.MAX_VALUE - owned;
+        if (limit <= 0 || budget.compareTo(costAt(owned, scratch)) < 0) {
+            return 0;
+        }
+
+        double estimate;
+        if (costMultiplier == 1.0) {
+            estimate = scratch.set(budget).divideInPlace(baseCost).toDouble();
+        } else {
+            // r^n <= budget * (r - 1) / (baseCost * r^owned) + 1
+            scratch.set(budget)
+                .multiplyInPlace(costMultiplier - 1.0)
+                .divideInPlace(baseCost)
+                .multiplyByPowerInPlace(costMultiplier, -owned)
+                .addInPlace(1.0);
+            estimate = scratch.log10() / Math.log10(costMultiplier);
+        }
+        long amount = (long) Math.max(1.0, Math.min((double) limit, Math.floor(estimate)));
+
+        while (amount > 1 && bulkCostAt(owned, amount, scratch).compareTo(budget) > 0) {
+            amount--;
+        }
+        while (amount < limit && bulkCostAt(owned, amount + 1, scratch).compareTo(budget) <= 0) {
+            amount++;
+        }
+        return (int) amount;
+    }
+
+    /**
+     * Writes {@code baseProduction * count * efficiency} into {@code out}.
+     */
+    public IdleNumber productionAt(int count, double efficiency, IdleNumber out) {
+        return out.set(baseProduction).multiplyInPlace(count).multiplyInPlace(efficiency);
+    }
+}
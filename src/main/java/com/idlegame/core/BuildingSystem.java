@@ -1,158 +1,402 @@
 package com.idlegame.core;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Per-player building state. Building types are shared {@link BuildingDefinition}s from a
+ * {@link BuildingCatalog}; this class only keeps dense arrays indexed by building ordinal
+ * (counts, efficiency bonuses and cached production), so a game instance costs a few
+ * primitive arrays regardless of how many players share the JVM.
+ *
+ * <p>Total production, the efficiency multiplier, the prestige multiplier and the click
+ * bonus are inputs of the {@link StatGraph} shared with the resource system; they are
+ * only set when a purchase, bonus or prestige changes them.
+ */
 public class BuildingSystem {
     private static final Logger logger = LoggerFactory.getLogger(BuildingSystem.class);
-    private final Map<String, Building> buildings;
+    public static final String STAT_PRODUCTION = "buildings.production";
+    public static final String STAT_EFFICIENCY = "buildings.efficiency";
+    public static final String STAT_PRESTIGE = "prestige";
+    public static final String STAT_CLICK_BONUS = "click.buildings";
+    public static final String STAT_OUTPUT = "buildings.output";
+    // Purchases patch the total in place; every this many it is re-summed to shed rounding drift
+    private static final int TOTALS_REBUILD_INTERVAL = 1024;
+    private final BuildingCatalog catalog;
     private final ResourceSystem resourceSystem;
-    private BigDecimal prestigeMultiplier = BigDecimal.ONE;
-    private BigDecimal clickMultiplier = BigDecimal.ONE;
+    private final FlightRecorder recorder;
+
+    // Per-player state, indexed by BuildingDefinition ordinal
+    private final int[] counts;
+    private final double[] efficiencyBonuses;
+    private final double[] productionMantissas;
+    private final long[] productionExponents;
+
+    private int totalBuildingCount;
+    // Ordinals whose count changed since the achievement system last checked them
+    private final BitSet changedCounts;
+    // Sum of cached per-building production, before the prestige multiplier
+    private final IdleNumber totalProduction = IdleNumber.zero();
+    private int updatesSinceRebuild;
+    // Product of all efficiency bonuses
+    private final IdleNumber buildingMultiplier = IdleNumber.one();
+    private final StatGraph.Stat productionStat;
+    private final StatGraph.Stat efficiencyStat;
+    private final StatGraph.Stat prestigeMultiplier;
+    private final StatGraph.Stat clickMultiplier;
+    // Production after the prestige multiplier
+    private final StatGraph.Stat output;
+    private final IdleNumber scratch = new IdleNumber();
+    // Views handed out by getBuilding, created on first use
+    private Building[] views;
 
     public BuildingSystem(ResourceSystem resourceSystem) {
+        this(resourceSystem, BuildingCatalog.standard());
+    }
+
+    public BuildingSystem(ResourceSystem resourceSystem, BuildingCatalog catalog) {
         this.resourceSystem = resourceSystem;
-        this.buildings = new HashMap<>();
+        this.recorder = resourceSystem.getRecorder();
+        this.catalog = catalog;
+        int size = catalog.size();
+        this.counts = new int[size];
+        this.efficiencyBonuses = new double[size];
+        this.productionMantissas = new double[size];
+        this.productionExponents = new long[size];
+        this.changedCounts = new BitSet(size);
+        StatGraph stats = resourceSystem.getStats();
+        this.productionStat = stats.input(STAT_PRODUCTION, 0.0);
+        this.efficiencyStat = stats.input(STAT_EFFICIENCY, 1.0);
+        this.prestigeMultiplier = stats.input(STAT_PRESTIGE, 1.0);
+        this.clickMultiplier = stats.input(STAT_CLICK_BONUS, 1.0);
+        // Fails if the resource system already serves another building system
+        this.output = stats.product(STAT_OUTPUT, productionStat, prestigeMultiplier);
         initializeBuildings();
     }
 
     private void initializeBuildings() {
-        for (int i = 0; i < GameConstants.BUILDING_IDS.length; i++) {
-            String buildingId = GameConstants.BUILDING_IDS[i];
-            buildings.put(buildingId, new Building(
-                buildingId,
-                GameConstants.BUILDING_BASE_COSTS[i],
-                GameConstants.BUILDING_COST_MULTIPLIERS[i],
-                GameConstants.BUILDING_BASE_PRODUCTION[i]
-            ));
-        }
+        Arrays.fill(counts, 0);
+        Arrays.fill(efficiencyBonuses, 1.0);
+        Arrays.fill(productionMantissas, 0.0);
+        Arrays.fill(productionExponents, 0L);
+        totalBuildingCount = 0;
+        changedCounts.set(0, counts.length);
+        totalProduction.setZero();
+        buildingMultiplier.set(1.0);
+        productionStat.set(totalProduction);
+        efficiencyStat.set(buildingMultiplier);
     }
 
     public void purchaseBuilding(String buildingId) {
-        Building building = buildings.get(buildingId);
-        if (building == null) {
+        int index = catalog.indexOf(buildingId);
+        if (index < 0) {
             logger.error("Attempted to purchase non-existent building: {}", buildingId);
             return;
         }
+        purchaseBuilding(index);
+    }
 
-        BigDecimal cost = building.getNextCost();
-        if (resourceSystem.canAfford(GameConstants.PRIMARY_CURRENCY, cost)) {
-            resourceSystem.spend(GameConstants.PRIMARY_CURRENCY, cost);
-            building.incrementCount();
-            logger.info("Purchased building: {} for {}", buildingId, cost);
+    public void purchaseBuilding(int index) {
+        BuildingDefinition definition = catalog.get(index);
+        IdleNumber cost = definition.costAt(counts[index], new IdleNumber());
+        if (resourceSystem.canAfford(ResourceRegistry.PRIMARY, cost)) {
+            resourceSystem.spend(ResourceRegistry.PRIMARY, cost);
+            counts[index]++;
+            totalBuildingCount++;
+            changedCounts.set(index);
+            refreshProduction(index);
+            recorder.record(FlightRecorder.Event.PURCHASE, index, cost);
+            emitPurchase(definition, 1, cost, true);
         } else {
-            logger.debug("Cannot afford building: {} (cost: {})", buildingId, cost);
+            recorder.record(FlightRecorder.Event.PURCHASE_DENIED, index, cost);
+            emitPurchase(definition, 1, cost, false);
+        }
+    }
+
+    /**
+     * Buys {@code amount} buildings as one all-or-nothing purchase with a single spend.
+     *
+     * @return true if the whole batch was affordable and bought
+     */
+    public boolean purchaseBulk(String buildingId, int amount) {
+        int index = catalog.indexOf(buildingId);
+        if (index < 0) {
+            logger.error("Attempted to purchase non-existent building: {}", buildingId);
+            return false;
+        }
+        return purchaseBulk(index, amount);
+    }
+
+    public boolean purchaseBulk(int index, int amount) {
+        if (amount <= 0 || amount > Integer.MAX_VALUE - counts[index]) {
+            return false;
+        }
+        BuildingDefinition definition = catalog.get(index);
+        IdleNumber cost = definition.bulkCostAt(counts[index], amount, new IdleNumber());
+        if (!resourceSystem.canAfford(ResourceRegistry.PRIMARY, cost)) {
+            recorder.record(FlightRecorder.Event.PURCHASE_DENIED, index, cost);
+            emitPurchase(definition, amount, cost, false);
+            return false;
         }
+        resourceSystem.spend(ResourceRegistry.PRIMARY, cost);
+        counts[index] += amount;
+        totalBuildingCount += amount;
+        changedCounts.set(index);
+        refreshProduction(index);
+        recorder.record(FlightRecorder.Event.PURCHASE, index, cost);
+        emitPurchase(definition, amount, cost, true);
+        return true;
     }
 
-    public BigDecimal getProduction() {
-        BigDecimal totalProduction = BigDecimal.ZERO;
-        for (Building building : buildings.values()) {
-            totalProduction = totalProduction.add(building.getCurrentProduction());
+    private static void emitPurchase(BuildingDefinition definition, int amount, IdleNumber cost, boolean purchased) {
+        GameEvents.BuildingPurchase event = new GameEvents.BuildingPurchase();
+        if (event.isEnabled()) {
+            event.building = definition.getId();
+            event.amount = amount;
+            event.cost = cost.toDouble();
+            event.purchased = purchased;
+            event.commit();
         }
-        return totalProduction.multiply(prestigeMultiplier);
     }
 
-    public BigDecimal getBuildingMultiplier(String resourceId) {
-        BigDecimal multiplier = BigDecimal.ONE;
-        for (Building building : buildings.values()) {
-            multiplier = multiplier.multiply(building.getMultiplierEffect());
+    /**
+     * Total cost of the next {@code amount} buildings of a type, in O(1).
+     */
+    public IdleNumber costOf(String buildingId, int amount) {
+        return costOf(requireIndex(buildingId), amount);
+    }
+
+    public IdleNumber costOf(int index, int amount) {
+        return catalog.get(index).bulkCostAt(counts[index], amount, new IdleNumber());
+    }
+
+    /**
+     * Largest number of buildings of a type that {@code budget} pays for, in O(1).
+     */
+    public int maxAffordable(String buildingId, IdleNumber budget) {
+        return maxAffordable(requireIndex(buildingId), budget);
+    }
+
+    public int maxAffordable(int index, IdleNumber budget) {
+        return catalog.get(index).maxAffordable(counts[index], budget, scratch);
+    }
+
+    private int requireIndex(String buildingId) {
+        int index = catalog.indexOf(buildingId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown building: " + buildingId);
         }
-        return multiplier;
+        return index;
+    }
+
+    public IdleNumber getProduction() {
+        return output.get();
+    }
+
+    /**
+     * Writes the production of all buildings, after the prestige multiplier, into {@code out}.
+     */
+    public IdleNumber productionInto(IdleNumber out) {
+        return output.valueInto(out);
+    }
+
+    /**
+     * Production stat after the prestige multiplier; its inputs are the breakdown.
+     */
+    public StatGraph.Stat getProductionStat() {
+        return output;
+    }
+
+    public IdleNumber getBuildingMultiplier(String resourceId) {
+        return efficiencyStat.get();
+    }
+
+    /**
+     * Multiplies {@code value} in place by the building multiplier for a resource.
+     */
+    public void applyBuildingMultiplier(String resourceId, IdleNumber value) {
+        efficiencyStat.multiplyInto(value);
     }
 
-    public void setPrestigeMultiplier(BigDecimal multiplier) {
-        this.prestigeMultiplier = multiplier;
+    public void setPrestigeMultiplier(IdleNumber multiplier) {
+        this.prestigeMultiplier.set(multiplier);
     }
 
-    public BigDecimal getClickMultiplier() {
-        return clickMultiplier;
+    public IdleNumber getClickMultiplier() {
+        return clickMultiplier.get();
     }
 
-    public void setClickMultiplier(BigDecimal multiplier) {
-        this.clickMultiplier = multiplier;
+    public void setClickMultiplier(IdleNumber multiplier) {
+        this.clickMultiplier.set(multiplier);
+    }
+
+    public BuildingCatalog getCatalog() {
+        return catalog;
     }
 
     public Building getBuilding(String buildingId) {
-        return buildings.get(buildingId);
+        int index = catalog.indexOf(buildingId);
+        if (index < 0) {
+            return null;
+        }
+        if (views == null) {
+            views = new Building[catalog.size()];
+        }
+        if (views[index] == null) {
+            views[index] = new Building(index);
+        }
+        return views[index];
+    }
+
+    public int getCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Writes the cost of the next building of the given ordinal into {@code out}.
+     */
+    public IdleNumber nextCostInto(int index, IdleNumber out) {
+        return catalog.get(index).costAt(counts[index], out);
+    }
+
+    /**
+     * Writes the current production of the given ordinal, before prestige, into {@code out}.
+     */
+    public IdleNumber productionInto(int index, IdleNumber out) {
+        return out.set(productionMantissas[index], productionExponents[index]);
     }
 
     public int getTotalBuildingCount() {
-        int total = 0;
-        for (Building building : buildings.values()) {
-            total += building.getCount();
-        }
-        return total;
+        return totalBuildingCount;
+    }
+
+    /**
+     * Ordinals whose count changed since the set was last cleared. The achievement system
+     * checks and clears it, so per-building tracks are only checked after a purchase or restore.
+     */
+    BitSet getChangedCounts() {
+        return changedCounts;
     }
 
     public void reset() {
-        buildings.clear();
         initializeBuildings();
-        prestigeMultiplier = BigDecimal.ONE;
-        clickMultiplier = BigDecimal.ONE;
+        prestigeMultiplier.set(1.0);
+        clickMultiplier.set(1.0);
     }
 
     public void restoreState(BuildingSystem other) {
-        this.prestigeMultiplier = other.prestigeMultiplier;
-        this.clickMultiplier = other.clickMultiplier;
-        this.buildings.clear();
-        this.buildings.putAll(other.buildings);
+        if (other.catalog != catalog) {
+            throw new IllegalArgumentException("Cannot restore building state from a different catalog");
+        }
+        this.prestigeMultiplier.set(other.prestigeMultiplier.get());
+        this.clickMultiplier.set(other.clickMultiplier.get());
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+        System.arraycopy(other.efficiencyBonuses, 0, efficiencyBonuses, 0, efficiencyBonuses.length);
+        changedCounts.set(0, counts.length);
+        refreshAll();
+    }
+
+    /**
+     * Restores counts and efficiency bonuses indexed by building ordinal, e.g. from a save.
+     */
+    public void restoreState(int[] counts, double[] efficiencyBonuses) {
+        if (counts.length != this.counts.length || efficiencyBonuses.length != this.efficiencyBonuses.length) {
+            throw new IllegalArgumentException("Building state does not match the catalog size");
+        }
+        System.arraycopy(counts, 0, this.counts, 0, counts.length);
+        System.arraycopy(efficiencyBonuses, 0, this.efficiencyBonuses, 0, efficiencyBonuses.length);
+        changedCounts.set(0, counts.length);
+        refreshAll();
+    }
+
+    public double getEfficiencyBonus(int index) {
+        return efficiencyBonuses[index];
     }
 
-    public void applyEfficiencyBonus(BigDecimal bonus) {
-        for (Building building : buildings.values()) {
-            building.applyEfficiencyBonus(bonus);
+    public void applyEfficiencyBonus(double bonus) {
+        for (int i = 0; i < efficiencyBonuses.length; i++) {
+            efficiencyBonuses[i] *= bonus;
+        }
+        refreshAll();
+    }
+
+    /**
+     * Updates one ordinal after its count changed, in O(1): its old production is swapped for
+     * the new one in the total, and the efficiency product is untouched.
+     */
+    private void refreshProduction(int index) {
+        totalProduction.subtractInPlace(scratch.set(productionMantissas[index], productionExponents[index]));
+        catalog.get(index).productionAt(counts[index], efficiencyBonuses[index], scratch);
+        productionMantissas[index] = scratch.getMantissa();
+        productionExponents[index] = scratch.getExponent();
+        totalProduction.addInPlace(scratch);
+        if (++updatesSinceRebuild >= TOTALS_REBUILD_INTERVAL || totalProduction.signum() < 0) {
+            refreshTotals();
+        } else {
+            productionStat.set(totalProduction);
         }
     }
 
-    public static class Building {
-        private final String id;
-        private final BigDecimal baseCost;
-        private final BigDecimal costMultiplier;
-        private final BigDecimal baseProduction;
-        private int count;
-        private BigDecimal efficiencyBonus;
+    private void refreshAll() {
+        totalBuildingCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            catalog.get(i).productionAt(counts[i], efficiencyBonuses[i], scratch);
+            productionMantissas[i] = scratch.getMantissa();
+            productionExponents[i] = scratch.getExponent();
+            totalBuildingCount += counts[i];
+        }
+        refreshTotals();
+    }
 
-        public Building(String id, BigDecimal baseCost, BigDecimal costMultiplier, BigDecimal baseProduction) {
-            this.id = id;
-            this.baseCost = baseCost;
-            this.costMultiplier = costMultiplier;
-            this.baseProduction = baseProduction;
-            this.count = 0;
-            this.efficiencyBonus = BigDecimal.ONE;
+    private void refreshTotals() {
+        updatesSinceRebuild = 0;
+        totalProduction.setZero();
+        buildingMultiplier.set(1.0);
+        for (int i = 0; i < counts.length; i++) {
+            totalProduction.addInPlace(scratch.set(productionMantissas[i], productionExponents[i]));
+            buildingMultiplier.multiplyInPlace(efficiencyBonuses[i]);
         }
+        productionStat.set(totalProduction);
+        efficiencyStat.set(buildingMultiplier);
+    }
 
-        public String getId() {
-            return id;
+    /**
+     * Live view of one building type in this system.
+     */
+    public final class Building {
+        private final int index;
+
+        private Building(int index) {
+            this.index = index;
         }
 
-        public int getCount() {
-            return count;
+        public String getId() {
+            return catalog.get(index).getId();
         }
 
-        public void incrementCount() {
-            count++;
+        public BuildingDefinition getDefinition() {
+            return catalog.get(index);
         }
 
-        public BigDecimal getNextCost() {
-            return baseCost.multiply(costMultiplier.pow(count));
+        public int getCount() {
+            return counts[index];
         }
 
-        public BigDecimal getCurrentProduction() {
-            return baseProduction
-                .multiply(BigDecimal.valueOf(count))
-                .multiply(efficiencyBonus);
+        /**
+         * Cost of the next purchase: {@code baseCost * costMultiplier^count}, in O(1).
+         */
+        public IdleNumber getNextCost() {
+            return nextCostInto(index, new IdleNumber());
         }
 
-        public BigDecimal getMultiplierEffect() {
-            return efficiencyBonus;
+        public IdleNumber getCurrentProduction() {
+            return new IdleNumber(productionMantissas[index], productionExponents[index]);
         }
 
-        public void applyEfficiencyBonus(BigDecimal bonus) {
-            this.efficiencyBonus = this.efficiencyBonus.multiply(bonus);
+        public IdleNumber getMultiplierEffect() {
+            return IdleNumber.of(efficiencyBonuses[index]);
         }
     }
 }
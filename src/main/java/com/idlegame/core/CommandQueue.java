@@ -0,0 +1,182 @@
+package com.idlegame.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free multi-producer single-consumer queue of {@link PlayerCommand}s.
+ *
+ * <p>Any thread may {@link #offer}; producers only swap the tail with one atomic
+ * {@code getAndSet} and never block each other or the consumer. Only the game loop
+ * thread may {@link #drain}. This is the intrusive linked queue due to Dmitry Vyukov: a
+ * producer that has swapped the tail but not yet linked its node makes the queue look
+ * empty to the consumer for a moment, and its command is simply picked up next tick.
+ *
+ * <p>Clicks never enter the linked queue. They only bump a counter, so an auto-clicker
+ * costs one atomic add per click, and each drain hands all of them over as a single
+ * click command ahead of the queued commands. Clicks only ever add currency, so applying
+ * them first can never make a purchase of the same tick fail.
+ *
+ * <p>Drains record how long commands waited and how many actions each tick applied.
+ */
+public class CommandQueue {
+
+    private static final class Node {
+        PlayerCommand command;
+        final long enqueuedNanos;
+        volatile Node next;
+
+        Node(PlayerCommand command, long enqueuedNanos) {
+            this.command = command;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private final AtomicReference<Node> tail;
+    // Only touched by the consumer
+    private Node head;
+    private final AtomicLong pendingClicks = new AtomicLong();
+    // When pendingClicks last went up from zero
+    private volatile long firstClickNanos;
+
+    private final LongAdder offered = new LongAdder();
+    private volatile long drained;
+    private volatile long drainedClicks;
+    private volatile long batches;
+    private volatile long lastBatchSize;
+    private volatile long maxBatchSize;
+    private volatile long latencySamples;
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long totalLatencyNanos;
+
+    public CommandQueue() {
+        Node stub = new Node(null, 0);
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Enqueues a command. Safe to call from any thread.
+     */
+    public void offer(PlayerCommand command) {
+        if (command.getType() == PlayerCommand.Type.CLICK) {
+            if (pendingClicks.getAndAdd(command.getAmount()) == 0) {
+                firstClickNanos = System.nanoTime();
+            }
+            return;
+        }
+        Node node = new Node(command, System.nanoTime());
+        Node previous = tail.getAndSet(node);
+        previous.next = node;
+        offered.increment();
+    }
+
+    /**
+     * Hands every pending click, as one click command, and then every queued command to
+     * {@code handler} in submission order. Only the consumer thread may call this.
+     *
+     * @return number of actions drained, counting each click
+     */
+    public long drain(Consumer<PlayerCommand> handler) {
+        long count = 0;
+        long samples = 0;
+        long now = System.nanoTime();
+        long latencySum = 0;
+        long latencyMax = maxLatencyNanos;
+        long latency = 0;
+
+        long clicks = pendingClicks.getAndSet(0);
+        if (clicks > 0) {
+            // May be a moment stale if the first producer has not stored its time yet
+            latency = Math.max(0, now - firstClickNanos);
+            latencySum += latency;
+            latencyMax = Math.max(latencyMax, latency);
+            samples++;
+            handler.accept(PlayerCommand.clicks(clicks));
+            count += clicks;
+            drainedClicks += clicks;
+        }
+
+        Node next = head.next;
+        while (next != null) {
+            PlayerCommand command = next.command;
+            latency = now - next.enqueuedNanos;
+            latencySum += latency;
+            latencyMax = Math.max(latencyMax, latency);
+            samples++;
+            next.command = null;
+            // Unlink the consumed node: a dead node promoted to the old generation that still
+            // points at young ones would keep every later node alive until a full GC
+            Node consumed = head;
+            head = next;
+            consumed.next = null;
+            handler.accept(command);
+            count++;
+            next = head.next;
+        }
+
+        batches++;
+        lastBatchSize = count;
+        if (count > 0) {
+            drained += count;
+            maxBatchSize = Math.max(maxBatchSize, count);
+            latencySamples += samples;
+            lastLatencyNanos = latency;
+            maxLatencyNanos = latencyMax;
+            totalLatencyNanos += latencySum;
+        }
+        return count;
+    }
+
+    /** Best-effort, may race with producers. */
+    public boolean isEmpty() {
+        return pendingClicks.get() == 0 && head.next == null;
+    }
+
+    /** Actions offered so far, counting each click. */
+    public long getOffered() {
+        return offered.sum() + drainedClicks + pendingClicks.get();
+    }
+
+    public long getDrained() {
+        return drained;
+    }
+
+    /** Number of drains, i.e. ticks. */
+    public long getBatches() {
+        return batches;
+    }
+
+    /** Actions applied by the most recent tick. */
+    public long getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /** Average actions applied per tick. */
+    public double getAverageBatchSize() {
+        long count = batches;
+        return count == 0 ? 0 : (double) drained / count;
+    }
+
+    /** Time from offer to drain of the last action in the most recent non-empty batch. */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /** Average wait per queued command or click batch. */
+    public long getAverageLatencyNanos() {
+        long count = latencySamples;
+        return count == 0 ? 0 : totalLatencyNanos / count;
+    }
+}
@@ -0,0 +1,600 @@
+package com.idlegame.core;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of the state-changing events since the last full save.
+ *
+ * <pre>
+ * file    magic "IDLJ" (int) | version (short) | record*
+ * record  payload length | payload | CRC32 of payload (int)
+ * payload type (byte) | sequence | clock millis | type-specific fields
+ * </pre>
+ *
+ * Varints and strings are encoded as in {@link SaveCodec}. Appends only go to an in-memory
+ * buffer; a background thread writes it out and fsyncs every
+ * {@link GameConstants#JOURNAL_FLUSH_INTERVAL} ms, so at most that much play is lost in a
+ * crash while the game loop never waits on the disk. Each full save records the last
+ * sequence it covers and {@link #compact} then drops every record up to it, so the journal
+ * only ever holds the tail since the newest snapshot. Reading stops at the first torn or
+ * corrupt record, and opening the journal truncates such a tail before appending. If the
+ * file cannot be opened, or a compaction fails to replace it, the journal disables itself and
+ * drops appends rather than buffering them for the rest of the session.
+ */
+public class EventJournal {
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+    public static final String JOURNAL_FILE = "journal.log";
+    public static final int MAGIC = 0x49444C4A; // "IDLJ"
+    public static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2;
+    private static final int CRC_BYTES = 4;
+    private static final int INITIAL_BUFFER_BYTES = 4096;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Kinds of journal record. Tags are part of the file format and must never change.
+     */
+    public enum Type {
+        CLICKS(1),
+        BUILDING(2),
+        UPGRADE(3),
+        PRESTIGE(4),
+        ACHIEVEMENT(5),
+        HEARTBEAT(6);
+
+        private final int tag;
+
+        Type(int tag) {
+            this.tag = tag;
+        }
+
+        public int getTag() {
+            return tag;
+        }
+
+        static Type forTag(int tag) {
+            for (Type type : values()) {
+                if (type.tag == tag) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One decoded journal record. {@code id} is the building, upgrade or achievement id and
+     * {@code amount} the click or building count, depending on the type.
+     */
+    public static final class Record {
+        private final Type type;
+        private final long sequence;
+        private final long timeMillis;
+        private final String id;
+        private final long amount;
+
+        Record(Type type, long sequence, long timeMillis, String id, long amount) {
+            this.type = type;
+            this.sequence = sequence;
+            this.timeMillis = timeMillis;
+            this.id = id;
+            this.amount = amount;
+        }
+
+        public Type getType() { return type; }
+        public long getSequence() { return sequence; }
+        public long getTimeMillis() { return timeMillis; }
+        public String getId() { return id; }
+        public long getAmount() { return amount; }
+    }
+
+    private final Path path;
+    private final long flushIntervalMillis;
+    // Guards the channel and the file; always taken before the buffer lock (this)
+    private final Object ioLock = new Object();
+    private FileChannel channel;
+    private ScheduledExecutorService flusher;
+
+    // Guarded by this
+    private ByteBuffer active = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private ByteBuffer standby = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private long lastSequence;
+    private long size;
+    private boolean opened;
+    private boolean disabled;
+
+    private volatile long records;
+    private volatile long bytesWritten;
+    private volatile long flushes;
+    private volatile long compactions;
+
+    public EventJournal(Path path) {
+        this(path, GameConstants.JOURNAL_FLUSH_INTERVAL);
+    }
+
+    public EventJournal(Path path, long flushIntervalMillis) {
+        this.path = path;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void appendClicks(long timeMillis, long count) {
+        append(Type.CLICKS, timeMillis, null, count);
+    }
+
+    public void appendBuilding(long timeMillis, String buildingId, int amount) {
+        append(Type.BUILDING, timeMillis, buildingId, amount);
+    }
+
+    public void appendUpgrade(long timeMillis, String upgradeId) {
+        append(Type.UPGRADE, timeMillis, upgradeId, 0);
+    }
+
+    public void appendPrestige(long timeMillis) {
+        append(Type.PRESTIGE, timeMillis, null, 0);
+    }
+
+    public void appendAchievement(long timeMillis, String achievementId) {
+        append(Type.ACHIEVEMENT, timeMillis, achievementId, 0);
+    }
+
+    /**
+     * Records that the game was still running at {@code timeMillis}, so a replay after a
+     * crash knows how far live play got.
+     */
+    public void appendHeartbeat(long timeMillis) {
+        append(Type.HEARTBEAT, timeMillis, null, 0);
+    }
+
+    private void append(Type type, long timeMillis, String id, long amount) {
+        ensureOpen();
+        synchronized (this) {
+            if (disabled) {
+                return;
+            }
+            ByteBuffer framed = encode(new Record(type, ++lastSequence, timeMillis, id, amount));
+            if (active.remaining() < framed.remaining()) {
+                ByteBuffer grown = ByteBuffer.allocate(
+                    Math.max(active.capacity() * 2, active.position() + framed.remaining()));
+                active.flip();
+                grown.put(active);
+                active = grown;
+            }
+            size += framed.remaining();
+            active.put(framed);
+            records++;
+        }
+    }
+
+    /**
+     * Sequence number of the newest record appended so far, 0 if the journal is empty.
+     */
+    public long getLastSequence() {
+        ensureOpen();
+        synchronized (this) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * True once opening or compacting the file failed; appends are then dropped and only full saves
+     * persist progress.
+     */
+    public synchronized boolean isDisabled() {
+        return disabled;
+    }
+
+    /**
+     * Bytes in the journal, including records not yet flushed; 0 before it is opened.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Writes every buffered record to the file and fsyncs it; does nothing if no record
+     * was appended since the last flush.
+     */
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            if (channel == null) {
+                return;
+            }
+            if (writeBuffered()) {
+                channel.force(false);
+                flushes++;
+            }
+        }
+    }
+
+    // Caller holds ioLock. Swaps buffers so appends carry on while the standby one is written.
+    private boolean writeBuffered() throws IOException {
+        ByteBuffer toWrite;
+        synchronized (this) {
+            if (active.position() == 0) {
+                return false;
+            }
+            toWrite = active;
+            active = standby;
+            standby = toWrite;
+        }
+        toWrite.flip();
+        while (toWrite.hasRemaining()) {
+            bytesWritten += channel.write(toWrite);
+        }
+        toWrite.clear();
+        return true;
+    }
+
+    /**
+     * Reads every record with a sequence number above {@code afterSequence}.
+     */
+    public List<Record> readAfter(long afterSequence) throws IOException {
+        synchronized (ioLock) {
+            if (channel != null) {
+                writeBuffered();
+            }
+            if (!Files.exists(path)) {
+                return Collections.emptyList();
+            }
+            List<Record> tail = new ArrayList<>();
+            ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(path));
+            checkHeader(file);
+            for (Record record : decode(file)) {
+                if (record.getSequence() > afterSequence) {
+                    tail.add(record);
+                }
+            }
+            return tail;
+        }
+    }
+
+    /**
+     * Drops every record up to and including {@code throughSequence}, which a full save now
+     * covers. The remaining tail is written to a temp file that replaces the journal; the old
+     * file stays open until then. If the replacement fails the journal is disabled.
+     */
+    public void compact(long throughSequence) throws IOException {
+        synchronized (ioLock) {
+            if (channel == null) {
+                return;
+            }
+            FileChannel replacement;
+            List<Record> tail;
+            try {
+                tail = readAfter(throughSequence);
+                replacement = replace(tail);
+            } catch (IOException e) {
+                logger.error("Failed to compact event journal {}, journaling disabled", path, e);
+                disable();
+                throw e;
+            }
+            FileChannel previous = channel;
+            channel = replacement;
+            try {
+                previous.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close replaced event journal {}", path, e);
+            }
+            synchronized (this) {
+                size = channel.size() + active.position();
+            }
+            compactions++;
+            logger.debug("Compacted journal through sequence {}, {} records kept", throughSequence, tail.size());
+        }
+    }
+
+    // Caller holds ioLock. Writes tail to the temp file, moves it over the journal and opens it.
+    private FileChannel replace(List<Record> tail) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try {
+            try (FileChannel out = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES);
+                file.putInt(MAGIC).putShort((short) FORMAT_VERSION).flip();
+                writeFully(out, file);
+                for (Record record : tail) {
+                    writeFully(out, encode(record));
+                }
+                out.force(false);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+        FileChannel replacement = FileChannel.open(path, StandardOpenOption.WRITE);
+        replacement.position(replacement.size());
+        return replacement;
+    }
+
+    /**
+     * Flushes outstanding records and releases the file. A later append reopens it.
+     */
+    public void close() {
+        synchronized (ioLock) {
+            if (channel != null) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    logger.error("Failed to flush event journal on close", e);
+                } finally {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        logger.error("Failed to close event journal", e);
+                    }
+                    channel = null;
+                }
+            }
+            if (flusher != null) {
+                flusher.shutdownNow();
+                flusher = null;
+            }
+            synchronized (this) {
+                // A disabled journal stays disabled instead of reopening on the next append
+                if (!disabled) {
+                    opened = false;
+                }
+            }
+        }
+    }
+
+    /** Whether the journal holds the file or its flusher thread. */
+    boolean isOpen() {
+        synchronized (ioLock) {
+            return channel != null || flusher != null;
+        }
+    }
+
+    private void ensureOpen() {
+        synchronized (this) {
+            if (opened) {
+                return;
+            }
+        }
+        synchronized (ioLock) {
+            synchronized (this) {
+                if (opened) {
+                    return;
+                }
+            }
+            try {
+                open();
+                synchronized (this) {
+                    opened = true;
+                }
+            } catch (IOException e) {
+                logger.error("Failed to open event journal {}, journaling disabled", path, e);
+                disable();
+            }
+        }
+    }
+
+    // Caller holds ioLock
+    private void open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        long validLength = 0;
+        long sequence = 0;
+        if (Files.exists(path)) {
+            ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(path));
+            try {
+                checkHeader(file);
+                for (Record record : decode(file)) {
+                    sequence = record.getSequence();
+                }
+                validLength = file.position();
+            } catch (IOException e) {
+                logger.warn("Discarding unreadable event journal {}: {}", path, e.getMessage());
+            }
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validLength == 0) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putShort((short) FORMAT_VERSION).flip();
+            writeFully(channel, header);
+        } else if (channel.size() > validLength) {
+            logger.warn("Truncating torn event journal tail at byte {}", validLength);
+            channel.truncate(validLength);
+        }
+        channel.position(channel.size());
+        synchronized (this) {
+            lastSequence = Math.max(lastSequence, sequence);
+            size = channel.size() + active.position();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    // Caller holds ioLock. Full saves still capture everything, so stop journaling instead of
+    // buffering forever.
+    private void disable() {
+        closeQuietly();
+        synchronized (this) {
+            opened = true;
+            disabled = true;
+            active.clear();
+            size = 0;
+        }
+    }
+
+    // Caller holds ioLock. Releases whatever a failed open() or compaction left behind.
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close event journal {}", path, e);
+            } finally {
+                channel = null;
+            }
+        }
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.error("Failed to flush event journal", e);
+        }
+    }
+
+    private static void checkHeader(ByteBuffer file) throws IOException {
+        if (file.remaining() < HEADER_BYTES || file.getInt() != MAGIC) {
+            throw new IOException("Not an event journal");
+        }
+        int version = file.getShort() & 0xFFFF;
+        if (version > FORMAT_VERSION) {
+            throw new IOException("Journal format version " + version + " is newer than supported version "
+                + FORMAT_VERSION);
+        }
+    }
+
+    /**
+     * Decodes records up to the first torn or corrupt one and leaves the buffer positioned
+     * just after the last good record.
+     */
+    private static List<Record> decode(ByteBuffer file) {
+        List<Record> result = new ArrayList<>();
+        while (file.hasRemaining()) {
+            int start = file.position();
+            try {
+                int length = Math.toIntExact(SaveCodec.getVarLong(file));
+                if (length > file.remaining() - CRC_BYTES) {
+                    throw new BufferUnderflowException();
+                }
+                ByteBuffer payload = file.slice();
+                payload.limit(length);
+                file.position(file.position() + length);
+                CRC32 crc = new CRC32();
+                crc.update(payload.duplicate());
+                if (file.getInt() != (int) crc.getValue()) {
+                    throw new IllegalArgumentException("Checksum mismatch");
+                }
+                result.add(decodePayload(payload));
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                     | ArithmeticException e) {
+                file.position(start);
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static Record decodePayload(ByteBuffer in) {
+        Type type = Type.forTag(in.get() & 0xFF);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown journal record type");
+        }
+        long sequence = SaveCodec.getVarLong(in);
+        long time = SaveCodec.getVarLong(in);
+        switch (type) {
+            case CLICKS:
+                return new Record(type, sequence, time, null, SaveCodec.getVarLong(in));
+            case BUILDING:
+                return new Record(type, sequence, time, SaveCodec.getString(in), SaveCodec.getVarLong(in));
+            case UPGRADE:
+            case ACHIEVEMENT:
+                return new Record(type, sequence, time, SaveCodec.getString(in), 0);
+            default:
+                return new Record(type, sequence, time, null, 0);
+        }
+    }
+
+    private static ByteBuffer encode(Record record) {
+        SaveCodec.Output out = new SaveCodec.Output(32);
+        out.putByte(record.getType().getTag());
+        out.putVarLong(record.getSequence());
+        out.putVarLong(record.getTimeMillis());
+        switch (record.getType()) {
+            case CLICKS:
+                out.putVarLong(record.getAmount());
+                break;
+            case BUILDING:
+                out.putString(record.getId());
+                out.putVarLong(record.getAmount());
+                break;
+            case UPGRADE:
+            case ACHIEVEMENT:
+                out.putString(record.getId());
+                break;
+            default:
+                break;
+        }
+        return frame(out.finish());
+    }
+
+    private static ByteBuffer frame(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        SaveCodec.Output out = new SaveCodec.Output(payload.remaining() + 16);
+        out.putVarLong(payload.remaining());
+        ByteBuffer header = out.finish();
+        ByteBuffer framed = ByteBuffer.allocate(header.remaining() + payload.remaining() + CRC_BYTES);
+        framed.put(header).put(payload).putInt((int) crc.getValue()).flip();
+        return framed;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /** Bytes written to the journal file by appends, excluding compaction rewrites. */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+}
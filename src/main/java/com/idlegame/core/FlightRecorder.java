@@ -0,0 +1,209 @@
+package com.idlegame.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Lock-free ring buffer of fixed-size trace records for the tick, click and purchase paths,
+ * kept in memory instead of being logged.
+ *
+ * <p>Each record is five longs in one preallocated array: a stamp, the game tick, the event
+ * and its key (a resource handle, building ordinal or count), and an amount as the
+ * mantissa and exponent of an {@link IdleNumber}. Writers claim a sequence number with one
+ * atomic increment and never block or allocate; the oldest records are overwritten once
+ * the buffer is full. The stamp is set to the sequence number after the record is written,
+ * so {@link #dump} can run on any thread and skips records that were being overwritten
+ * while it read them.
+ *
+ * <p>Records stay binary until dumped; names and numbers are only decoded then.
+ */
+public final class FlightRecorder {
+    public static final String DUMP_FILE = "flight-recorder.txt";
+
+    /** What a record's key refers to. */
+    public enum Key {
+        NONE,
+        RESOURCE,
+        BUILDING,
+        COUNT
+    }
+
+    public enum Event {
+        /** A tick started; the amount is its length in milliseconds. */
+        TICK(Key.NONE),
+        /** Clicks applied in one batch; the amount is the currency they added. */
+        CLICK(Key.COUNT),
+        /** An add outside the tick and click paths, e.g. a reward or offline earnings. */
+        ADD(Key.RESOURCE),
+        /** An add was clamped; the amount is the cap. */
+        CAP(Key.RESOURCE),
+        DEDUCT(Key.RESOURCE),
+        SPEND(Key.RESOURCE),
+        SPEND_DENIED(Key.RESOURCE),
+        /** Buildings bought; the amount is the total cost. */
+        PURCHASE(Key.BUILDING),
+        PURCHASE_DENIED(Key.BUILDING),
+        /** A tick threw; recorded just before the buffer is dumped. */
+        ERROR(Key.NONE);
+
+        private final Key key;
+
+        Event(Key key) {
+            this.key = key;
+        }
+
+        public Key getKey() {
+            return key;
+        }
+    }
+
+    private static final Event[] EVENTS = Event.values();
+    private static final int STRIDE = 5;
+    private static final int STAMP = 0;
+    private static final int TICK = 1;
+    private static final int HEADER = 2;
+    private static final int MANTISSA = 3;
+    private static final int EXPONENT = 4;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    private volatile boolean enabled = true;
+    // Tick stamped on new records; written by the thread that runs ticks
+    private long tick;
+
+    /**
+     * @param capacity number of records kept, rounded up to a power of two
+     */
+    public FlightRecorder(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^24: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new long[size * STRIDE];
+        this.mask = size - 1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** Sets the tick stamped on records from now on. */
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    public void record(Event event, int key, IdleNumber amount) {
+        if (enabled) {
+            write(event, key, amount.getMantissa(), amount.getExponent());
+        }
+    }
+
+    public void record(Event event, int key, long amount) {
+        if (enabled) {
+            write(event, key, amount, 0L);
+        }
+    }
+
+    private void write(Event event, int key, double mantissa, long exponent) {
+        long sequence = cursor.getAndIncrement();
+        int base = (int) (sequence & mask) * STRIDE;
+        // Invalidate the slot before overwriting it, so a concurrent dump never mixes records
+        SLOTS.setOpaque(slots, base + STAMP, 0L);
+        VarHandle.storeStoreFence();
+        slots[base + TICK] = tick;
+        slots[base + HEADER] = (long) event.ordinal() << 32 | (key & 0xFFFFFFFFL);
+        slots[base + MANTISSA] = Double.doubleToRawLongBits(mantissa);
+        slots[base + EXPONENT] = exponent;
+        SLOTS.setRelease(slots, base + STAMP, sequence + 1);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /** Records written since creation, including those already overwritten. */
+    public long getRecorded() {
+        return cursor.get();
+    }
+
+    /**
+     * Writes the records still in the buffer to {@code path}, oldest first, one per line.
+     *
+     * @return number of records written
+     */
+    public int dump(Path path, IntFunction<String> resourceNames, IntFunction<String> buildingNames)
+            throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            return dumpTo(out, resourceNames, buildingNames);
+        }
+    }
+
+    /**
+     * Appends the records still in the buffer to {@code out}, oldest first, as lines like
+     * {@code #42 tick=7 PURCHASE grower 17.25}.
+     *
+     * @return number of records written
+     */
+    public int dumpTo(Appendable out, IntFunction<String> resourceNames, IntFunction<String> buildingNames)
+            throws IOException {
+        NumberFormatter amountFormat = new NumberFormatter(NumberFormatter.Notation.SCIENTIFIC, 6);
+        StringBuilder line = new StringBuilder(80);
+        long end = cursor.get();
+        int written = 0;
+        for (long sequence = Math.max(0, end - getCapacity()); sequence < end; sequence++) {
+            int base = (int) (sequence & mask) * STRIDE;
+            long stamp = (long) SLOTS.getAcquire(slots, base + STAMP);
+            long recordTick = slots[base + TICK];
+            long header = slots[base + HEADER];
+            double mantissa = Double.longBitsToDouble(slots[base + MANTISSA]);
+            long exponent = slots[base + EXPONENT];
+            VarHandle.loadLoadFence();
+            if (stamp != sequence + 1 || (long) SLOTS.getOpaque(slots, base + STAMP) != stamp) {
+                // Not written yet, or overwritten while we read it
+                continue;
+            }
+
+            Event event = EVENTS[(int) (header >>> 32)];
+            int key = (int) header;
+            line.setLength(0);
+            line.append('#').append(sequence).append(" tick=").append(recordTick).append(' ').append(event);
+            switch (event.getKey()) {
+                case RESOURCE:
+                    line.append(' ').append(key < 0 ? null : resourceNames.apply(key));
+                    break;
+                case BUILDING:
+                    line.append(' ').append(key < 0 ? null : buildingNames.apply(key));
+                    break;
+                case COUNT:
+                    line.append(" x").append(key);
+                    break;
+                default:
+                    break;
+            }
+            amountFormat.formatTo(new IdleNumber(mantissa, exponent), line.append(' '));
+            out.append(line).append(System.lineSeparator());
+            written++;
+        }
+        return written;
+    }
+}
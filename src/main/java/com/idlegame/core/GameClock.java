@@ -0,0 +1,16 @@
+package com.idlegame.core;
+
+/**
+ * Source of time for the game systems. The game loop uses {@link #system()}; headless
+ * simulations inject a {@link VirtualClock} so hours of play can run as fast as the CPU allows.
+ */
+public interface GameClock {
+    /**
+     * Current time in epoch milliseconds.
+     */
+    long millis();
+
+    static GameClock system() {
+        return System::currentTimeMillis;
+    }
+}
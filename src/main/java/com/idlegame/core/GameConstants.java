@@ -1,11 +1,20 @@
 package com.idlegame.core;
 
-import java.math.BigDecimal;
-
 public class GameConstants {
     // Game timing constants
     public static final long GAME_TICK_DURATION = 50;  // 50ms per tick
+    public static final int MAX_TICKS_PER_FRAME = 10;  // Catch-up ticks run before the loop yields
+    public static final long MAX_CATCH_UP_WINDOW = 1000;  // Longest backlog the loop catches up tick by tick; longer stalls are credited in one step
     public static final long AUTOSAVE_INTERVAL = 60000;  // Auto-save every minute
+    public static final long JOURNAL_FLUSH_INTERVAL = 250;  // Journal fsync period, bounds loss on a crash
+    public static final long JOURNAL_HEARTBEAT_INTERVAL = 1000;  // Game time between journal heartbeats
+    public static final long JOURNAL_COMPACT_BYTES = 1 << 20;  // Journal size that triggers an early save
+    public static final int FLIGHT_RECORDER_CAPACITY = 256;  // Trace records kept by headless games, sessions and tests
+    public static final int DESKTOP_FLIGHT_RECORDER_CAPACITY = 1 << 14;  // Trace records kept by the desktop game
+    public static final long METRICS_SUMMARY_INTERVAL = 60000;  // Game time between metrics summary log lines
+    public static final long SHARD_REBALANCE_INTERVAL = 5000;  // Time between checks for a hot server shard
+    public static final double SHARD_HOT_LOAD = 0.5;  // Share of the tick a shard pass may take before sessions move off it
+    public static final double SHARD_MIN_IMBALANCE = 0.1;  // Load gap between hottest and coldest shard worth a move
     public static final long AUTO_SAVE_INTERVAL = 300000; // 5 minutes
     public static final long MAX_OFFLINE_TIME = 72 * 3600 * 1000;  // 72 hours
     public static final double OFFLINE_PROGRESS_RATE = 0.5;  // 50% production when offline
@@ -17,27 +26,27 @@ public class GameConstants {
     public static final String SPECIAL_CURRENCY = "strains";
     public static final String PRESTIGE_CURRENCY = "knowledge";
 
-    public static final BigDecimal INITIAL_PRIMARY_CURRENCY = BigDecimal.ZERO;
-    public static final BigDecimal INITIAL_SECONDARY_CURRENCY = new BigDecimal("10");
-    public static final BigDecimal INITIAL_TERTIARY_CURRENCY = new BigDecimal("5");
+    public static final double INITIAL_PRIMARY_CURRENCY = 0.0;
+    public static final double INITIAL_SECONDARY_CURRENCY = 10.0;
+    public static final double INITIAL_TERTIARY_CURRENCY = 5.0;
     
     // Base generation and click values
-    public static final BigDecimal BASE_CLICK_POWER = BigDecimal.ONE;
-    public static final BigDecimal BASE_GENERATION_RATE = new BigDecimal("0.1");
-    public static final BigDecimal BASE_AUTOCLICKER_POWER = new BigDecimal("0.1");
+    public static final double BASE_CLICK_POWER = 1.0;
+    public static final double BASE_GENERATION_RATE = 0.1;
+    public static final double BASE_AUTOCLICKER_POWER = 0.1;
     
     // Achievement thresholds
-    public static final BigDecimal[] CLICK_ACHIEVEMENTS = {
-        new BigDecimal("100"),
-        new BigDecimal("1000"),
-        new BigDecimal("10000"),
-        new BigDecimal("100000")
+    public static final double[] CLICK_ACHIEVEMENTS = {
+        100.0,
+        1000.0,
+        10000.0,
+        100000.0
     };
     
-    public static final BigDecimal[] RESOURCE_ACHIEVEMENTS = {
-        new BigDecimal("1000"),
-        new BigDecimal("1000000"),
-        new BigDecimal("1000000000")
+    public static final double[] RESOURCE_ACHIEVEMENTS = {
+        1000.0,
+        1000000.0,
+        1000000000.0
     };
     
     public static final int[] BUILDING_COUNT_ACHIEVEMENTS = {10, 25, 50, 100};
@@ -77,89 +86,89 @@ public class GameConstants {
         100, 500, 1000, 5000, 10000, 50000, 100000, 500000, 1000000
     };
 
-    public static final BigDecimal[] RESOURCE_ACHIEVEMENT_THRESHOLDS = {
-        new BigDecimal("1000"),
-        new BigDecimal("10000"),
-        new BigDecimal("100000"),
-        new BigDecimal("1000000"),
-        new BigDecimal("10000000"),
-        new BigDecimal("100000000"),
-        new BigDecimal("1000000000"),
-        new BigDecimal("10000000000")
+    public static final double[] RESOURCE_ACHIEVEMENT_THRESHOLDS = {
+        1000.0,
+        10000.0,
+        100000.0,
+        1000000.0,
+        10000000.0,
+        100000000.0,
+        1000000000.0,
+        10000000000.0
     };
 
-    public static final BigDecimal CLICK_ACHIEVEMENT_BONUS = new BigDecimal("1.25"); // 25% bonus per click achievement
+    public static final double CLICK_ACHIEVEMENT_BONUS = 1.25; // 25% bonus per click achievement
 
     // Building base costs (exponential progression)
-    public static final BigDecimal[] BUILDING_BASE_COSTS = {
-        new BigDecimal("15"),                    // Grower
-        new BigDecimal("100"),                   // Greenhouse
-        new BigDecimal("1100"),                  // Hydroponic
-        new BigDecimal("12000"),                 // Indoor Farm
-        new BigDecimal("130000"),                // Agricultural
-        new BigDecimal("1400000"),               // Research Lab
-        new BigDecimal("20000000"),              // Genetic Lab
-        new BigDecimal("330000000"),             // Processing
-        new BigDecimal("5100000000"),            // Packaging
-        new BigDecimal("75000000000"),           // Distribution
-        new BigDecimal("1000000000000"),         // Retail
-        new BigDecimal("14000000000000"),        // Medical
-        new BigDecimal("170000000000000"),       // Consulting
-        new BigDecimal("2100000000000000"),      // Marketing
-        new BigDecimal("26000000000000000"),     // Quality Control
-        new BigDecimal("310000000000000000"),    // Security
-        new BigDecimal("7100000000000000000"),   // Legal
-        new BigDecimal("12000000000000000000"),  // Education
-        new BigDecimal("190000000000000000000"), // Innovation
-        new BigDecimal("270000000000000000000")  // Empire
+    public static final double[] BUILDING_BASE_COSTS = {
+        15.0,                    // Grower
+        100.0,                   // Greenhouse
+        1100.0,                  // Hydroponic
+        12000.0,                 // Indoor Farm
+        130000.0,                // Agricultural
+        1400000.0,               // Research Lab
+        20000000.0,              // Genetic Lab
+        330000000.0,             // Processing
+        5100000000.0,            // Packaging
+        75000000000.0,           // Distribution
+        1000000000000.0,         // Retail
+        14000000000000.0,        // Medical
+        170000000000000.0,       // Consulting
+        2100000000000000.0,      // Marketing
+        26000000000000000.0,     // Quality Control
+        310000000000000000.0,    // Security
+        7100000000000000000.0,   // Legal
+        12000000000000000000.0,  // Education
+        190000000000000000000.0, // Innovation
+        270000000000000000000.0  // Empire
     };
 
     // Building base production (exponential progression)
-    public static final BigDecimal[] BUILDING_BASE_PRODUCTION = {
-        new BigDecimal("0.1"),      // Grower
-        new BigDecimal("1.0"),      // Greenhouse
-        new BigDecimal("8.0"),      // Hydroponic
-        new BigDecimal("47.0"),     // Indoor Farm
-        new BigDecimal("260.0"),    // Agricultural
-        new BigDecimal("1400.0"),   // Research Lab
-        new BigDecimal("7800.0"),   // Genetic Lab
-        new BigDecimal("44000.0"),  // Processing
-        new BigDecimal("260000.0"), // Packaging
-        new BigDecimal("1600000.0"), // Distribution
-        new BigDecimal("10000000.0"), // Retail
-        new BigDecimal("65000000.0"), // Medical
-        new BigDecimal("430000000.0"), // Consulting
-        new BigDecimal("2900000000.0"), // Marketing
-        new BigDecimal("21000000000.0"), // Quality Control
-        new BigDecimal("150000000000.0"), // Security
-        new BigDecimal("1100000000000.0"), // Legal
-        new BigDecimal("8300000000000.0"), // Education
-        new BigDecimal("64000000000000.0"), // Innovation
-        new BigDecimal("510000000000000.0") // Empire
+    public static final double[] BUILDING_BASE_PRODUCTION = {
+        0.1,      // Grower
+        1.0,      // Greenhouse
+        8.0,      // Hydroponic
+        47.0,     // Indoor Farm
+        260.0,    // Agricultural
+        1400.0,   // Research Lab
+        7800.0,   // Genetic Lab
+        44000.0,  // Processing
+        260000.0, // Packaging
+        1600000.0, // Distribution
+        10000000.0, // Retail
+        65000000.0, // Medical
+        430000000.0, // Consulting
+        2900000000.0, // Marketing
+        21000000000.0, // Quality Control
+        150000000000.0, // Security
+        1100000000000.0, // Legal
+        8300000000000.0, // Education
+        64000000000000.0, // Innovation
+        510000000000000.0 // Empire
     };
 
     // Building cost scaling (each purchase increases cost by this percentage)
-    public static final BigDecimal[] BUILDING_COST_MULTIPLIERS = {
-        new BigDecimal("1.15"),  // +15% Grower
-        new BigDecimal("1.15"),  // +15% Greenhouse
-        new BigDecimal("1.15"),  // +15% Hydroponic
-        new BigDecimal("1.15"),  // +15% Indoor Farm
-        new BigDecimal("1.15"),  // +15% Agricultural
-        new BigDecimal("1.15"),  // +15% Research Lab
-        new BigDecimal("1.15"),  // +15% Genetic Lab
-        new BigDecimal("1.15"),  // +15% Processing
-        new BigDecimal("1.15"),  // +15% Packaging
-        new BigDecimal("1.15"),  // +15% Distribution
-        new BigDecimal("1.15"),  // +15% Retail
-        new BigDecimal("1.15"),  // +15% Medical
-        new BigDecimal("1.15"),  // +15% Consulting
-        new BigDecimal("1.15"),  // +15% Marketing
-        new BigDecimal("1.15"),  // +15% Quality Control
-        new BigDecimal("1.15"),  // +15% Security
-        new BigDecimal("1.15"),  // +15% Legal
-        new BigDecimal("1.15"),  // +15% Education
-        new BigDecimal("1.15"),  // +15% Innovation
-        new BigDecimal("1.15")   // +15% Empire
+    public static final double[] BUILDING_COST_MULTIPLIERS = {
+        1.15,  // +15% Grower
+        1.15,  // +15% Greenhouse
+        1.15,  // +15% Hydroponic
+        1.15,  // +15% Indoor Farm
+        1.15,  // +15% Agricultural
+        1.15,  // +15% Research Lab
+        1.15,  // +15% Genetic Lab
+        1.15,  // +15% Processing
+        1.15,  // +15% Packaging
+        1.15,  // +15% Distribution
+        1.15,  // +15% Retail
+        1.15,  // +15% Medical
+        1.15,  // +15% Consulting
+        1.15,  // +15% Marketing
+        1.15,  // +15% Quality Control
+        1.15,  // +15% Security
+        1.15,  // +15% Legal
+        1.15,  // +15% Education
+        1.15,  // +15% Innovation
+        1.15   // +15% Empire
     };
 
     // Achievement thresholds for buildings (unlocks special bonuses)
@@ -170,42 +179,42 @@ public class GameConstants {
     };
 
     // Production multipliers for achievements
-    public static final BigDecimal[] ACHIEVEMENT_MULTIPLIERS = {
-        new BigDecimal("1.0"),   // Base
-        new BigDecimal("1.1"),   // +10%
-        new BigDecimal("1.25"),  // +25%
-        new BigDecimal("1.5"),   // +50%
-        new BigDecimal("1.75"),  // +75%
-        new BigDecimal("2.0"),   // +100%
-        new BigDecimal("2.5"),   // +150%
-        new BigDecimal("3.0"),   // +200%
-        new BigDecimal("3.5"),   // +250%
-        new BigDecimal("4.0"),   // +300%
-        new BigDecimal("5.0"),   // +400%
-        new BigDecimal("6.0"),   // +500%
-        new BigDecimal("7.0"),   // +600%
-        new BigDecimal("8.0"),   // +700%
-        new BigDecimal("10.0"),  // +900%
-        new BigDecimal("12.0"),  // +1100%
-        new BigDecimal("15.0"),  // +1400%
-        new BigDecimal("20.0"),  // +1900%
-        new BigDecimal("25.0"),  // +2400%
-        new BigDecimal("30.0"),  // +2900%
-        new BigDecimal("40.0"),  // +3900%
-        new BigDecimal("50.0"),  // +4900%
-        new BigDecimal("75.0"),  // +7400%
-        new BigDecimal("100.0"), // +9900%
-        new BigDecimal("150.0"), // +14900%
-        new BigDecimal("200.0"), // +19900%
-        new BigDecimal("300.0"), // +29900%
-        new BigDecimal("400.0"), // +39900%
-        new BigDecimal("500.0"), // +49900%
-        new BigDecimal("750.0"), // +74900%
-        new BigDecimal("1000.0") // +99900%
+    public static final double[] ACHIEVEMENT_MULTIPLIERS = {
+        1.0,   // Base
+        1.1,   // +10%
+        1.25,  // +25%
+        1.5,   // +50%
+        1.75,  // +75%
+        2.0,   // +100%
+        2.5,   // +150%
+        3.0,   // +200%
+        3.5,   // +250%
+        4.0,   // +300%
+        5.0,   // +400%
+        6.0,   // +500%
+        7.0,   // +600%
+        8.0,   // +700%
+        10.0,  // +900%
+        12.0,  // +1100%
+        15.0,  // +1400%
+        20.0,  // +1900%
+        25.0,  // +2400%
+        30.0,  // +2900%
+        40.0,  // +3900%
+        50.0,  // +4900%
+        75.0,  // +7400%
+        100.0, // +9900%
+        150.0, // +14900%
+        200.0, // +19900%
+        300.0, // +29900%
+        400.0, // +39900%
+        500.0, // +49900%
+        750.0, // +74900%
+        1000.0 // +99900%
     };
 
     // Synergy bonuses (when you own certain combinations of buildings)
-    public static final BigDecimal SYNERGY_BONUS = new BigDecimal("1.05"); // +5% per synergy
+    public static final double SYNERGY_BONUS = 1.05; // +5% per synergy
     
     // Building quality levels
     public static final String BUILDING_LOW_QUALITY = "low";
@@ -218,29 +227,30 @@ public class GameConstants {
     public static final String BUILDING_DIVINE_QUALITY = "divine";
 
     // Quality base costs
-    public static final BigDecimal LOW_QUALITY_BASE_COST = new BigDecimal("100");
-    public static final BigDecimal MEDIUM_QUALITY_BASE_COST = new BigDecimal("1000");
-    public static final BigDecimal HIGH_QUALITY_BASE_COST = new BigDecimal("10000");
-    public static final BigDecimal PREMIUM_QUALITY_BASE_COST = new BigDecimal("100000");
-    public static final BigDecimal MASTER_QUALITY_BASE_COST = new BigDecimal("1000000");
-    public static final BigDecimal LEGENDARY_QUALITY_BASE_COST = new BigDecimal("10000000");
-    public static final BigDecimal MYTHIC_QUALITY_BASE_COST = new BigDecimal("100000000");
-    public static final BigDecimal DIVINE_QUALITY_BASE_COST = new BigDecimal("1000000000");
+    public static final double LOW_QUALITY_BASE_COST = 100.0;
+    public static final double MEDIUM_QUALITY_BASE_COST = 1000.0;
+    public static final double HIGH_QUALITY_BASE_COST = 10000.0;
+    public static final double PREMIUM_QUALITY_BASE_COST = 100000.0;
+    public static final double MASTER_QUALITY_BASE_COST = 1000000.0;
+    public static final double LEGENDARY_QUALITY_BASE_COST = 10000000.0;
+    public static final double MYTHIC_QUALITY_BASE_COST = 100000000.0;
+    public static final double DIVINE_QUALITY_BASE_COST = 1000000000.0;
 
     // Quality multipliers
-    public static final BigDecimal LOW_QUALITY_MULTIPLIER = new BigDecimal("1.1");
-    public static final BigDecimal MEDIUM_QUALITY_MULTIPLIER = new BigDecimal("1.25");
-    public static final BigDecimal HIGH_QUALITY_MULTIPLIER = new BigDecimal("1.5");
-    public static final BigDecimal PREMIUM_QUALITY_MULTIPLIER = new BigDecimal("2.0");
-    public static final BigDecimal MASTER_QUALITY_MULTIPLIER = new BigDecimal("3.0");
-    public static final BigDecimal LEGENDARY_QUALITY_MULTIPLIER = new BigDecimal("5.0");
-    public static final BigDecimal MYTHIC_QUALITY_MULTIPLIER = new BigDecimal("10.0");
-    public static final BigDecimal DIVINE_QUALITY_MULTIPLIER = new BigDecimal("25.0");
+    public static final double LOW_QUALITY_MULTIPLIER = 1.1;
+    public static final double MEDIUM_QUALITY_MULTIPLIER = 1.25;
+    public static final double HIGH_QUALITY_MULTIPLIER = 1.5;
+    public static final double PREMIUM_QUALITY_MULTIPLIER = 2.0;
+    public static final double MASTER_QUALITY_MULTIPLIER = 3.0;
+    public static final double LEGENDARY_QUALITY_MULTIPLIER = 5.0;
+    public static final double MYTHIC_QUALITY_MULTIPLIER = 10.0;
+    public static final double DIVINE_QUALITY_MULTIPLIER = 25.0;
 
     // Prestige system constants
-    public static final BigDecimal PRESTIGE_REQUIREMENT = new BigDecimal("1000000"); // 1M for first prestige
-    public static final BigDecimal PRESTIGE_MULTIPLIER = new BigDecimal("1.15"); // Each prestige requires 15% more
-    public static final BigDecimal PRESTIGE_BONUS = new BigDecimal("0.02"); // Each prestige point gives +2% production
+    public static final double PRESTIGE_REQUIREMENT = 1000000.0; // 1M for first prestige
+    public static final double PRESTIGE_MULTIPLIER = 1.15; // Each prestige requires 15% more
+    public static final double PRESTIGE_BONUS = 0.02; // Each prestige point gives +2% production
+    public static final long PRESTIGE_PROJECTION_HORIZON = 24 * 60 * 60 * 1000L; // Furthest ahead the best prestige point is projected, ms
 
     private GameConstants() {
         // Prevent instantiation
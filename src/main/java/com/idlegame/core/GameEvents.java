@@ -0,0 +1,161 @@
+package com.idlegame.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events for the game, so a recording shows ticks, player actions,
+ * saves and offline catch-up next to GC and CPU samples.
+ *
+ * <p>Emitters create the event, set its fields only if {@code shouldCommit()} (or
+ * {@code isEnabled()} for instant events) and commit it. When the event is not enabled
+ * those calls are constant false and the event never escapes, so the JIT removes it
+ * along with its allocation: the hot paths cost nothing unless recording.
+ *
+ * <p>{@link #SETTINGS} is a settings profile with every game event on, plus the JDK
+ * events needed to read them in context.
+ */
+public final class GameEvents {
+    /** Classpath location of the bundled {@code .jfc} settings profile. */
+    public static final String SETTINGS = "/idle-game.jfc";
+
+    private GameEvents() {
+        // Holder for the event types
+    }
+
+    @Name("com.idlegame.Tick")
+    @Label("Game Tick")
+    @Category({"Idle Game", "Engine"})
+    @Description("One fixed-timestep tick of the game loop")
+    @StackTrace(false)
+    public static final class Tick extends Event {
+        @Label("Delta")
+        @Timespan(Timespan.MILLISECONDS)
+        long delta;
+
+        @Label("Building Production")
+        @Description("Primary currency produced by buildings this tick")
+        double production;
+
+        @Label("Actions")
+        @Description("Player actions applied at the start of the tick, counting each click")
+        long actions;
+
+        @Label("Achievement Tracks Checked")
+        int achievementsChecked;
+
+        @Label("Achievements Unlocked")
+        @Description("Achievements unlocked so far")
+        int achievementsUnlocked;
+    }
+
+    @Name("com.idlegame.ClickBatch")
+    @Label("Click Batch")
+    @Category({"Idle Game", "Player Action"})
+    @Description("Clicks applied together with one multiply-add")
+    @StackTrace(false)
+    public static final class ClickBatch extends Event {
+        @Label("Clicks")
+        long clicks;
+
+        @Label("Value")
+        @Description("Primary currency the clicks added")
+        double value;
+    }
+
+    @Name("com.idlegame.BuildingPurchase")
+    @Label("Building Purchase")
+    @Category({"Idle Game", "Player Action"})
+    @StackTrace(false)
+    public static final class BuildingPurchase extends Event {
+        @Label("Building")
+        String building;
+
+        @Label("Amount")
+        int amount;
+
+        @Label("Cost")
+        double cost;
+
+        @Label("Purchased")
+        @Description("False if the buildings were not affordable")
+        boolean purchased;
+    }
+
+    @Name("com.idlegame.UpgradePurchase")
+    @Label("Upgrade Purchase")
+    @Category({"Idle Game", "Player Action"})
+    @StackTrace(false)
+    public static final class UpgradePurchase extends Event {
+        @Label("Upgrade")
+        String upgrade;
+
+        @Label("Level")
+        @Description("Level after the purchase")
+        int level;
+
+        @Label("Cost")
+        double cost;
+    }
+
+    @Name("com.idlegame.Prestige")
+    @Label("Prestige")
+    @Category({"Idle Game", "Player Action"})
+    @StackTrace(false)
+    public static final class Prestige extends Event {
+        @Label("Points Gained")
+        double pointsGained;
+
+        @Label("Multiplier")
+        @Description("Prestige multiplier after the reset")
+        double multiplier;
+    }
+
+    @Name("com.idlegame.Save")
+    @Label("Save")
+    @Category({"Idle Game", "Persistence"})
+    @Description("Encode, write, fsync and rename of a full save")
+    public static final class Save extends Event {
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.idlegame.Load")
+    @Label("Load")
+    @Category({"Idle Game", "Persistence"})
+    @Description("Read and decode of a save")
+    public static final class Load extends Event {
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Sections")
+        int sections;
+    }
+
+    @Name("com.idlegame.OfflineCatchUp")
+    @Label("Offline Catch-Up")
+    @Category({"Idle Game", "Engine"})
+    @Description("Progress applied for time the game was not running, or replayed from the journal")
+    public static final class OfflineCatchUp extends Event {
+        @Label("Simulated Span")
+        @Timespan(Timespan.MILLISECONDS)
+        long simulated;
+
+        @Label("Events Processed")
+        int events;
+
+        @Label("Purchases")
+        int purchases;
+
+        @Label("Primary Earned")
+        double earned;
+    }
+}
@@ -0,0 +1,215 @@
+package com.idlegame.core;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed-timestep game loop. Frames are scheduled at the tick rate on a single daemon thread;
+ * each frame adds the real time elapsed since the previous frame to an accumulator and runs
+ * whole ticks of exactly {@code tickMillis} out of it. A late frame therefore catches up with
+ * extra ticks instead of stretching one, so the number of ticks (and everything they produce)
+ * depends only on elapsed time, never on scheduling jitter.
+ *
+ * <p>At most {@code maxStepsPerFrame} ticks run per frame. Any remaining backlog is carried
+ * over to the next frame and the frame is counted as an overrun. The backlog is capped at
+ * {@code maxBacklogMillis}: the whole ticks beyond it, e.g. after a laptop sleep or a long GC
+ * pause, are handed to the {@code skip} callback as one span instead of being ticked one by one,
+ * so a stall still credits all of its time without a long run of catch-up frames.
+ */
+public class GameLoopScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(GameLoopScheduler.class);
+
+    private final LongConsumer tick;
+    private final LongConsumer skip;
+    private final long tickMillis;
+    private final long tickNanos;
+    private final int maxStepsPerFrame;
+    private final long maxBacklogNanos;
+    private final String threadName;
+
+    private ScheduledExecutorService executor;
+    private long lastFrameNanos;
+    private volatile long accumulatorNanos;
+
+    // Written by the loop thread only, read by anyone for reporting
+    private volatile long ticks;
+    private volatile long lateTicks;
+    private volatile long overruns;
+    private volatile long skippedNanos;
+
+    /**
+     * @param tick called with the fixed tick length in milliseconds, once per tick
+     */
+    public GameLoopScheduler(LongConsumer tick, long tickMillis, int maxStepsPerFrame) {
+        this(tick, tickMillis, maxStepsPerFrame, "game-loop");
+    }
+
+    /**
+     * @param threadName name of the loop thread, e.g. to tell the shards of a server apart
+     */
+    public GameLoopScheduler(LongConsumer tick, long tickMillis, int maxStepsPerFrame, String threadName) {
+        this(tick, tickMillis, maxStepsPerFrame, GameConstants.MAX_CATCH_UP_WINDOW, threadName);
+    }
+
+    /**
+     * @param maxBacklogMillis real time the loop still catches up tick by tick after a stall
+     */
+    public GameLoopScheduler(LongConsumer tick, long tickMillis, int maxStepsPerFrame, long maxBacklogMillis,
+                             String threadName) {
+        this(tick, tick, tickMillis, maxStepsPerFrame, maxBacklogMillis, threadName);
+    }
+
+    /**
+     * @param skip called on the loop thread with the milliseconds of a stall beyond the catch-up
+     *             window, always a whole number of ticks, to credit them in one step
+     */
+    public GameLoopScheduler(LongConsumer tick, LongConsumer skip, long tickMillis, int maxStepsPerFrame,
+                             long maxBacklogMillis, String threadName) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick length must be positive: " + tickMillis);
+        }
+        if (maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("Max steps per frame must be positive: " + maxStepsPerFrame);
+        }
+        if (maxBacklogMillis < tickMillis) {
+            throw new IllegalArgumentException("Max backlog must cover a tick: " + maxBacklogMillis);
+        }
+        this.tick = tick;
+        this.skip = skip;
+        this.tickMillis = tickMillis;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        this.maxBacklogNanos = TimeUnit.MILLISECONDS.toNanos(maxBacklogMillis);
+        this.threadName = threadName;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            logger.warn("Game loop already running");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastFrameNanos = System.nanoTime();
+        accumulatorNanos = 0;
+        executor.scheduleAtFixedRate(this::frame, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        logger.info("Game loop started at {} ms per tick", tickMillis);
+    }
+
+    /**
+     * Stops scheduling frames and waits for the loop thread to finish the current one. The
+     * thread is not interrupted, so a tick in the middle of file I/O completes normally.
+     */
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = executor;
+            executor = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.warn("Game loop thread did not stop within 1 s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Game loop stopped after {} ticks ({} late, {} overrun frames)", ticks, lateTicks, overruns);
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    private void frame() {
+        try {
+            runFrame(System.nanoTime());
+        } catch (RuntimeException e) {
+            // An exception escaping a periodic task would silently cancel the loop
+            logger.error("Game tick failed", e);
+        }
+    }
+
+    /**
+     * Runs the ticks owed at {@code nowNanos}.
+     *
+     * @return number of ticks run
+     */
+    int runFrame(long nowNanos) {
+        accumulatorNanos += nowNanos - lastFrameNanos;
+        lastFrameNanos = nowNanos;
+        if (accumulatorNanos > maxBacklogNanos) {
+            // Whole ticks only, so the leftover stays on the same tick grid as without a stall
+            long skipped = (accumulatorNanos - maxBacklogNanos) / tickNanos * tickNanos;
+            if (skipped > 0) {
+                accumulatorNanos -= skipped;
+                skippedNanos += skipped;
+                logger.info("Game loop stalled: crediting {} ms of backlog in one step",
+                    TimeUnit.NANOSECONDS.toMillis(skipped));
+                skip.accept(TimeUnit.NANOSECONDS.toMillis(skipped));
+            }
+        }
+
+        int steps = 0;
+        while (accumulatorNanos >= tickNanos && steps < maxStepsPerFrame) {
+            tick.accept(tickMillis);
+            accumulatorNanos -= tickNanos;
+            steps++;
+        }
+
+        ticks += steps;
+        if (steps > 1) {
+            lateTicks += steps - 1;
+        }
+        if (accumulatorNanos >= tickNanos) {
+            overruns++;
+            logger.debug("Game loop overrun: {} ms of ticks carried to the next frame",
+                TimeUnit.NANOSECONDS.toMillis(accumulatorNanos));
+        }
+        return steps;
+    }
+
+    /** Resets the frame clock without starting the executor, for driving frames by hand. */
+    void resetFrameClock(long nowNanos) {
+        lastFrameNanos = nowNanos;
+        accumulatorNanos = 0;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Ticks that ran as catch-up in a frame that was already owed one. */
+    public long getLateTicks() {
+        return lateTicks;
+    }
+
+    /** Frames that hit the per-frame step limit and carried a backlog over. */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /** Real time from stalls longer than the catch-up window, credited in one step instead of ticked. */
+    public long getSkippedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(skippedNanos);
+    }
+
+    /** Real time owed to the game that has not been ticked yet. */
+    public long getBacklogMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(accumulatorNanos);
+    }
+}
@@ -2,41 +2,147 @@ package com.idlegame.core;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
-import java.time.Instant;
-import com.idlegame.core.BuildingSystem.Building;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * GameManager is the central class that manages the game state and updates.
+ *
+ * <p>In tickless mode ({@link #setTickless}) a tick adds nothing per resource: the
+ * {@link ResourceSystem} holds each amount as a base and a rate, building production is
+ * credited to the resource-gain achievements only when a command was applied, the rates
+ * changed or the next threshold's crossing time passed, and a tick in which only time
+ * passed re-issues the previous snapshot. An idle tick is then O(1), and amounts match
+ * ticking mode within rounding.
  */
 public class GameManager {
     private static final Logger logger = LoggerFactory.getLogger(GameManager.class);
+    public static final String STAT_CLICK_VALUE = "click.value";
+    public static final String STAT_CLICK_POWER = "click.power";
+    public static final String STAT_PRIMARY_RATE = "primary.rate";
+    public static final String METRIC_TICK_DURATION = "tick.duration";
+    public static final String METRIC_TICK_ALLOCATION = "tick.allocated";
+    public static final String METRIC_TICK_ACTIONS = "tick.actions";
+    public static final String METRIC_TICK_OVERRUNS = "tick.overruns";
+    public static final String METRIC_TICK_BACKLOG = "tick.backlog.ms";
+    public static final String METRIC_TICK_SKIPPED = "tick.skipped.ms";
+    public static final String METRIC_LOAD_DURATION = "load.duration";
+    public static final String METRIC_LOAD_BYTES = "load.bytes";
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
     private final ResourceSystem resourceSystem;
     private final UpgradeSystem upgradeSystem;
     private final BuildingSystem buildingSystem;
     private final AchievementSystem achievementSystem;
     private final PrestigeSystem prestigeSystem;
-    private GameState gameState;
-    private boolean isRunning;
-    private Instant lastUpdateTime;
+    private final SaveStore saveStore;
+    private final AutosaveWriter autosaveWriter;
+    private final EventJournal journal;
+    private final CommandQueue commands = new CommandQueue();
+    private final FlightRecorder recorder;
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Histogram tickDuration;
+    private final MetricsRegistry.Histogram tickAllocation;
+    private final MetricsRegistry.Histogram tickActions;
+    private final ConcurrentLinkedQueue<String> newAchievements = new ConcurrentLinkedQueue<>();
+    // Cached derived stats; only recomputed after one of their inputs changes
+    private final StatGraph.Stat clickValue;
+    private final StatGraph.Stat primaryRate;
+    private final IdleNumber clickScratch = new IdleNumber();
+    private final IdleNumber productionScratch = new IdleNumber();
+    // Breakdowns handed to snapshots, rebuilt only when the stat graph changes
+    private StatBreakdown clickBreakdown;
+    private StatBreakdown rateBreakdown;
+    private long breakdownVersion = -1;
+    // Tickless mode: building production credited to achievements up to gainBaseMillis at
+    // gainRate, loaded at stat graph gainVersion; snapshot inputs at the last capture
+    private boolean tickless;
+    private final IdleNumber gainRate = new IdleNumber();
+    private final IdleNumber gainScratch = new IdleNumber();
+    private long gainBaseMillis;
+    private long gainVersion = -1;
+    private long nextThresholdMillis;
+    private long snapshotEpoch = -1;
+    private long snapshotVersion = -1;
+    // Written only by the thread that runs ticks, read by any number of observers
+    private volatile GameSnapshot snapshot;
+    private long ticks;
+    private GameLoopScheduler gameLoop;
+    private final GameClock clock;
+    private long lastUpdateTime;
     private long lastSaveTime;
+    private long lastJournalTime;
+    private long lastSummaryTime;
+    private boolean autoSaveEnabled;
+    private boolean replaying;
     private boolean initialized;
 
     public GameManager() {
+        this(GameClock.system());
+    }
+
+    /**
+     * Creates a game driven by the given clock instead of the system time, e.g. a
+     * {@link VirtualClock} for headless fast-forward simulation.
+     */
+    public GameManager(GameClock clock) {
+        this(clock, new SaveStore());
+    }
+
+    /**
+     * Creates a game driven by {@code clock} that saves to and loads from {@code saveStore}.
+     */
+    public GameManager(GameClock clock, SaveStore saveStore) {
+        this(clock, saveStore, GameConstants.FLIGHT_RECORDER_CAPACITY);
+    }
+
+    /**
+     * Creates a game whose flight recorder keeps {@code recorderCapacity} records instead of
+     * the short {@link GameConstants#FLIGHT_RECORDER_CAPACITY} trace, e.g. the desktop game's
+     * longer one.
+     */
+    public GameManager(GameClock clock, SaveStore saveStore, int recorderCapacity) {
         logger.info("Initializing GameManager");
-        this.resourceSystem = new ResourceSystem();
+        this.clock = clock;
+        this.resourceSystem = new ResourceSystem(recorderCapacity);
         this.upgradeSystem = new UpgradeSystem(resourceSystem);
         this.buildingSystem = new BuildingSystem(resourceSystem);
         this.achievementSystem = new AchievementSystem(resourceSystem, buildingSystem);
-        this.prestigeSystem = new PrestigeSystem(resourceSystem, buildingSystem);
-        this.gameState = new GameState();
-        this.isRunning = false;
-        this.lastUpdateTime = Instant.now();
-        this.lastSaveTime = System.currentTimeMillis();
+        this.prestigeSystem = new PrestigeSystem(resourceSystem, buildingSystem, clock.millis());
+        this.recorder = resourceSystem.getRecorder();
+        this.metrics = new MetricsRegistry("game-" + INSTANCES.incrementAndGet());
+        this.tickDuration = metrics.histogram(METRIC_TICK_DURATION, "ns");
+        this.tickAllocation = metrics.histogram(METRIC_TICK_ALLOCATION, "bytes");
+        this.tickActions = metrics.histogram(METRIC_TICK_ACTIONS, "actions");
+        StatGraph stats = resourceSystem.getStats();
+        this.clickValue = stats.product(STAT_CLICK_VALUE,
+            resourceSystem.getClickMultiplierStat(),
+            stats.input(STAT_CLICK_POWER, GameConstants.BASE_CLICK_POWER),
+            stats.input(BuildingSystem.STAT_CLICK_BONUS, 1.0),
+            stats.input(BuildingSystem.STAT_PRESTIGE, 1.0));
+        this.primaryRate = stats.sum(STAT_PRIMARY_RATE,
+            resourceSystem.getRateStat(ResourceRegistry.PRIMARY),
+            buildingSystem.getProductionStat());
+        this.saveStore = saveStore;
+        this.autosaveWriter = new AutosaveWriter(saveStore, metrics);
+        this.journal = new EventJournal(saveStore.getJournalPath());
+        this.lastUpdateTime = clock.millis();
+        this.lastSaveTime = lastUpdateTime;
+        this.lastJournalTime = lastUpdateTime;
+        this.lastSummaryTime = lastUpdateTime;
+        // Every full save covers the journal up to its sequence number
+        autosaveWriter.setSaveListener(this::compactJournal);
+        achievementSystem.setUnlockListener(this::onAchievementUnlocked);
+        this.autoSaveEnabled = true;
         this.initialized = false;
+        publishSnapshot();
         logger.debug("GameManager initialized with all systems");
     }
 
@@ -47,152 +153,633 @@ public class GameManager {
             buildingSystem.reset();
             achievementSystem.reset();
             initialized = true;
+            publishSnapshot();
         }
     }
 
+    /**
+     * Applies one click right away. Must run on the thread that runs ticks; other threads
+     * {@link #submit} a {@link PlayerCommand#click()} instead.
+     */
     public void clickMainAction() {
-        logger.debug("Processing click action");
-        BigDecimal baseClick = GameConstants.BASE_CLICK_POWER;
-        BigDecimal clickMultiplier = resourceSystem.getClickMultiplier();
-        BigDecimal buildingMultiplier = buildingSystem.getClickMultiplier();
-        BigDecimal prestigeMultiplier = prestigeSystem.getPrestigeMultiplier();
-        BigDecimal clickValue = baseClick.multiply(clickMultiplier).multiply(buildingMultiplier).multiply(prestigeMultiplier);
-        
-        resourceSystem.add(GameConstants.PRIMARY_CURRENCY, clickValue);
-        achievementSystem.registerClick();
-        logger.debug("Click added {} (with prestige multiplier: {})", clickValue, prestigeMultiplier);
-    }
-
-    public void deductResources(BigDecimal amount) {
+        applyClicks(1);
+    }
+
+    /**
+     * Applies {@code count} clicks at the current click value with one multiply-add and one
+     * achievement check.
+     */
+    private void applyClicks(long count) {
+        IdleNumber value = clickValue.valueInto(clickScratch).multiplyInPlace(count);
+
+        resourceSystem.addUntraced(ResourceRegistry.PRIMARY, value);
+        achievementSystem.registerClicks(count);
+        if (isJournaling()) {
+            journal.appendClicks(journalTime(), count);
+        }
+        recorder.record(FlightRecorder.Event.CLICK, (int) Math.min(count, Integer.MAX_VALUE), value);
+        GameEvents.ClickBatch event = new GameEvents.ClickBatch();
+        if (event.isEnabled()) {
+            event.clicks = count;
+            event.value = value.toDouble();
+            event.commit();
+        }
+    }
+
+    /**
+     * Queues a player action for the start of the next tick. Safe to call from any thread;
+     * this is how the UI acts on the game.
+     */
+    public void submit(PlayerCommand command) {
+        commands.offer(command);
+    }
+
+    /**
+     * The queue of submitted player actions, with its latency and per-tick batch metrics.
+     */
+    public CommandQueue getCommandQueue() {
+        return commands;
+    }
+
+    private void applyCommand(PlayerCommand command) {
+        switch (command.getType()) {
+            case CLICK:
+                // Every click since the previous tick, applied as one batch
+                applyClicks(command.getAmount());
+                break;
+            case BUY_BUILDING:
+                buyAffordableBuildings(command.getId(), command.getAmount());
+                break;
+            case BUY_UPGRADE:
+                purchaseUpgrade(command.getId());
+                break;
+            case PRESTIGE:
+                prestige();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void buyAffordableBuildings(String buildingId, long amount) {
+        if (buildingSystem.getCatalog().indexOf(buildingId) < 0) {
+            logger.warn("Ignoring purchase of unknown building {}", buildingId);
+            return;
+        }
+        IdleNumber budget = resourceSystem.getAmount(GameConstants.PRIMARY_CURRENCY);
+        int affordable = buildingSystem.maxAffordable(buildingId, budget);
+        int toBuy = amount == PlayerCommand.BUY_MAX ? affordable : (int) Math.min(amount, affordable);
+        if (toBuy > 0) {
+            purchaseBuildings(buildingId, toBuy);
+        }
+    }
+
+    /**
+     * Buys {@code amount} of a building and journals the purchase.
+     *
+     * @return false if the building is unknown or unaffordable
+     */
+    public boolean purchaseBuildings(String buildingId, int amount) {
+        boolean purchased = buildingSystem.purchaseBulk(buildingId, amount);
+        if (purchased && isJournaling()) {
+            journal.appendBuilding(journalTime(), buildingId, amount);
+        }
+        return purchased;
+    }
+
+    /**
+     * Buys one level of an upgrade and journals the purchase.
+     *
+     * @return false if the upgrade is unknown or unaffordable
+     */
+    public boolean purchaseUpgrade(String upgradeId) {
+        boolean purchased = upgradeSystem.purchaseUpgrade(upgradeId);
+        if (purchased && isJournaling()) {
+            journal.appendUpgrade(journalTime(), upgradeId);
+        }
+        return purchased;
+    }
+
+    public void deductResources(IdleNumber amount) {
         resourceSystem.spend(GameConstants.PRIMARY_CURRENCY, amount);
     }
 
-    public void upgradeGenerationRate(BigDecimal multiplier) {
+    public void upgradeGenerationRate(double multiplier) {
         resourceSystem.upgradeGenerationRate(GameConstants.PRIMARY_CURRENCY, multiplier);
     }
 
-    public BigDecimal getPrimaryResource() {
-        return resourceSystem.getResource(GameConstants.PRIMARY_CURRENCY);
+    public IdleNumber getPrimaryResource() {
+        return resourceSystem.getAmount(GameConstants.PRIMARY_CURRENCY);
     }
 
     public void startGame() {
+        startGame(GameConstants.GAME_TICK_DURATION);
+    }
+
+    /**
+     * Starts the fixed-timestep game loop on its own thread, ticking every {@code tickMillis}.
+     */
+    public synchronized void startGame(long tickMillis) {
         logger.info("Starting game");
-        isRunning = true;
-        Thread gameThread = new Thread(this::runGameLoop);
-        gameThread.setDaemon(true);
-        gameThread.start();
+        if (gameLoop != null && gameLoop.isRunning()) {
+            logger.warn("Game loop already running");
+            return;
+        }
+        gameLoop = new GameLoopScheduler(this::tick, this::fastForward, tickMillis, GameConstants.MAX_TICKS_PER_FRAME,
+            GameConstants.MAX_CATCH_UP_WINDOW, "game-loop");
+        metrics.gauge(METRIC_TICK_OVERRUNS, gameLoop::getOverruns);
+        metrics.gauge(METRIC_TICK_BACKLOG, gameLoop::getBacklogMillis);
+        metrics.gauge(METRIC_TICK_SKIPPED, gameLoop::getSkippedMillis);
+        metrics.registerMBeans();
+        gameLoop.start();
         logger.info("Game loop started in background thread");
     }
 
-    private void runGameLoop() {
-        logger.debug("Entering game loop");
-        while (isRunning) {
-            update();
-            try {
-                Thread.sleep(GameConstants.GAME_TICK_DURATION);
-            } catch (InterruptedException e) {
-                logger.error("Game loop interrupted", e);
-                Thread.currentThread().interrupt();
-                stopGame();
-            }
+    /**
+     * Advances the game by the clock time elapsed since the previous update.
+     * Used by callers that drive the game from a clock, such as the headless simulation.
+     */
+    public void update() {
+        long currentTime = clock.millis();
+        long deltaTime = currentTime - lastUpdateTime;
+        lastUpdateTime = currentTime;
+        advance(deltaTime, currentTime);
+    }
+
+    /**
+     * Advances the game by exactly {@code deltaMillis} of game time.
+     * Called once per tick by the fixed-timestep game loop.
+     */
+    public void tick(long deltaMillis) {
+        lastUpdateTime += deltaMillis;
+        advance(deltaMillis, lastUpdateTime);
+    }
+
+    /**
+     * Advances the game by {@code millis} of game time in one step, as after the game loop
+     * stalled. Production is integrated event by event at the full rate, so the result
+     * matches ticking through the span. Must run on the thread that runs ticks.
+     */
+    public void fastForward(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        if (tickless) {
+            // A tickless tick already integrates any span in closed form
+            tick(millis);
+            return;
         }
-        logger.debug("Exiting game loop");
+        lastUpdateTime += millis;
+        new OfflineProgressEngine(resourceSystem, buildingSystem, achievementSystem, 1.0).run(millis);
+        publishSnapshot();
     }
 
-    private void update() {
-        logger.trace("Updating game state");
-        Instant currentTime = Instant.now();
-        long deltaTime = currentTime.toEpochMilli() - lastUpdateTime.toEpochMilli();
-        
-        // Update resource generation from buildings
-        BigDecimal production = buildingSystem.getProduction();
-        BigDecimal deltaSeconds = BigDecimal.valueOf(deltaTime).divide(BigDecimal.valueOf(1000), 10, BigDecimal.ROUND_HALF_UP);
-        BigDecimal generated = production.multiply(deltaSeconds);
-        
-        if (generated.compareTo(BigDecimal.ZERO) > 0) {
-            resourceSystem.add(GameConstants.PRIMARY_CURRENCY, generated);
-            achievementSystem.addResourceGain(generated);
+    private void advance(long deltaTime, long currentTime) {
+        recorder.setTick(ticks);
+        recorder.record(FlightRecorder.Event.TICK, 0, deltaTime);
+        GameEvents.Tick event = new GameEvents.Tick();
+        event.begin();
+        long startNanos = System.nanoTime();
+        long startBytes = MetricsRegistry.currentThreadAllocatedBytes();
+        long actions;
+        try {
+            actions = runTick(deltaTime, currentTime);
+        } catch (RuntimeException e) {
+            // Keep the trace leading up to the failure before the loop logs and moves on
+            recorder.record(FlightRecorder.Event.ERROR, 0, ticks);
+            dumpFlightRecorderQuietly();
+            throw e;
         }
-        
-        lastUpdateTime = currentTime;
+        tickDuration.record(System.nanoTime() - startNanos);
+        tickActions.record(actions);
+        if (startBytes >= 0) {
+            tickAllocation.record(MetricsRegistry.currentThreadAllocatedBytes() - startBytes);
+        }
+
+        if (gameLoop != null && currentTime - lastSummaryTime >= GameConstants.METRICS_SUMMARY_INTERVAL) {
+            logger.info("Metrics {}", metrics.summary());
+            lastSummaryTime = currentTime;
+        }
+        if (event.shouldCommit()) {
+            event.delta = deltaTime;
+            event.production = productionScratch.toDouble();
+            event.actions = actions;
+            event.achievementsChecked = achievementSystem.getCatalog().getTrackCount();
+            event.achievementsUnlocked = achievementSystem.getUnlockedCount();
+            event.commit();
+        }
+    }
 
-        // Update all systems
-        resourceSystem.updateResources(buildingSystem, deltaTime);
-        achievementSystem.checkAchievements();
+    /**
+     * @return number of player actions applied, counting each click
+     */
+    private long runTick(long deltaTime, long currentTime) {
+        // Player actions submitted since the previous tick
+        long actions = commands.drain(this::applyCommand);
+
+        double deltaSeconds = deltaTime / 1000.0;
+        if (tickless) {
+            accrue(currentTime - deltaTime, currentTime, actions > 0);
+            productionScratch.set(gainRate).multiplyInPlace(deltaSeconds);
+        } else {
+            // Base generation first, so a reward unlocked by the building gain below raises
+            // rates from the next tick on, as offline progress and tickless mode do
+            resourceSystem.updateResources(buildingSystem, deltaTime);
+
+            // Update resource generation from buildings
+            IdleNumber generated = buildingSystem.productionInto(productionScratch).multiplyInPlace(deltaSeconds);
+
+            if (generated.signum() > 0) {
+                resourceSystem.addUntraced(ResourceRegistry.PRIMARY, generated);
+                achievementSystem.addResourceGain(generated);
+            }
 
-        // Auto-save check
-        if (currentTime.toEpochMilli() - lastSaveTime >= GameConstants.AUTOSAVE_INTERVAL) {
+            achievementSystem.checkAchievements();
+        }
+
+        if (isJournaling() && clock.millis() - lastJournalTime >= GameConstants.JOURNAL_HEARTBEAT_INTERVAL) {
+            journal.appendHeartbeat(journalTime());
+        }
+
+        // Auto-save check; a journal that outgrew its budget is compacted early
+        long sinceSave = currentTime - lastSaveTime;
+        if (autoSaveEnabled && (sinceSave >= GameConstants.AUTOSAVE_INTERVAL
+                || sinceSave >= GameConstants.JOURNAL_HEARTBEAT_INTERVAL
+                    && journal.getSize() > GameConstants.JOURNAL_COMPACT_BYTES)) {
             saveGameState();
-            lastSaveTime = currentTime.toEpochMilli();
+            lastSaveTime = currentTime;
         }
 
-        logger.trace("Game state updated");
+        ticks++;
+        StatGraph stats = resourceSystem.getStats();
+        if (tickless && actions == 0 && newAchievements.isEmpty()
+                && resourceSystem.getAccrualEpoch() == snapshotEpoch && stats.getVersion() == snapshotVersion) {
+            snapshot = GameSnapshot.advance(snapshot, ticks, clock.millis(), resourceSystem.getNowMillis());
+        } else {
+            publishSnapshot();
+        }
+        return actions;
+    }
+
+    /**
+     * The tickless part of a tick from {@code previousTime} to {@code currentTime}: moves the
+     * resource clock, and credits building production and checks achievements only if the
+     * player acted, production changed or a resource-gain threshold was crossed.
+     */
+    private void accrue(long previousTime, long currentTime, boolean acted) {
+        boolean check = acted;
+        if (resourceSystem.getStats().getVersion() != gainVersion) {
+            // The old production ran up to the previous tick, as when ticking
+            creditGains(previousTime);
+            buildingSystem.productionInto(gainRate);
+            gainVersion = resourceSystem.getStats().getVersion();
+            check = true;
+        }
+        resourceSystem.advanceTo(currentTime);
+        if (check || currentTime >= nextThresholdMillis) {
+            creditGains(currentTime);
+            achievementSystem.checkAchievements();
+            nextThresholdMillis = thresholdMillis(currentTime);
+        }
+    }
+
+    /**
+     * Adds building production since the last credit to the achievements' resources gained.
+     */
+    private void creditGains(long currentTime) {
+        if (currentTime > gainBaseMillis && gainRate.signum() > 0) {
+            achievementSystem.addResourceGain(
+                gainScratch.set(gainRate).multiplyInPlace((currentTime - gainBaseMillis) / 1000.0));
+        }
+        gainBaseMillis = currentTime;
+    }
+
+    /**
+     * First time at which the uncredited production reaches the next resource-gain
+     * threshold, or {@link Long#MAX_VALUE} if it never does.
+     */
+    private long thresholdMillis(long currentTime) {
+        double threshold = achievementSystem.getNextResourceThreshold();
+        if (Double.isNaN(threshold) || gainRate.signum() <= 0) {
+            return Long.MAX_VALUE;
+        }
+        double millis = gainScratch.set(threshold).subtractInPlace(achievementSystem.getTotalResourcesGained())
+            .divideInPlace(gainRate).toDouble() * 1000.0;
+        return millis >= Long.MAX_VALUE - currentTime ? Long.MAX_VALUE : currentTime + (long) Math.ceil(millis);
+    }
+
+    /**
+     * Switches tickless mode on or off at the current game time. Ticks then advance by the
+     * same amounts, within rounding, for a fraction of the work while nothing happens.
+     */
+    public void setTickless(boolean enabled) {
+        if (enabled == tickless) {
+            return;
+        }
+        if (enabled) {
+            resourceSystem.startTickless(lastUpdateTime, primaryRate);
+            buildingSystem.productionInto(gainRate);
+            gainVersion = resourceSystem.getStats().getVersion();
+            gainBaseMillis = lastUpdateTime;
+            nextThresholdMillis = lastUpdateTime;
+        } else {
+            creditGains(lastUpdateTime);
+            resourceSystem.stopTickless();
+        }
+        tickless = enabled;
+        snapshotEpoch = -1;
+    }
+
+    public boolean isTickless() {
+        return tickless;
     }
 
     public void updateResources(BuildingSystem buildingSystem) {
-        Instant currentTime = Instant.now();
-        long deltaTime = currentTime.toEpochMilli() - lastUpdateTime.toEpochMilli();
+        long currentTime = clock.millis();
+        long deltaTime = currentTime - lastUpdateTime;
         lastUpdateTime = currentTime;
-        resourceSystem.updateResources(buildingSystem, deltaTime);
+        if (tickless) {
+            resourceSystem.advanceTo(currentTime);
+        } else {
+            resourceSystem.updateResources(buildingSystem, deltaTime);
+        }
     }
 
     private void checkForUnlocks() {
         // Logic for checking unlock conditions
     }
 
+    /**
+     * Snapshots the game at the current tick boundary and hands it to the background writer.
+     */
     private void saveGameState() {
-        logger.info("Saving game state");
-        // Save building system
-        gameState.putState("buildingSystem", buildingSystem);
+        logger.debug("Queueing game state save");
+        autosaveWriter.submit(createSaveData());
+    }
 
-        // Save resources
-        Map<String, BigDecimal> resourceAmounts = new HashMap<>();
-        resourceAmounts.put(GameConstants.PRIMARY_CURRENCY, getPrimaryResource());
-        gameState.putState("resources", resourceAmounts);
+    /**
+     * Writes the flight recorder's trace of recent ticks, clicks and purchases, decoded to
+     * text, next to the save. Also done automatically when a tick throws.
+     *
+     * @return the file written
+     */
+    public Path dumpFlightRecorder() throws IOException {
+        Path path = saveStore.getFlightRecorderPath();
+        int records = recorder.dump(path, resourceSystem.getRegistry()::getId,
+            index -> buildingSystem.getCatalog().get(index).getId());
+        logger.info("Dumped {} flight recorder records to {}", records, path);
+        return path;
+    }
 
-        // Save prestige data
-        gameState.putState("prestigePoints", prestigeSystem.getPrestigePoints());
-        gameState.putState("prestigeMultiplier", prestigeSystem.getPrestigeMultiplier());
+    private void dumpFlightRecorderQuietly() {
+        try {
+            dumpFlightRecorder();
+        } catch (IOException e) {
+            logger.error("Failed to dump flight recorder", e);
+        }
+    }
 
-        gameState.save();
-        logger.info("Game state saved successfully");
+    private boolean isJournaling() {
+        return autoSaveEnabled && !replaying;
     }
 
-    public void loadGame() {
-        logger.info("Loading game state");
-        GameState loadedState = gameState.load();
-        if (loadedState != null) {
-            // Restore building system state
-            BuildingSystem loadedBuildingSystem = (BuildingSystem) loadedState.getState("buildingSystem");
-            if (loadedBuildingSystem != null) {
-                buildingSystem.restoreState(loadedBuildingSystem);
+    private long journalTime() {
+        lastJournalTime = clock.millis();
+        return lastJournalTime;
+    }
+
+    private void onAchievementUnlocked(String achievementId) {
+        newAchievements.add(achievementId);
+        if (isJournaling()) {
+            journal.appendAchievement(journalTime(), achievementId);
+        }
+    }
+
+    private void publishSnapshot() {
+        List<String> unlocked = new ArrayList<>();
+        String achievementId = newAchievements.poll();
+        while (achievementId != null) {
+            unlocked.add(achievementId);
+            achievementId = newAchievements.poll();
+        }
+        StatGraph stats = resourceSystem.getStats();
+        if (stats.getVersion() != breakdownVersion) {
+            clickBreakdown = StatBreakdown.of(clickValue);
+            rateBreakdown = StatBreakdown.of(primaryRate);
+            breakdownVersion = stats.getVersion();
+        }
+        snapshot = GameSnapshot.capture(snapshot, ticks, clock.millis(), stats.getVersion(), resourceSystem,
+            buildingSystem, prestigeSystem, achievementSystem, unlocked, clickBreakdown, rateBreakdown);
+        // After the capture, which settles the tickless amounts
+        snapshotEpoch = resourceSystem.getAccrualEpoch();
+        snapshotVersion = stats.getVersion();
+    }
+
+    /**
+     * The state at the end of the most recent tick. Safe to call from any thread; the
+     * snapshot never changes after it is published.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private void compactJournal(SaveData snapshot) {
+        try {
+            journal.compact(snapshot.getJournalSequence());
+        } catch (IOException e) {
+            logger.error("Failed to compact event journal", e);
+        }
+    }
+
+    /**
+     * Captures resources, buildings, prestige and achievements into an immutable save.
+     */
+    public SaveData createSaveData() {
+        if (tickless) {
+            creditGains(lastUpdateTime);
+        }
+        SaveData.Builder builder = new SaveData.Builder().savedAt(clock.millis());
+        if (autoSaveEnabled) {
+            builder.journalSequence(journal.getLastSequence());
+        }
+
+        Set<String> resourceIds = new LinkedHashSet<>(resourceSystem.getResourceIds());
+        resourceIds.addAll(resourceSystem.getGeneratedResourceIds());
+        for (String resourceId : resourceIds) {
+            IdleNumber rate = resourceSystem.getGeneratedResourceIds().contains(resourceId)
+                ? resourceSystem.getGenerationRate(resourceId) : null;
+            builder.resource(resourceId, resourceSystem.getAmount(resourceId), rate);
+        }
+        builder.clickMultiplier(resourceSystem.getClickMultiplier());
+
+        BuildingCatalog catalog = buildingSystem.getCatalog();
+        for (int i = 0; i < catalog.size(); i++) {
+            builder.building(catalog.get(i).getId(), buildingSystem.getCount(i), buildingSystem.getEfficiencyBonus(i));
+        }
+
+        builder.prestige(prestigeSystem.getPrestigePoints(), prestigeSystem.getPrestigeMultiplier())
+            .runStart(prestigeSystem.getRunStartMillis());
+
+        for (String achievementId : achievementSystem.getUnlockedAchievements()) {
+            builder.achievement(achievementId);
+        }
+        builder.achievementProgress(achievementSystem.getTotalClicks(), achievementSystem.getTotalResourcesGained());
+        return builder.build();
+    }
+
+    /**
+     * Restores every section present in {@code data}.
+     */
+    public void applySaveData(SaveData data) {
+        if (tickless) {
+            // Production before the load belongs to the state being replaced
+            gainBaseMillis = lastUpdateTime;
+            gainVersion = -1;
+        }
+        if (data.hasSection(SaveData.Section.RESOURCES)) {
+            for (String resourceId : data.getResourceIds()) {
+                resourceSystem.setResource(resourceId, data.getAmount(resourceId));
+                IdleNumber rate = data.getGenerationRate(resourceId);
+                if (rate != null) {
+                    resourceSystem.setGenerationRate(resourceId, rate);
+                }
+            }
+            resourceSystem.setClickMultiplier(data.getClickMultiplier());
+        }
+
+        if (data.hasSection(SaveData.Section.BUILDINGS)) {
+            BuildingCatalog catalog = buildingSystem.getCatalog();
+            int[] counts = new int[catalog.size()];
+            double[] efficiencyBonuses = new double[catalog.size()];
+            Arrays.fill(efficiencyBonuses, 1.0);
+            for (String buildingId : data.getBuildingIds()) {
+                int index = catalog.indexOf(buildingId);
+                if (index < 0) {
+                    logger.warn("Dropping unknown building {} from save", buildingId);
+                    continue;
+                }
+                counts[index] = data.getBuildingCount(buildingId);
+                efficiencyBonuses[index] = data.getEfficiencyBonus(buildingId);
             }
+            buildingSystem.restoreState(counts, efficiencyBonuses);
+        }
+
+        // After resources, so the multiplier reaches every restored resource
+        if (data.hasSection(SaveData.Section.PRESTIGE)) {
+            // Saves written before the run start was recorded keep this session's
+            long runStart = data.getRunStartMillis();
+            if (runStart < 0) {
+                runStart = prestigeSystem.getRunStartMillis();
+            }
+            prestigeSystem.restoreState(data.getPrestigePoints(), data.getPrestigeMultiplier(), runStart);
+        }
 
-            // Restore resources
-            @SuppressWarnings("unchecked")
-            Map<String, BigDecimal> resources = (Map<String, BigDecimal>) loadedState.getState("resources");
-            if (resources != null) {
-                resources.forEach((resource, amount) -> 
-                    resourceSystem.setResource(resource, amount)
-                );
+        if (data.hasSection(SaveData.Section.ACHIEVEMENTS)) {
+            achievementSystem.restoreState(data.getAchievements(), data.getTotalClicks(),
+                data.getTotalResourcesGained());
+        }
+    }
+
+    /**
+     * Loads the last full save, replays the journal tail recorded after it and then credits
+     * offline progress from the last journaled moment of play.
+     */
+    public void loadGame() {
+        logger.info("Loading game state");
+        SaveData data;
+        List<EventJournal.Record> tail;
+        long start = System.nanoTime();
+        try {
+            data = saveStore.load();
+            tail = journal.readAfter(data == null ? 0 : data.getJournalSequence());
+            if (data != null) {
+                metrics.histogram(METRIC_LOAD_DURATION, "ns").record(System.nanoTime() - start);
+                metrics.histogram(METRIC_LOAD_BYTES, "bytes").record(Files.size(saveStore.getSavePath()));
             }
+        } catch (IOException e) {
+            logger.error("Failed to load game state", e);
+            return;
+        }
+        if (data == null && tail.isEmpty()) {
+            return;
+        }
 
-            // Restore prestige data
-            BigDecimal prestigePoints = (BigDecimal) loadedState.getState("prestigePoints");
-            BigDecimal prestigeMultiplier = (BigDecimal) loadedState.getState("prestigeMultiplier");
-            if (prestigePoints != null) {
-                prestigeSystem.setPrestigePoints(prestigePoints);
+        long resumeTime = clock.millis();
+        if (data != null) {
+            applySaveData(data);
+            if (data.hasSection(SaveData.Section.META)) {
+                resumeTime = data.getSavedAtMillis();
             }
-            if (prestigeMultiplier != null) {
-                prestigeSystem.setPrestigeMultiplier(prestigeMultiplier);
+        }
+        if (!tail.isEmpty()) {
+            if (data == null || !data.hasSection(SaveData.Section.META)) {
+                resumeTime = tail.get(0).getTimeMillis();
             }
+            resumeTime = replayJournal(tail, resumeTime);
+        }
+
+        long offlineTime = clock.millis() - resumeTime;
+        if (offlineTime > 0) {
+            calculateOfflineProgress(offlineTime);
+        }
+        if (autoSaveEnabled && (offlineTime > 0 || !tail.isEmpty())) {
+            // Offline earnings are not journaled, so snapshot them before play continues
+            saveGameState();
+            lastSaveTime = clock.millis();
+        }
+        publishSnapshot();
+        logger.info("Game state loaded successfully");
+    }
 
-            long offlineTime = System.currentTimeMillis() - loadedState.getLastSaveTime().toEpochMilli();
-            if (offlineTime > 0) {
-                calculateOfflineProgress(offlineTime);
+    /**
+     * Re-applies journaled events in order, running full-rate production for the time
+     * between them.
+     *
+     * @return clock time of the last replayed event
+     */
+    private long replayJournal(List<EventJournal.Record> tail, long fromTime) {
+        logger.info("Replaying {} journal records", tail.size());
+        OfflineProgressEngine engine = new OfflineProgressEngine(resourceSystem, buildingSystem, achievementSystem, 1.0);
+        long time = fromTime;
+        replaying = true;
+        try {
+            for (EventJournal.Record record : tail) {
+                if (record.getTimeMillis() > time) {
+                    engine.run(record.getTimeMillis() - time);
+                    time = record.getTimeMillis();
+                }
+                applyJournalRecord(record);
             }
-            gameState = loadedState;
-            logger.info("Game state loaded successfully");
+        } finally {
+            replaying = false;
+        }
+        return time;
+    }
+
+    private void applyJournalRecord(EventJournal.Record record) {
+        switch (record.getType()) {
+            case CLICKS:
+                applyClicks(record.getAmount());
+                break;
+            case BUILDING:
+                if (!purchaseBuildings(record.getId(), Math.toIntExact(record.getAmount()))) {
+                    logger.warn("Replayed purchase of {} x {} failed", record.getAmount(), record.getId());
+                }
+                break;
+            case UPGRADE:
+                if (!purchaseUpgrade(record.getId())) {
+                    logger.warn("Replayed purchase of upgrade {} failed", record.getId());
+                }
+                break;
+            case PRESTIGE:
+                prestige(record.getTimeMillis());
+                break;
+            case ACHIEVEMENT:
+                achievementSystem.unlock(record.getId());
+                break;
+            case HEARTBEAT:
+            default:
+                break;
         }
     }
 
@@ -201,24 +788,66 @@ public class GameManager {
         // Cap offline time to maximum allowed
         offlineTime = Math.min(offlineTime, GameConstants.MAX_OFFLINE_TIME);
 
-        // Calculate offline earnings with reduced rate
-        BigDecimal offlineRate = BigDecimal.valueOf(GameConstants.OFFLINE_PROGRESS_RATE);
-        BigDecimal offlineEarnings = resourceSystem.calculateOfflineEarnings(
-            buildingSystem, 
-            offlineTime,
-            offlineRate
-        );
+        // Replay the offline window event by event at the reduced offline rate
+        OfflineProgressEngine.Result result = new OfflineProgressEngine(
+            resourceSystem,
+            buildingSystem,
+            achievementSystem,
+            GameConstants.OFFLINE_PROGRESS_RATE
+        ).run(offlineTime);
 
-        resourceSystem.add(GameConstants.PRIMARY_CURRENCY, offlineEarnings);
-        logger.info("Added offline earnings: {}", offlineEarnings);
+        logger.info("Added offline earnings: {}", result.getPrimaryEarned());
     }
 
-    public void stopGame() {
+    /**
+     * Stops the game loop, then saves the final state, waits for every pending save to reach disk
+     * and stops the autosave thread.
+     */
+    public synchronized void stopGame() {
         logger.info("Stopping game");
-        isRunning = false;
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        if (autoSaveEnabled) {
+            saveGameState();
+        }
+        autosaveWriter.close();
+        journal.close();
+        metrics.unregisterMBeans();
         logger.info("Game stopped");
     }
 
+    public FlightRecorder getFlightRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Tick, action, allocation, save and load metrics, registered as MBeans while the game
+     * loop runs.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The fixed-timestep loop started by {@link #startGame()}, or null if the game was never started.
+     */
+    public synchronized GameLoopScheduler getGameLoop() {
+        return gameLoop;
+    }
+
+    /**
+     * Enables or disables the periodic save from {@link #update()} and the event journal.
+     * Headless simulations turn it off so they never touch the save files.
+     */
+    public void setAutoSaveEnabled(boolean enabled) {
+        this.autoSaveEnabled = enabled;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
     public ResourceSystem getResourceSystem() {
         return resourceSystem;
     }
@@ -231,13 +860,37 @@ public class GameManager {
         return buildingSystem;
     }
 
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    public AutosaveWriter getAutosaveWriter() {
+        return autosaveWriter;
+    }
+
+    public PrestigeSystem getPrestigeSystem() {
+        return prestigeSystem;
+    }
+
+    public AchievementSystem getAchievementSystem() {
+        return achievementSystem;
+    }
+
     public boolean canPrestige() {
         return prestigeSystem.canPrestige();
     }
 
     public void prestige() {
+        prestige(clock.millis());
+    }
+
+    /** Prestiges at {@code nowMillis}, the record's time when replaying the journal. */
+    private void prestige(long nowMillis) {
         if (canPrestige()) {
-            prestigeSystem.prestige();
+            prestigeSystem.prestige(nowMillis);
+            if (isJournaling()) {
+                journal.appendPrestige(journalTime());
+            }
             logger.info("Prestige completed successfully");
         }
     }
@@ -246,11 +899,11 @@ public class GameManager {
         return achievementSystem.getUnlockedAchievements();
     }
 
-    public BigDecimal getPrestigePoints() {
+    public IdleNumber getPrestigePoints() {
         return prestigeSystem.getPrestigePoints();
     }
 
-    public BigDecimal getNextPrestigePointsGain() {
+    public IdleNumber getNextPrestigePointsGain() {
         return prestigeSystem.getNextPrestigePointsGain();
     }
 }
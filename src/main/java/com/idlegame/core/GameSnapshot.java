@@ -0,0 +1,384 @@
+package com.idlegame.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the game at the end of one tick. The game loop builds a new snapshot
+ * after every tick and publishes it through a single volatile reference
+ * ({@link GameManager#getSnapshot()}); the UI and other observers read only snapshots, so
+ * they never lock and never see a half-updated tick. Everything is held in arrays indexed
+ * by resource position or building ordinal, and getters hand out copies.
+ *
+ * <p>A snapshot of a tickless game ({@link ResourceSystem#startTickless}) also holds each
+ * resource's growth rate and the time each building and prestige become affordable, so
+ * that {@link #advance} can re-issue it for a later tick in which nothing but time passed;
+ * amounts are then computed on read and affordability is a comparison with the crossing
+ * time.
+ *
+ * <p>A capture shares the previous snapshot's values wherever they did not change: building
+ * costs of unchanged counts, and building production and tickless rates while the stat graph
+ * is at the same version. Only the changed entries are copied, into a copy of the array, so
+ * an idle tick allocates no numbers for the catalog.
+ */
+public final class GameSnapshot {
+    private static final IdleNumber PRESTIGE_REQUIREMENT = IdleNumber.of(GameConstants.PRESTIGE_REQUIREMENT);
+
+    private final long tick;
+    private final long timeMillis;
+    private final long statsVersion;
+
+    private final String[] resourceIds;
+    private final IdleNumber[] resourceAmounts;
+    private final IdleNumber primaryAmount;
+    private final IdleNumber primaryRate;
+    private final IdleNumber clickMultiplier;
+    private final StatBreakdown clickBreakdown;
+    private final StatBreakdown rateBreakdown;
+
+    private final BuildingCatalog catalog;
+    private final int[] buildingCounts;
+    private final IdleNumber[] buildingCosts;
+    private final IdleNumber[] buildingProduction;
+    private final boolean[] buildingAffordable;
+
+    private final IdleNumber prestigePoints;
+    private final IdleNumber prestigeGain;
+    private final boolean canPrestige;
+    private final long runStartMillis;
+
+    private final int unlockedAchievementCount;
+    private final List<String> newAchievements;
+
+    // Tickless only, else null: growth since accrualMillis, crossing times, and the time
+    // amounts are read at
+    private final IdleNumber[] resourceRates;
+    private final IdleNumber[] resourceCaps;
+    private final IdleNumber primaryAccrualRate;
+    private final IdleNumber primaryCap;
+    private final long[] buildingAffordableAt;
+    private final long prestigeAt;
+    private final long accrualMillis;
+    private final long amountMillis;
+
+    private GameSnapshot(GameSnapshot previous, long tick, long timeMillis, long statsVersion,
+                         ResourceSystem resources, BuildingSystem buildings, PrestigeSystem prestige,
+                         AchievementSystem achievements, List<String> newAchievements,
+                         StatBreakdown clickBreakdown, StatBreakdown rateBreakdown) {
+        this.tick = tick;
+        this.timeMillis = timeMillis;
+        this.statsVersion = statsVersion;
+        IdleNumber scratch = new IdleNumber();
+
+        ResourceRegistry registry = resources.getRegistry();
+        int held = 0;
+        for (int handle = 0; handle < registry.size(); handle++) {
+            if (resources.hasAmount(handle)) {
+                held++;
+            }
+        }
+        String[] ids = new String[held];
+        this.resourceAmounts = new IdleNumber[held];
+        for (int handle = 0, i = 0; handle < registry.size(); handle++) {
+            if (resources.hasAmount(handle)) {
+                ids[i] = registry.getId(handle);
+                resourceAmounts[i++] = resources.getAmount(handle);
+            }
+        }
+        boolean sameResources = previous != null && Arrays.equals(ids, previous.resourceIds);
+        this.resourceIds = sameResources ? previous.resourceIds : ids;
+        this.primaryAmount = resources.getAmount(ResourceRegistry.PRIMARY);
+        this.primaryRate = rateBreakdown.getTotal();
+        this.clickMultiplier = resources.getClickMultiplier();
+        this.clickBreakdown = clickBreakdown;
+        this.rateBreakdown = rateBreakdown;
+
+        this.catalog = buildings.getCatalog();
+        int count = catalog.size();
+        GameSnapshot same = previous != null && previous.catalog == catalog ? previous : null;
+        boolean productionChanged = same == null || same.statsVersion != statsVersion;
+        IdleNumber[] costs = same == null ? new IdleNumber[count] : same.buildingCosts;
+        IdleNumber[] production = same == null ? new IdleNumber[count] : same.buildingProduction;
+        this.buildingCounts = new int[count];
+        this.buildingAffordable = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            buildingCounts[i] = buildings.getCount(i);
+            // A cost depends only on the definition and the count
+            if (same == null || buildingCounts[i] != same.buildingCounts[i]) {
+                costs = reuse(costs, same == null ? null : same.buildingCosts, i, buildings.nextCostInto(i, scratch));
+            }
+            if (productionChanged) {
+                production = reuse(production, same == null ? null : same.buildingProduction, i,
+                    buildings.productionInto(i, scratch));
+            }
+            buildingAffordable[i] = primaryAmount.compareTo(costs[i]) >= 0;
+        }
+        this.buildingCosts = costs;
+        this.buildingProduction = production;
+
+        this.prestigePoints = prestige.getPrestigePoints();
+        this.prestigeGain = prestige.getNextPrestigePointsGain();
+        this.canPrestige = prestige.canPrestige();
+        this.runStartMillis = prestige.getRunStartMillis();
+
+        this.unlockedAchievementCount = achievements.getUnlockedCount();
+        this.newAchievements = Collections.unmodifiableList(newAchievements);
+
+        this.accrualMillis = resources.getNowMillis();
+        this.amountMillis = accrualMillis;
+        if (!resources.isTickless()) {
+            this.resourceRates = null;
+            this.resourceCaps = null;
+            this.primaryAccrualRate = null;
+            this.primaryCap = null;
+            this.buildingAffordableAt = null;
+            this.prestigeAt = 0;
+            return;
+        }
+        GameSnapshot tickless = sameResources && previous.resourceRates != null ? previous : null;
+        IdleNumber[] rates = tickless == null ? new IdleNumber[held] : tickless.resourceRates;
+        IdleNumber[] caps = tickless == null ? new IdleNumber[held] : tickless.resourceCaps;
+        for (int i = 0; i < held; i++) {
+            int handle = registry.indexOf(resourceIds[i]);
+            // Tickless rates only change with the stat graph; caps are cheap to compare
+            if (tickless == null || tickless.statsVersion != statsVersion) {
+                rates = reuse(rates, tickless == null ? null : tickless.resourceRates, i,
+                    resources.getAccrualRateInto(handle, scratch));
+            }
+            caps = reuse(caps, tickless == null ? null : tickless.resourceCaps, i,
+                resources.getResourceCapInto(handle, scratch));
+        }
+        this.resourceRates = rates;
+        this.resourceCaps = caps;
+        this.primaryAccrualRate = reuse(tickless == null ? null : tickless.primaryAccrualRate,
+            resources.getAccrualRateInto(ResourceRegistry.PRIMARY, scratch));
+        this.primaryCap = reuse(tickless == null ? null : tickless.primaryCap,
+            resources.getResourceCapInto(ResourceRegistry.PRIMARY, scratch));
+        this.buildingAffordableAt = new long[count];
+        for (int i = 0; i < count; i++) {
+            buildingAffordableAt[i] = crossingMillis(buildingCosts[i], scratch);
+        }
+        this.prestigeAt = canPrestige ? Long.MIN_VALUE : crossingMillis(PRESTIGE_REQUIREMENT, scratch);
+    }
+
+    /**
+     * {@code previous} unless it differs from {@code value}, else a copy of {@code value}.
+     * Either may be null.
+     */
+    private static IdleNumber reuse(IdleNumber previous, IdleNumber value) {
+        if (value == null) {
+            return null;
+        }
+        return value.equals(previous) ? previous : value.copy();
+    }
+
+    /**
+     * {@code values} with entry {@code i} set to {@code value}. While {@code values} is still the
+     * previous snapshot's array it is copied before the first change, so that snapshot keeps its own.
+     */
+    private static IdleNumber[] reuse(IdleNumber[] values, IdleNumber[] previous, int i, IdleNumber value) {
+        IdleNumber entry = reuse(values[i], value);
+        if (entry == values[i]) {
+            return values;
+        }
+        IdleNumber[] result = values == previous ? values.clone() : values;
+        result[i] = entry;
+        return result;
+    }
+
+    /**
+     * The same state as {@code previous}, {@code amountMillis - previous.amountMillis} of
+     * growth later.
+     */
+    private GameSnapshot(GameSnapshot previous, long tick, long timeMillis, long amountMillis) {
+        this.tick = tick;
+        this.timeMillis = timeMillis;
+        this.statsVersion = previous.statsVersion;
+        this.resourceIds = previous.resourceIds;
+        this.resourceAmounts = previous.resourceAmounts;
+        this.primaryAmount = previous.primaryAmount;
+        this.primaryRate = previous.primaryRate;
+        this.clickMultiplier = previous.clickMultiplier;
+        this.clickBreakdown = previous.clickBreakdown;
+        this.rateBreakdown = previous.rateBreakdown;
+        this.catalog = previous.catalog;
+        this.buildingCounts = previous.buildingCounts;
+        this.buildingCosts = previous.buildingCosts;
+        this.buildingProduction = previous.buildingProduction;
+        this.buildingAffordable = previous.buildingAffordable;
+        this.prestigePoints = previous.prestigePoints;
+        this.prestigeGain = previous.prestigeGain;
+        this.canPrestige = previous.canPrestige;
+        this.runStartMillis = previous.runStartMillis;
+        this.unlockedAchievementCount = previous.unlockedAchievementCount;
+        this.newAchievements = Collections.emptyList();
+        this.resourceRates = previous.resourceRates;
+        this.resourceCaps = previous.resourceCaps;
+        this.primaryAccrualRate = previous.primaryAccrualRate;
+        this.primaryCap = previous.primaryCap;
+        this.buildingAffordableAt = previous.buildingAffordableAt;
+        this.prestigeAt = previous.prestigeAt;
+        this.accrualMillis = previous.accrualMillis;
+        this.amountMillis = amountMillis;
+    }
+
+    /**
+     * First time, to the millisecond, at which the primary amount reaches {@code cost}:
+     * {@link Long#MIN_VALUE} if it already has, {@link Long#MAX_VALUE} if it never does.
+     */
+    private long crossingMillis(IdleNumber cost, IdleNumber scratch) {
+        if (primaryAmount.compareTo(cost) >= 0) {
+            return Long.MIN_VALUE;
+        }
+        if (primaryAccrualRate == null || primaryAccrualRate.signum() <= 0
+                || primaryCap != null && primaryCap.compareTo(cost) < 0) {
+            return Long.MAX_VALUE;
+        }
+        double millis = scratch.set(cost).subtractInPlace(primaryAmount)
+            .divideInPlace(primaryAccrualRate).toDouble() * 1000.0;
+        return millis >= Long.MAX_VALUE - accrualMillis ? Long.MAX_VALUE : accrualMillis + (long) Math.ceil(millis);
+    }
+
+    /**
+     * {@code base} grown at {@code rate} from the capture to this snapshot, clamped at {@code cap}.
+     */
+    private IdleNumber amountAt(IdleNumber base, IdleNumber rate, IdleNumber cap) {
+        IdleNumber amount = base.copy();
+        if (rate == null || amountMillis == accrualMillis) {
+            return amount;
+        }
+        amount.addInPlace(rate.copy().multiplyInPlace((amountMillis - accrualMillis) / 1000.0));
+        return cap != null && amount.compareTo(cap) > 0 ? amount.set(cap) : amount;
+    }
+
+    /**
+     * Captures the systems' current state. Must run on the thread that mutates them.
+     *
+     * @param previous the last snapshot captured from the same systems, or null; its unchanged
+     *                 values are shared
+     * @param statsVersion the stat graph's version, which the production and rates follow
+     */
+    static GameSnapshot capture(GameSnapshot previous, long tick, long timeMillis, long statsVersion,
+                                ResourceSystem resources, BuildingSystem buildings, PrestigeSystem prestige,
+                                AchievementSystem achievements, List<String> newAchievements,
+                                StatBreakdown clickBreakdown, StatBreakdown rateBreakdown) {
+        return new GameSnapshot(previous, tick, timeMillis, statsVersion, resources, buildings, prestige,
+            achievements, newAchievements, clickBreakdown, rateBreakdown);
+    }
+
+    /**
+     * {@code previous} re-issued for a later tick of a tickless game in which only time
+     * passed: no amount, rate, building or prestige change and no achievement unlocked.
+     *
+     * @param amountMillis the resource system's {@link ResourceSystem#getNowMillis()}
+     */
+    static GameSnapshot advance(GameSnapshot previous, long tick, long timeMillis, long amountMillis) {
+        if (previous.resourceRates == null) {
+            throw new IllegalStateException("Only tickless snapshots can be advanced");
+        }
+        return new GameSnapshot(previous, tick, timeMillis, amountMillis);
+    }
+
+    /** Number of ticks run before this snapshot was taken. */
+    public long getTick() {
+        return tick;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int getResourceCount() {
+        return resourceIds.length;
+    }
+
+    public String getResourceId(int index) {
+        return resourceIds[index];
+    }
+
+    public IdleNumber getResourceAmount(int index) {
+        if (resourceRates == null) {
+            return resourceAmounts[index].copy();
+        }
+        return amountAt(resourceAmounts[index], resourceRates[index], resourceCaps[index]);
+    }
+
+    public IdleNumber getPrimaryAmount() {
+        if (resourceRates == null) {
+            return primaryAmount.copy();
+        }
+        return amountAt(primaryAmount, primaryAccrualRate, primaryCap);
+    }
+
+    /** Primary currency earned per second from base generation and buildings. */
+    public IdleNumber getPrimaryRate() {
+        return primaryRate.copy();
+    }
+
+    public IdleNumber getClickMultiplier() {
+        return clickMultiplier.copy();
+    }
+
+    /** Value of one click and the multipliers it is the product of. */
+    public StatBreakdown getClickBreakdown() {
+        return clickBreakdown;
+    }
+
+    /** {@link #getPrimaryRate()} split into base generation and building production. */
+    public StatBreakdown getRateBreakdown() {
+        return rateBreakdown;
+    }
+
+    /** Catalog whose ordinals index the building getters. */
+    public BuildingCatalog getCatalog() {
+        return catalog;
+    }
+
+    public int getBuildingCount(int ordinal) {
+        return buildingCounts[ordinal];
+    }
+
+    public IdleNumber getBuildingCost(int ordinal) {
+        return buildingCosts[ordinal].copy();
+    }
+
+    /** Production of one building type, before the prestige multiplier. */
+    public IdleNumber getBuildingProduction(int ordinal) {
+        return buildingProduction[ordinal].copy();
+    }
+
+    public boolean isBuildingAffordable(int ordinal) {
+        return buildingAffordableAt == null ? buildingAffordable[ordinal] : amountMillis >= buildingAffordableAt[ordinal];
+    }
+
+    public IdleNumber getPrestigePoints() {
+        return prestigePoints.copy();
+    }
+
+    /** Game time of the last prestige, or of the game's start before the first one. */
+    public long getRunStartMillis() {
+        return runStartMillis;
+    }
+
+    /** Prestige points a prestige would award right now. */
+    public IdleNumber getPrestigeGain() {
+        if (resourceRates == null || amountMillis == accrualMillis) {
+            return prestigeGain.copy();
+        }
+        return PrestigeSystem.calculatePrestigePoints(getPrimaryAmount());
+    }
+
+    public boolean canPrestige() {
+        return buildingAffordableAt == null ? canPrestige : amountMillis >= prestigeAt;
+    }
+
+    public int getUnlockedAchievementCount() {
+        return unlockedAchievementCount;
+    }
+
+    /** Achievements unlocked since the previous snapshot. */
+    public List<String> getNewAchievements() {
+        return newAchievements;
+    }
+}
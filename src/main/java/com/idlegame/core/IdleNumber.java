@@ -0,0 +1,494 @@
+package com.idlegame.core;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Compact big number used for all in-game currencies and rates.
+ * The value is {@code mantissa * 10^exponent} with {@code 1 <= |mantissa| < 10}
+ * (or mantissa and exponent both 0), so it reaches far beyond {@link Double#MAX_VALUE}
+ * while every operation stays O(1).
+ *
+ * <p>Methods named like BigDecimal's ({@link #add}, {@link #multiply}, ...) return a new
+ * instance and leave this one untouched. The {@code ...InPlace} variants mutate and
+ * return {@code this} so hot paths can run without allocating. Because instances are
+ * mutable, systems hand out copies and never their internal state.
+ */
+public final class IdleNumber implements Comparable<IdleNumber> {
+    /** Beyond this exponent gap the smaller operand cannot change the larger one. */
+    private static final int MAX_SIGNIFICANT_DIGITS = 17;
+    /** Largest exponent whose value still converts to a finite double. */
+    private static final int DOUBLE_EXPONENT_LIMIT = 308;
+    private static final double[] POW10 = new double[MAX_SIGNIFICANT_DIGITS + 6];
+
+    static {
+        double value = 1.0;
+        for (int i = 0; i < POW10.length; i++) {
+            POW10[i] = value;
+            value *= 10.0;
+        }
+    }
+
+    private double mantissa;
+    private long exponent;
+
+    public IdleNumber() {
+        this.mantissa = 0.0;
+        this.exponent = 0L;
+    }
+
+    public IdleNumber(double mantissa, long exponent) {
+        this.mantissa = mantissa;
+        this.exponent = exponent;
+        normalize();
+    }
+
+    public static IdleNumber zero() {
+        return new IdleNumber();
+    }
+
+    public static IdleNumber one() {
+        return new IdleNumber(1.0, 0L);
+    }
+
+    public static IdleNumber of(double value) {
+        return new IdleNumber(value, 0L);
+    }
+
+    public static IdleNumber of(BigDecimal value) {
+        return new IdleNumber().set(value);
+    }
+
+    /**
+     * Parses plain decimal ({@code "1500"}) or scientific ({@code "1.5e3"}) notation,
+     * including exponents far outside the double range.
+     */
+    public static IdleNumber parse(String text) {
+        String trimmed = text.trim();
+        int e = Math.max(trimmed.indexOf('e'), trimmed.indexOf('E'));
+        if (e < 0) {
+            return of(new BigDecimal(trimmed));
+        }
+        return new IdleNumber(Double.parseDouble(trimmed.substring(0, e)),
+            Long.parseLong(trimmed.substring(e + 1)));
+    }
+
+    public IdleNumber copy() {
+        IdleNumber copy = new IdleNumber();
+        copy.mantissa = mantissa;
+        copy.exponent = exponent;
+        return copy;
+    }
+
+    public IdleNumber set(IdleNumber other) {
+        this.mantissa = other.mantissa;
+        this.exponent = other.exponent;
+        return this;
+    }
+
+    public IdleNumber set(double value) {
+        this.mantissa = value;
+        this.exponent = 0L;
+        return normalize();
+    }
+
+    public IdleNumber set(double mantissa, long exponent) {
+        this.mantissa = mantissa;
+        this.exponent = exponent;
+        return normalize();
+    }
+
+    public IdleNumber set(BigDecimal value) {
+        if (value.signum() == 0) {
+            return setZero();
+        }
+        long magnitude = (long) value.precision() - value.scale() - 1;
+        if (Math.abs(magnitude) < DOUBLE_EXPONENT_LIMIT) {
+            return set(value.doubleValue());
+        }
+        this.mantissa = value.movePointLeft((int) magnitude).doubleValue();
+        this.exponent = magnitude;
+        return normalize();
+    }
+
+    public IdleNumber setZero() {
+        this.mantissa = 0.0;
+        this.exponent = 0L;
+        return this;
+    }
+
+    // ---- In-place arithmetic -------------------------------------------------------
+
+    public IdleNumber addInPlace(IdleNumber other) {
+        return addInPlace(other.mantissa, other.exponent);
+    }
+
+    public IdleNumber addInPlace(double value) {
+        if (value == 0.0) {
+            return this;
+        }
+        long valueExponent = (long) Math.floor(Math.log10(Math.abs(value)));
+        double valueMantissa;
+        if (valueExponent >= 0) {
+            valueMantissa = valueExponent < POW10.length ? value / POW10[(int) valueExponent] : value / Math.pow(10.0, valueExponent);
+        } else {
+            valueMantissa = -valueExponent < POW10.length ? value * POW10[(int) -valueExponent] : value * Math.pow(10.0, -valueExponent);
+        }
+        return addInPlace(valueMantissa, valueExponent);
+    }
+
+    public IdleNumber subtractInPlace(IdleNumber other) {
+        return addInPlace(-other.mantissa, other.exponent);
+    }
+
+    public IdleNumber multiplyInPlace(IdleNumber other) {
+        if (mantissa == 0.0 || other.mantissa == 0.0) {
+            return setZero();
+        }
+        mantissa *= other.mantissa;
+        exponent += other.exponent;
+        return normalize();
+    }
+
+    public IdleNumber multiplyInPlace(double factor) {
+        if (mantissa == 0.0 || factor == 0.0) {
+            return setZero();
+        }
+        mantissa *= factor;
+        return normalize();
+    }
+
+    public IdleNumber divideInPlace(IdleNumber divisor) {
+        if (divisor.mantissa == 0.0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (mantissa == 0.0) {
+            return this;
+        }
+        mantissa /= divisor.mantissa;
+        exponent -= divisor.exponent;
+        return normalize();
+    }
+
+    public IdleNumber divideInPlace(double divisor) {
+        if (divisor == 0.0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (mantissa == 0.0) {
+            return this;
+        }
+        mantissa /= divisor;
+        return normalize();
+    }
+
+    /**
+     * Raises this value to {@code power} in constant time, regardless of how large
+     * the power is. Negative bases are only supported for integral powers.
+     */
+    public IdleNumber powInPlace(double power) {
+        if (mantissa == 0.0) {
+            return power == 0.0 ? set(1.0) : this;
+        }
+        boolean negative = mantissa < 0.0 && Math.abs(power % 2.0) == 1.0;
+        if (exponent == 0L) {
+            // Small bases stay exact to the last ulp while the result fits in a double
+            double direct = Math.pow(Math.abs(mantissa), power);
+            if (direct != 0.0 && Double.isFinite(direct)) {
+                return set(negative ? -direct : direct);
+            }
+        }
+        double scaledExponent = power * exponent;
+        double whole = Math.floor(scaledExponent);
+        double fraction = (scaledExponent - whole) + power * Math.log10(Math.abs(mantissa));
+        double fractionWhole = Math.floor(fraction);
+        mantissa = Math.pow(10.0, fraction - fractionWhole);
+        exponent = (long) whole + (long) fractionWhole;
+        if (negative) {
+            mantissa = -mantissa;
+        }
+        return normalize();
+    }
+
+    /**
+     * Multiplies by {@code base^power} without materialising the power, so the
+     * factor may lie far outside the double range. {@code base} must be positive.
+     */
+    public IdleNumber multiplyByPowerInPlace(double base, double power) {
+        if (mantissa == 0.0) {
+            return this;
+        }
+        double direct = Math.pow(base, power);
+        if (direct != 0.0 && Double.isFinite(direct)) {
+            return multiplyInPlace(direct);
+        }
+        double scaled = power * Math.log10(base);
+        double whole = Math.floor(scaled);
+        mantissa *= Math.pow(10.0, scaled - whole);
+        exponent += (long) whole;
+        return normalize();
+    }
+
+    /**
+     * Rounds towards negative infinity at the given number of decimal places.
+     * Values too large to carry a fractional part are left untouched.
+     */
+    public IdleNumber floorInPlace(int decimals) {
+        if (mantissa == 0.0 || exponent + decimals >= MAX_SIGNIFICANT_DIGITS) {
+            return this;
+        }
+        if (exponent + decimals < 0) {
+            // -10^-decimals, built from the exponent so any precision works
+            return mantissa > 0.0 ? setZero() : set(-1.0, -(long) decimals);
+        }
+        mantissa = Math.floor(mantissa * POW10[(int) (exponent + decimals)]);
+        exponent = -decimals;
+        return normalize();
+    }
+
+    public IdleNumber negateInPlace() {
+        mantissa = -mantissa;
+        return this;
+    }
+
+    public IdleNumber minInPlace(IdleNumber other) {
+        return compareTo(other) > 0 ? set(other) : this;
+    }
+
+    public IdleNumber maxInPlace(IdleNumber other) {
+        return compareTo(other) < 0 ? set(other) : this;
+    }
+
+    // ---- Allocating arithmetic -----------------------------------------------------
+
+    public IdleNumber add(IdleNumber other) {
+        return copy().addInPlace(other);
+    }
+
+    public IdleNumber subtract(IdleNumber other) {
+        return copy().subtractInPlace(other);
+    }
+
+    public IdleNumber multiply(IdleNumber other) {
+        return copy().multiplyInPlace(other);
+    }
+
+    public IdleNumber multiply(double factor) {
+        return copy().multiplyInPlace(factor);
+    }
+
+    public IdleNumber divide(IdleNumber divisor) {
+        return copy().divideInPlace(divisor);
+    }
+
+    public IdleNumber divide(double divisor) {
+        return copy().divideInPlace(divisor);
+    }
+
+    public IdleNumber pow(double power) {
+        return copy().powInPlace(power);
+    }
+
+    // ---- Inspection and comparison -------------------------------------------------
+
+    public double getMantissa() {
+        return mantissa;
+    }
+
+    public long getExponent() {
+        return exponent;
+    }
+
+    public boolean isZero() {
+        return mantissa == 0.0;
+    }
+
+    public int signum() {
+        return mantissa > 0.0 ? 1 : (mantissa < 0.0 ? -1 : 0);
+    }
+
+    /**
+     * Base-10 logarithm of the absolute value; negative infinity for zero.
+     */
+    public double log10() {
+        return mantissa == 0.0 ? Double.NEGATIVE_INFINITY : Math.log10(Math.abs(mantissa)) + exponent;
+    }
+
+    /**
+     * Converts to a double, saturating to infinity above {@link Double#MAX_VALUE}.
+     */
+    public double toDouble() {
+        if (mantissa == 0.0) {
+            return 0.0;
+        }
+        if (exponent > DOUBLE_EXPONENT_LIMIT) {
+            return mantissa > 0.0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        }
+        if (exponent < -DOUBLE_EXPONENT_LIMIT - MAX_SIGNIFICANT_DIGITS) {
+            return 0.0;
+        }
+        if (exponent >= 0 && exponent < POW10.length) {
+            return mantissa * POW10[(int) exponent];
+        }
+        if (exponent < 0 && -exponent < POW10.length) {
+            return mantissa / POW10[(int) -exponent];
+        }
+        return mantissa * Math.pow(10.0, exponent);
+    }
+
+    /**
+     * Exact decimal value of this number, for persistence only.
+     *
+     * @throws ArithmeticException if the exponent is beyond a {@link BigDecimal}'s int scale
+     */
+    public BigDecimal toBigDecimal() {
+        if (mantissa == 0.0) {
+            return BigDecimal.ZERO;
+        }
+        if (exponent > Integer.MAX_VALUE || exponent < Integer.MIN_VALUE) {
+            throw new ArithmeticException("Exponent " + exponent + " does not fit a BigDecimal");
+        }
+        return BigDecimal.valueOf(mantissa).scaleByPowerOfTen((int) exponent);
+    }
+
+    @Override
+    public int compareTo(IdleNumber other) {
+        int sign = signum();
+        int otherSign = other.signum();
+        if (sign != otherSign) {
+            return Integer.compare(sign, otherSign);
+        }
+        if (sign == 0) {
+            return 0;
+        }
+        int magnitude = exponent != other.exponent
+            ? Long.compare(exponent, other.exponent)
+            : Double.compare(Math.abs(mantissa), Math.abs(other.mantissa));
+        return sign > 0 ? magnitude : -magnitude;
+    }
+
+    /**
+     * Compares against a plain double without allocating.
+     */
+    public int compareTo(double value) {
+        if (exponent > DOUBLE_EXPONENT_LIMIT) {
+            return signum();
+        }
+        double self = toDouble();
+        return self < value ? -1 : (self > value ? 1 : 0);
+    }
+
+    public boolean isGreaterThanOrEqual(IdleNumber other) {
+        return compareTo(other) >= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdleNumber)) {
+            return false;
+        }
+        IdleNumber other = (IdleNumber) o;
+        return Double.compare(mantissa, other.mantissa) == 0 && exponent == other.exponent;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(mantissa) + Long.hashCode(exponent);
+    }
+
+    /**
+     * Plain notation while the value fits comfortably in a double,
+     * scientific notation ({@code 1.5e300}) beyond that.
+     */
+    @Override
+    public String toString() {
+        return format(2);
+    }
+
+    public String format(int fractionDigits) {
+        if (mantissa == 0.0) {
+            return "0";
+        }
+        if (exponent < 0 || exponent >= 21) {
+            return String.format("%." + fractionDigits + "fe%d", mantissa, exponent);
+        }
+        return toBigDecimal().setScale(fractionDigits, RoundingMode.HALF_UP)
+            .stripTrailingZeros().toPlainString();
+    }
+
+    // ---- Internals -----------------------------------------------------------------
+
+    private IdleNumber addInPlace(double otherMantissa, long otherExponent) {
+        if (otherMantissa == 0.0) {
+            return this;
+        }
+        if (mantissa == 0.0) {
+            mantissa = otherMantissa;
+            exponent = otherExponent;
+            return normalize();
+        }
+        long diff = otherExponent - exponent;
+        if (diff > MAX_SIGNIFICANT_DIGITS) {
+            mantissa = otherMantissa;
+            exponent = otherExponent;
+            return normalize();
+        }
+        if (diff < -MAX_SIGNIFICANT_DIGITS) {
+            return this;
+        }
+        if (diff >= 0) {
+            mantissa = mantissa / POW10[(int) diff] + otherMantissa;
+            exponent = otherExponent;
+        } else {
+            mantissa = mantissa + otherMantissa / POW10[(int) -diff];
+        }
+        return normalize();
+    }
+
+    private IdleNumber normalize() {
+        if (mantissa == 0.0 || !Double.isFinite(mantissa)) {
+            if (mantissa == 0.0) {
+                exponent = 0L;
+            }
+            return this;
+        }
+        double abs = Math.abs(mantissa);
+        if (abs >= 1.0 && abs < 10.0) {
+            return this;
+        }
+        if (abs >= 10.0 && abs < 100.0) {
+            mantissa /= 10.0;
+            exponent++;
+            return this;
+        }
+        if (abs < 1.0 && abs >= 0.1) {
+            mantissa *= 10.0;
+            exponent--;
+            return this;
+        }
+        if (abs < 1e-300) {
+            mantissa *= 1e300;
+            exponent -= 300;
+            abs = Math.abs(mantissa);
+        }
+        int shift = (int) Math.floor(Math.log10(abs));
+        if (shift > 0) {
+            mantissa /= shift < POW10.length ? POW10[shift] : Math.pow(10.0, shift);
+        } else {
+            mantissa *= -shift < POW10.length ? POW10[-shift] : Math.pow(10.0, -shift);
+        }
+        exponent += shift;
+        // log10 can be off by one ulp around exact powers of ten
+        abs = Math.abs(mantissa);
+        if (abs >= 10.0) {
+            mantissa /= 10.0;
+            exponent++;
+        } else if (abs < 1.0) {
+            mantissa *= 10.0;
+            exponent--;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,321 @@
+package com.idlegame.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Named engine metrics: lock-free counters, gauges read from a supplier, and histograms
+ * with fixed power-of-two buckets. Recording never locks or allocates, so any thread may
+ * record while JMX clients and the summary line read.
+ *
+ * <p>Once {@link #registerMBeans} is called every metric, including those created later,
+ * is an MXBean named {@code com.idlegame:type=<Counter|Gauge|Histogram>,scope=<scope>,name=<name>},
+ * so JConsole or any JMX client can watch a running game without a profiler.
+ */
+public final class MetricsRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    public static final String DOMAIN = "com.idlegame";
+
+    // HotSpot's extension of ThreadMXBean, or null where per-thread allocation is not tracked
+    private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+
+    private final String scope;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private volatile MBeanServer server;
+
+    public MetricsRegistry(String scope) {
+        this.scope = scope;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * The counter with the given name, created on first use.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> register("Counter", key, new Counter()));
+    }
+
+    /**
+     * Exposes {@code value} as a gauge, replacing any gauge of the same name.
+     */
+    public Gauge gauge(String name, LongSupplier value) {
+        Gauge gauge = gauges.computeIfAbsent(name, key -> register("Gauge", key, new Gauge()));
+        gauge.value = value;
+        return gauge;
+    }
+
+    /**
+     * The histogram with the given name, created on first use.
+     *
+     * @param unit what recorded values count, e.g. "ns" or "bytes"
+     */
+    public Histogram histogram(String name, String unit) {
+        return histograms.computeIfAbsent(name, key -> register("Histogram", key, new Histogram(unit)));
+    }
+
+    /**
+     * Registers every metric with the platform MBean server, now and as they are created.
+     * A metric whose name is already taken, e.g. by another game with the same scope, is
+     * skipped with a warning.
+     */
+    public synchronized void registerMBeans() {
+        if (server != null) {
+            return;
+        }
+        server = ManagementFactory.getPlatformMBeanServer();
+        counters.forEach((name, counter) -> register("Counter", name, counter));
+        gauges.forEach((name, gauge) -> register("Gauge", name, gauge));
+        histograms.forEach((name, histogram) -> register("Histogram", name, histogram));
+    }
+
+    public synchronized void unregisterMBeans() {
+        MBeanServer registered = server;
+        if (registered == null) {
+            return;
+        }
+        server = null;
+        try {
+            for (ObjectName name : registered.queryNames(new ObjectName(DOMAIN + ":scope=" + ObjectName.quote(scope) + ",*"), null)) {
+                registered.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            logger.warn("Failed to unregister metrics for {}", scope, e);
+        }
+    }
+
+    private <T> T register(String type, String name, T metric) {
+        MBeanServer registered = server;
+        if (registered != null) {
+            try {
+                registered.registerMBean(metric, objectName(type, name));
+            } catch (InstanceAlreadyExistsException e) {
+                logger.warn("Metric {} of {} is already registered", name, scope);
+            } catch (JMException e) {
+                logger.warn("Failed to register metric {} of {}", name, scope, e);
+            }
+        }
+        return metric;
+    }
+
+    ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",scope=" + ObjectName.quote(scope)
+            + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * One line with every histogram's count and percentiles, then every counter and gauge,
+     * in name order, for the periodic summary log.
+     */
+    public String summary() {
+        StringBuilder line = new StringBuilder(256).append(scope).append(':');
+        histograms.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            Histogram histogram = entry.getValue();
+            line.append(' ').append(entry.getKey())
+                .append("[n=").append(histogram.getCount())
+                .append(" p50=").append(histogram.getP50())
+                .append(" p99=").append(histogram.getP99())
+                .append(" max=").append(histogram.getMax())
+                .append(' ').append(histogram.getUnit()).append(']');
+        });
+        counters.entrySet().stream().sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> line.append(' ').append(entry.getKey()).append('=').append(entry.getValue().getValue()));
+        gauges.entrySet().stream().sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> line.append(' ').append(entry.getKey()).append('=').append(entry.getValue().getValue()));
+        return line.toString();
+    }
+
+    /**
+     * Bytes allocated by the calling thread so far, or -1 if the JVM does not track it.
+     */
+    public static long currentThreadAllocatedBytes() {
+        return ALLOCATION == null ? -1 : ALLOCATION.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        if (!allocation.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        allocation.setThreadAllocatedMemoryEnabled(true);
+        return allocation;
+    }
+
+    public interface CounterMXBean {
+        long getValue();
+    }
+
+    public interface GaugeMXBean {
+        long getValue();
+    }
+
+    public interface HistogramMXBean {
+        String getUnit();
+
+        long getCount();
+
+        long getMax();
+
+        double getMean();
+
+        long getP50();
+
+        long getP90();
+
+        long getP99();
+
+        void reset();
+    }
+
+    public static final class Counter implements CounterMXBean {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        @Override
+        public long getValue() {
+            return value.sum();
+        }
+    }
+
+    public static final class Gauge implements GaugeMXBean {
+        private volatile LongSupplier value = () -> 0;
+
+        private Gauge() {
+        }
+
+        @Override
+        public long getValue() {
+            return value.getAsLong();
+        }
+    }
+
+    /**
+     * Counts values in buckets of doubling width: bucket 0 holds values up to 0 and bucket
+     * {@code b} values below 2^b. Percentiles are the upper bound of the bucket they fall
+     * in, so they overstate by at most 2x, capped at the exact maximum.
+     */
+    public static final class Histogram implements HistogramMXBean {
+        private static final int BUCKETS = 65;
+
+        private final String unit;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram(String unit) {
+            this.unit = unit;
+        }
+
+        public void record(long value) {
+            int bucket = value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value);
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            sum.add(value);
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        @Override
+        public String getUnit() {
+            return unit;
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getMax() {
+            return max.get();
+        }
+
+        @Override
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given fraction of recorded values, or 0
+         * if nothing was recorded.
+         */
+        public long percentile(double fraction) {
+            long total = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                total += buckets.get(b);
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += buckets.get(b);
+                if (seen >= rank && seen > 0) {
+                    long upper = b == 0 ? 0 : b >= 63 ? Long.MAX_VALUE : (1L << b) - 1;
+                    return Math.min(upper, max.get());
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public long getP50() {
+            return percentile(0.50);
+        }
+
+        @Override
+        public long getP90() {
+            return percentile(0.90);
+        }
+
+        @Override
+        public long getP99() {
+            return percentile(0.99);
+        }
+
+        /**
+         * Clears the histogram. Values recorded concurrently may be half counted.
+         */
+        @Override
+        public void reset() {
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets.set(b, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+    }
+}
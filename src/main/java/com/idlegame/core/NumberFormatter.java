@@ -0,0 +1,220 @@
+package com.idlegame.core;
+
+/**
+ * Formats {@link IdleNumber}s for display without allocating.
+ *
+ * <p>Values below 1000 are written plainly with up to {@code precision} fraction digits.
+ * Larger values use the formatter's {@link Notation} with exactly {@code precision}
+ * fraction digits: {@code 1.50K}, {@code 270.00Qi}, {@code 1.50e21}, {@code 270.00e18}.
+ * {@link #formatTo} appends to a caller's {@link StringBuilder}; {@link #format} returns a
+ * String and hands back the same instance while the input value is unchanged, so a label
+ * refreshed every frame only allocates when its text actually changes.
+ *
+ * <p>Instances keep scratch state and are not thread-safe; give each thread (or each
+ * label, to make the most of the cache) its own.
+ */
+public final class NumberFormatter {
+
+    public enum Notation {
+        /** K, M, B, T, Qa, ... up to Vg (1e63), scientific beyond. */
+        SUFFIX,
+        /** a, b, ... z, aa, ab, ... for each power of 1000, without limit. */
+        LETTER,
+        /** One integer digit and a power of ten: {@code 1.50e21}. */
+        SCIENTIFIC,
+        /** One to three integer digits and a power of ten divisible by three: {@code 1.50e21}. */
+        ENGINEERING
+    }
+
+    private static final String[] SUFFIXES = {
+        "", "K", "M", "B", "T", "Qa", "Qi", "Sx", "Sp", "Oc", "No",
+        "Dc", "Ud", "Dd", "Td", "Qad", "Qid", "Sxd", "Spd", "Ocd", "Nod", "Vg"
+    };
+    private static final int MAX_PRECISION = 9;
+    private static final long[] POW10 = new long[MAX_PRECISION + 4];
+
+    static {
+        long value = 1;
+        for (int i = 0; i < POW10.length; i++) {
+            POW10[i] = value;
+            value *= 10;
+        }
+    }
+
+    private final Notation notation;
+    private final int precision;
+    // Output of format(); reused across calls
+    private final StringBuilder buffer = new StringBuilder(32);
+    private final char[] letters = new char[16];
+
+    // Input and output of the last format() call
+    private double cachedMantissa = Double.NaN;
+    private long cachedExponent;
+    private String cached;
+
+    // Result of split(): value = scaled * 1000^group, 1 <= scaled < 1000 once rounded
+    private double scaled;
+    private long group;
+
+    public NumberFormatter(Notation notation, int precision) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION);
+        }
+        this.notation = notation;
+        this.precision = precision;
+    }
+
+    /**
+     * Suffix notation with two fraction digits, the game's default display format.
+     */
+    public static NumberFormatter standard() {
+        return new NumberFormatter(Notation.SUFFIX, 2);
+    }
+
+    public Notation getNotation() {
+        return notation;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * The formatted value; the same String as last time if the value has not changed.
+     */
+    public String format(IdleNumber value) {
+        if (cached == null || value.getMantissa() != cachedMantissa || value.getExponent() != cachedExponent) {
+            buffer.setLength(0);
+            formatTo(value, buffer);
+            cached = buffer.toString();
+            cachedMantissa = value.getMantissa();
+            cachedExponent = value.getExponent();
+        }
+        return cached;
+    }
+
+    /**
+     * Appends the formatted value to {@code out}. Allocates nothing beyond growing
+     * {@code out}.
+     */
+    public StringBuilder formatTo(IdleNumber value, StringBuilder out) {
+        double mantissa = value.getMantissa();
+        long exponent = value.getExponent();
+        if (mantissa == 0.0) {
+            return out.append('0');
+        }
+        if (mantissa < 0) {
+            out.append('-');
+            mantissa = -mantissa;
+        }
+
+        if (exponent < 3) {
+            double plain = mantissa * Math.pow(10, exponent);
+            if (Math.round(plain * POW10[precision]) < 1000 * POW10[precision]) {
+                return appendFixed(out, plain, true);
+            }
+        }
+
+        if (notation == Notation.SCIENTIFIC) {
+            return appendScientific(out, mantissa, exponent);
+        }
+        split(mantissa, exponent);
+        switch (notation) {
+            case SUFFIX:
+                if (group >= SUFFIXES.length) {
+                    return appendScientific(out, mantissa, exponent);
+                }
+                return appendFixed(out, scaled, false).append(SUFFIXES[(int) group]);
+            case LETTER:
+                return appendLetters(appendFixed(out, scaled, false), group);
+            default:
+                return appendFixed(out, scaled, false).append('e').append(group * 3);
+        }
+    }
+
+    /**
+     * Formats a duration in seconds, rounded up, as its two largest units: {@code 45s},
+     * {@code 3m 05s}, {@code 2h 07m}, {@code 3d 04h}; {@code never} if it is infinite.
+     */
+    public static String formatDuration(double seconds) {
+        if (Double.isInfinite(seconds) || Double.isNaN(seconds)) {
+            return "never";
+        }
+        long total = (long) Math.ceil(Math.max(0.0, seconds));
+        if (total < 60) {
+            return total + "s";
+        }
+        if (total < 3600) {
+            return twoUnits(total / 60, 'm', total % 60, 's');
+        }
+        if (total < 86400) {
+            return twoUnits(total / 3600, 'h', total % 3600 / 60, 'm');
+        }
+        return twoUnits(total / 86400, 'd', total % 86400 / 3600, 'h');
+    }
+
+    private static String twoUnits(long major, char majorUnit, long minor, char minorUnit) {
+        return major + String.valueOf(majorUnit) + (minor < 10 ? " 0" : " ") + minor + minorUnit;
+    }
+
+    /**
+     * Splits {@code mantissa * 10^exponent} into {@link #scaled} and {@link #group},
+     * moving to the next group if rounding to {@code precision} digits reaches 1000.
+     */
+    private void split(double mantissa, long exponent) {
+        long shift = Math.floorMod(exponent, 3);
+        group = Math.floorDiv(exponent, 3);
+        scaled = mantissa * POW10[(int) shift];
+        if (Math.round(scaled * POW10[precision]) >= 1000 * POW10[precision]) {
+            scaled /= 1000;
+            group++;
+        }
+    }
+
+    private StringBuilder appendScientific(StringBuilder out, double mantissa, long exponent) {
+        if (Math.round(mantissa * POW10[precision]) >= 10 * POW10[precision]) {
+            mantissa /= 10;
+            exponent++;
+        }
+        return appendFixed(out, mantissa, false).append('e').append(exponent);
+    }
+
+    /**
+     * Appends a non-negative value below 1000 with {@code precision} fraction digits,
+     * dropping trailing zeros if {@code trim}.
+     */
+    private StringBuilder appendFixed(StringBuilder out, double value, boolean trim) {
+        long scale = POW10[precision];
+        long rounded = Math.round(value * scale);
+        out.append(rounded / scale);
+        long fraction = rounded % scale;
+        int digits = precision;
+        if (trim) {
+            while (digits > 0 && fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+        }
+        if (digits > 0) {
+            out.append('.');
+            for (int i = digits - 1; i >= 0; i--) {
+                out.append((char) ('0' + fraction / POW10[i] % 10));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Appends the letters for a power of 1000: 1 is "a", 26 is "z", 27 is "aa".
+     */
+    private StringBuilder appendLetters(StringBuilder out, long group) {
+        int length = 0;
+        for (long n = group; n > 0; n = (n - 1) / 26) {
+            letters[length++] = (char) ('a' + (n - 1) % 26);
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            out.append(letters[i]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,244 @@
+package com.idlegame.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Offline catch-up that jumps from one state-changing event to the next instead of ticking.
+ * Between events every rate is constant, so production is integrated in closed form. Events are
+ * the next resource achievement threshold, a resource reaching its cap and, when enabled, the
+ * moment the cheapest building becomes affordable. Each segment is applied through the same
+ * system calls as {@link GameManager#update()}, so a catch-up matches ticking through the same
+ * span up to the tick granularity of when events fire.
+ */
+public class OfflineProgressEngine {
+    private static final Logger logger = LoggerFactory.getLogger(OfflineProgressEngine.class);
+    /** After this many events the rest of the span is integrated as one segment. */
+    private static final int MAX_EVENTS = 100_000;
+    /** Safety bound on autobuy purchases made at a single event. */
+    private static final int MAX_PURCHASES_PER_EVENT = 10_000;
+
+    private final ResourceSystem resourceSystem;
+    private final BuildingSystem buildingSystem;
+    private final AchievementSystem achievementSystem;
+    private final double rateFactor;
+    private boolean autoBuy;
+
+    // Scratch values reused across segments
+    private final IdleNumber buildingRate = new IdleNumber();
+    private final IdleNumber rate = new IdleNumber();
+    private final IdleNumber gain = new IdleNumber();
+    private final IdleNumber gap = new IdleNumber();
+    private final IdleNumber amount = new IdleNumber();
+    private final IdleNumber cost = new IdleNumber();
+    private final IdleNumber cheapest = new IdleNumber();
+    private final IdleNumber earned = new IdleNumber();
+
+    /**
+     * @param rateFactor fraction of normal production earned while offline
+     */
+    public OfflineProgressEngine(ResourceSystem resourceSystem, BuildingSystem buildingSystem,
+                                 AchievementSystem achievementSystem, double rateFactor) {
+        this.resourceSystem = resourceSystem;
+        this.buildingSystem = buildingSystem;
+        this.achievementSystem = achievementSystem;
+        this.rateFactor = rateFactor;
+    }
+
+    /**
+     * Buys the cheapest building whenever it becomes affordable during catch-up.
+     */
+    public void setAutoBuy(boolean autoBuy) {
+        this.autoBuy = autoBuy;
+    }
+
+    /**
+     * Applies {@code offlineMillis} of progress to the systems.
+     */
+    public Result run(long offlineMillis) {
+        GameEvents.OfflineCatchUp event = new GameEvents.OfflineCatchUp();
+        event.begin();
+        long start = System.nanoTime();
+        long remaining = offlineMillis;
+        int events = 0;
+        int purchases = 0;
+        earned.setZero();
+
+        while (remaining > 0) {
+            if (autoBuy) {
+                purchases += buyAffordable();
+            }
+            refreshBuildingRate();
+            long step = events < MAX_EVENTS ? Math.min(remaining, millisToNextEvent(remaining)) : remaining;
+            advance(step);
+            achievementSystem.checkAchievements();
+            remaining -= step;
+            if (remaining > 0) {
+                events++;
+            }
+        }
+
+        Result result = new Result(offlineMillis, events, purchases, earned.copy(), System.nanoTime() - start);
+        logger.info("Offline catch-up: {} earned over {} ms in {} events, {} purchases",
+            result.getPrimaryEarned(), offlineMillis, events, purchases);
+        if (event.shouldCommit()) {
+            event.simulated = offlineMillis;
+            event.events = events;
+            event.purchases = purchases;
+            event.earned = earned.toDouble();
+            event.commit();
+        }
+        return result;
+    }
+
+    private void refreshBuildingRate() {
+        buildingSystem.productionInto(buildingRate).multiplyInPlace(rateFactor);
+    }
+
+    /**
+     * Writes the per-second rate of a resource during the current segment into {@link #rate}.
+     */
+    private IdleNumber rateOf(int resource) {
+        resourceSystem.effectiveGenerationRateInto(resource, buildingSystem, rate).multiplyInPlace(rateFactor);
+        if (resource == ResourceRegistry.PRIMARY) {
+            rate.addInPlace(buildingRate);
+        }
+        return rate;
+    }
+
+    /**
+     * Milliseconds until the next event, rounded up so the event is crossed, or
+     * {@code horizon} if nothing happens before then.
+     */
+    private long millisToNextEvent(long horizon) {
+        double seconds = horizon / 1000.0;
+
+        double threshold = achievementSystem.getNextResourceThreshold();
+        if (!Double.isNaN(threshold) && buildingRate.signum() > 0) {
+            gap.set(threshold).subtractInPlace(achievementSystem.getTotalResourcesGained());
+            seconds = Math.min(seconds, gap.divideInPlace(buildingRate).toDouble());
+        }
+
+        for (int resource = 0; resource < resourceSystem.getRegistry().size(); resource++) {
+            if (!resourceSystem.isGenerated(resource)
+                    || resourceSystem.getResourceCapInto(resource, gap) == null
+                    || rateOf(resource).signum() <= 0) {
+                continue;
+            }
+            gap.subtractInPlace(resourceSystem.getAmountInto(resource, amount));
+            if (gap.signum() > 0) {
+                seconds = Math.min(seconds, gap.divideInPlace(rate).toDouble());
+            }
+        }
+
+        if (autoBuy && cheapestCost() >= 0 && rateOf(ResourceRegistry.PRIMARY).signum() > 0) {
+            IdleNumber cap = resourceSystem.getResourceCapInto(ResourceRegistry.PRIMARY, gap);
+            if (cap == null || cheapest.compareTo(cap) <= 0) {
+                gap.set(cheapest).subtractInPlace(resourceSystem.getAmountInto(ResourceRegistry.PRIMARY, amount));
+                seconds = Math.min(seconds, gap.divideInPlace(rate).toDouble());
+            }
+        }
+
+        return Math.max(1L, (long) Math.ceil(seconds * 1000.0));
+    }
+
+    /**
+     * Integrates every rate over {@code millis}. Base generation is credited before the
+     * building gain that counts toward achievements, so a threshold crossed at the end of
+     * the segment only raises rates from the next segment on.
+     */
+    private void advance(long millis) {
+        double seconds = millis / 1000.0;
+
+        for (int resource = 0; resource < resourceSystem.getRegistry().size(); resource++) {
+            if (!resourceSystem.isGenerated(resource)) {
+                continue;
+            }
+            resourceSystem.effectiveGenerationRateInto(resource, buildingSystem, gain)
+                .multiplyInPlace(rateFactor).multiplyInPlace(seconds);
+            resourceSystem.add(resource, gain);
+            if (resource == ResourceRegistry.PRIMARY) {
+                earned.addInPlace(gain);
+            }
+        }
+
+        gain.set(buildingRate).multiplyInPlace(seconds);
+        if (gain.signum() > 0) {
+            resourceSystem.add(ResourceRegistry.PRIMARY, gain);
+            achievementSystem.addResourceGain(gain);
+            earned.addInPlace(gain);
+        }
+    }
+
+    private int buyAffordable() {
+        int bought = 0;
+        while (bought < MAX_PURCHASES_PER_EVENT) {
+            int index = cheapestCost();
+            if (index < 0 || !resourceSystem.canAfford(ResourceRegistry.PRIMARY, cheapest)) {
+                break;
+            }
+            buildingSystem.purchaseBuilding(index);
+            bought++;
+        }
+        if (bought > 0) {
+            achievementSystem.checkAchievements();
+        }
+        return bought;
+    }
+
+    /**
+     * Ordinal of the building with the lowest next cost, written to {@link #cheapest}.
+     */
+    private int cheapestCost() {
+        int choice = -1;
+        int size = buildingSystem.getCatalog().size();
+        for (int i = 0; i < size; i++) {
+            buildingSystem.nextCostInto(i, cost);
+            if (choice < 0 || cost.compareTo(cheapest) < 0) {
+                choice = i;
+                cheapest.set(cost);
+            }
+        }
+        return choice;
+    }
+
+    /**
+     * Outcome of one catch-up.
+     */
+    public static final class Result {
+        private final long simulatedMillis;
+        private final int events;
+        private final int purchases;
+        private final IdleNumber primaryEarned;
+        private final long wallNanos;
+
+        Result(long simulatedMillis, int events, int purchases, IdleNumber primaryEarned, long wallNanos) {
+            this.simulatedMillis = simulatedMillis;
+            this.events = events;
+            this.purchases = purchases;
+            this.primaryEarned = primaryEarned;
+            this.wallNanos = wallNanos;
+        }
+
+        public long getSimulatedMillis() {
+            return simulatedMillis;
+        }
+
+        /** Number of event boundaries crossed before the end of the span. */
+        public int getEvents() {
+            return events;
+        }
+
+        public int getPurchases() {
+            return purchases;
+        }
+
+        public IdleNumber getPrimaryEarned() {
+            return primaryEarned.copy();
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.idlegame.core;
+
+/**
+ * A player action submitted from the UI (or any other thread) and applied by the game
+ * loop at the start of its next tick. See {@link GameManager#submit}.
+ */
+public final class PlayerCommand {
+
+    public enum Type {
+        CLICK,
+        BUY_BUILDING,
+        BUY_UPGRADE,
+        PRESTIGE
+    }
+
+    /** Buy as many of a building as the player can afford. */
+    public static final int BUY_MAX = -1;
+
+    private static final PlayerCommand CLICK = new PlayerCommand(Type.CLICK, null, 1);
+    private static final PlayerCommand PRESTIGE = new PlayerCommand(Type.PRESTIGE, null, 0);
+
+    private final Type type;
+    private final String id;
+    private final long amount;
+
+    private PlayerCommand(Type type, String id, long amount) {
+        this.type = type;
+        this.id = id;
+        this.amount = amount;
+    }
+
+    public static PlayerCommand click() {
+        return CLICK;
+    }
+
+    /** A batch of clicks, as handed out by {@link CommandQueue#drain}. */
+    public static PlayerCommand clicks(long count) {
+        return count == 1 ? CLICK : new PlayerCommand(Type.CLICK, null, count);
+    }
+
+    /**
+     * Buys up to {@code amount} of a building, as many as are affordable when the command
+     * is applied, or {@link #BUY_MAX}.
+     */
+    public static PlayerCommand buyBuilding(String buildingId, int amount) {
+        return new PlayerCommand(Type.BUY_BUILDING, buildingId, amount);
+    }
+
+    public static PlayerCommand buyUpgrade(String upgradeId) {
+        return new PlayerCommand(Type.BUY_UPGRADE, upgradeId, 1);
+    }
+
+    public static PlayerCommand prestige() {
+        return PRESTIGE;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** Building or upgrade id, null for clicks and prestige. */
+    public String getId() {
+        return id;
+    }
+
+    /** Number of clicks, or buildings to buy. */
+    public long getAmount() {
+        return amount;
+    }
+}
@@ -2,41 +2,51 @@ package com.idlegame.core;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 public class PrestigeSystem {
     private static final Logger logger = LoggerFactory.getLogger(PrestigeSystem.class);
-    private BigDecimal prestigePoints;
-    private BigDecimal prestigeMultiplier;
+    private final IdleNumber prestigePoints;
+    private final IdleNumber prestigeMultiplier;
     private final ResourceSystem resourceSystem;
     private final BuildingSystem buildingSystem;
+    // Game time of the last prestige, or of the game's start before the first one
+    private long runStartMillis;
     
-    public PrestigeSystem(ResourceSystem resourceSystem, BuildingSystem buildingSystem) {
+    /**
+     * @param runStartMillis game time at which the first run starts
+     */
+    public PrestigeSystem(ResourceSystem resourceSystem, BuildingSystem buildingSystem, long runStartMillis) {
         this.resourceSystem = resourceSystem;
         this.buildingSystem = buildingSystem;
-        this.prestigePoints = BigDecimal.ZERO;
-        this.prestigeMultiplier = BigDecimal.ONE;
+        this.prestigePoints = IdleNumber.zero();
+        this.prestigeMultiplier = IdleNumber.one();
+        this.runStartMillis = runStartMillis;
         logger.info("Prestige system initialized");
     }
     
     public boolean canPrestige() {
-        return resourceSystem.getResource(GameConstants.PRIMARY_CURRENCY)
+        return resourceSystem.getAmount(GameConstants.PRIMARY_CURRENCY)
             .compareTo(GameConstants.PRESTIGE_REQUIREMENT) >= 0;
     }
     
-    public void prestige() {
+    /**
+     * Converts resources into prestige points and starts a new run at {@code nowMillis}.
+     */
+    public void prestige(long nowMillis) {
         if (!canPrestige()) {
             logger.warn("Attempted to prestige without meeting requirements");
             return;
         }
         
+        GameEvents.Prestige event = new GameEvents.Prestige();
+        event.begin();
+
         // Calculate prestige points to gain
-        BigDecimal currentResources = resourceSystem.getResource(GameConstants.PRIMARY_CURRENCY);
-        BigDecimal newPoints = calculatePrestigePoints(currentResources);
+        IdleNumber currentResources = resourceSystem.getAmount(GameConstants.PRIMARY_CURRENCY);
+        IdleNumber newPoints = calculatePrestigePoints(currentResources);
         
         // Add new prestige points
-        prestigePoints = prestigePoints.add(newPoints);
+        prestigePoints.addInPlace(newPoints);
         
         // Update multiplier
         updatePrestigeMultiplier();
@@ -44,21 +54,29 @@ public class PrestigeSystem {
         // Reset game state but keep building counts
         resourceSystem.reset();
         // buildingSystem.reset(); // Commenting this out to keep building counts
+        runStartMillis = nowMillis;
         
         logger.info("Prestige completed. Gained {} points, new total: {}", 
             newPoints, prestigePoints);
+        if (event.shouldCommit()) {
+            event.pointsGained = newPoints.toDouble();
+            event.multiplier = prestigeMultiplier.toDouble();
+            event.commit();
+        }
     }
     
-    private BigDecimal calculatePrestigePoints(BigDecimal resources) {
-        return resources.divide(GameConstants.PRESTIGE_REQUIREMENT, 2, RoundingMode.FLOOR)
-            .multiply(GameConstants.PRESTIGE_MULTIPLIER);
+    /**
+     * Converts resources into prestige points in place.
+     */
+    static IdleNumber calculatePrestigePoints(IdleNumber resources) {
+        return resources.divideInPlace(GameConstants.PRESTIGE_REQUIREMENT)
+            .floorInPlace(2)
+            .multiplyInPlace(GameConstants.PRESTIGE_MULTIPLIER);
     }
     
     private void updatePrestigeMultiplier() {
         // Each prestige point gives a 1% bonus
-        prestigeMultiplier = BigDecimal.ONE.add(
-            prestigePoints.multiply(new BigDecimal("0.01"))
-        );
+        prestigeMultiplier.set(prestigePoints).multiplyInPlace(0.01).addInPlace(IdleNumber.one());
         
         // Apply the multiplier to resource generation
         resourceSystem.setPrestigeMultiplier(prestigeMultiplier);
@@ -76,27 +94,43 @@ public class PrestigeSystem {
         updatePrestigeMultiplier();
     }
     
-    public BigDecimal getPrestigePoints() {
-        return prestigePoints;
+    public IdleNumber getPrestigePoints() {
+        return prestigePoints.copy();
+    }
+    
+    public IdleNumber getPrestigeMultiplier() {
+        return prestigeMultiplier.copy();
     }
     
-    public BigDecimal getPrestigeMultiplier() {
-        return prestigeMultiplier;
+    /** Game time at which the current run started. */
+    public long getRunStartMillis() {
+        return runStartMillis;
     }
     
-    public BigDecimal getNextPrestigePointsGain() {
-        BigDecimal currentResources = resourceSystem.getResource(GameConstants.PRIMARY_CURRENCY);
-        return calculatePrestigePoints(currentResources);
+    public IdleNumber getNextPrestigePointsGain() {
+        return calculatePrestigePoints(resourceSystem.getAmount(GameConstants.PRIMARY_CURRENCY));
     }
     
-    public void setPrestigePoints(BigDecimal points) {
+    /**
+     * Restores prestige points, multiplier and run start, e.g. from a save, and applies
+     * the multiplier to resource generation and building production.
+     */
+    public void restoreState(IdleNumber points, IdleNumber multiplier, long runStartMillis) {
+        this.runStartMillis = runStartMillis;
+        prestigePoints.set(points);
+        prestigeMultiplier.set(multiplier);
+        resourceSystem.setPrestigeMultiplier(prestigeMultiplier);
+        buildingSystem.setPrestigeMultiplier(prestigeMultiplier);
+    }
+
+    public void setPrestigePoints(IdleNumber points) {
         logger.debug("Setting prestige points to {}", points);
-        this.prestigePoints = points;
+        this.prestigePoints.set(points);
     }
 
-    public void setPrestigeMultiplier(BigDecimal multiplier) {
+    public void setPrestigeMultiplier(IdleNumber multiplier) {
         logger.debug("Setting prestige multiplier to {}", multiplier);
-        this.prestigeMultiplier = multiplier;
+        this.prestigeMultiplier.set(multiplier);
         buildingSystem.setPrestigeMultiplier(multiplier);
     }
 }
@@ -0,0 +1,197 @@
+package com.idlegame.core;
+
+/**
+ * Closed-form projections from a snapshot's primary amount and rate: seconds until each
+ * building, or any other cost, is affordable, seconds until prestige is allowed, and the
+ * prestige point that earns the most prestige points per hour of the current run.
+ *
+ * <p>Without purchases the primary amount grows linearly, so a cost {@code c} is reached
+ * {@code c / rate} seconds after the amount was zero, a figure that only changes when
+ * production or the cost does. The engine keeps it per building and refreshes it when a
+ * snapshot's rate, building counts or prestige points differ from the last refresh; any
+ * other snapshot only recomputes {@code amount / rate}, and reading an ETA is a
+ * subtraction. Resource caps and future purchases are not modeled.
+ *
+ * <p>A prestige gives points in proportion to the amount, so with a linear amount the
+ * points per hour of the run, {@code gain(t) / (t - runStart)}, is monotonic in {@code t}.
+ * If the amount is ahead of {@code rate * elapsed} (clicks, or a higher rate earlier), it
+ * only falls and the best point is the first moment prestige is allowed; otherwise it keeps
+ * rising and the best point is the end of {@link GameConstants#PRESTIGE_PROJECTION_HORIZON}.
+ * The run starts at the snapshot's {@link GameSnapshot#getRunStartMillis()}, the last
+ * prestige, which the save keeps across sessions.
+ *
+ * <p>Instances keep scratch state and are not thread-safe; the UI uses one on the FX thread.
+ */
+public final class ProjectionEngine {
+    /** ETA of a cost that the current rate never reaches. */
+    public static final double NEVER = Double.POSITIVE_INFINITY;
+    private static final double SECONDS_PER_HOUR = 3600.0;
+    private static final double TICK_SECONDS = GameConstants.GAME_TICK_DURATION / 1000.0;
+
+    private GameSnapshot snapshot;
+    private long refreshes;
+
+    // Production key of the last refresh and what was derived from it
+    private final IdleNumber rate = new IdleNumber();
+    private final IdleNumber prestigePoints = new IdleNumber();
+    private int[] counts = new int[0];
+    private double[] costSeconds = new double[0];
+    private double requirementSeconds;
+
+    // Per snapshot
+    private final IdleNumber amount = new IdleNumber();
+    private double amountSeconds;
+    private double bestPrestigeEta = NEVER;
+    private final IdleNumber bestPrestigeGain = new IdleNumber();
+    private final IdleNumber bestPointsPerHour = new IdleNumber();
+    private final IdleNumber scratch = new IdleNumber();
+
+    /**
+     * Projects from {@code snapshot}, refreshing the per-building figures only if its
+     * production differs from the last refresh.
+     *
+     * @return true if the per-building figures were refreshed
+     */
+    public boolean update(GameSnapshot snapshot) {
+        if (snapshot == this.snapshot) {
+            return false;
+        }
+        boolean first = this.snapshot == null;
+        this.snapshot = snapshot;
+        amount.set(snapshot.getPrimaryAmount());
+
+        boolean refresh = first || !rate.equals(snapshot.getPrimaryRate()) || countsChanged(snapshot);
+        IdleNumber points = snapshot.getPrestigePoints();
+        if (first || !points.equals(prestigePoints)) {
+            prestigePoints.set(points);
+            refresh = true;
+        }
+        if (refresh) {
+            refresh(snapshot);
+        }
+        amountSeconds = secondsToEarn(amount);
+        projectPrestige();
+        return refresh;
+    }
+
+    private boolean countsChanged(GameSnapshot snapshot) {
+        if (counts.length != snapshot.getCatalog().size()) {
+            return true;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != snapshot.getBuildingCount(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refresh(GameSnapshot snapshot) {
+        rate.set(snapshot.getPrimaryRate());
+        int size = snapshot.getCatalog().size();
+        if (counts.length != size) {
+            counts = new int[size];
+            costSeconds = new double[size];
+        }
+        for (int i = 0; i < size; i++) {
+            counts[i] = snapshot.getBuildingCount(i);
+            costSeconds[i] = secondsToEarn(snapshot.getBuildingCost(i));
+        }
+        requirementSeconds = secondsToEarn(scratch.set(GameConstants.PRESTIGE_REQUIREMENT));
+        refreshes++;
+    }
+
+    /**
+     * Seconds the current rate takes to earn {@code value} from zero; {@link #NEVER} if it
+     * earns nothing.
+     */
+    private double secondsToEarn(IdleNumber value) {
+        if (value.signum() <= 0) {
+            return 0.0;
+        }
+        if (rate.signum() <= 0) {
+            return NEVER;
+        }
+        return scratch.set(value).divideInPlace(rate).toDouble();
+    }
+
+    private double etaFrom(double seconds, boolean affordable) {
+        if (affordable) {
+            return 0.0;
+        }
+        // The amount is below the cost, so a finite amountSeconds is below a finite seconds
+        return seconds == NEVER ? NEVER : Math.max(0.0, seconds - amountSeconds);
+    }
+
+    private void projectPrestige() {
+        double earliest = getPrestigeEta();
+        double elapsed = (snapshot.getTimeMillis() - snapshot.getRunStartMillis()) / 1000.0;
+        double horizon = GameConstants.PRESTIGE_PROJECTION_HORIZON / 1000.0;
+        if (earliest > horizon) {
+            bestPrestigeEta = NEVER;
+            bestPrestigeGain.setZero();
+            bestPointsPerHour.setZero();
+            return;
+        }
+        // Points per hour falls over the run when the amount is ahead of rate * elapsed. Within a
+        // tick of even it is flat, and the earliest point wins: its multiplier applies sooner
+        bestPrestigeEta = amountSeconds + TICK_SECONDS >= elapsed ? earliest : horizon;
+
+        bestPrestigeGain.set(rate).multiplyInPlace(bestPrestigeEta).addInPlace(amount)
+            .divideInPlace(GameConstants.PRESTIGE_REQUIREMENT)
+            .floorInPlace(2)
+            .multiplyInPlace(GameConstants.PRESTIGE_MULTIPLIER);
+        // A run that prestiges on its first tick still counts as a second long
+        double hours = Math.max(1.0, elapsed + bestPrestigeEta) / SECONDS_PER_HOUR;
+        bestPointsPerHour.set(bestPrestigeGain).divideInPlace(hours);
+    }
+
+    /** Snapshot the projections are from, or null before the first update. */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Seconds after the snapshot until the building with the given ordinal is affordable;
+     * 0 if it already is, {@link #NEVER} if the current rate never gets there.
+     */
+    public double getBuildingEta(int ordinal) {
+        return etaFrom(costSeconds[ordinal], snapshot.isBuildingAffordable(ordinal));
+    }
+
+    /**
+     * Seconds after the snapshot until {@code cost} is affordable, e.g. an upgrade's; 0 if
+     * it already is, {@link #NEVER} if the current rate never gets there.
+     */
+    public double getEta(IdleNumber cost) {
+        return etaFrom(secondsToEarn(cost), amount.compareTo(cost) >= 0);
+    }
+
+    /** Seconds after the snapshot until prestige is allowed. */
+    public double getPrestigeEta() {
+        return etaFrom(requirementSeconds, snapshot.canPrestige());
+    }
+
+    /**
+     * Seconds after the snapshot until the prestige point with the most points per hour of
+     * the run, or {@link #NEVER} if prestige is not allowed within the projection horizon.
+     */
+    public double getBestPrestigeEta() {
+        return bestPrestigeEta;
+    }
+
+    /** Prestige points a prestige at {@link #getBestPrestigeEta()} would award. */
+    public IdleNumber getBestPrestigeGain() {
+        return bestPrestigeGain.copy();
+    }
+
+    /** Points per hour of the run for a prestige at {@link #getBestPrestigeEta()}. */
+    public IdleNumber getBestPointsPerHour() {
+        return bestPointsPerHour.copy();
+    }
+
+    /** Number of times the per-building figures were recomputed. */
+    public long getRefreshCount() {
+        return refreshes;
+    }
+}
@@ -0,0 +1,62 @@
+package com.idlegame.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns every resource id a small integer handle that indexes the state arrays of a
+ * {@link ResourceSystem}. The three currencies from {@link GameConstants} are registered
+ * first and always have the handles {@link #PRIMARY}, {@link #SECONDARY} and
+ * {@link #TERTIARY}; other resources get the next free handle the first time they are
+ * written. Handles are never reused, so callers may keep them.
+ */
+public final class ResourceRegistry {
+    public static final int PRIMARY = 0;
+    public static final int SECONDARY = 1;
+    public static final int TERTIARY = 2;
+
+    private final Map<String, Integer> handles = new HashMap<>();
+    private String[] ids = new String[8];
+    private int size;
+
+    public ResourceRegistry() {
+        register(GameConstants.PRIMARY_CURRENCY);
+        register(GameConstants.SECONDARY_CURRENCY);
+        register(GameConstants.TERTIARY_CURRENCY);
+    }
+
+    /**
+     * Handle of a resource id, registering the id if it is new. Resources are registered
+     * through {@link ResourceSystem#register} so that its arrays grow with the registry.
+     */
+    int register(String resourceId) {
+        Integer handle = handles.get(resourceId);
+        if (handle != null) {
+            return handle;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = resourceId;
+        handles.put(resourceId, size);
+        return size++;
+    }
+
+    /**
+     * Handle of a resource id, or -1 if it was never registered.
+     */
+    public int indexOf(String resourceId) {
+        Integer handle = handles.get(resourceId);
+        return handle == null ? -1 : handle;
+    }
+
+    public String getId(int handle) {
+        return ids[handle];
+    }
+
+    /** Number of registered resources; handles run from 0 to {@code size() - 1}. */
+    public int size() {
+        return size;
+    }
+}
@@ -1,27 +1,71 @@
 package com.idlegame.core;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Manages all game resources including storage, generation rates, and transactions.
- * Uses BigDecimal for precise calculations to prevent floating-point errors.
+ * Amounts are held as {@link IdleNumber}s and updated in place; BigDecimal is only
+ * accepted and returned by the persistence-facing overloads.
+ *
+ * <p>Per-resource state lives in arrays indexed by the handles of a
+ * {@link ResourceRegistry}; a null entry means the resource has no amount, rate or cap.
+ * The handle overloads do no hashing and are what the tick path uses; the String
+ * overloads look the handle up and delegate.
+ *
+ * <p>Click multiplier and generation rates are stats in a {@link StatGraph} shared with
+ * the building system: each resource's effective rate is a cached product of its base
+ * rate, its named multipliers and the building efficiency, recomputed only when one of
+ * those changes.
+ *
+ * <p>Adds, spends and caps on the tick, click and purchase paths go to a
+ * {@link FlightRecorder} shared with the other systems rather than to the debug log.
+ *
+ * <p>In tickless mode ({@link #startTickless}) nothing is added per tick. Each generated
+ * resource is held as its amount at a base time and the rate it has grown at since, and
+ * {@link #advanceTo} only moves the clock, re-basing every resource when the stat graph
+ * changed; any read or write first settles the amounts to the current time, clamping at
+ * caps as ticking would.
  */
 public class ResourceSystem {
     private static final Logger logger = LoggerFactory.getLogger(ResourceSystem.class);
-    
-    private final Map<String, BigDecimal> resources;
-    private final Map<String, BigDecimal> generationRates;
-    private BigDecimal clickMultiplier;
-    private final Map<String, BigDecimal> clickMultipliers = new HashMap<>();
-    private final Map<String, BigDecimal> resourceCaps;
-    private final Map<String, ResourceCategory> resourceCategories;
-    private final Map<String, Map<String, BigDecimal>> resourceMultipliers;
-    private final Map<String, BigDecimal> offlineProgressRates;
+    public static final String STAT_CLICK_MULTIPLIER = "click.multiplier";
+
+    private final ResourceRegistry registry = new ResourceRegistry();
+    private IdleNumber[] amounts;
+    private final StatGraph stats = new StatGraph();
+    // Per resource: base rate input, effective rate product, and whether it is generated
+    private StatGraph.Stat[] baseRates;
+    private StatGraph.Stat[] rates;
+    private boolean[] generated;
+    private IdleNumber[] resourceCaps;
+    private ResourceCategory[] resourceCategories;
+    // Named generation multipliers per resource, each an input of the resource's rate
+    private final List<Map<String, StatGraph.Stat>> resourceMultipliers = new ArrayList<>();
+    private final StatGraph.Stat clickMultiplier = stats.input(STAT_CLICK_MULTIPLIER, 1.0);
+    private final StatGraph.Stat buildingEfficiency = stats.input(BuildingSystem.STAT_EFFICIENCY, 1.0);
+    // Scratch value reused by the tick path so that updating resources does not allocate
+    private final IdleNumber scratch = new IdleNumber();
+    private final FlightRecorder recorder;
+
+    // Tickless mode: amounts of generated resources are as of accrualBaseMillis and grow at
+    // accrualRates, loaded from the stat graph at accrualVersion, until settled at nowMillis
+    private boolean tickless;
+    private StatGraph.Stat primaryAccrual;
+    private IdleNumber[] accrualRates;
+    private long accrualBaseMillis;
+    private long nowMillis;
+    private long accrualVersion;
+    private long accrualEpoch;
 
     public enum ResourceCategory {
         PRIMARY,
@@ -30,208 +74,528 @@ public class ResourceSystem {
     }
 
     public ResourceSystem() {
-        this.resources = new HashMap<>();
-        this.generationRates = new HashMap<>();
-        this.clickMultiplier = BigDecimal.ONE;
-        this.resourceCaps = new HashMap<>();
-        this.resourceCategories = new HashMap<>();
-        this.resourceMultipliers = new HashMap<>();
-        this.offlineProgressRates = new HashMap<>();
-        // Initialize default click multiplier
-        clickMultipliers.put("base", BigDecimal.ONE);
+        this(GameConstants.FLIGHT_RECORDER_CAPACITY);
+    }
+
+    /**
+     * @param recorderCapacity trace records kept by the {@link FlightRecorder}
+     */
+    public ResourceSystem(int recorderCapacity) {
+        this.recorder = new FlightRecorder(recorderCapacity);
+        int capacity = registry.size();
+        this.amounts = new IdleNumber[capacity];
+        this.baseRates = new StatGraph.Stat[capacity];
+        this.rates = new StatGraph.Stat[capacity];
+        this.generated = new boolean[capacity];
+        this.resourceCaps = new IdleNumber[capacity];
+        this.resourceCategories = new ResourceCategory[capacity];
+        this.accrualRates = new IdleNumber[capacity];
         initializeResources();
     }
 
     private void initializeResources() {
         // Initialize with default values from GameConstants
-        resources.put(GameConstants.PRIMARY_CURRENCY, GameConstants.INITIAL_PRIMARY_CURRENCY);
-        resources.put(GameConstants.SECONDARY_CURRENCY, GameConstants.INITIAL_SECONDARY_CURRENCY);
-        resources.put(GameConstants.TERTIARY_CURRENCY, GameConstants.INITIAL_TERTIARY_CURRENCY);
+        amounts[ResourceRegistry.PRIMARY] = IdleNumber.of(GameConstants.INITIAL_PRIMARY_CURRENCY);
+        amounts[ResourceRegistry.SECONDARY] = IdleNumber.of(GameConstants.INITIAL_SECONDARY_CURRENCY);
+        amounts[ResourceRegistry.TERTIARY] = IdleNumber.of(GameConstants.INITIAL_TERTIARY_CURRENCY);
 
         // Initialize generation rates
-        generationRates.put(GameConstants.PRIMARY_CURRENCY, GameConstants.BASE_GENERATION_RATE);
-        generationRates.put(GameConstants.SECONDARY_CURRENCY, GameConstants.BASE_GENERATION_RATE);
-        generationRates.put(GameConstants.TERTIARY_CURRENCY, BigDecimal.ZERO); // Special resource, no base generation
+        baseRate(ResourceRegistry.PRIMARY).set(GameConstants.BASE_GENERATION_RATE);
+        baseRate(ResourceRegistry.SECONDARY).set(GameConstants.BASE_GENERATION_RATE);
+        baseRate(ResourceRegistry.TERTIARY).set(0.0); // Special resource, no base generation
 
         // Set resource categories
-        resourceCategories.put(GameConstants.PRIMARY_CURRENCY, ResourceCategory.PRIMARY);
-        resourceCategories.put(GameConstants.SECONDARY_CURRENCY, ResourceCategory.SECONDARY);
-        resourceCategories.put(GameConstants.TERTIARY_CURRENCY, ResourceCategory.TERTIARY);
+        resourceCategories[ResourceRegistry.PRIMARY] = ResourceCategory.PRIMARY;
+        resourceCategories[ResourceRegistry.SECONDARY] = ResourceCategory.SECONDARY;
+        resourceCategories[ResourceRegistry.TERTIARY] = ResourceCategory.TERTIARY;
+    }
+
+    /**
+     * Handle of a resource id, registering it and growing the state arrays if it is new.
+     */
+    public int register(String resourceId) {
+        int handle = registry.register(resourceId);
+        if (handle >= amounts.length) {
+            int capacity = Math.max(handle + 1, amounts.length * 2);
+            amounts = Arrays.copyOf(amounts, capacity);
+            baseRates = Arrays.copyOf(baseRates, capacity);
+            rates = Arrays.copyOf(rates, capacity);
+            generated = Arrays.copyOf(generated, capacity);
+            resourceCaps = Arrays.copyOf(resourceCaps, capacity);
+            resourceCategories = Arrays.copyOf(resourceCategories, capacity);
+            accrualRates = Arrays.copyOf(accrualRates, capacity);
+        }
+        return handle;
+    }
+
+    /**
+     * Effective rate stat of a resource, created on first use as the product of its base
+     * rate and the building efficiency; named multipliers are added as further inputs.
+     */
+    private StatGraph.Stat rate(int handle) {
+        if (rates[handle] == null) {
+            String resourceId = registry.getId(handle);
+            baseRates[handle] = stats.input(resourceId + ".rate.base", 0.0);
+            rates[handle] = stats.product(resourceId + ".rate", baseRates[handle], buildingEfficiency);
+        }
+        return rates[handle];
+    }
+
+    /**
+     * Base rate stat of a resource, marking the resource as generated.
+     */
+    private StatGraph.Stat baseRate(int handle) {
+        rate(handle);
+        generated[handle] = true;
+        return baseRates[handle];
+    }
+
+    public ResourceRegistry getRegistry() {
+        return registry;
+    }
+
+    public StatGraph getStats() {
+        return stats;
+    }
+
+    /**
+     * Trace of the tick, click and purchase paths, shared with the systems built on this one.
+     */
+    public FlightRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Effective generation rate stat of a resource, or null if it was never generated.
+     * Its inputs are the per-source breakdown of the rate.
+     */
+    public StatGraph.Stat getRateStat(int handle) {
+        return isKnown(handle) ? rates[handle] : null;
+    }
+
+    public StatGraph.Stat getClickMultiplierStat() {
+        return clickMultiplier;
+    }
+
+    /**
+     * Switches to tickless mode at game time {@code nowMillis}.
+     *
+     * @param primaryRate the primary currency's whole rate, base generation and buildings,
+     *                    which the caller otherwise adds each tick itself
+     */
+    public void startTickless(long nowMillis, StatGraph.Stat primaryRate) {
+        this.tickless = true;
+        this.primaryAccrual = primaryRate;
+        this.nowMillis = nowMillis;
+        this.accrualBaseMillis = nowMillis;
+        loadAccrualRates();
+    }
+
+    /**
+     * Settles every amount and returns to ticking with {@link #updateResources}.
+     */
+    public void stopTickless() {
+        settle();
+        tickless = false;
+    }
+
+    public boolean isTickless() {
+        return tickless;
+    }
+
+    /**
+     * Moves the tickless clock to {@code millis}. O(1) unless the stat graph changed since
+     * the last call, in which case every amount is first settled at the old rates, so a
+     * rate changed between two calls applies from the earlier one on, as when ticking.
+     */
+    public void advanceTo(long millis) {
+        if (stats.getVersion() != accrualVersion) {
+            settle();
+            loadAccrualRates();
+        }
+        nowMillis = millis;
+    }
+
+    private void loadAccrualRates() {
+        for (int handle = 0; handle < registry.size(); handle++) {
+            if (!generated[handle]) {
+                accrualRates[handle] = null;
+                continue;
+            }
+            StatGraph.Stat rate = handle == ResourceRegistry.PRIMARY && primaryAccrual != null
+                ? primaryAccrual : rates[handle];
+            if (accrualRates[handle] == null) {
+                accrualRates[handle] = new IdleNumber();
+            }
+            rate.valueInto(accrualRates[handle]);
+        }
+        accrualVersion = stats.getVersion();
+        accrualEpoch++;
+    }
+
+    /**
+     * Brings every amount up to the tickless clock. A no-op when ticking.
+     */
+    private void settle() {
+        if (!tickless || nowMillis == accrualBaseMillis) {
+            return;
+        }
+        double seconds = (nowMillis - accrualBaseMillis) / 1000.0;
+        accrualBaseMillis = nowMillis;
+        for (int handle = 0; handle < registry.size(); handle++) {
+            IdleNumber rate = accrualRates[handle];
+            if (rate != null && generated[handle]) {
+                accrue(handle, scratch.set(rate).multiplyInPlace(seconds));
+            }
+        }
+    }
+
+    /**
+     * Time the tickless clock is at; amounts read now are as of this time.
+     */
+    public long getNowMillis() {
+        return nowMillis;
+    }
+
+    /**
+     * Changes whenever an amount or a tickless rate changes, so while it holds, amounts
+     * read earlier plus {@link #getAccrualRateInto} times the time since give the amounts now.
+     */
+    public long getAccrualEpoch() {
+        return accrualEpoch;
+    }
+
+    /**
+     * Writes the rate a resource grows at in tickless mode into {@code out}, or returns
+     * null if it does not grow.
+     */
+    public IdleNumber getAccrualRateInto(int handle, IdleNumber out) {
+        IdleNumber rate = tickless && isKnown(handle) ? accrualRates[handle] : null;
+        return rate == null ? null : out.set(rate);
     }
 
     /**
      * Updates all resources based on their generation rates.
-     * Called periodically by the game loop to increment resources.
+     * Called periodically by the game loop to increment resources. The building
+     * multiplier is read from the stat graph shared with {@code buildingSystem}.
      */
     public void updateResources(BuildingSystem buildingSystem, long deltaTimeMs) {
-        logger.debug("Updating resources with delta time: {} ms", deltaTimeMs);
-        
         // Convert milliseconds to seconds for rate calculation
-        BigDecimal deltaTime = BigDecimal.valueOf(deltaTimeMs).divide(BigDecimal.valueOf(1000), 10, RoundingMode.HALF_UP);
-        
-        for (Map.Entry<String, BigDecimal> entry : generationRates.entrySet()) {
-            String resourceId = entry.getKey();
-            BigDecimal baseRate = entry.getValue();
-            
-            // Apply building multiplier if applicable
-            BigDecimal multiplier = buildingSystem.getBuildingMultiplier(resourceId);
-            BigDecimal finalRate = baseRate.multiply(multiplier);
-            
-            // Calculate and add resources
-            BigDecimal amount = finalRate.multiply(deltaTime);
-            add(resourceId, amount);
+        double deltaTime = deltaTimeMs / 1000.0;
+        // Tickless amounts are brought up to date first, as add would reuse the scratch
+        settle();
+
+        for (int handle = 0; handle < registry.size(); handle++) {
+            if (!generated[handle]) {
+                continue;
+            }
+
+            // Cached rate with building and resource multipliers, scaled by elapsed time
+            rates[handle].valueInto(scratch).multiplyInPlace(deltaTime);
+
+            addUntraced(handle, scratch);
         }
     }
 
     /**
      * Adds resources to the player's balance.
      */
-    public void add(String resourceId, BigDecimal amount) {
-        BigDecimal current = resources.getOrDefault(resourceId, BigDecimal.ZERO);
-        BigDecimal cap = resourceCaps.getOrDefault(resourceId, BigDecimal.valueOf(Double.MAX_VALUE));
-        BigDecimal newAmount = current.add(amount);
+    public void add(int handle, IdleNumber amount) {
+        addUntraced(handle, amount);
+        recorder.record(FlightRecorder.Event.ADD, handle, amount);
+    }
 
-        if (newAmount.compareTo(cap) > 0) {
-            logger.debug("Resource {} hit cap of {}", resourceId, cap);
-            newAmount = cap;
+    /**
+     * Adds without an ADD record, for the per-tick and click paths whose TICK or CLICK
+     * record already covers the add.
+     */
+    void addUntraced(int handle, IdleNumber amount) {
+        settle();
+        accrualEpoch++;
+        accrue(handle, amount);
+    }
+
+    private void accrue(int handle, IdleNumber amount) {
+        IdleNumber current = amounts[handle];
+        if (current == null) {
+            current = amounts[handle] = IdleNumber.zero();
+        }
+        current.addInPlace(amount);
+
+        IdleNumber cap = resourceCaps[handle];
+        if (cap != null && current.compareTo(cap) > 0) {
+            recorder.record(FlightRecorder.Event.CAP, handle, cap);
+            current.set(cap);
         }
+    }
+
+    public void add(String resourceId, IdleNumber amount) {
+        add(register(resourceId), amount);
+    }
 
-        resources.put(resourceId, newAmount);
-        logger.debug("Added {} {} (new total: {})", amount, resourceId, newAmount);
+    public void add(String resourceId, BigDecimal amount) {
+        add(resourceId, IdleNumber.of(amount));
     }
 
     /**
      * Deducts resources from the player's balance.
      */
-    public void deductResource(String resourceId, BigDecimal amount) {
-        BigDecimal current = resources.getOrDefault(resourceId, BigDecimal.ZERO);
-        BigDecimal newAmount = current.subtract(amount);
-        
-        if (newAmount.compareTo(BigDecimal.ZERO) < 0) {
+    public void deductResource(String resourceId, IdleNumber amount) {
+        settle();
+        accrualEpoch++;
+        int handle = register(resourceId);
+        IdleNumber current = amounts[handle];
+        if (current == null) {
+            current = amounts[handle] = IdleNumber.zero();
+        }
+        current.subtractInPlace(amount);
+
+        if (current.signum() < 0) {
             logger.debug("Deduction would result in negative balance, setting to 0");
-            newAmount = BigDecimal.ZERO;
+            current.setZero();
         }
 
-        resources.put(resourceId, newAmount);
-        logger.debug("Deducted {} {} (new total: {})", amount, resourceId, newAmount);
+        recorder.record(FlightRecorder.Event.DEDUCT, handle, amount);
     }
 
     /**
      * Checks if the player can afford a cost.
      */
-    public boolean canAfford(String resourceId, BigDecimal amount) {
-        BigDecimal current = resources.getOrDefault(resourceId, BigDecimal.ZERO);
-        boolean canAfford = current.compareTo(amount) >= 0;
-        logger.debug("Checking if can afford {} {}: {} (current: {})", 
-            amount, resourceId, canAfford, current);
-        return canAfford;
+    public boolean canAfford(int handle, IdleNumber amount) {
+        settle();
+        IdleNumber current = isKnown(handle) ? amounts[handle] : null;
+        return current == null ? amount.signum() <= 0 : current.compareTo(amount) >= 0;
+    }
+
+    public boolean canAfford(String resourceId, IdleNumber amount) {
+        return canAfford(registry.indexOf(resourceId), amount);
     }
 
     /**
      * Spends resources if the player can afford it.
      */
-    public void spendResource(String resourceId, BigDecimal amount) {
+    public void spendResource(String resourceId, IdleNumber amount) {
         if (canAfford(resourceId, amount)) {
             deductResource(resourceId, amount);
-            logger.debug("Spent {} {}", amount, resourceId);
         } else {
-            logger.debug("Cannot spend {} {} - insufficient funds", amount, resourceId);
+            recorder.record(FlightRecorder.Event.SPEND_DENIED, registry.indexOf(resourceId), amount);
         }
     }
 
     /**
-     * Calculates offline earnings for all resources.
+     * Writes the current amount of a resource into {@code out}.
      */
-    public BigDecimal calculateOfflineEarnings(BuildingSystem buildingSystem, long offlineTimeMs, BigDecimal offlineRate) {
-        logger.debug("Calculating offline earnings for {} ms at {}% rate", offlineTimeMs, offlineRate.multiply(BigDecimal.valueOf(100)));
-        
-        BigDecimal offlineTime = BigDecimal.valueOf(offlineTimeMs).divide(BigDecimal.valueOf(1000), 10, RoundingMode.HALF_UP);
-        BigDecimal baseProduction = buildingSystem.getProduction();
-        return baseProduction.multiply(offlineTime).multiply(offlineRate);
+    public IdleNumber getAmountInto(int handle, IdleNumber out) {
+        settle();
+        IdleNumber amount = isKnown(handle) ? amounts[handle] : null;
+        return amount == null ? out.setZero() : out.set(amount);
     }
 
     /**
      * Gets the current amount of a resource.
      */
-    public BigDecimal getAmount(String resourceId) {
-        return resources.getOrDefault(resourceId, BigDecimal.ZERO);
+    public IdleNumber getAmount(int handle) {
+        return getAmountInto(handle, new IdleNumber());
+    }
+
+    public IdleNumber getAmount(String resourceId) {
+        return getAmount(registry.indexOf(resourceId));
     }
 
+    /**
+     * Gets the current amount of a resource as a BigDecimal, for persistence.
+     */
     public BigDecimal getResource(String resourceId) {
-        return getAmount(resourceId);
+        settle();
+        int handle = registry.indexOf(resourceId);
+        IdleNumber amount = handle < 0 ? null : amounts[handle];
+        return amount == null ? BigDecimal.ZERO : amount.toBigDecimal();
+    }
+
+    /**
+     * Whether the player holds an amount of a resource, even zero.
+     */
+    public boolean hasAmount(int handle) {
+        settle();
+        return isKnown(handle) && amounts[handle] != null;
+    }
+
+    /**
+     * Whether a resource has a generation rate and so is visited by updateResources.
+     */
+    public boolean isGenerated(int handle) {
+        return isKnown(handle) && generated[handle];
+    }
+
+    /**
+     * Whether {@code handle} indexes the arrays; every int-handle accessor reports any other
+     * handle as an absent resource.
+     */
+    private boolean isKnown(int handle) {
+        return handle >= 0 && handle < amounts.length;
     }
 
     /**
      * Gets the current generation rate of a resource.
      */
-    public BigDecimal getGenerationRate(String resourceId) {
-        return generationRates.getOrDefault(resourceId, BigDecimal.ZERO);
+    public IdleNumber getGenerationRate(String resourceId) {
+        int handle = registry.indexOf(resourceId);
+        return handle < 0 || !generated[handle] ? IdleNumber.zero() : baseRates[handle].get();
+    }
+
+    /**
+     * Ids of all resources the player holds an amount of, in handle order.
+     */
+    public Set<String> getResourceIds() {
+        settle();
+        Set<String> ids = new LinkedHashSet<>();
+        for (int handle = 0; handle < registry.size(); handle++) {
+            if (amounts[handle] != null) {
+                ids.add(registry.getId(handle));
+            }
+        }
+        return Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * Ids of all resources that have a generation rate, in the order updateResources visits them.
+     */
+    public Set<String> getGeneratedResourceIds() {
+        Set<String> ids = new LinkedHashSet<>();
+        for (int handle = 0; handle < registry.size(); handle++) {
+            if (generated[handle]) {
+                ids.add(registry.getId(handle));
+            }
+        }
+        return Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * Writes the per-second generation rate of a resource after all resource and
+     * building multipliers, exactly as updateResources applies it, into {@code out}.
+     */
+    public IdleNumber effectiveGenerationRateInto(int handle, BuildingSystem buildingSystem, IdleNumber out) {
+        if (!isGenerated(handle)) {
+            return out.setZero();
+        }
+        return rates[handle].valueInto(out);
+    }
+
+    public IdleNumber effectiveGenerationRateInto(String resourceId, BuildingSystem buildingSystem, IdleNumber out) {
+        return effectiveGenerationRateInto(registry.indexOf(resourceId), buildingSystem, out);
     }
 
     /**
      * Upgrades the generation rate of a resource by multiplying it.
      */
-    public void upgradeGenerationRate(String resourceId, BigDecimal multiplier) {
-        BigDecimal currentRate = generationRates.getOrDefault(resourceId, BigDecimal.ZERO);
-        BigDecimal newRate = currentRate.multiply(multiplier);
-        logger.debug("Upgrading generation rate for {} from {} to {}", resourceId, currentRate, newRate);
-        generationRates.put(resourceId, newRate);
+    public void upgradeGenerationRate(String resourceId, double multiplier) {
+        int handle = register(resourceId);
+        if (!generated[handle]) {
+            baseRate(handle).set(0.0);
+        }
+        logger.debug("Upgrading generation rate for {} from {} by {}", resourceId, baseRates[handle], multiplier);
+        baseRates[handle].multiply(multiplier);
     }
 
     /**
      * Sets the generation rate for a resource.
      */
-    public void setGenerationRate(String resourceId, BigDecimal rate) {
+    public void setGenerationRate(String resourceId, IdleNumber rate) {
         logger.debug("Setting generation rate for {} to {}", resourceId, rate);
-        generationRates.put(resourceId, rate);
+        baseRate(register(resourceId)).set(rate);
+    }
+
+    public void setGenerationRate(String resourceId, BigDecimal rate) {
+        setGenerationRate(resourceId, IdleNumber.of(rate));
     }
 
     /**
      * Sets a resource cap.
      */
-    public void setResourceCap(String resourceId, BigDecimal cap) {
+    public void setResourceCap(String resourceId, IdleNumber cap) {
         logger.debug("Setting resource cap for {} to {}", resourceId, cap);
-        resourceCaps.put(resourceId, cap);
+        // The new cap applies from now on
+        settle();
+        int handle = register(resourceId);
+        resourceCaps[handle] = cap.copy();
+    }
+
+    public void setResourceCap(String resourceId, BigDecimal cap) {
+        setResourceCap(resourceId, IdleNumber.of(cap));
+    }
+
+    /**
+     * Writes the cap of a resource into {@code out}, or returns null if it is uncapped.
+     */
+    public IdleNumber getResourceCapInto(int handle, IdleNumber out) {
+        IdleNumber cap = isKnown(handle) ? resourceCaps[handle] : null;
+        return cap == null ? null : out.set(cap);
+    }
+
+    /**
+     * Gets the cap of a resource, or null if it is uncapped.
+     */
+    public IdleNumber getResourceCap(String resourceId) {
+        return getResourceCapInto(registry.indexOf(resourceId), new IdleNumber());
     }
 
     /**
-     * Gets the total multiplier for a resource by combining all individual multipliers.
+     * Registers a named multiplier for a resource's generation rate.
+     * Multipliers from different sources stack multiplicatively.
      */
-    private BigDecimal getTotalMultiplier(String resourceId, BuildingSystem buildingSystem) {
-        Map<String, BigDecimal> multipliers = resourceMultipliers.getOrDefault(resourceId, new HashMap<>());
-        BigDecimal total = BigDecimal.ONE;
-        
-        for (BigDecimal multiplier : multipliers.values()) {
-            total = total.multiply(multiplier);
+    public void addMultiplier(String resourceId, String source, IdleNumber multiplier) {
+        logger.debug("Setting {} multiplier for {} to {}", source, resourceId, multiplier);
+        putMultiplier(register(resourceId), source, multiplier);
+    }
+
+    public void addMultiplier(String resourceId, String source, BigDecimal multiplier) {
+        addMultiplier(resourceId, source, IdleNumber.of(multiplier));
+    }
+
+    private void putMultiplier(int handle, String source, IdleNumber multiplier) {
+        while (resourceMultipliers.size() <= handle) {
+            resourceMultipliers.add(null);
+        }
+        Map<String, StatGraph.Stat> multipliers = resourceMultipliers.get(handle);
+        if (multipliers == null) {
+            multipliers = new HashMap<>();
+            resourceMultipliers.set(handle, multipliers);
         }
-        
-        // Add building system multipliers if applicable
-        BigDecimal buildingMultiplier = buildingSystem.getBuildingMultiplier(resourceId);
-        if (buildingMultiplier != null) {
-            total = total.multiply(buildingMultiplier);
+        StatGraph.Stat stat = multipliers.get(source);
+        if (stat == null) {
+            stat = stats.input(registry.getId(handle) + ".rate." + source, 1.0);
+            multipliers.put(source, stat);
+            rate(handle).addInput(stat);
         }
-        
-        return total;
+        stat.set(multiplier);
     }
 
     /**
      * Gets the category of a resource.
      */
     public ResourceCategory getResourceCategory(String resourceId) {
-        return resourceCategories.getOrDefault(resourceId, ResourceCategory.PRIMARY);
+        int handle = registry.indexOf(resourceId);
+        ResourceCategory category = handle < 0 ? null : resourceCategories[handle];
+        return category == null ? ResourceCategory.PRIMARY : category;
     }
 
     /**
-     * Resets all resources to their initial values.
+     * Resets all resources to their initial values. Registered handles stay valid.
      */
     public void reset() {
-        resources.clear();
-        generationRates.clear();
-        resourceCaps.clear();
+        settle();
+        accrualEpoch++;
+        Arrays.fill(amounts, null);
+        Arrays.fill(generated, false);
+        Arrays.fill(resourceCaps, null);
+        for (int handle = 0; handle < resourceMultipliers.size(); handle++) {
+            Map<String, StatGraph.Stat> multipliers = resourceMultipliers.get(handle);
+            if (multipliers != null) {
+                multipliers.values().forEach(rates[handle]::removeInput);
+            }
+        }
         resourceMultipliers.clear();
-        offlineProgressRates.clear();
-        clickMultipliers.clear();
-        clickMultipliers.put("base", BigDecimal.ONE);
+        clickMultiplier.set(1.0);
         initializeResources();
         logger.info("Resource system reset to initial state");
     }
@@ -239,51 +603,74 @@ public class ResourceSystem {
     /**
      * Gets the click multiplier value.
      */
-    public BigDecimal getClickMultiplier() {
-        return clickMultipliers.values().stream()
-            .reduce(BigDecimal.ONE, BigDecimal::multiply);
+    public IdleNumber getClickMultiplier() {
+        return clickMultiplier.get();
     }
 
     /**
      * Sets the click multiplier value.
      */
-    public void setClickMultiplier(BigDecimal multiplier) {
+    public void setClickMultiplier(IdleNumber multiplier) {
         logger.debug("Setting click multiplier to {}", multiplier);
-        clickMultipliers.put("base", multiplier);
+        clickMultiplier.set(multiplier);
     }
 
     /**
      * Upgrades the click multiplier by multiplying it with a value.
      */
-    public void upgradeClickMultiplier(BigDecimal multiplier) {
-        BigDecimal current = clickMultipliers.get("base");
-        BigDecimal newValue = current.multiply(multiplier);
-        logger.debug("Upgrading click multiplier from {} to {}", current, newValue);
-        clickMultipliers.put("base", newValue);
+    public void upgradeClickMultiplier(double multiplier) {
+        logger.debug("Upgrading click multiplier from {} by {}", clickMultiplier, multiplier);
+        clickMultiplier.multiply(multiplier);
     }
 
     /**
      * Sets the prestige multiplier for all resources.
      */
-    public void setPrestigeMultiplier(BigDecimal multiplier) {
-        for (String resourceId : resources.keySet()) {
-            Map<String, BigDecimal> multipliers = resourceMultipliers.computeIfAbsent(resourceId, k -> new HashMap<>());
-            multipliers.put("prestige", multiplier);
+    public void setPrestigeMultiplier(IdleNumber multiplier) {
+        settle();
+        for (int handle = 0; handle < registry.size(); handle++) {
+            if (amounts[handle] != null) {
+                putMultiplier(handle, "prestige", multiplier);
+            }
         }
     }
 
-    public void setResource(String resourceId, BigDecimal amount) {
+    public void setResource(String resourceId, IdleNumber amount) {
         logger.debug("Setting {} to {}", resourceId, amount);
-        resources.put(resourceId, amount);
+        settle();
+        accrualEpoch++;
+        int handle = register(resourceId);
+        amounts[handle] = amount.copy();
     }
 
-    public void spend(String resourceId, BigDecimal amount) {
-        if (canAfford(resourceId, amount)) {
-            BigDecimal current = resources.get(resourceId);
-            resources.put(resourceId, current.subtract(amount));
-            logger.debug("Spent {} {} (remaining: {})", amount, resourceId, resources.get(resourceId));
+    public void setResource(String resourceId, BigDecimal amount) {
+        setResource(resourceId, IdleNumber.of(amount));
+    }
+
+    /**
+     * Spends {@code amount} if affordable; an unknown or unregistered handle is denied like
+     * any other unaffordable spend.
+     */
+    public void spend(int handle, IdleNumber amount) {
+        settle();
+        IdleNumber current = isKnown(handle) ? amounts[handle] : null;
+        if (current != null && current.compareTo(amount) >= 0) {
+            current.subtractInPlace(amount);
+            accrualEpoch++;
+            recorder.record(FlightRecorder.Event.SPEND, handle, amount);
+            return;
+        }
+        recorder.record(FlightRecorder.Event.SPEND_DENIED, handle, amount);
+        if (handle < 0 || handle >= registry.size()) {
+            logger.warn("Attempted to spend {} of unknown resource handle {}", amount, handle);
+        } else if (current == null) {
+            logger.warn("Attempted to spend {} {} but held none", amount, registry.getId(handle));
         } else {
-            logger.warn("Attempted to spend {} {} but only had {}", amount, resourceId, resources.get(resourceId));
+            logger.warn("Attempted to spend {} {} but only had {}", amount, registry.getId(handle), current);
         }
     }
+
+    public void spend(String resourceId, IdleNumber amount) {
+        spend(registry.indexOf(resourceId), amount);
+    }
 }
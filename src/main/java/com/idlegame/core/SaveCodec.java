@@ -0,0 +1,294 @@
+package com.idlegame.core;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Compact versioned binary save format.
+ *
+ * <pre>
+ * header   magic "IDLE" (int) | version (short) | section count (byte)
+ *          section count x [ tag (byte) | offset (int) | length (int) ]
+ * sections META         savedAtMillis | journal sequence
+ *          RESOURCES    n x [ id | amount | has rate (byte) | rate ] | click multiplier
+ *          BUILDINGS    n x [ id | count | efficiency bonus (double) ]
+ *          PRESTIGE     points | multiplier | runStartMillis
+ *          ACHIEVEMENTS n x [ id ] | total clicks | total resources gained
+ * </pre>
+ *
+ * Counts, lengths and longs are unsigned LEB128 varints, exponents are zigzag varints,
+ * strings are a varint byte length followed by UTF-8, and an {@link IdleNumber} is its
+ * double mantissa followed by its exponent. The section table lets a reader decode only
+ * the sections it needs; unknown section tags are skipped so older readers can open
+ * files with sections added later.
+ */
+public final class SaveCodec {
+    public static final int MAGIC = 0x49444C45; // "IDLE"
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_FIXED_BYTES = 4 + 2 + 1;
+    private static final int SECTION_ENTRY_BYTES = 1 + 4 + 4;
+
+    private SaveCodec() {
+    }
+
+    public static ByteBuffer encode(SaveData data) {
+        Set<SaveData.Section> sections = data.getSections();
+        ByteBuffer[] bodies = new ByteBuffer[sections.size()];
+        int headerBytes = HEADER_FIXED_BYTES + sections.size() * SECTION_ENTRY_BYTES;
+        int totalBytes = headerBytes;
+
+        int i = 0;
+        for (SaveData.Section section : sections) {
+            Output out = new Output(64);
+            encodeSection(section, data, out);
+            bodies[i] = out.finish();
+            totalBytes += bodies[i].remaining();
+            i++;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(totalBytes);
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) FORMAT_VERSION);
+        buffer.put((byte) sections.size());
+        int offset = headerBytes;
+        i = 0;
+        for (SaveData.Section section : sections) {
+            buffer.put((byte) section.getTag());
+            buffer.putInt(offset);
+            buffer.putInt(bodies[i].remaining());
+            offset += bodies[i].remaining();
+            i++;
+        }
+        for (ByteBuffer body : bodies) {
+            buffer.put(body);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    public static SaveData decode(ByteBuffer buffer) throws IOException {
+        return decode(buffer, EnumSet.allOf(SaveData.Section.class));
+    }
+
+    /**
+     * Decodes only the requested sections; the bytes of every other section are never read.
+     */
+    public static SaveData decode(ByteBuffer buffer, Set<SaveData.Section> wanted) throws IOException {
+        ByteBuffer in = buffer.duplicate();
+        try {
+            int start = in.position();
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a save file");
+            }
+            int version = in.getShort() & 0xFFFF;
+            if (version > FORMAT_VERSION) {
+                throw new IOException("Save format version " + version + " is newer than supported version "
+                    + FORMAT_VERSION);
+            }
+            int count = in.get() & 0xFF;
+
+            SaveData.Builder builder = new SaveData.Builder();
+            for (int i = 0; i < count; i++) {
+                int entry = start + HEADER_FIXED_BYTES + i * SECTION_ENTRY_BYTES;
+                SaveData.Section section = SaveData.Section.forTag(in.get(entry) & 0xFF);
+                if (section == null || !wanted.contains(section)) {
+                    continue;
+                }
+                int offset = in.getInt(entry + 1);
+                int length = in.getInt(entry + 5);
+                ByteBuffer body = in.duplicate();
+                body.limit(start + offset + length).position(start + offset);
+                builder.include(section);
+                decodeSection(section, body, builder);
+            }
+            return builder.build();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                 | ArithmeticException e) {
+            throw new IOException("Corrupt save file", e);
+        }
+    }
+
+    private static void encodeSection(SaveData.Section section, SaveData data, Output out) {
+        switch (section) {
+            case META:
+                out.putVarLong(data.getSavedAtMillis());
+                out.putVarLong(data.getJournalSequence());
+                break;
+            case RESOURCES:
+                out.putVarLong(data.getResourceIds().size());
+                for (String resourceId : data.getResourceIds()) {
+                    out.putString(resourceId);
+                    out.putNumber(data.getAmount(resourceId));
+                    IdleNumber rate = data.getGenerationRate(resourceId);
+                    out.putByte(rate == null ? 0 : 1);
+                    if (rate != null) {
+                        out.putNumber(rate);
+                    }
+                }
+                out.putNumber(data.getClickMultiplier());
+                break;
+            case BUILDINGS:
+                out.putVarLong(data.getBuildingIds().size());
+                for (String buildingId : data.getBuildingIds()) {
+                    out.putString(buildingId);
+                    out.putVarLong(data.getBuildingCount(buildingId));
+                    out.putDouble(data.getEfficiencyBonus(buildingId));
+                }
+                break;
+            case PRESTIGE:
+                out.putNumber(data.getPrestigePoints());
+                out.putNumber(data.getPrestigeMultiplier());
+                if (data.getRunStartMillis() >= 0) {
+                    out.putVarLong(data.getRunStartMillis());
+                }
+                break;
+            case ACHIEVEMENTS:
+                out.putVarLong(data.getAchievements().size());
+                for (String achievementId : data.getAchievements()) {
+                    out.putString(achievementId);
+                }
+                out.putVarLong(data.getTotalClicks());
+                out.putNumber(data.getTotalResourcesGained());
+                break;
+            default:
+                throw new IllegalStateException("Unhandled section " + section);
+        }
+    }
+
+    private static void decodeSection(SaveData.Section section, ByteBuffer in, SaveData.Builder builder) {
+        switch (section) {
+            case META:
+                builder.savedAt(getVarLong(in));
+                // Saves written before the event journal end here
+                if (in.hasRemaining()) {
+                    builder.journalSequence(getVarLong(in));
+                }
+                break;
+            case RESOURCES: {
+                long count = getVarLong(in);
+                for (long i = 0; i < count; i++) {
+                    String resourceId = getString(in);
+                    IdleNumber amount = getNumber(in);
+                    IdleNumber rate = in.get() != 0 ? getNumber(in) : null;
+                    builder.resource(resourceId, amount, rate);
+                }
+                builder.clickMultiplier(getNumber(in));
+                break;
+            }
+            case BUILDINGS: {
+                long count = getVarLong(in);
+                for (long i = 0; i < count; i++) {
+                    builder.building(getString(in), Math.toIntExact(getVarLong(in)), in.getDouble());
+                }
+                break;
+            }
+            case PRESTIGE:
+                builder.prestige(getNumber(in), getNumber(in));
+                // Saves written before the run start end here
+                if (in.hasRemaining()) {
+                    builder.runStart(getVarLong(in));
+                }
+                break;
+            case ACHIEVEMENTS: {
+                long count = getVarLong(in);
+                for (long i = 0; i < count; i++) {
+                    builder.achievement(getString(in));
+                }
+                builder.achievementProgress(getVarLong(in), getNumber(in));
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unhandled section " + section);
+        }
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than 10 bytes");
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = Math.toIntExact(getVarLong(in));
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static IdleNumber getNumber(ByteBuffer in) {
+        double mantissa = in.getDouble();
+        long zigzag = getVarLong(in);
+        return new IdleNumber(mantissa, (zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    /**
+     * Growable write buffer, also used by {@link EventJournal} to encode records.
+     */
+    static final class Output {
+        private ByteBuffer buffer;
+
+        Output(int capacity) {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+
+        void putByte(int value) {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void putDouble(double value) {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void putNumber(IdleNumber value) {
+            putDouble(value.getMantissa());
+            long exponent = value.getExponent();
+            putVarLong((exponent << 1) ^ (exponent >> 63));
+        }
+
+        ByteBuffer finish() {
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.idlegame.core;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of everything a save file holds. Built with {@link Builder} when
+ * capturing a game, or by {@link SaveCodec} when decoding; a decode may be limited to
+ * some {@link Section}s, in which case the others keep their defaults and
+ * {@link #hasSection} reports false for them.
+ */
+public final class SaveData {
+
+    /**
+     * Independently decodable parts of a save. Tags are part of the file format and must never change.
+     */
+    public enum Section {
+        META(1),
+        RESOURCES(2),
+        BUILDINGS(3),
+        PRESTIGE(4),
+        ACHIEVEMENTS(5);
+
+        private final int tag;
+
+        Section(int tag) {
+            this.tag = tag;
+        }
+
+        public int getTag() {
+            return tag;
+        }
+
+        static Section forTag(int tag) {
+            for (Section section : values()) {
+                if (section.tag == tag) {
+                    return section;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Set<Section> sections;
+    private final long savedAtMillis;
+    private final long journalSequence;
+    private final Map<String, IdleNumber> amounts;
+    private final Map<String, IdleNumber> generationRates;
+    private final IdleNumber clickMultiplier;
+    private final Map<String, Integer> buildingCounts;
+    private final Map<String, Double> efficiencyBonuses;
+    private final IdleNumber prestigePoints;
+    private final IdleNumber prestigeMultiplier;
+    private final long runStartMillis;
+    private final Set<String> achievements;
+    private final long totalClicks;
+    private final IdleNumber totalResourcesGained;
+
+    private SaveData(Builder builder) {
+        this.sections = Collections.unmodifiableSet(EnumSet.copyOf(builder.sections));
+        this.savedAtMillis = builder.savedAtMillis;
+        this.journalSequence = builder.journalSequence;
+        this.amounts = Collections.unmodifiableMap(new LinkedHashMap<>(builder.amounts));
+        this.generationRates = Collections.unmodifiableMap(new LinkedHashMap<>(builder.generationRates));
+        this.clickMultiplier = builder.clickMultiplier.copy();
+        this.buildingCounts = Collections.unmodifiableMap(new LinkedHashMap<>(builder.buildingCounts));
+        this.efficiencyBonuses = Collections.unmodifiableMap(new LinkedHashMap<>(builder.efficiencyBonuses));
+        this.prestigePoints = builder.prestigePoints.copy();
+        this.prestigeMultiplier = builder.prestigeMultiplier.copy();
+        this.runStartMillis = builder.runStartMillis;
+        this.achievements = Collections.unmodifiableSet(new LinkedHashSet<>(builder.achievements));
+        this.totalClicks = builder.totalClicks;
+        this.totalResourcesGained = builder.totalResourcesGained.copy();
+    }
+
+    public boolean hasSection(Section section) {
+        return sections.contains(section);
+    }
+
+    public Set<Section> getSections() {
+        return sections;
+    }
+
+    public long getSavedAtMillis() {
+        return savedAtMillis;
+    }
+
+    /**
+     * Sequence number of the last {@link EventJournal} record already reflected in this
+     * snapshot; only later records are replayed on top of it.
+     */
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public Set<String> getResourceIds() {
+        return amounts.keySet();
+    }
+
+    public IdleNumber getAmount(String resourceId) {
+        IdleNumber amount = amounts.get(resourceId);
+        return amount == null ? IdleNumber.zero() : amount.copy();
+    }
+
+    /**
+     * Generation rate of a resource, or null if the save holds none for it.
+     */
+    public IdleNumber getGenerationRate(String resourceId) {
+        IdleNumber rate = generationRates.get(resourceId);
+        return rate == null ? null : rate.copy();
+    }
+
+    public Set<String> getGeneratedResourceIds() {
+        return generationRates.keySet();
+    }
+
+    public IdleNumber getClickMultiplier() {
+        return clickMultiplier.copy();
+    }
+
+    /**
+     * Building ids in the save's building-count table, in file order.
+     */
+    public Set<String> getBuildingIds() {
+        return buildingCounts.keySet();
+    }
+
+    public int getBuildingCount(String buildingId) {
+        return buildingCounts.getOrDefault(buildingId, 0);
+    }
+
+    public double getEfficiencyBonus(String buildingId) {
+        return efficiencyBonuses.getOrDefault(buildingId, 1.0);
+    }
+
+    public IdleNumber getPrestigePoints() {
+        return prestigePoints.copy();
+    }
+
+    public IdleNumber getPrestigeMultiplier() {
+        return prestigeMultiplier.copy();
+    }
+
+    /** Game time of the last prestige, or -1 for saves written before it was recorded. */
+    public long getRunStartMillis() {
+        return runStartMillis;
+    }
+
+    public Set<String> getAchievements() {
+        return achievements;
+    }
+
+    public long getTotalClicks() {
+        return totalClicks;
+    }
+
+    public IdleNumber getTotalResourcesGained() {
+        return totalResourcesGained.copy();
+    }
+
+    /**
+     * True if both snapshots hold the same game state, ignoring when they were taken.
+     */
+    public boolean contentEquals(SaveData other) {
+        return sections.equals(other.sections)
+            && amounts.equals(other.amounts)
+            && generationRates.equals(other.generationRates)
+            && clickMultiplier.equals(other.clickMultiplier)
+            && buildingCounts.equals(other.buildingCounts)
+            && efficiencyBonuses.equals(other.efficiencyBonuses)
+            && prestigePoints.equals(other.prestigePoints)
+            && prestigeMultiplier.equals(other.prestigeMultiplier)
+            && runStartMillis == other.runStartMillis
+            && achievements.equals(other.achievements)
+            && totalClicks == other.totalClicks
+            && totalResourcesGained.equals(other.totalResourcesGained);
+    }
+
+    /**
+     * Collects save contents. Setting any field of a section marks that section present.
+     */
+    public static final class Builder {
+        private final Set<Section> sections = EnumSet.noneOf(Section.class);
+        private long savedAtMillis;
+        private long journalSequence;
+        private final Map<String, IdleNumber> amounts = new LinkedHashMap<>();
+        private final Map<String, IdleNumber> generationRates = new LinkedHashMap<>();
+        private final IdleNumber clickMultiplier = IdleNumber.one();
+        private final Map<String, Integer> buildingCounts = new LinkedHashMap<>();
+        private final Map<String, Double> efficiencyBonuses = new LinkedHashMap<>();
+        private final IdleNumber prestigePoints = IdleNumber.zero();
+        private final IdleNumber prestigeMultiplier = IdleNumber.one();
+        private long runStartMillis = -1;
+        private final Set<String> achievements = new LinkedHashSet<>();
+        private long totalClicks;
+        private final IdleNumber totalResourcesGained = IdleNumber.zero();
+
+        Builder include(Section section) {
+            sections.add(section);
+            return this;
+        }
+
+        public Builder savedAt(long millis) {
+            sections.add(Section.META);
+            this.savedAtMillis = millis;
+            return this;
+        }
+
+        public Builder journalSequence(long sequence) {
+            sections.add(Section.META);
+            this.journalSequence = sequence;
+            return this;
+        }
+
+        public Builder resource(String resourceId, IdleNumber amount, IdleNumber generationRate) {
+            sections.add(Section.RESOURCES);
+            amounts.put(resourceId, amount.copy());
+            if (generationRate != null) {
+                generationRates.put(resourceId, generationRate.copy());
+            }
+            return this;
+        }
+
+        public Builder clickMultiplier(IdleNumber multiplier) {
+            sections.add(Section.RESOURCES);
+            clickMultiplier.set(multiplier);
+            return this;
+        }
+
+        public Builder building(String buildingId, int count, double efficiencyBonus) {
+            sections.add(Section.BUILDINGS);
+            buildingCounts.put(buildingId, count);
+            efficiencyBonuses.put(buildingId, efficiencyBonus);
+            return this;
+        }
+
+        public Builder prestige(IdleNumber points, IdleNumber multiplier) {
+            sections.add(Section.PRESTIGE);
+            prestigePoints.set(points);
+            prestigeMultiplier.set(multiplier);
+            return this;
+        }
+
+        public Builder runStart(long millis) {
+            sections.add(Section.PRESTIGE);
+            this.runStartMillis = millis;
+            return this;
+        }
+
+        public Builder achievement(String achievementId) {
+            sections.add(Section.ACHIEVEMENTS);
+            achievements.add(achievementId);
+            return this;
+        }
+
+        public Builder achievementProgress(long clicks, IdleNumber resourcesGained) {
+            sections.add(Section.ACHIEVEMENTS);
+            this.totalClicks = clicks;
+            totalResourcesGained.set(resourcesGained);
+            return this;
+        }
+
+        public SaveData build() {
+            return new SaveData(this);
+        }
+    }
+}
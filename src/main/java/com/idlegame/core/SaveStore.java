@@ -0,0 +1,145 @@
+package com.idlegame.core;
+
+import com.idlegame.core.legacy.LegacySaveReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Save files on disk. Saves are written in the {@link SaveCodec} binary format; a save
+ * directory that only holds an old Java-serialized {@code gameState.dat} is migrated on
+ * first load and the old file is renamed out of the way.
+ */
+public class SaveStore {
+    private static final Logger logger = LoggerFactory.getLogger(SaveStore.class);
+    public static final String SAVE_FILE = "gameState.sav";
+    public static final String LEGACY_SAVE_FILE = "gameState.dat";
+    public static final String MIGRATED_SUFFIX = ".migrated";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    public SaveStore() {
+        this(Paths.get("saves"));
+    }
+
+    public SaveStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getSavePath() {
+        return directory.resolve(SAVE_FILE);
+    }
+
+    /**
+     * The {@link EventJournal} that holds the events since the save in this directory.
+     */
+    public Path getJournalPath() {
+        return directory.resolve(EventJournal.JOURNAL_FILE);
+    }
+
+    /**
+     * Where {@link GameManager#dumpFlightRecorder()} writes the decoded trace.
+     */
+    public Path getFlightRecorderPath() {
+        return directory.resolve(FlightRecorder.DUMP_FILE);
+    }
+
+    public Path getLegacySavePath() {
+        return directory.resolve(LEGACY_SAVE_FILE);
+    }
+
+    /**
+     * Writes a full save to a temp file, fsyncs it and renames it over the previous save,
+     * so a crash mid-write leaves the old save intact.
+     *
+     * @return number of bytes written
+     */
+    public int save(SaveData data) throws IOException {
+        GameEvents.Save event = new GameEvents.Save();
+        event.begin();
+        ByteBuffer buffer = SaveCodec.encode(data);
+        int size = buffer.remaining();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(SAVE_FILE + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, getSavePath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, getSavePath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        logger.debug("Wrote {} byte save to {}", size, getSavePath());
+        if (event.shouldCommit()) {
+            event.bytes = size;
+            event.commit();
+        }
+        return size;
+    }
+
+    /**
+     * Loads the whole save, migrating an old {@code .dat} save if that is all there is.
+     *
+     * @return the save, or null if there is none
+     */
+    public SaveData load() throws IOException {
+        return load(EnumSet.allOf(SaveData.Section.class));
+    }
+
+    /**
+     * Loads only the given sections of the save.
+     */
+    public SaveData load(Set<SaveData.Section> sections) throws IOException {
+        Path path = getSavePath();
+        if (!Files.exists(path)) {
+            if (!Files.exists(getLegacySavePath())) {
+                return null;
+            }
+            migrateLegacySave();
+        }
+        GameEvents.Load event = new GameEvents.Load();
+        event.begin();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Save file too large: " + size + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+            buffer.flip();
+            SaveData data = SaveCodec.decode(buffer, sections);
+            if (event.shouldCommit()) {
+                event.bytes = size;
+                event.sections = sections.size();
+                event.commit();
+            }
+            return data;
+        }
+    }
+
+    private void migrateLegacySave() throws IOException {
+        Path legacy = getLegacySavePath();
+        logger.info("Migrating legacy save {} to {}", legacy, getSavePath());
+        SaveData data = LegacySaveReader.read(legacy);
+        save(data);
+        Files.move(legacy, legacy.resolveSibling(LEGACY_SAVE_FILE + MIGRATED_SUFFIX),
+            StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,61 @@
+package com.idlegame.core;
+
+/**
+ * Immutable copy of a derived stat and the values of the sources it combines, e.g. the
+ * click value and each multiplier behind it. Built from a {@link StatGraph.Stat} on the
+ * thread that owns the graph and safe to read anywhere afterwards.
+ */
+public final class StatBreakdown {
+    private final String name;
+    private final StatGraph.Operation operation;
+    private final IdleNumber total;
+    private final String[] sourceNames;
+    private final IdleNumber[] sourceValues;
+
+    private StatBreakdown(StatGraph.Stat stat) {
+        this.name = stat.getName();
+        this.operation = stat.getOperation();
+        this.total = stat.get();
+        int count = stat.getInputs().size();
+        this.sourceNames = new String[count];
+        this.sourceValues = new IdleNumber[count];
+        for (int i = 0; i < count; i++) {
+            StatGraph.Stat source = stat.getInputs().get(i);
+            sourceNames[i] = source.getName();
+            sourceValues[i] = source.get();
+        }
+    }
+
+    /**
+     * Copies the current value and sources of {@code stat}. Must run on the thread that
+     * owns its graph.
+     */
+    public static StatBreakdown of(StatGraph.Stat stat) {
+        return new StatBreakdown(stat);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Whether the sources are multiplied or added to make the total. */
+    public StatGraph.Operation getOperation() {
+        return operation;
+    }
+
+    public IdleNumber getTotal() {
+        return total.copy();
+    }
+
+    public int getSourceCount() {
+        return sourceNames.length;
+    }
+
+    public String getSourceName(int index) {
+        return sourceNames[index];
+    }
+
+    public IdleNumber getSourceValue(int index) {
+        return sourceValues[index].copy();
+    }
+}
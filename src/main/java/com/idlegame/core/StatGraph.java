@@ -0,0 +1,255 @@
+package com.idlegame.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependency graph of derived stats such as click value and generation rates.
+ *
+ * <p>Input stats hold values set by the systems that own them: upgrades, achievement
+ * rewards, prestige, building counts. Derived stats are the product or sum of other
+ * stats and cache their value. Changing an input only marks the stats downstream of it
+ * dirty; each is recomputed once, the next time it is read. Reading a clean stat is a
+ * field access, so a steady-state tick never recomputes anything.
+ *
+ * <p>A derived stat's inputs are its per-source breakdown. Not thread-safe: the graph
+ * belongs to the thread that runs the game systems.
+ */
+public final class StatGraph {
+
+    public enum Operation {
+        INPUT,
+        PRODUCT,
+        SUM
+    }
+
+    private final Map<String, Stat> stats = new LinkedHashMap<>();
+    // Bumped on every input change, so readers can tell when cached breakdowns went stale
+    private long version;
+    private long recomputations;
+
+    /**
+     * The input stat with the given name, created with {@code initial} if it does not
+     * exist yet. Systems sharing an input look it up by name.
+     */
+    public Stat input(String name, double initial) {
+        Stat stat = stats.get(name);
+        if (stat == null) {
+            stat = add(new Stat(name, Operation.INPUT));
+            stat.value.set(initial);
+        } else if (stat.operation != Operation.INPUT) {
+            throw new IllegalArgumentException("Not an input stat: " + name);
+        }
+        return stat;
+    }
+
+    /**
+     * Creates a stat holding the product of {@code inputs}.
+     */
+    public Stat product(String name, Stat... inputs) {
+        return derived(name, Operation.PRODUCT, inputs);
+    }
+
+    /**
+     * Creates a stat holding the sum of {@code inputs}.
+     */
+    public Stat sum(String name, Stat... inputs) {
+        return derived(name, Operation.SUM, inputs);
+    }
+
+    private Stat derived(String name, Operation operation, Stat... inputs) {
+        if (stats.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate stat: " + name);
+        }
+        Stat stat = add(new Stat(name, operation));
+        for (Stat input : inputs) {
+            stat.addInput(input);
+        }
+        return stat;
+    }
+
+    private Stat add(Stat stat) {
+        stats.put(stat.name, stat);
+        return stat;
+    }
+
+    /**
+     * The stat with the given name, or null.
+     */
+    public Stat get(String name) {
+        return stats.get(name);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** Number of derived stat recomputations so far. */
+    public long getRecomputations() {
+        return recomputations;
+    }
+
+    public final class Stat {
+        private final String name;
+        private final Operation operation;
+        private final IdleNumber value = IdleNumber.one();
+        private final List<Stat> inputs = new ArrayList<>();
+        private final List<Stat> dependents = new ArrayList<>();
+        private boolean dirty;
+
+        private Stat(String name, Operation operation) {
+            this.name = name;
+            this.operation = operation;
+            this.dirty = operation != Operation.INPUT;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * Sets an input stat and invalidates everything derived from it, unless the value
+         * is unchanged.
+         */
+        public void set(IdleNumber newValue) {
+            requireInput();
+            if (!value.equals(newValue)) {
+                value.set(newValue);
+                changed();
+            }
+        }
+
+        public void set(double newValue) {
+            requireInput();
+            value.set(newValue);
+            changed();
+        }
+
+        /**
+         * Multiplies an input stat in place.
+         */
+        public void multiply(double factor) {
+            requireInput();
+            value.multiplyInPlace(factor);
+            changed();
+        }
+
+        /**
+         * A copy of the current value.
+         */
+        public IdleNumber get() {
+            return value().copy();
+        }
+
+        /**
+         * Writes the current value into {@code out}.
+         */
+        public IdleNumber valueInto(IdleNumber out) {
+            return out.set(value());
+        }
+
+        /**
+         * Multiplies {@code target} in place by the current value.
+         */
+        public IdleNumber multiplyInto(IdleNumber target) {
+            return target.multiplyInPlace(value());
+        }
+
+        /**
+         * The stats this one is derived from, in the order they are combined; empty for inputs.
+         */
+        public List<Stat> getInputs() {
+            return Collections.unmodifiableList(inputs);
+        }
+
+        /**
+         * Adds a source to a derived stat.
+         */
+        public void addInput(Stat input) {
+            if (operation == Operation.INPUT) {
+                throw new IllegalStateException("Input stats have no sources: " + name);
+            }
+            if (input == this || input.dependsOn(this)) {
+                throw new IllegalArgumentException("Stat " + input.name + " depends on " + name);
+            }
+            if (!inputs.contains(input)) {
+                inputs.add(input);
+                input.dependents.add(this);
+                changed();
+            }
+        }
+
+        /**
+         * Removes a source from a derived stat.
+         */
+        public void removeInput(Stat input) {
+            if (inputs.remove(input)) {
+                input.dependents.remove(this);
+                changed();
+            }
+        }
+
+        private boolean dependsOn(Stat other) {
+            for (Stat input : inputs) {
+                if (input == other || input.dependsOn(other)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void requireInput() {
+            if (operation != Operation.INPUT) {
+                throw new IllegalStateException("Derived stats cannot be set: " + name);
+            }
+        }
+
+        private void changed() {
+            version++;
+            if (operation != Operation.INPUT) {
+                dirty = true;
+            }
+            invalidateDependents();
+        }
+
+        private void invalidateDependents() {
+            for (Stat dependent : dependents) {
+                if (!dependent.dirty) {
+                    dependent.dirty = true;
+                    dependent.invalidateDependents();
+                }
+            }
+        }
+
+        private IdleNumber value() {
+            if (dirty) {
+                if (operation == Operation.PRODUCT) {
+                    value.set(1.0);
+                    for (Stat input : inputs) {
+                        value.multiplyInPlace(input.value());
+                    }
+                } else {
+                    value.setZero();
+                    for (Stat input : inputs) {
+                        value.addInPlace(input.value());
+                    }
+                }
+                dirty = false;
+                recomputations++;
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + value();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.idlegame.core;
 
-import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,7 +18,7 @@ public class UpgradeSystem {
         addUpgrade(new Upgrade(
             "basic_click",
             "Basic Click",
-            BigDecimal.valueOf(10),
+            IdleNumber.of(10),
             UpgradeType.CLICK,
             new UpgradeEffect(1.0, 0),
             resourceSystem
@@ -29,7 +28,7 @@ public class UpgradeSystem {
         addUpgrade(new Upgrade(
             "basic_passive",
             "Basic Passive Income",
-            BigDecimal.valueOf(50),
+            IdleNumber.of(50),
             UpgradeType.PASSIVE,
             new UpgradeEffect(0.1, 0.05),
             resourceSystem
@@ -51,13 +50,21 @@ public class UpgradeSystem {
             // Deduct the cost first
             resourceSystem.spendResource(GameConstants.PRIMARY_CURRENCY, upgrade.getCost());
             
+            GameEvents.UpgradePurchase event = new GameEvents.UpgradePurchase();
+            if (event.isEnabled()) {
+                event.upgrade = upgradeId;
+                event.level = upgrade.getLevel() + 1;
+                event.cost = upgrade.getCost().toDouble();
+                event.commit();
+            }
+
             // Apply the upgrade
             upgrade.purchase();
             
             // If it's a passive upgrade, update generation rate
             if (upgrade.getType() == UpgradeType.PASSIVE) {
-                BigDecimal currentRate = resourceSystem.getGenerationRate(GameConstants.PRIMARY_CURRENCY);
-                BigDecimal newRate = currentRate.add(BigDecimal.valueOf(upgrade.effect.calculateEffect(upgrade.getLevel())));
+                IdleNumber newRate = resourceSystem.getGenerationRate(GameConstants.PRIMARY_CURRENCY)
+                    .addInPlace(IdleNumber.of(upgrade.effect.calculateEffect(upgrade.getLevel())));
                 resourceSystem.setGenerationRate(GameConstants.PRIMARY_CURRENCY, newRate);
             }
             return true;
@@ -82,16 +89,16 @@ public class UpgradeSystem {
     public class Upgrade {
         private final String id;
         private final String name;
-        private BigDecimal cost;
+        private final IdleNumber cost;
         private final UpgradeType type;
         private final UpgradeEffect effect;
         private int level = 0;
         private final ResourceSystem resourceSystem;
 
-        public Upgrade(String id, String name, BigDecimal cost, UpgradeType type, UpgradeEffect effect, ResourceSystem resourceSystem) {
+        public Upgrade(String id, String name, IdleNumber cost, UpgradeType type, UpgradeEffect effect, ResourceSystem resourceSystem) {
             this.id = id;
             this.name = name;
-            this.cost = cost;
+            this.cost = cost.copy();
             this.type = type;
             this.effect = effect;
             this.resourceSystem = resourceSystem;
@@ -99,17 +106,17 @@ public class UpgradeSystem {
 
         public void purchase() {
             level++;
-            cost = cost.multiply(BigDecimal.valueOf(1.15)); // 15% cost increase per level
+            cost.multiplyInPlace(1.15); // 15% cost increase per level
         }
 
         public void applyEffect(ResourceSystem resourceSystem) {
             switch (type) {
                 case CLICK:
-                    resourceSystem.setClickMultiplier(BigDecimal.valueOf(effect.calculateEffect(level)));
+                    resourceSystem.setClickMultiplier(IdleNumber.of(effect.calculateEffect(level)));
                     break;
                 case PASSIVE:
-                    BigDecimal currentRate = resourceSystem.getGenerationRate(GameConstants.PRIMARY_CURRENCY);
-                    BigDecimal newRate = currentRate.add(BigDecimal.valueOf(effect.calculateEffect(level)));
+                    IdleNumber newRate = resourceSystem.getGenerationRate(GameConstants.PRIMARY_CURRENCY)
+                        .addInPlace(IdleNumber.of(effect.calculateEffect(level)));
                     resourceSystem.setGenerationRate(GameConstants.PRIMARY_CURRENCY, newRate);
                     break;
                 case UNLOCK:
@@ -121,7 +128,7 @@ public class UpgradeSystem {
         // Getters
         public String getId() { return id; }
         public String getName() { return name; }
-        public BigDecimal getCost() { return cost; }
+        public IdleNumber getCost() { return cost.copy(); }
         public UpgradeType getType() { return type; }
         public int getLevel() { return level; }
     }
@@ -0,0 +1,32 @@
+package com.idlegame.core;
+
+/**
+ * Manually advanced clock for headless simulations and tests.
+ */
+public class VirtualClock implements GameClock {
+    private long currentMillis;
+
+    public VirtualClock() {
+        this(0L);
+    }
+
+    public VirtualClock(long startMillis) {
+        this.currentMillis = startMillis;
+    }
+
+    @Override
+    public long millis() {
+        return currentMillis;
+    }
+
+    public void advance(long deltaMillis) {
+        if (deltaMillis < 0) {
+            throw new IllegalArgumentException("Cannot move a clock backwards: " + deltaMillis);
+        }
+        currentMillis += deltaMillis;
+    }
+
+    public void set(long millis) {
+        this.currentMillis = millis;
+    }
+}
@@ -0,0 +1,27 @@
+package com.idlegame.core.legacy;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Field-compatible stand-in for the serialized {@code BuildingSystem} found in old
+ * {@code .dat} saves, which held a map of building id to building object. Only the
+ * fields migration needs are declared; the rest of the stream is skipped.
+ */
+public final class BuildingSystem implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Map<String, Building> buildings;
+
+    public Map<String, Building> getBuildings() {
+        return buildings;
+    }
+
+    public static final class Building implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private int count;
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.idlegame.core.legacy;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Field-compatible stand-in for the Java-serialized {@code com.idlegame.core.GameState}
+ * of the old {@code .dat} save format. Only used to read old saves for migration.
+ */
+public final class GameState implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Instant lastSaveTime;
+    private boolean autoSaveEnabled;
+    private Map<String, Object> stateData;
+
+    public GameState(Instant lastSaveTime, Map<String, Object> stateData) {
+        this.lastSaveTime = lastSaveTime;
+        this.autoSaveEnabled = true;
+        this.stateData = new HashMap<>(stateData);
+    }
+
+    public Instant getLastSaveTime() {
+        return lastSaveTime;
+    }
+
+    public Object getState(String key) {
+        return stateData == null ? null : stateData.get(key);
+    }
+}
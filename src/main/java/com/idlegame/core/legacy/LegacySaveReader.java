@@ -0,0 +1,93 @@
+package com.idlegame.core.legacy;
+
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.SaveData;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Reads saves written by the old Java-serialization format ({@code saves/gameState.dat})
+ * and converts them to {@link SaveData}. The game classes named in those streams have
+ * since changed shape, so they are resolved to the stand-ins in this package instead.
+ */
+public final class LegacySaveReader {
+    private static final String LEGACY_PACKAGE = "com.idlegame.core.";
+
+    private LegacySaveReader() {
+    }
+
+    public static SaveData read(Path path) throws IOException {
+        GameState state;
+        try (ObjectInputStream in = new LegacyObjectInputStream(Files.newInputStream(path))) {
+            state = (GameState) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable legacy save " + path, e);
+        }
+
+        SaveData.Builder builder = new SaveData.Builder();
+        if (state.getLastSaveTime() != null) {
+            builder.savedAt(state.getLastSaveTime().toEpochMilli());
+        }
+
+        Object resources = state.getState("resources");
+        if (resources instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) resources).entrySet()) {
+                if (entry.getKey() instanceof String && entry.getValue() instanceof BigDecimal) {
+                    builder.resource((String) entry.getKey(), IdleNumber.of((BigDecimal) entry.getValue()), null);
+                }
+            }
+        }
+
+        Object buildingSystem = state.getState("buildingSystem");
+        if (buildingSystem instanceof BuildingSystem && ((BuildingSystem) buildingSystem).getBuildings() != null) {
+            for (Map.Entry<String, BuildingSystem.Building> entry
+                    : ((BuildingSystem) buildingSystem).getBuildings().entrySet()) {
+                builder.building(entry.getKey(), entry.getValue().getCount(), 1.0);
+            }
+        }
+
+        Object points = state.getState("prestigePoints");
+        Object multiplier = state.getState("prestigeMultiplier");
+        if (points instanceof BigDecimal || multiplier instanceof BigDecimal) {
+            builder.prestige(
+                points instanceof BigDecimal ? IdleNumber.of((BigDecimal) points) : IdleNumber.zero(),
+                multiplier instanceof BigDecimal ? IdleNumber.of((BigDecimal) multiplier) : IdleNumber.one());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolves the old game classes to the stand-ins and refuses anything else outside the
+     * JDK. Serialization matches classes by simple name and serialVersionUID, so the
+     * stand-ins keep both.
+     */
+    private static final class LegacyObjectInputStream extends ObjectInputStream {
+        LegacyObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            switch (desc.getName()) {
+                case LEGACY_PACKAGE + "GameState":
+                    return GameState.class;
+                case LEGACY_PACKAGE + "BuildingSystem":
+                    return BuildingSystem.class;
+                case LEGACY_PACKAGE + "BuildingSystem$Building":
+                    return BuildingSystem.Building.class;
+                default:
+                    // Old saves only ever held JDK types besides the classes above
+                    if (!desc.getName().startsWith("java.") && !desc.getName().startsWith("[")) {
+                        throw new ClassNotFoundException("Unexpected class in legacy save: " + desc.getName());
+                    }
+                    return super.resolveClass(desc);
+            }
+        }
+    }
+}
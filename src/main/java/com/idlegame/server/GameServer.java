@@ -0,0 +1,290 @@
+package com.idlegame.server;
+
+import com.idlegame.core.GameClock;
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.GameSnapshot;
+import com.idlegame.core.PlayerCommand;
+import com.idlegame.core.SaveStore;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Headless server hosting many players' games in one JVM.
+ *
+ * <p>Sessions are spread over a fixed set of {@link Shard}s, by default one per core, each
+ * ticking all of its sessions on its own thread at the game tick rate. Nothing runs per
+ * session besides its tick: sessions never start a game loop, autosave thread or journal;
+ * the server saves them periodically on one shared writer thread and when they close.
+ * Sessions run in tickless mode ({@link GameManager#setTickless}).
+ *
+ * <p>New sessions go to the shard with the fewest sessions. Because sessions differ in
+ * cost (a late game ticks more buildings and achievements), the server checks every
+ * {@link GameConstants#SHARD_REBALANCE_INTERVAL} ms for a shard whose load passed
+ * {@link GameConstants#SHARD_HOT_LOAD} and moves enough sessions from it to the coldest
+ * shard to even out their pass times. A moved session may gain or lose one tick.
+ *
+ * <p>{@link LoadRunner} measures how many sessions a shard sustains.
+ */
+public final class GameServer {
+    private static final Logger logger = LoggerFactory.getLogger(GameServer.class);
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final long tickMillis;
+    private final Path saveRoot;
+    // Where memory-only sessions' games point their save store and journal, so a stray save
+    // never reaches the desktop game's saves/; nothing is created unless a game writes
+    private final Path scratchRoot;
+    private final List<Shard> shards;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ExecutorService saves;
+    private final Object lock = new Object();
+    private ScheduledExecutorService rebalancer;
+    private long lastSummaryMillis;
+
+    /**
+     * @param saveRoot directory holding one save directory per session, or null to keep
+     *                 sessions in memory only
+     */
+    public GameServer(int shardCount, long tickMillis, Path saveRoot) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick length must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.saveRoot = saveRoot;
+        this.scratchRoot = saveRoot != null ? null
+            : Paths.get(System.getProperty("java.io.tmpdir"), "idle-game-sessions-" + UUID.randomUUID());
+        this.saves = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-saves");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Shard> created = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            created.add(new Shard(i, tickMillis, saves));
+        }
+        this.shards = Collections.unmodifiableList(created);
+    }
+
+    /**
+     * One shard per available core, ticking at the game tick rate.
+     */
+    public GameServer(Path saveRoot) {
+        this(Runtime.getRuntime().availableProcessors(), GameConstants.GAME_TICK_DURATION, saveRoot);
+    }
+
+    /**
+     * Starts every shard's loop and the periodic rebalance check.
+     */
+    public synchronized void start() {
+        if (rebalancer != null) {
+            logger.warn("Game server already running");
+            return;
+        }
+        for (Shard shard : shards) {
+            shard.start();
+        }
+        rebalancer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastSummaryMillis = System.currentTimeMillis();
+        rebalancer.scheduleWithFixedDelay(this::checkShards, GameConstants.SHARD_REBALANCE_INTERVAL,
+            GameConstants.SHARD_REBALANCE_INTERVAL, TimeUnit.MILLISECONDS);
+        logger.info("Game server started with {} shards at {} ms per tick", shards.size(), tickMillis);
+    }
+
+    /**
+     * Stops the shards, then closes every session and waits for their final saves. A
+     * stopped server cannot be started again.
+     */
+    public synchronized void stop() {
+        if (rebalancer != null) {
+            rebalancer.shutdownNow();
+            rebalancer = null;
+        }
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (String id : new ArrayList<>(sessions.keySet())) {
+            pending.add(close(id));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        saves.shutdown();
+        logger.info("Game server stopped");
+    }
+
+    /**
+     * Opens the session for {@code id}: loads its save, if the server persists sessions
+     * and one exists, and adds it to the least populated shard.
+     *
+     * @throws IllegalArgumentException if the id is not 1-64 letters, digits, '-' or '_'
+     * @throws IllegalStateException if the session is already open
+     */
+    public Session openSession(String id) {
+        if (!SESSION_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid session id: " + id);
+        }
+        if (sessions.containsKey(id)) {
+            throw new IllegalStateException("Session already open: " + id);
+        }
+        SaveStore store = saveRoot == null ? null : new SaveStore(saveRoot.resolve(id));
+        GameManager game = new GameManager(GameClock.system(),
+            store == null ? new SaveStore(scratchRoot.resolve(id)) : store);
+        // The server saves sessions itself; no per-session journal or autosave thread
+        game.setAutoSaveEnabled(false);
+        game.initialize();
+        if (store != null) {
+            game.loadGame();
+        }
+        // Most sessions sit idle between commands, and an idle tickless tick costs next to nothing
+        game.setTickless(true);
+        Session session = new Session(id, game, store,
+            Math.max(1, GameConstants.AUTOSAVE_INTERVAL / tickMillis));
+        synchronized (lock) {
+            if (sessions.putIfAbsent(id, session) != null) {
+                throw new IllegalStateException("Session already open: " + id);
+            }
+            Shard target = shards.get(0);
+            for (Shard shard : shards) {
+                if (shard.getSessionCount() < target.getSessionCount()) {
+                    target = shard;
+                }
+            }
+            target.add(session);
+        }
+        return session;
+    }
+
+    /**
+     * Closes the session for {@code id}, if open, and waits for its final save.
+     */
+    public void closeSession(String id) {
+        close(id).join();
+    }
+
+    private CompletableFuture<Void> close(String id) {
+        Session session;
+        synchronized (lock) {
+            session = sessions.remove(id);
+            if (session == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            session.getShard().remove(session);
+        }
+        return session.close(saves);
+    }
+
+    /** The open session for {@code id}, or null. */
+    public Session getSession(String id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Queues a command for the session's next tick.
+     *
+     * @throws IllegalStateException if the session is not open
+     */
+    public void submit(String id, PlayerCommand command) {
+        requireSession(id).submit(command);
+    }
+
+    /**
+     * The session's state at the end of its most recent tick.
+     *
+     * @throws IllegalStateException if the session is not open
+     */
+    public GameSnapshot getSnapshot(String id) {
+        return requireSession(id).getSnapshot();
+    }
+
+    private Session requireSession(String id) {
+        Session session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalStateException("No open session: " + id);
+        }
+        return session;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void checkShards() {
+        try {
+            rebalance();
+            long now = System.currentTimeMillis();
+            if (now - lastSummaryMillis >= GameConstants.METRICS_SUMMARY_INTERVAL) {
+                for (Shard shard : shards) {
+                    logger.info("Metrics {}", shard.getMetrics().summary());
+                }
+                lastSummaryMillis = now;
+            }
+        } catch (RuntimeException e) {
+            // An exception escaping a periodic task would silently cancel the checks
+            logger.error("Shard check failed", e);
+        }
+    }
+
+    /**
+     * Moves sessions from the hottest shard to the coldest if the hottest is over
+     * {@link GameConstants#SHARD_HOT_LOAD} and the two differ by at least
+     * {@link GameConstants#SHARD_MIN_IMBALANCE}. Assumes the hottest shard's sessions cost
+     * the same and moves enough of them to halve the gap.
+     *
+     * @return number of sessions moved
+     */
+    int rebalance() {
+        synchronized (lock) {
+            Shard hottest = shards.get(0);
+            Shard coldest = hottest;
+            for (Shard shard : shards) {
+                if (shard.getLoad() > hottest.getLoad()) {
+                    hottest = shard;
+                }
+                if (shard.getLoad() < coldest.getLoad()) {
+                    coldest = shard;
+                }
+            }
+            double hot = hottest.getLoad();
+            double cold = coldest.getLoad();
+            int count = hottest.getSessionCount();
+            if (hot < GameConstants.SHARD_HOT_LOAD || hot - cold < GameConstants.SHARD_MIN_IMBALANCE || count < 2) {
+                return 0;
+            }
+            double perSession = hot / count;
+            int move = (int) Math.max(1, Math.min(count / 2, Math.round((hot - cold) / 2 / perSession)));
+            hottest.moveTo(coldest, move);
+            logger.info("Moved {} sessions from shard {} (load {}) to shard {} (load {})",
+                move, hottest.getIndex(), hot, coldest.getIndex(), cold);
+            return move;
+        }
+    }
+}
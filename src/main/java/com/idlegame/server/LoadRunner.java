@@ -0,0 +1,62 @@
+package com.idlegame.server;
+
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.MetricsRegistry;
+import com.idlegame.core.PlayerCommand;
+import com.idlegame.simulation.HeadlessMain;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for {@link GameServer}: opens fresh sessions that each click once a second,
+ * runs the shards for a while and prints every shard's pass time and load. A shard
+ * sustains its sessions while its pass stays well inside the tick.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.idlegame.server.LoadRunner \
+ *     -Dexec.args="--sessions 10000 --seconds 60"
+ * </pre>
+ */
+public final class LoadRunner {
+    private LoadRunner() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        HeadlessMain.Options options = HeadlessMain.start(args, usage(),
+            "--sessions", "--shards", "--tick-ms", "--seconds");
+        int sessionCount = options.getInt("--sessions", 1000);
+        int shardCount = options.getInt("--shards", Runtime.getRuntime().availableProcessors());
+        long tickMillis = options.getLong("--tick-ms", GameConstants.GAME_TICK_DURATION);
+        long seconds = options.getLong("--seconds", 30);
+
+        GameServer server = new GameServer(shardCount, tickMillis, null);
+        for (int i = 0; i < sessionCount; i++) {
+            server.openSession("load-" + i);
+        }
+        server.start();
+        for (Shard shard : server.getShards()) {
+            shard.getMetrics().histogram(Shard.METRIC_PASS_DURATION, "ns").reset();
+        }
+        // Keep every session busy with clicks, as players would
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < sessionCount; i++) {
+                server.submit("load-" + i, PlayerCommand.click());
+            }
+            Thread.sleep(1000);
+        }
+
+        System.out.printf("%d sessions on %d shards at %d ms per tick for %d s%n",
+            sessionCount, shardCount, tickMillis, seconds);
+        for (Shard shard : server.getShards()) {
+            MetricsRegistry.Histogram pass = shard.getMetrics().histogram(Shard.METRIC_PASS_DURATION, "ns");
+            System.out.printf("  shard %d: %d sessions, %d ticks, %d overruns, pass mean %.2f ms p99 %.2f ms max %.2f ms, load %.0f%%%n",
+                shard.getIndex(), shard.getSessionCount(), shard.getLoop().getTicks(), shard.getLoop().getOverruns(),
+                pass.getMean() / 1e6, pass.getP99() / 1e6, pass.getMax() / 1e6, shard.getLoad() * 100);
+        }
+        server.stop();
+    }
+
+    private static String usage() {
+        return "Options: --sessions <count> --shards <count> --tick-ms <millis> --seconds <seconds>";
+    }
+}
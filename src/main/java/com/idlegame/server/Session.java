@@ -0,0 +1,125 @@
+package com.idlegame.server;
+
+import com.idlegame.core.GameManager;
+import com.idlegame.core.GameSnapshot;
+import com.idlegame.core.PlayerCommand;
+import com.idlegame.core.SaveData;
+import com.idlegame.core.SaveStore;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One player's game on a {@link GameServer}, ticked by whichever {@link Shard} owns it.
+ *
+ * <p>Other threads interact only through {@link #submit} and {@link #getSnapshot}, both
+ * lock-free. Ticks and saves hold the session's monitor, which is uncontended except for
+ * the moment a session moves between shards, when the old shard may still be finishing
+ * the pass that ticks it.
+ */
+public final class Session {
+    private static final Logger logger = LoggerFactory.getLogger(Session.class);
+
+    private final String id;
+    private final GameManager game;
+    private final SaveStore saveStore;
+    private final long ticksPerSave;
+    private volatile Shard shard;
+    // Guarded by this
+    private long ticksSinceSave;
+    private boolean closed;
+
+    /**
+     * @param saveStore where the session is saved, or null to keep it in memory only
+     * @param ticksPerSave ticks between periodic saves
+     */
+    Session(String id, GameManager game, SaveStore saveStore, long ticksPerSave) {
+        this.id = id;
+        this.game = game;
+        this.saveStore = saveStore;
+        this.ticksPerSave = ticksPerSave;
+        // Spread periodic saves of sessions opened together over the save interval
+        this.ticksSinceSave = Math.floorMod(id.hashCode(), ticksPerSave);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * The session's game. Only the owning shard may call into it directly; use
+     * {@link #submit} to act on it from other threads.
+     */
+    public GameManager getGame() {
+        return game;
+    }
+
+    /** The shard ticking this session, or null once it is closed. */
+    public Shard getShard() {
+        return shard;
+    }
+
+    void setShard(Shard shard) {
+        this.shard = shard;
+    }
+
+    public void submit(PlayerCommand command) {
+        game.submit(command);
+    }
+
+    public GameSnapshot getSnapshot() {
+        return game.getSnapshot();
+    }
+
+    /**
+     * Runs one tick and, when due, snapshots a save and hands it to {@code saves} to write.
+     */
+    synchronized void tick(long deltaMillis, Executor saves) {
+        if (closed) {
+            return;
+        }
+        game.tick(deltaMillis);
+        if (saveStore != null && ++ticksSinceSave >= ticksPerSave) {
+            ticksSinceSave = 0;
+            SaveData data = game.createSaveData();
+            saves.execute(() -> write(data));
+        }
+    }
+
+    /**
+     * Advances the session by {@code millis} in one step, for a stall of its shard's loop.
+     */
+    synchronized void fastForward(long millis) {
+        if (!closed) {
+            game.fastForward(millis);
+        }
+    }
+
+    /**
+     * Stops ticking the session and queues its final save behind any periodic one.
+     *
+     * @return completes once the final save is written
+     */
+    synchronized CompletableFuture<Void> close(Executor saves) {
+        if (closed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        closed = true;
+        shard = null;
+        if (saveStore == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        SaveData data = game.createSaveData();
+        return CompletableFuture.runAsync(() -> write(data), saves);
+    }
+
+    private void write(SaveData data) {
+        try {
+            saveStore.save(data);
+        } catch (IOException e) {
+            logger.error("Failed to save session {}", id, e);
+        }
+    }
+}
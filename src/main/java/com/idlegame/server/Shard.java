@@ -0,0 +1,180 @@
+package com.idlegame.server;
+
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameLoopScheduler;
+import com.idlegame.core.MetricsRegistry;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A fixed thread that ticks a set of {@link Session}s in one tight pass per game tick.
+ *
+ * <p>The pass reads the shard's sessions from a copy-on-write array, so it never locks and
+ * never sees a half-applied change; the {@link GameServer} replaces the array under its own
+ * lock when sessions open, close or move. Each pass is timed into the shard's
+ * {@link MetricsRegistry}, and a smoothed pass time against the tick length is the
+ * shard's load, which the server uses to move sessions off hot shards.
+ */
+public final class Shard {
+    private static final Logger logger = LoggerFactory.getLogger(Shard.class);
+    public static final String METRIC_PASS_DURATION = "shard.pass.duration";
+    public static final String METRIC_SESSIONS = "shard.sessions";
+    public static final String METRIC_LOAD = "shard.load.permille";
+    public static final String METRIC_OVERRUNS = "shard.overruns";
+    public static final String METRIC_TICK_FAILURES = "shard.tick.failures";
+    public static final String METRIC_SESSIONS_MOVED = "shard.sessions.moved";
+    private static final Session[] EMPTY = new Session[0];
+    // Weight of the newest pass in the smoothed pass time is 1 / 2^LOAD_SMOOTHING_SHIFT
+    private static final int LOAD_SMOOTHING_SHIFT = 4;
+
+    private final int index;
+    private final long tickNanos;
+    private final Executor saves;
+    private final GameLoopScheduler loop;
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Histogram passDuration;
+    private final MetricsRegistry.Counter tickFailures;
+    private final MetricsRegistry.Counter sessionsMoved;
+    private volatile Session[] sessions = EMPTY;
+    // Written by the shard thread only
+    private volatile long averagePassNanos;
+
+    /**
+     * @param saves runs the periodic save writes of this shard's sessions
+     */
+    Shard(int index, long tickMillis, Executor saves) {
+        this.index = index;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.saves = saves;
+        this.loop = new GameLoopScheduler(this::tick, this::fastForward, tickMillis,
+            GameConstants.MAX_TICKS_PER_FRAME, GameConstants.MAX_CATCH_UP_WINDOW, "shard-" + index);
+        this.metrics = new MetricsRegistry("shard-" + index);
+        this.passDuration = metrics.histogram(METRIC_PASS_DURATION, "ns");
+        this.tickFailures = metrics.counter(METRIC_TICK_FAILURES);
+        this.sessionsMoved = metrics.counter(METRIC_SESSIONS_MOVED);
+        metrics.gauge(METRIC_SESSIONS, this::getSessionCount);
+        metrics.gauge(METRIC_LOAD, () -> Math.round(getLoad() * 1000));
+        metrics.gauge(METRIC_OVERRUNS, loop::getOverruns);
+    }
+
+    /**
+     * Ticks every session once. Runs on the shard's thread while it is started; call it
+     * directly only on a shard that is not.
+     */
+    public void tick(long deltaMillis) {
+        long start = System.nanoTime();
+        for (Session session : sessions) {
+            try {
+                session.tick(deltaMillis, saves);
+            } catch (RuntimeException e) {
+                // One broken game must not stall everyone else on the shard
+                tickFailures.increment();
+                logger.error("Tick failed for session {}", session.getId(), e);
+            }
+        }
+        recordPass(System.nanoTime() - start);
+    }
+
+    /**
+     * Credits every session with {@code millis} of game time in one step after the shard's
+     * loop stalled past its catch-up window.
+     */
+    public void fastForward(long millis) {
+        for (Session session : sessions) {
+            try {
+                session.fastForward(millis);
+            } catch (RuntimeException e) {
+                tickFailures.increment();
+                logger.error("Fast-forward failed for session {}", session.getId(), e);
+            }
+        }
+    }
+
+    void recordPass(long elapsedNanos) {
+        passDuration.record(elapsedNanos);
+        averagePassNanos += (elapsedNanos - averagePassNanos) >> LOAD_SMOOTHING_SHIFT;
+    }
+
+    void start() {
+        metrics.registerMBeans();
+        loop.start();
+    }
+
+    void stop() {
+        loop.stop();
+        metrics.unregisterMBeans();
+    }
+
+    // Called with the server's lock held
+
+    void add(Session session) {
+        Session[] current = sessions;
+        Session[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = session;
+        session.setShard(this);
+        sessions = next;
+    }
+
+    boolean remove(Session session) {
+        Session[] current = sessions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == session) {
+                Session[] next = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                sessions = next;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the last {@code count} sessions to {@code target}.
+     */
+    void moveTo(Shard target, int count) {
+        Session[] current = sessions;
+        int keep = current.length - count;
+        Session[] moved = Arrays.copyOfRange(current, keep, current.length);
+        Session[] grown = Arrays.copyOf(target.sessions, target.sessions.length + count);
+        System.arraycopy(moved, 0, grown, target.sessions.length, count);
+        for (Session session : moved) {
+            session.setShard(target);
+        }
+        target.sessions = grown;
+        sessions = Arrays.copyOf(current, keep);
+        sessionsMoved.add(count);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getSessionCount() {
+        return sessions.length;
+    }
+
+    /** Smoothed time of one pass over all sessions. */
+    public long getAveragePassNanos() {
+        return averagePassNanos;
+    }
+
+    /** Smoothed pass time as a share of the tick; above 1 the shard cannot keep up. */
+    public double getLoad() {
+        return (double) averagePassNanos / tickNanos;
+    }
+
+    public GameLoopScheduler getLoop() {
+        return loop;
+    }
+
+    /**
+     * Pass time, session count, load, overruns, failed ticks and sessions moved off, registered
+     * as MBeans while the server runs.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,292 @@
+package com.idlegame.simulation;
+
+import com.idlegame.core.BuildingCatalog;
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.VirtualClock;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo balance sweep: many independent headless playthroughs, each with its own
+ * randomly drawn {@link ScriptedPolicy} parameters, reporting how long players take to
+ * reach the first of each building and their first prestige.
+ *
+ * <p>Runs are spread over a {@link ForkJoinPool} with a parallel stream. Each run builds
+ * its own game, clock, policy and random source from a seed drawn up front, and returns
+ * an immutable {@link Run}; runs share nothing mutable, so a sweep gives the same results
+ * on any number of threads.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.idlegame.simulation.BalanceSimulator \
+ *     -Dexec.args="--runs 2000 --hours 12 --out milestones.csv --runs-out runs.csv"
+ * </pre>
+ */
+public final class BalanceSimulator {
+    /** Milestone name of the first prestige in the CSVs. */
+    public static final String PRESTIGE_MILESTONE = "prestige";
+    /** Strategy name of the rows summarising every run. */
+    public static final String ALL_STRATEGIES = "ALL";
+    private static final ScriptedPolicy.BuyStrategy[] STRATEGIES = {
+        ScriptedPolicy.BuyStrategy.CHEAPEST, ScriptedPolicy.BuyStrategy.BEST_VALUE
+    };
+    private static final double MAX_CLICKS_PER_SECOND = 10.0;
+    private static final long MAX_BUY_INTERVAL_MILLIS = 60_000;
+    private static final double NEVER_PRESTIGE_CHANCE = 0.25;
+    private static final double MAX_PRESTIGE_AT_POINTS = 50.0;
+
+    private final long tickMillis;
+    private final long durationMillis;
+    private final String[] buildingIds;
+
+    /**
+     * @param tickMillis simulated tick length; coarser ticks run faster and only blur
+     *                   milestone times to the tick
+     * @param durationMillis simulated length of each run
+     */
+    public BalanceSimulator(long tickMillis, long durationMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick length must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.durationMillis = durationMillis;
+        BuildingCatalog catalog = BuildingCatalog.standard();
+        this.buildingIds = new String[catalog.size()];
+        for (int i = 0; i < buildingIds.length; i++) {
+            buildingIds[i] = catalog.get(i).getId();
+        }
+    }
+
+    /**
+     * One playthrough: the parameters drawn for it and the simulated time of each milestone,
+     * {@link MilestoneTracker#NOT_REACHED} if it was not reached.
+     */
+    public static final class Run {
+        private final int index;
+        private final long seed;
+        private final ScriptedPolicy.BuyStrategy strategy;
+        private final double clicksPerSecond;
+        private final long buyIntervalMillis;
+        private final double prestigeAtPoints;
+        private final long[] firstBuildingMillis;
+        private final long firstPrestigeMillis;
+
+        Run(int index, long seed, ScriptedPolicy.BuyStrategy strategy, double clicksPerSecond,
+                long buyIntervalMillis, double prestigeAtPoints, long[] firstBuildingMillis,
+                long firstPrestigeMillis) {
+            this.index = index;
+            this.seed = seed;
+            this.strategy = strategy;
+            this.clicksPerSecond = clicksPerSecond;
+            this.buyIntervalMillis = buyIntervalMillis;
+            this.prestigeAtPoints = prestigeAtPoints;
+            this.firstBuildingMillis = firstBuildingMillis;
+            this.firstPrestigeMillis = firstPrestigeMillis;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public ScriptedPolicy.BuyStrategy getStrategy() {
+            return strategy;
+        }
+
+        public double getClicksPerSecond() {
+            return clicksPerSecond;
+        }
+
+        public long getBuyIntervalMillis() {
+            return buyIntervalMillis;
+        }
+
+        /** Points a reset had to gain before the run prestiged, 0 if it never does. */
+        public double getPrestigeAtPoints() {
+            return prestigeAtPoints;
+        }
+
+        public long getFirstBuildingMillis(int ordinal) {
+            return firstBuildingMillis[ordinal];
+        }
+
+        public long getFirstPrestigeMillis() {
+            return firstPrestigeMillis;
+        }
+
+        /** Time of milestone {@code m}: building ordinals first, then the first prestige. */
+        long getMilestoneMillis(int m) {
+            return m < firstBuildingMillis.length ? firstBuildingMillis[m] : firstPrestigeMillis;
+        }
+    }
+
+    /**
+     * Runs {@code runs} playthroughs on {@code pool}.
+     *
+     * @return the runs in index order
+     */
+    public List<Run> run(int runs, long seed, ForkJoinPool pool) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long[] runSeeds = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            runSeeds[i] = seeds.nextLong();
+        }
+        // A parallel stream started from a task in the pool runs on that pool
+        return pool.submit(() -> IntStream.range(0, runs).parallel()
+            .mapToObj(i -> simulate(i, runSeeds[i]))
+            .collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Draws a player from {@code seed} and plays one fresh game; depends on nothing else.
+     */
+    Run simulate(int index, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ScriptedPolicy.BuyStrategy strategy = STRATEGIES[random.nextInt(STRATEGIES.length)];
+        double clicksPerSecond = random.nextDouble(MAX_CLICKS_PER_SECOND);
+        long buyIntervalMillis = random.nextLong(tickMillis, Math.max(tickMillis, MAX_BUY_INTERVAL_MILLIS) + 1);
+        double prestigeAtPoints = random.nextDouble() < NEVER_PRESTIGE_CHANCE
+            ? 0.0
+            : random.nextDouble(GameConstants.PRESTIGE_MULTIPLIER, MAX_PRESTIGE_AT_POINTS);
+
+        MilestoneTracker tracker = new MilestoneTracker(
+            new ScriptedPolicy(clicksPerSecond, buyIntervalMillis, strategy, prestigeAtPoints));
+        VirtualClock clock = new VirtualClock();
+        GameManager game = SimulationRunner.newGame(clock);
+        new SimulationRunner(tickMillis, tracker).run(game, clock, durationMillis);
+
+        long[] firstBuildingMillis = new long[buildingIds.length];
+        for (int i = 0; i < firstBuildingMillis.length; i++) {
+            firstBuildingMillis[i] = tracker.getFirstBuildingMillis(i);
+        }
+        return new Run(index, seed, strategy, clicksPerSecond, buyIntervalMillis, prestigeAtPoints,
+            firstBuildingMillis, tracker.getFirstPrestigeMillis());
+    }
+
+    /**
+     * Writes one row per milestone and strategy, plus {@link #ALL_STRATEGIES}, with how many
+     * runs reached it and the spread of their times in simulated seconds:
+     * {@code milestone,strategy,runs,reached,min_s,p10_s,p50_s,p90_s,max_s,mean_s}.
+     */
+    public void writeSummary(List<Run> runs, Appendable out) throws IOException {
+        out.append("milestone,strategy,runs,reached,min_s,p10_s,p50_s,p90_s,max_s,mean_s\n");
+        for (int m = 0; m <= buildingIds.length; m++) {
+            String milestone = m < buildingIds.length ? buildingIds[m] : PRESTIGE_MILESTONE;
+            writeSummaryRow(out, milestone, ALL_STRATEGIES, runs, m);
+            for (ScriptedPolicy.BuyStrategy strategy : STRATEGIES) {
+                List<Run> subset = runs.stream().filter(run -> run.strategy == strategy).collect(Collectors.toList());
+                writeSummaryRow(out, milestone, strategy.name(), subset, m);
+            }
+        }
+    }
+
+    private static void writeSummaryRow(Appendable out, String milestone, String strategy, List<Run> runs, int m)
+            throws IOException {
+        long[] times = runs.stream().mapToLong(run -> run.getMilestoneMillis(m))
+            .filter(time -> time != MilestoneTracker.NOT_REACHED).sorted().toArray();
+        out.append(milestone).append(',').append(strategy).append(',')
+            .append(Integer.toString(runs.size())).append(',').append(Integer.toString(times.length));
+        if (times.length == 0) {
+            out.append(",,,,,,\n");
+            return;
+        }
+        out.append(',').append(seconds(times[0]))
+            .append(',').append(seconds(percentile(times, 0.10)))
+            .append(',').append(seconds(percentile(times, 0.50)))
+            .append(',').append(seconds(percentile(times, 0.90)))
+            .append(',').append(seconds(times[times.length - 1]))
+            .append(',').append(seconds((long) Arrays.stream(times).average().orElse(0)))
+            .append('\n');
+    }
+
+    /**
+     * Writes one row per run with its parameters and milestone times in simulated
+     * seconds, empty where not reached.
+     */
+    public void writeRuns(List<Run> runs, Appendable out) throws IOException {
+        out.append("run,seed,strategy,clicks_per_second,buy_interval_ms,prestige_at_points");
+        for (String id : buildingIds) {
+            out.append(",first_").append(id).append("_s");
+        }
+        out.append(",first_").append(PRESTIGE_MILESTONE).append("_s\n");
+        for (Run run : runs) {
+            out.append(Integer.toString(run.index)).append(',').append(Long.toString(run.seed))
+                .append(',').append(run.strategy.name())
+                .append(',').append(String.format(Locale.ROOT, "%.3f", run.clicksPerSecond))
+                .append(',').append(Long.toString(run.buyIntervalMillis))
+                .append(',').append(String.format(Locale.ROOT, "%.3f", run.prestigeAtPoints));
+            for (int m = 0; m <= buildingIds.length; m++) {
+                long time = run.getMilestoneMillis(m);
+                out.append(',');
+                if (time != MilestoneTracker.NOT_REACHED) {
+                    out.append(seconds(time));
+                }
+            }
+            out.append('\n');
+        }
+    }
+
+    /** Nearest-rank percentile of sorted values. */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.1f", millis / 1000.0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        HeadlessMain.Options options = HeadlessMain.start(args, usage(),
+            "--runs", "--hours", "--tick-ms", "--seed", "--threads", "--out", "--runs-out");
+        int runs = options.getInt("--runs", 1000);
+        double hours = options.getDouble("--hours", 12.0);
+        long tickMillis = options.getLong("--tick-ms", 1000);
+        long seed = options.getLong("--seed", 1);
+        int threads = options.getInt("--threads", Runtime.getRuntime().availableProcessors());
+        Path out = Paths.get(options.get("--out", "milestones.csv"));
+        String runsOutName = options.get("--runs-out", null);
+        Path runsOut = runsOutName == null ? null : Paths.get(runsOutName);
+
+        BalanceSimulator simulator = new BalanceSimulator(tickMillis, (long) (hours * 3_600_000L));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<Run> results;
+        try {
+            results = simulator.run(runs, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            simulator.writeSummary(results, writer);
+        }
+        if (runsOut != null) {
+            try (BufferedWriter writer = Files.newBufferedWriter(runsOut, StandardCharsets.UTF_8)) {
+                simulator.writeRuns(results, writer);
+            }
+        }
+        System.out.printf("Simulated %d runs of %.2f h on %d threads in %.1f s (%.0f simulated hours/s); wrote %s%n",
+            runs, hours, threads, wallSeconds, runs * hours / wallSeconds, out);
+    }
+
+    private static String usage() {
+        return "Usage: BalanceSimulator [--runs N] [--hours N] [--tick-ms N] [--seed N] [--threads N]"
+            + " [--out FILE] [--runs-out FILE]";
+    }
+}
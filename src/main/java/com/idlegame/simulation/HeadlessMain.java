@@ -0,0 +1,78 @@
+package com.idlegame.simulation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line setup shared by the headless entry points ({@link SimulationRunner},
+ * {@link BalanceSimulator} and the server's load runner): quiet logging and
+ * {@code --option value} parsing.
+ */
+public final class HeadlessMain {
+    public static final String LOG_CONFIG = "logback-headless.xml";
+
+    private HeadlessMain() {
+    }
+
+    /**
+     * Switches logging to {@link #LOG_CONFIG} unless a configuration was given, then parses
+     * {@code args}. Call it first in {@code main}: the logging setup must happen before any
+     * logger is created, as the game logs at DEBUG by default.
+     *
+     * @param usage appended to the message of an unknown option or a missing value
+     * @param names every option the entry point accepts, each taking one value
+     */
+    public static Options start(String[] args, String usage, String... names) {
+        if (System.getProperty("logback.configurationFile") == null) {
+            System.setProperty("logback.configurationFile", LOG_CONFIG);
+        }
+        return parse(args, usage, names);
+    }
+
+    static Options parse(String[] args, String usage, String... names) {
+        List<String> known = Arrays.asList(names);
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!known.contains(args[i])) {
+                throw new IllegalArgumentException("Unknown option: " + args[i] + "\n" + usage);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i] + "\n" + usage);
+            }
+            values.put(args[i], args[++i]);
+        }
+        return new Options(values);
+    }
+
+    /**
+     * Option values by name; an option that was not given reads as its default.
+     */
+    public static final class Options {
+        private final Map<String, String> values;
+
+        private Options(Map<String, String> values) {
+            this.values = values;
+        }
+
+        public String get(String name, String defaultValue) {
+            return values.getOrDefault(name, defaultValue);
+        }
+
+        public int getInt(String name, int defaultValue) {
+            String value = values.get(name);
+            return value == null ? defaultValue : Integer.parseInt(value);
+        }
+
+        public long getLong(String name, long defaultValue) {
+            String value = values.get(name);
+            return value == null ? defaultValue : Long.parseLong(value);
+        }
+
+        public double getDouble(String name, double defaultValue) {
+            String value = values.get(name);
+            return value == null ? defaultValue : Double.parseDouble(value);
+        }
+    }
+}
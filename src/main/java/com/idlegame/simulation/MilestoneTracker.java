@@ -0,0 +1,62 @@
+package com.idlegame.simulation;
+
+import com.idlegame.core.BuildingSystem;
+import com.idlegame.core.GameManager;
+import java.util.Arrays;
+
+/**
+ * Wraps a {@link PlayPolicy} and notes the simulated time at which the game first owns
+ * each building and first prestiges. Milestones are checked right after the wrapped
+ * policy acts, so one reached by a purchase or prestige is timed to the tick it happened on.
+ */
+public final class MilestoneTracker implements PlayPolicy {
+    /** Time reported for a milestone the run never reached. */
+    public static final long NOT_REACHED = -1;
+
+    private final PlayPolicy policy;
+    private long[] firstBuildingMillis;
+    private long firstPrestigeMillis = NOT_REACHED;
+    private int remaining;
+
+    public MilestoneTracker(PlayPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public void onTick(GameManager game, long nowMillis, long tickMillis) {
+        policy.onTick(game, nowMillis, tickMillis);
+        if (firstBuildingMillis == null) {
+            firstBuildingMillis = new long[game.getBuildingSystem().getCatalog().size()];
+            Arrays.fill(firstBuildingMillis, NOT_REACHED);
+            remaining = firstBuildingMillis.length + 1;
+        }
+        if (remaining == 0) {
+            return;
+        }
+
+        BuildingSystem buildingSystem = game.getBuildingSystem();
+        for (int i = 0; i < firstBuildingMillis.length; i++) {
+            if (firstBuildingMillis[i] == NOT_REACHED && buildingSystem.getCount(i) > 0) {
+                firstBuildingMillis[i] = nowMillis;
+                remaining--;
+            }
+        }
+        if (firstPrestigeMillis == NOT_REACHED && !game.getPrestigePoints().isZero()) {
+            firstPrestigeMillis = nowMillis;
+            remaining--;
+        }
+    }
+
+    /**
+     * Simulated time of the first purchase of the building with the given ordinal, or
+     * {@link #NOT_REACHED}.
+     */
+    public long getFirstBuildingMillis(int ordinal) {
+        return firstBuildingMillis == null ? NOT_REACHED : firstBuildingMillis[ordinal];
+    }
+
+    /** Simulated time of the first prestige, or {@link #NOT_REACHED}. */
+    public long getFirstPrestigeMillis() {
+        return firstPrestigeMillis;
+    }
+}
@@ -0,0 +1,16 @@
+package com.idlegame.simulation;
+
+import com.idlegame.core.GameManager;
+
+/**
+ * Decides what a simulated player does. Called once per simulated tick, before the
+ * game advances, from the simulation thread only.
+ */
+public interface PlayPolicy {
+    /**
+     * @param game the game being simulated
+     * @param nowMillis current simulated time since the start of the run
+     * @param tickMillis length of the tick that is about to be simulated
+     */
+    void onTick(GameManager game, long nowMillis, long tickMillis);
+}
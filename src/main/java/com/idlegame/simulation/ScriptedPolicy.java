@@ -0,0 +1,124 @@
+package com.idlegame.simulation;
+
+import com.idlegame.core.BuildingSystem;
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.PlayerCommand;
+
+/**
+ * Fixed play script: clicks at a steady rate, periodically spends the bank on buildings
+ * according to a {@link BuyStrategy} and optionally prestiges once a reset would gain
+ * enough points. The whole clicks owed for a tick are submitted as one batch.
+ */
+public class ScriptedPolicy implements PlayPolicy {
+    /** Safety bound on purchases made in a single buying decision. */
+    private static final int MAX_PURCHASES_PER_DECISION = 10_000;
+
+    public enum BuyStrategy {
+        /** Never buy buildings. */
+        NONE,
+        /** Always buy the cheapest building available. */
+        CHEAPEST,
+        /** Buy the building with the best production per unit of cost. */
+        BEST_VALUE
+    }
+
+    private final double clicksPerSecond;
+    private final long buyIntervalMillis;
+    private final BuyStrategy buyStrategy;
+    private final double prestigeAtPoints;
+    // Next cost and strategy value of each building, refreshed as buildings are bought
+    private IdleNumber[] costs;
+    private IdleNumber[] values;
+    private double pendingClicks;
+    private long nextBuyMillis;
+
+    public ScriptedPolicy(double clicksPerSecond, long buyIntervalMillis, BuyStrategy buyStrategy) {
+        this(clicksPerSecond, buyIntervalMillis, buyStrategy, 0.0);
+    }
+
+    /**
+     * @param prestigeAtPoints prestige as soon as a reset would gain at least this many
+     *                         points, or never if 0
+     */
+    public ScriptedPolicy(double clicksPerSecond, long buyIntervalMillis, BuyStrategy buyStrategy,
+            double prestigeAtPoints) {
+        this.clicksPerSecond = clicksPerSecond;
+        this.buyIntervalMillis = buyIntervalMillis;
+        this.buyStrategy = buyStrategy;
+        this.prestigeAtPoints = prestigeAtPoints;
+    }
+
+    @Override
+    public void onTick(GameManager game, long nowMillis, long tickMillis) {
+        pendingClicks += clicksPerSecond * tickMillis / 1000.0;
+        long clicks = (long) pendingClicks;
+        if (clicks > 0) {
+            // One batch at the start of the coming tick, as the UI submits them
+            game.submit(PlayerCommand.clicks(clicks));
+            pendingClicks -= clicks;
+        }
+
+        if (buyStrategy != BuyStrategy.NONE && nowMillis >= nextBuyMillis) {
+            buyBuildings(game.getBuildingSystem(), game.getResourceSystem().getAmount(GameConstants.PRIMARY_CURRENCY));
+            nextBuyMillis = nowMillis + buyIntervalMillis;
+        }
+
+        if (prestigeAtPoints > 0 && game.canPrestige()
+                && game.getNextPrestigePointsGain().compareTo(prestigeAtPoints) >= 0) {
+            game.prestige();
+        }
+    }
+
+    private void buyBuildings(BuildingSystem buildingSystem, IdleNumber bank) {
+        int size = buildingSystem.getCatalog().size();
+        if (costs == null) {
+            costs = new IdleNumber[size];
+            values = new IdleNumber[size];
+            for (int i = 0; i < size; i++) {
+                costs[i] = new IdleNumber();
+                values[i] = new IdleNumber();
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            price(buildingSystem, i, buildingSystem.getCount(i));
+        }
+        for (int purchases = 0; purchases < MAX_PURCHASES_PER_DECISION; purchases++) {
+            int choice = chooseBuilding(bank);
+            if (choice < 0) {
+                return;
+            }
+            buildingSystem.purchaseBuilding(choice);
+            bank.subtractInPlace(costs[choice]);
+            // Only the building just bought changed price
+            price(buildingSystem, choice, buildingSystem.getCount(choice));
+        }
+    }
+
+    /**
+     * Caches the cost of a building with {@code owned} already bought, and its value to the
+     * strategy, higher is better.
+     */
+    private void price(BuildingSystem buildingSystem, int ordinal, int owned) {
+        IdleNumber cost = buildingSystem.getCatalog().get(ordinal).costAt(owned, costs[ordinal]);
+        if (buyStrategy == BuyStrategy.CHEAPEST) {
+            values[ordinal].set(cost).negateInPlace();
+        } else {
+            buildingSystem.getCatalog().get(ordinal).productionAt(1, 1.0, values[ordinal]).divideInPlace(cost);
+        }
+    }
+
+    /**
+     * Ordinal of the affordable building preferred by the strategy, or -1 if none is affordable.
+     */
+    private int chooseBuilding(IdleNumber bank) {
+        int choice = -1;
+        for (int i = 0; i < costs.length; i++) {
+            if (costs[i].compareTo(bank) <= 0 && (choice < 0 || values[i].compareTo(values[choice]) > 0)) {
+                choice = i;
+            }
+        }
+        return choice;
+    }
+}
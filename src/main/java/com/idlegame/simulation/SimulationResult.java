@@ -0,0 +1,77 @@
+package com.idlegame.simulation;
+
+import com.idlegame.core.BuildingCatalog;
+import com.idlegame.core.BuildingSystem;
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.IdleNumber;
+import java.io.PrintStream;
+
+/**
+ * Outcome of a headless run: throughput figures plus the final economy state.
+ */
+public class SimulationResult {
+    private final GameManager game;
+    private final long simulatedMillis;
+    private final long ticks;
+    private final long wallNanos;
+
+    public SimulationResult(GameManager game, long simulatedMillis, long ticks, long wallNanos) {
+        this.game = game;
+        this.simulatedMillis = simulatedMillis;
+        this.ticks = ticks;
+        this.wallNanos = wallNanos;
+    }
+
+    public GameManager getGame() {
+        return game;
+    }
+
+    public long getSimulatedMillis() {
+        return simulatedMillis;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public double getTicksPerSecond() {
+        return wallNanos == 0 ? 0.0 : ticks / (wallNanos / 1e9);
+    }
+
+    /**
+     * How many times faster than real time the run was.
+     */
+    public double getSpeedup() {
+        return wallNanos == 0 ? 0.0 : simulatedMillis * 1e6 / wallNanos;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("Simulated %.2f h in %.3f s: %d ticks, %.0f ticks/s (%.0fx real time)%n",
+            simulatedMillis / 3_600_000.0, wallNanos / 1e9, ticks, getTicksPerSecond(), getSpeedup());
+
+        out.println("Resources:");
+        for (String resourceId : new String[] {
+            GameConstants.PRIMARY_CURRENCY, GameConstants.SECONDARY_CURRENCY, GameConstants.TERTIARY_CURRENCY }) {
+            out.printf("  %-12s %s%n", resourceId, game.getResourceSystem().getAmount(resourceId));
+        }
+
+        BuildingSystem buildingSystem = game.getBuildingSystem();
+        out.printf("Production: %s/sec%n", buildingSystem.getProduction());
+        out.printf("Buildings (%d total):%n", buildingSystem.getTotalBuildingCount());
+        BuildingCatalog catalog = buildingSystem.getCatalog();
+        IdleNumber cost = new IdleNumber();
+        for (int i = 0; i < catalog.size(); i++) {
+            if (buildingSystem.getCount(i) > 0) {
+                out.printf("  %-16s %8d  next cost %s%n", catalog.get(i).getId(), buildingSystem.getCount(i),
+                    buildingSystem.nextCostInto(i, cost));
+            }
+        }
+        out.printf("Achievements unlocked: %d%n", game.getUnlockedAchievements().size());
+        out.printf("Prestige points: %s (next gain %s)%n", game.getPrestigePoints(), game.getNextPrestigePointsGain());
+    }
+}
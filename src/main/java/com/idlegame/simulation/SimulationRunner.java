@@ -0,0 +1,91 @@
+package com.idlegame.simulation;
+
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.SaveStore;
+import com.idlegame.core.VirtualClock;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Headless fast-forward simulation. Runs the core game systems on a {@link VirtualClock}
+ * without JavaFX, advancing one fixed tick at a time as fast as the CPU allows.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.idlegame.simulation.SimulationRunner \
+ *     -Dexec.args="--hours 24 --clicks-per-second 5 --buy BEST_VALUE"
+ * </pre>
+ */
+public final class SimulationRunner {
+    // Simulated games never save; their store points away from the desktop game's saves/
+    private static final Path SCRATCH_DIRECTORY =
+        Paths.get(System.getProperty("java.io.tmpdir"), "idle-game-simulation");
+
+    private final long tickMillis;
+    private final PlayPolicy policy;
+
+    public SimulationRunner(long tickMillis, PlayPolicy policy) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick length must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.policy = policy;
+    }
+
+    /**
+     * Simulates {@code durationMillis} of play on a fresh game.
+     */
+    public SimulationResult run(long durationMillis) {
+        VirtualClock clock = new VirtualClock();
+        return run(newGame(clock), clock, durationMillis);
+    }
+
+    /**
+     * A fresh, initialized game on {@code clock} with the short flight recorder, no autosave
+     * or journal, and a save store that is never written.
+     */
+    public static GameManager newGame(VirtualClock clock) {
+        GameManager game = new GameManager(clock, new SaveStore(SCRATCH_DIRECTORY));
+        game.setAutoSaveEnabled(false);
+        game.initialize();
+        return game;
+    }
+
+    /**
+     * Simulates {@code durationMillis} of play on an existing game driven by {@code clock}.
+     */
+    public SimulationResult run(GameManager game, VirtualClock clock, long durationMillis) {
+        long ticks = 0;
+        long elapsed = 0;
+        long start = System.nanoTime();
+        while (elapsed < durationMillis) {
+            long step = Math.min(tickMillis, durationMillis - elapsed);
+            policy.onTick(game, elapsed, step);
+            clock.advance(step);
+            game.update();
+            elapsed += step;
+            ticks++;
+        }
+        return new SimulationResult(game, elapsed, ticks, System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) {
+        HeadlessMain.Options options = HeadlessMain.start(args, usage(),
+            "--hours", "--tick-ms", "--clicks-per-second", "--buy-interval-ms", "--buy");
+        double hours = options.getDouble("--hours", 1.0);
+        long tickMillis = options.getLong("--tick-ms", GameConstants.GAME_TICK_DURATION);
+        double clicksPerSecond = options.getDouble("--clicks-per-second", 5.0);
+        long buyIntervalMillis = options.getLong("--buy-interval-ms", 1000);
+        ScriptedPolicy.BuyStrategy buyStrategy =
+            ScriptedPolicy.BuyStrategy.valueOf(options.get("--buy", ScriptedPolicy.BuyStrategy.BEST_VALUE.name()));
+
+        PlayPolicy policy = new ScriptedPolicy(clicksPerSecond, buyIntervalMillis, buyStrategy);
+        SimulationResult result = new SimulationRunner(tickMillis, policy).run((long) (hours * 3_600_000L));
+        result.print(System.out);
+    }
+
+    private static String usage() {
+        return "Usage: SimulationRunner [--hours N] [--tick-ms N] [--clicks-per-second N]"
+            + " [--buy-interval-ms N] [--buy NONE|CHEAPEST|BEST_VALUE]";
+    }
+}
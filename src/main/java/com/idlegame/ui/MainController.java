@@ -1,30 +1,61 @@
 package com.idlegame.ui;
 
-import com.idlegame.core.GameManager;
+import com.idlegame.core.GameClock;
 import com.idlegame.core.GameConstants;
-import com.idlegame.core.BuildingSystem;
-import com.idlegame.ui.components.BuildingComponent;
-import com.idlegame.ui.components.UpgradeComponent;
-import java.math.BigDecimal;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.GameSnapshot;
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.NumberFormatter;
+import com.idlegame.core.PlayerCommand;
+import com.idlegame.core.ProjectionEngine;
+import com.idlegame.core.SaveStore;
+import com.idlegame.core.StatBreakdown;
+import com.idlegame.core.StatGraph;
+import com.idlegame.ui.components.BuildingCell;
+import com.idlegame.ui.components.UpgradeEntry;
+import com.idlegame.ui.components.UpgradeRowCell;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import javafx.application.Platform;
+import java.util.Set;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.VBox;
-import javafx.scene.layout.GridPane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.text.NumberFormat;
 
 public class MainController {
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
+    private static final int UPGRADES_PER_ROW = 4;
     private GameManager gameManager;
-    private List<BuildingComponent> buildingComponents;
-    private List<UpgradeComponent> upgradeComponents;
-    private NumberFormat numberFormat = NumberFormat.getInstance();
+    // Cells currently attached to each list; only about a screenful, whatever the catalog
+    // size. Cells the list discards, e.g. on refresh(), drop out when they are detached
+    private final List<BuildingCell> buildingCells = new ArrayList<>();
+    private final List<UpgradeRowCell> upgradeCells = new ArrayList<>();
+    // ETAs for every row, from the last rendered snapshot
+    private final ProjectionEngine projections = new ProjectionEngine();
+    private final Set<String> purchasedUpgrades = new HashSet<>();
+    // One formatter per label, so each hands back its cached text while the value holds
+    private final NumberFormatter amountFormat = NumberFormatter.standard();
+    private final NumberFormatter rateFormat = NumberFormatter.standard();
+    private final NumberFormatter statFormat = NumberFormatter.standard();
+    private final NumberFormatter prestigeFormat = NumberFormatter.standard();
+    private final NumberFormatter prestigeGainFormat = NumberFormatter.standard();
+    private String shownAmount;
+    private String shownPrestigePoints;
+    // Whole seconds to the best prestige point and the gain last shown
+    private long shownBestPrestige = -1;
+    private String shownBestPrestigeGain;
+    private String shownRate;
+    // Breakdowns currently shown; snapshots share one instance until a stat changes
+    private StatBreakdown shownClickBreakdown;
+    private StatBreakdown shownRateBreakdown;
+    private RenderLoop renderLoop;
 
     @FXML private Label resourceLabel;
     @FXML private Label perSecondLabel;
@@ -32,18 +63,18 @@ public class MainController {
     @FXML private Label prestigeLabel;
     @FXML private Label prestigePointsLabel;
     @FXML private Button clickButton;
-    @FXML private VBox buildingsContainer;
-    @FXML private GridPane upgradesGrid;
+    @FXML private ListView<Integer> buildingsList;
+    @FXML private ListView<List<UpgradeEntry>> upgradesList;
     @FXML private VBox achievementContainer;
 
     @FXML
     private void initialize() {
         logger.info("Initializing MainController");
-        gameManager = new GameManager();
+        // The desktop game keeps a long trace for bug reports; headless games keep a short one
+        gameManager = new GameManager(GameClock.system(), new SaveStore(),
+            GameConstants.DESKTOP_FLIGHT_RECORDER_CAPACITY);
         gameManager.initialize();
-
-        buildingComponents = new ArrayList<>();
-        upgradeComponents = new ArrayList<>();
+        projections.update(gameManager.getSnapshot());
 
         // Initialize buildings dynamically
         initializeBuildings();
@@ -53,59 +84,37 @@ public class MainController {
         // Load saved game state and start game loop
         gameManager.loadGame();
         gameManager.startGame();
-        startResourceUpdate();
-
-        updateDisplay();
+        startRendering();
         logger.info("MainController initialization complete");
     }
 
+    /**
+     * Fills the virtualized building list with catalog ordinals; rows are only built for
+     * the cells in view, and recycled as the list scrolls.
+     */
     private void initializeBuildings() {
-        // Clear existing components
-        buildingsContainer.getChildren().clear();
-        buildingComponents.clear();
-
-        // Create building components dynamically
-        for (String buildingId : GameConstants.BUILDING_IDS) {
-            BuildingSystem.Building building = gameManager.getBuildingSystem().getBuilding(buildingId);
-            if (building != null) {
-                BuildingComponent component = new BuildingComponent(
-                    buildingId,
-                    building.getId(),
-                    building.getNextCost(),
-                    building.getCurrentProduction(),
-                    amount -> purchaseBuilding(buildingId, amount)
-                );
-                buildingComponents.add(component);
-                buildingsContainer.getChildren().add(component);
-            }
+        int size = gameManager.getSnapshot().getCatalog().size();
+        List<Integer> ordinals = new ArrayList<>(size);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            ordinals.add(ordinal);
         }
+        buildingsList.setCellFactory(list -> {
+            return trackAttached(new BuildingCell(projections, this::purchaseBuilding), buildingCells);
+        });
+        buildingsList.setFocusTraversable(false);
+        buildingsList.setItems(FXCollections.observableList(ordinals));
     }
 
     private void purchaseBuilding(String buildingId, int amount) {
-        BuildingSystem.Building building = gameManager.getBuildingSystem().getBuilding(buildingId);
-        if (building != null) {
-            if (amount == -1) {
-                // Buy max implementation
-                while (gameManager.getResourceSystem().canAfford(GameConstants.PRIMARY_CURRENCY, building.getNextCost())) {
-                    gameManager.getBuildingSystem().purchaseBuilding(buildingId);
-                }
-            } else {
-                // Buy specific amount
-                for (int i = 0; i < amount && gameManager.getResourceSystem().canAfford(GameConstants.PRIMARY_CURRENCY, building.getNextCost()); i++) {
-                    gameManager.getBuildingSystem().purchaseBuilding(buildingId);
-                }
-            }
-            updateDisplay();
-        }
+        // Buy as many as affordable, up to the requested amount (-1 means buy max);
+        // applied by the game loop at its next tick
+        gameManager.submit(PlayerCommand.buyBuilding(buildingId, amount));
     }
 
     private void setupUI() {
         // Click button action
         clickButton.setOnAction(event -> {
-            logger.debug("Click button pressed");
-            gameManager.clickMainAction();
-            updateResourceDisplay();
-            logger.trace("Resources after click: {}", gameManager.getPrimaryResource());
+            gameManager.submit(PlayerCommand.click());
         });
     }
 
@@ -118,81 +127,165 @@ public class MainController {
             {"offline_1", "Offline Progress", "Earn while away", "2000"}
         };
 
-        int row = 0, col = 0;
-        for (String[] upgrade : upgrades) {
-            UpgradeComponent component = new UpgradeComponent(
-                upgrade[0], upgrade[1], upgrade[2],
-                new BigDecimal(upgrade[3]), "",
-                this::purchaseUpgrade
-            );
-            upgradeComponents.add(component);
-            upgradesGrid.add(component, col, row);
-            
-            col++;
-            if (col > 3) {
-                col = 0;
-                row++;
+        // Each list item is one row of the grid
+        List<List<UpgradeEntry>> rows = new ArrayList<>();
+        for (int i = 0; i < upgrades.length; i += UPGRADES_PER_ROW) {
+            List<UpgradeEntry> row = new ArrayList<>(UPGRADES_PER_ROW);
+            for (int j = i; j < Math.min(i + UPGRADES_PER_ROW, upgrades.length); j++) {
+                String[] upgrade = upgrades[j];
+                row.add(new UpgradeEntry(upgrade[0], upgrade[1], upgrade[2], IdleNumber.parse(upgrade[3]), ""));
             }
+            rows.add(row);
         }
+        upgradesList.setCellFactory(list -> {
+            UpgradeRowCell cell = new UpgradeRowCell(projections,
+                upgradeId -> !purchasedUpgrades.contains(upgradeId), this::purchaseUpgrade);
+            return trackAttached(cell, upgradeCells);
+        });
+        upgradesList.setFocusTraversable(false);
+        upgradesList.setItems(FXCollections.observableList(rows));
+    }
+
+    /**
+     * Keeps {@code cell} in {@code attached} exactly while it has a parent in the list's
+     * scene graph, so the render walk never visits, or retains, a discarded cell.
+     */
+    private static <C extends Node> C trackAttached(C cell, List<C> attached) {
+        cell.parentProperty().addListener((observable, oldParent, parent) -> {
+            if (parent == null) {
+                attached.remove(cell);
+            } else if (oldParent == null) {
+                attached.add(cell);
+            }
+        });
+        return cell;
     }
 
     private void purchaseUpgrade(String upgradeId) {
         logger.debug("Attempting to purchase upgrade {}", upgradeId);
         // TODO: Implement actual upgrade purchase logic
-        upgradeComponents.stream()
-            .filter(u -> u.getUpgradeId().equals(upgradeId))
-            .findFirst()
-            .ifPresent(u -> u.setEnabled(false));
+        purchasedUpgrades.add(upgradeId);
+        // Rebinds only the rows in view
+        upgradesList.refresh();
     }
 
-    private void startResourceUpdate() {
-        logger.debug("Starting resource update thread");
-        Thread updateThread = new Thread(() -> {
-            while (true) {
-                try {
-                    Thread.sleep(50); // Update every 50ms for smoother display
-                    updateDisplay();
-                } catch (InterruptedException e) {
-                    logger.warn("Resource update thread interrupted", e);
-                    break;
-                }
-            }
-        });
-        updateThread.setDaemon(true);
-        updateThread.start();
+    private void startRendering() {
+        logger.debug("Starting render loop");
+        renderLoop = new RenderLoop(gameManager::getSnapshot, this::render, gameManager.getMetrics());
+        renderLoop.start();
     }
 
-    private void updateDisplay() {
-        Platform.runLater(() -> {
-            BigDecimal resources = gameManager.getResourceSystem().getAmount(GameConstants.PRIMARY_CURRENCY);
-            resourceLabel.setText(String.format("Resources: %s", formatNumber(resources)));
-
-            // Update building components
-            for (BuildingComponent component : buildingComponents) {
-                BuildingSystem.Building building = gameManager.getBuildingSystem().getBuilding(component.getBuildingId());
-                if (building != null) {
-                    component.update(
-                        building.getCount(),
-                        building.getNextCost(),
-                        building.getCurrentProduction(),
-                        gameManager.getResourceSystem().canAfford(GameConstants.PRIMARY_CURRENCY, building.getNextCost())
-                    );
-                }
+    /**
+     * Stops rendering, then stops the game so the final save and journal reach disk.
+     */
+    public void shutdown() {
+        logger.info("Shutting down");
+        if (renderLoop != null) {
+            renderLoop.stop();
+        }
+        gameManager.stopGame();
+    }
+
+    /**
+     * Applies a snapshot to the scene, touching only what changed since the last render.
+     * Runs on the FX thread, once per pulse at most.
+     *
+     * @return number of nodes updated
+     */
+    private int render(GameSnapshot snapshot) {
+        // One consistent tick; never reads the live systems the game loop is mutating
+        int updated = 0;
+        String amount = amountFormat.format(snapshot.getPrimaryAmount());
+        if (amount != shownAmount) {
+            shownAmount = amount;
+            updated += setText(resourceLabel, "Resources: " + amount);
+        }
+        String rate = rateFormat.format(snapshot.getPrimaryRate());
+        if (rate != shownRate) {
+            shownRate = rate;
+            updated += setText(perSecondLabel, "per second: " + rate);
+        }
+        if (snapshot.getClickBreakdown() != shownClickBreakdown) {
+            shownClickBreakdown = snapshot.getClickBreakdown();
+            updated += setText(clickPowerLabel,
+                "Power: " + statFormat.format(shownClickBreakdown.getTotal()) + " per click");
+            clickPowerLabel.setTooltip(new Tooltip(describe(shownClickBreakdown)));
+            updated++;
+        }
+        if (snapshot.getRateBreakdown() != shownRateBreakdown) {
+            shownRateBreakdown = snapshot.getRateBreakdown();
+            perSecondLabel.setTooltip(new Tooltip(describe(shownRateBreakdown)));
+            updated++;
+        }
+
+        // Per-building figures are only recomputed when production changes
+        projections.update(snapshot);
+        updated += renderPrestige();
+
+        // Only the attached rows; cells the list keeps hidden for reuse are skipped
+        for (int i = 0; i < buildingCells.size(); i++) {
+            BuildingCell cell = buildingCells.get(i);
+            if (cell.isVisible()) {
+                updated += cell.render(projections);
             }
-        });
+        }
+        for (int i = 0; i < upgradeCells.size(); i++) {
+            UpgradeRowCell cell = upgradeCells.get(i);
+            if (cell.isVisible()) {
+                updated += cell.render(projections);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Shows the prestige points and when to prestige for the most points per hour.
+     *
+     * @return number of nodes updated
+     */
+    private int renderPrestige() {
+        int updated = 0;
+        String points = prestigeFormat.format(projections.getSnapshot().getPrestigePoints());
+        if (points != shownPrestigePoints) {
+            shownPrestigePoints = points;
+            updated += setText(prestigePointsLabel, "Prestige Points: " + points);
+        }
+        double eta = projections.getBestPrestigeEta();
+        long seconds = eta == ProjectionEngine.NEVER ? Long.MAX_VALUE : (long) Math.ceil(eta);
+        String gain = prestigeGainFormat.format(projections.getBestPrestigeGain());
+        if (seconds != shownBestPrestige || gain != shownBestPrestigeGain) {
+            shownBestPrestige = seconds;
+            shownBestPrestigeGain = gain;
+            String when = seconds == Long.MAX_VALUE ? "not in sight"
+                : seconds == 0 ? "now" : "in " + NumberFormatter.formatDuration(eta);
+            updated += setText(prestigeLabel, "Best prestige: " + when + (seconds == Long.MAX_VALUE ? "" : " for +" + gain));
+        }
+        return updated;
     }
 
-    private void updateResourceDisplay() {
-        updateDisplay();
+    /**
+     * Sets a label's text if it differs from what is shown.
+     *
+     * @return 1 if the label changed, otherwise 0
+     */
+    private static int setText(Label label, String text) {
+        if (text.equals(label.getText())) {
+            return 0;
+        }
+        label.setText(text);
+        return 1;
     }
 
-    private String formatNumber(BigDecimal number) {
-        if (number.compareTo(new BigDecimal("1000000")) >= 0) {
-            return String.format("%.2fM", number.divide(new BigDecimal("1000000"), 2, BigDecimal.ROUND_HALF_UP).doubleValue());
-        } else if (number.compareTo(new BigDecimal("1000")) >= 0) {
-            return String.format("%.2fK", number.divide(new BigDecimal("1000"), 2, BigDecimal.ROUND_HALF_UP).doubleValue());
-        } else {
-            return numberFormat.format(number.doubleValue());
+    /**
+     * One line per source of a stat, e.g. "x 1.1 click.multiplier".
+     */
+    private String describe(StatBreakdown breakdown) {
+        StringBuilder text = new StringBuilder();
+        String operator = breakdown.getOperation() == StatGraph.Operation.SUM ? "+ " : "x ";
+        for (int i = 0; i < breakdown.getSourceCount(); i++) {
+            statFormat.formatTo(breakdown.getSourceValue(i), text.append(operator))
+                .append(' ').append(breakdown.getSourceName(i)).append('\n');
         }
+        return statFormat.formatTo(breakdown.getTotal(), text.append("= ")).toString();
     }
 }
@@ -0,0 +1,108 @@
+package com.idlegame.ui;
+
+import com.idlegame.core.GameSnapshot;
+import com.idlegame.core.MetricsRegistry;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import javafx.animation.AnimationTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders the latest {@link GameSnapshot} on the JavaFX thread, at most once per pulse.
+ *
+ * <p>The game loop publishes snapshots; this timer pulls the newest one on each pulse and
+ * renders only when it differs from the one rendered last, so nothing is ever queued with
+ * {@code Platform.runLater} and a slow FX thread simply skips the snapshots it missed.
+ * The renderer reports how many nodes it changed, and a summary of pulses, rendered
+ * frames and node updates is logged every {@link #SUMMARY_INTERVAL_NANOS}. The time and
+ * nodes of each rendered frame also go to the game's {@link MetricsRegistry}.
+ */
+public class RenderLoop extends AnimationTimer {
+    private static final Logger logger = LoggerFactory.getLogger(RenderLoop.class);
+    private static final long SUMMARY_INTERVAL_NANOS = 10_000_000_000L;
+    public static final String METRIC_RENDER_DURATION = "render.duration";
+    public static final String METRIC_RENDER_NODES = "render.nodes";
+
+    private final Supplier<GameSnapshot> snapshots;
+    private final ToIntFunction<GameSnapshot> renderer;
+    private final MetricsRegistry.Histogram renderDuration;
+    private final MetricsRegistry.Histogram renderNodes;
+    private GameSnapshot rendered;
+
+    private long pulses;
+    private long frames;
+    private long nodesUpdated;
+    private int lastNodesUpdated;
+    private int maxNodesUpdated;
+
+    // Counters since the last summary
+    private long windowStart = -1;
+    private long windowPulses;
+    private long windowFrames;
+    private long windowNodes;
+
+    /**
+     * @param renderer applies a snapshot to the scene and returns the number of nodes it changed
+     */
+    public RenderLoop(Supplier<GameSnapshot> snapshots, ToIntFunction<GameSnapshot> renderer,
+            MetricsRegistry metrics) {
+        this.snapshots = snapshots;
+        this.renderer = renderer;
+        this.renderDuration = metrics.histogram(METRIC_RENDER_DURATION, "ns");
+        this.renderNodes = metrics.histogram(METRIC_RENDER_NODES, "nodes");
+    }
+
+    @Override
+    public void handle(long now) {
+        pulses++;
+        windowPulses++;
+        GameSnapshot snapshot = snapshots.get();
+        if (snapshot != rendered) {
+            rendered = snapshot;
+            long start = System.nanoTime();
+            lastNodesUpdated = renderer.applyAsInt(snapshot);
+            renderDuration.record(System.nanoTime() - start);
+            renderNodes.record(lastNodesUpdated);
+            frames++;
+            nodesUpdated += lastNodesUpdated;
+            maxNodesUpdated = Math.max(maxNodesUpdated, lastNodesUpdated);
+            windowFrames++;
+            windowNodes += lastNodesUpdated;
+        }
+
+        if (windowStart < 0) {
+            windowStart = now;
+        } else if (now - windowStart >= SUMMARY_INTERVAL_NANOS) {
+            logger.debug("Rendered {} of {} pulses, {} nodes updated ({} per frame, max {})",
+                windowFrames, windowPulses, windowNodes,
+                windowFrames == 0 ? 0 : windowNodes / windowFrames, maxNodesUpdated);
+            windowStart = now;
+            windowPulses = 0;
+            windowFrames = 0;
+            windowNodes = 0;
+        }
+    }
+
+    /** Pulses seen, rendered or not. */
+    public long getPulses() {
+        return pulses;
+    }
+
+    /** Pulses that rendered a new snapshot. */
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getNodesUpdated() {
+        return nodesUpdated;
+    }
+
+    public int getLastNodesUpdated() {
+        return lastNodesUpdated;
+    }
+
+    public int getMaxNodesUpdated() {
+        return maxNodesUpdated;
+    }
+}
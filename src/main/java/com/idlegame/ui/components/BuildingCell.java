@@ -0,0 +1,61 @@
+package com.idlegame.ui.components;
+
+import com.idlegame.core.GameSnapshot;
+import com.idlegame.core.ProjectionEngine;
+import java.util.function.ObjIntConsumer;
+import javafx.scene.control.ListCell;
+
+/**
+ * Recycled cell of the virtualized building list. The list view only creates cells for the
+ * rows in view and hands them new catalog ordinals as it scrolls, so the number of
+ * {@link BuildingComponent}s stays the same however large the catalog is.
+ */
+public class BuildingCell extends ListCell<Integer> {
+    private final ProjectionEngine projections;
+    private final BuildingComponent component;
+
+    /**
+     * @param projections projections from the last rendered snapshot, painted into a cell as
+     *                    soon as it is rebound
+     * @param onBuy called with a building id and the amount to buy, -1 for max
+     */
+    public BuildingCell(ProjectionEngine projections, ObjIntConsumer<String> onBuy) {
+        this.projections = projections;
+        this.component = new BuildingComponent(onBuy);
+        getStyleClass().add("building-cell");
+    }
+
+    @Override
+    protected void updateItem(Integer ordinal, boolean empty) {
+        super.updateItem(ordinal, empty);
+        setText(null);
+        if (empty || ordinal == null) {
+            setGraphic(null);
+            return;
+        }
+        String buildingId = projections.getSnapshot().getCatalog().get(ordinal).getId();
+        component.show(buildingId, buildingId);
+        render(projections);
+        setGraphic(component);
+    }
+
+    /**
+     * Shows the building's state in the projected snapshot, and when it becomes affordable.
+     *
+     * @return number of nodes updated, 0 if the cell is empty
+     */
+    public int render(ProjectionEngine projections) {
+        Integer ordinal = getItem();
+        if (isEmpty() || ordinal == null) {
+            return 0;
+        }
+        GameSnapshot snapshot = projections.getSnapshot();
+        return component.update(
+            snapshot.getBuildingCount(ordinal),
+            snapshot.getBuildingCost(ordinal),
+            snapshot.getBuildingProduction(ordinal),
+            snapshot.isBuildingAffordable(ordinal),
+            projections.getBuildingEta(ordinal)
+        );
+    }
+}
@@ -1,5 +1,9 @@
 package com.idlegame.ui.components;
 
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.NumberFormatter;
+import com.idlegame.core.ProjectionEngine;
+import javafx.css.PseudoClass;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -7,35 +11,56 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import java.math.BigDecimal;
-import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
+/**
+ * One row of the building list. Styling comes from {@code idle-game.css}; affordability is
+ * the {@code :affordable} pseudo-class, and {@link #update} only touches what changed.
+ * A {@link BuildingCell} recycles one component for whichever building scrolls into it,
+ * rebinding it with {@link #show}.
+ */
 public class BuildingComponent extends HBox {
-    private final String buildingId;
+    private static final PseudoClass AFFORDABLE = PseudoClass.getPseudoClass("affordable");
+
+    private String buildingId;
     private final Label nameLabel;
     private final Label countLabel;
     private final Label productionLabel;
     private final Label costLabel;
+    private final Label etaLabel;
     private final Button buyButton;
+    private final Button buyTenButton;
+    private final Button buyHundredButton;
     private final Button buyMaxButton;
-    
-    public BuildingComponent(String buildingId, String name, BigDecimal baseCost, BigDecimal baseProduction, Consumer<Integer> onBuy) {
+    private final NumberFormatter costFormat = NumberFormatter.standard();
+    private final NumberFormatter productionFormat = NumberFormatter.standard();
+
+    // Last rendered values; stale after show() until the next update repaints them all
+    private boolean stale = true;
+    private int shownCount;
+    private final IdleNumber shownCost = new IdleNumber();
+    private final IdleNumber shownProduction = new IdleNumber();
+    private boolean shownAffordable;
+    private long shownEtaSeconds;
+
+    /**
+     * @param onBuy called with the shown building's id and the amount to buy, -1 for max
+     */
+    public BuildingComponent(ObjIntConsumer<String> onBuy) {
         super(10); // spacing between elements
-        this.buildingId = buildingId;
         this.setAlignment(Pos.CENTER_LEFT);
-        this.setStyle("-fx-background-color: white; -fx-padding: 10; -fx-background-radius: 5; " +
-                     "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 5, 0, 0, 1);");
+        this.getStyleClass().add("building");
         
         // Left side - Building info
         VBox infoBox = new VBox(5);
-        nameLabel = new Label(name);
-        nameLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+        nameLabel = new Label();
+        nameLabel.getStyleClass().add("building-name");
         
-        countLabel = new Label("Owned: 0");
-        countLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+        countLabel = new Label();
+        countLabel.getStyleClass().add("building-count");
         
-        productionLabel = new Label(String.format("+%.1f/sec", baseProduction));
-        productionLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #4CAF50;");
+        productionLabel = new Label();
+        productionLabel.getStyleClass().add("building-production");
         
         infoBox.getChildren().addAll(nameLabel, countLabel, productionLabel);
         
@@ -47,41 +72,94 @@ public class BuildingComponent extends HBox {
         VBox controlBox = new VBox(5);
         controlBox.setAlignment(Pos.CENTER_RIGHT);
         
-        costLabel = new Label(String.format("Cost: %.0f", baseCost));
-        costLabel.setStyle("-fx-font-size: 14px;");
+        costLabel = new Label();
+        costLabel.getStyleClass().add("building-cost");
+
+        etaLabel = new Label();
+        etaLabel.getStyleClass().add("building-eta");
         
         HBox buttonBox = new HBox(5);
         buyButton = new Button("Buy");
-        buyButton.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-padding: 5 15;");
-        buyButton.setOnAction(e -> onBuy.accept(1));
+        buyButton.getStyleClass().addAll("buy-button", "wide");
+        buyButton.setOnAction(e -> onBuy.accept(buildingId, 1));
         
+        buyTenButton = new Button("x10");
+        buyTenButton.getStyleClass().add("buy-button");
+        buyTenButton.setOnAction(e -> onBuy.accept(buildingId, 10));
+
+        buyHundredButton = new Button("x100");
+        buyHundredButton.getStyleClass().add("buy-button");
+        buyHundredButton.setOnAction(e -> onBuy.accept(buildingId, 100));
+
         buyMaxButton = new Button("Buy Max");
-        buyMaxButton.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-padding: 5 15;");
-        buyMaxButton.setOnAction(e -> onBuy.accept(-1)); // -1 indicates buy max
+        buyMaxButton.getStyleClass().addAll("buy-button", "buy-max", "wide");
+        buyMaxButton.setOnAction(e -> onBuy.accept(buildingId, -1)); // -1 indicates buy max
+        setAffordable(false);
         
-        buttonBox.getChildren().addAll(buyButton, buyMaxButton);
-        controlBox.getChildren().addAll(costLabel, buttonBox);
+        buttonBox.getChildren().addAll(buyButton, buyTenButton, buyHundredButton, buyMaxButton);
+        controlBox.getChildren().addAll(costLabel, etaLabel, buttonBox);
         
         this.getChildren().addAll(infoBox, spacer, controlBox);
     }
     
+    /**
+     * Rebinds the component to a building; the next {@link #update} repaints every field.
+     */
+    public void show(String buildingId, String name) {
+        this.buildingId = buildingId;
+        nameLabel.setText(name);
+        stale = true;
+    }
+
     public String getBuildingId() {
         return buildingId;
     }
     
-    public void update(int count, BigDecimal currentCost, BigDecimal currentProduction, boolean canAfford) {
-        countLabel.setText(String.format("Owned: %d", count));
-        costLabel.setText(String.format("Cost: %.0f", currentCost));
-        productionLabel.setText(String.format("+%.1f/sec", currentProduction));
-        
-        String buttonStyle = canAfford ? 
-            "-fx-background-color: #4CAF50; -fx-text-fill: white;" :
-            "-fx-background-color: #cccccc; -fx-text-fill: white;";
-        
-        buyButton.setStyle(buttonStyle + " -fx-padding: 5 15;");
+    /**
+     * Shows the given state, touching only the labels and states that changed since the
+     * last update. The ETA is shown in whole seconds, so it changes at most once a second.
+     *
+     * @param etaSeconds seconds until the next one is affordable, see {@link ProjectionEngine}
+     * @return number of nodes updated
+     */
+    public int update(int count, IdleNumber currentCost, IdleNumber currentProduction, boolean canAfford,
+                      double etaSeconds) {
+        int updated = 0;
+        if (stale || count != shownCount) {
+            shownCount = count;
+            countLabel.setText("Owned: " + count);
+            updated++;
+        }
+        if (stale || !currentCost.equals(shownCost)) {
+            shownCost.set(currentCost);
+            costLabel.setText("Cost: " + costFormat.format(currentCost));
+            updated++;
+        }
+        if (stale || !currentProduction.equals(shownProduction)) {
+            shownProduction.set(currentProduction);
+            productionLabel.setText("+" + productionFormat.format(currentProduction) + "/sec");
+            updated++;
+        }
+        long eta = etaSeconds == ProjectionEngine.NEVER ? Long.MAX_VALUE : (long) Math.ceil(etaSeconds);
+        if (stale || eta != shownEtaSeconds) {
+            shownEtaSeconds = eta;
+            etaLabel.setText(eta == 0 ? "" : "Affordable in " + NumberFormatter.formatDuration(etaSeconds));
+            updated++;
+        }
+        if (stale || canAfford != shownAffordable) {
+            setAffordable(canAfford);
+            updated += 5;
+        }
+        stale = false;
+        return updated;
+    }
+
+    private void setAffordable(boolean canAfford) {
+        shownAffordable = canAfford;
+        pseudoClassStateChanged(AFFORDABLE, canAfford);
         buyButton.setDisable(!canAfford);
-        
-        buyMaxButton.setStyle(buttonStyle.replace("#4CAF50", "#2196F3") + " -fx-padding: 5 15;");
+        buyTenButton.setDisable(!canAfford);
+        buyHundredButton.setDisable(!canAfford);
         buyMaxButton.setDisable(!canAfford);
     }
 }
@@ -1,56 +1,102 @@
 package com.idlegame.ui.components;
 
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.NumberFormatter;
+import com.idlegame.core.ProjectionEngine;
+import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Button;
 import javafx.scene.control.Tooltip;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
-import java.math.BigDecimal;
 import java.util.function.Consumer;
 
+/**
+ * One upgrade button. An {@link UpgradeRowCell} recycles its components for whichever
+ * upgrades scroll into it, rebinding them with {@link #show}.
+ */
 public class UpgradeComponent extends StackPane {
     private final Button upgradeButton;
-    private final String upgradeId;
-    private final BigDecimal cost;
-    
-    public UpgradeComponent(String id, String name, String description, BigDecimal cost, 
-                           String iconPath, Consumer<String> onPurchase) {
-        this.upgradeId = id;
-        this.cost = cost;
-        
+    private final Tooltip tooltip;
+    private final ImageView icon;
+    private UpgradeEntry entry;
+    private final IdleNumber cost = new IdleNumber();
+    private final NumberFormatter costFormat = NumberFormatter.standard();
+    // Whole seconds until affordable last shown; -1 after show() until the next render
+    private long shownEtaSeconds = -1;
+
+    /**
+     * @param onPurchase called with the shown upgrade's id
+     */
+    public UpgradeComponent(Consumer<String> onPurchase) {
         upgradeButton = new Button();
-        upgradeButton.setStyle("-fx-background-color: #673AB7; -fx-background-radius: 10; " +
-                             "-fx-min-width: 64; -fx-min-height: 64; -fx-max-width: 64; -fx-max-height: 64;");
-        
-        // Set icon if provided
-        if (iconPath != null && !iconPath.isEmpty()) {
-            ImageView icon = new ImageView(iconPath);
-            icon.setFitWidth(32);
-            icon.setFitHeight(32);
-            upgradeButton.setGraphic(icon);
-        }
-        
-        // Create tooltip with name, description and cost
-        Tooltip tooltip = new Tooltip(String.format("%s\n%s\nCost: %.0f", name, description, cost));
+        upgradeButton.getStyleClass().add("upgrade-button");
+        upgradeButton.setContentDisplay(ContentDisplay.TOP);
+
+        icon = new ImageView();
+        icon.setFitWidth(32);
+        icon.setFitHeight(32);
+
+        // Tooltip with name, description and cost
+        tooltip = new Tooltip();
         tooltip.setStyle("-fx-font-size: 14px;");
         upgradeButton.setTooltip(tooltip);
-        
-        upgradeButton.setOnAction(e -> onPurchase.accept(upgradeId));
-        
+
+        upgradeButton.setOnAction(e -> onPurchase.accept(entry.getId()));
+
         this.getChildren().add(upgradeButton);
     }
-    
+
+    /**
+     * Rebinds the button to an upgrade.
+     */
+    public void show(UpgradeEntry entry, boolean enabled) {
+        if (entry != this.entry) {
+            this.entry = entry;
+            cost.set(entry.getCost());
+            shownEtaSeconds = -1;
+            tooltip.setText(entry.getName() + "\n" + entry.getDescription() + "\nCost: " + costFormat.format(cost));
+            String iconPath = entry.getIconPath();
+            if (iconPath != null && !iconPath.isEmpty()) {
+                icon.setImage(new Image(iconPath));
+                upgradeButton.setGraphic(icon);
+            } else {
+                upgradeButton.setGraphic(null);
+            }
+        }
+        setEnabled(enabled);
+    }
+
+    /**
+     * Shows under the icon how long until the upgrade is affordable, touching the button
+     * only when the whole seconds change.
+     *
+     * @return number of nodes updated
+     */
+    public int render(ProjectionEngine projections) {
+        if (entry == null) {
+            return 0;
+        }
+        double etaSeconds = projections.getEta(cost);
+        long eta = etaSeconds == ProjectionEngine.NEVER ? Long.MAX_VALUE : (long) Math.ceil(etaSeconds);
+        if (eta == shownEtaSeconds) {
+            return 0;
+        }
+        shownEtaSeconds = eta;
+        upgradeButton.setText(eta == 0 ? "" : NumberFormatter.formatDuration(etaSeconds));
+        return 1;
+    }
+
     public void setEnabled(boolean enabled) {
+        // The :disabled pseudo-class in idle-game.css greys the button out
         upgradeButton.setDisable(!enabled);
-        String color = enabled ? "#673AB7" : "#cccccc";
-        upgradeButton.setStyle("-fx-background-color: " + color + "; -fx-background-radius: 10; " +
-                             "-fx-min-width: 64; -fx-min-height: 64; -fx-max-width: 64; -fx-max-height: 64;");
     }
-    
+
     public String getUpgradeId() {
-        return upgradeId;
+        return entry == null ? null : entry.getId();
     }
-    
-    public BigDecimal getCost() {
-        return cost;
+
+    public IdleNumber getCost() {
+        return entry == null ? null : entry.getCost();
     }
 }
@@ -0,0 +1,42 @@
+package com.idlegame.ui.components;
+
+import com.idlegame.core.IdleNumber;
+
+/**
+ * What the upgrade list shows for one upgrade.
+ */
+public final class UpgradeEntry {
+    private final String id;
+    private final String name;
+    private final String description;
+    private final IdleNumber cost;
+    private final String iconPath;
+
+    public UpgradeEntry(String id, String name, String description, IdleNumber cost, String iconPath) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.cost = cost.copy();
+        this.iconPath = iconPath;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public IdleNumber getCost() {
+        return cost.copy();
+    }
+
+    public String getIconPath() {
+        return iconPath;
+    }
+}
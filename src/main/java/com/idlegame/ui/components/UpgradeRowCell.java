@@ -0,0 +1,71 @@
+package com.idlegame.ui.components;
+
+import com.idlegame.core.ProjectionEngine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+
+/**
+ * Recycled row of the virtualized upgrade grid: each list item is one row of upgrades, and
+ * the cell rebinds its buttons to whichever row scrolls into it.
+ */
+public class UpgradeRowCell extends ListCell<List<UpgradeEntry>> {
+    private final ProjectionEngine projections;
+    private final Predicate<String> enabled;
+    private final Consumer<String> onPurchase;
+    private final HBox row = new HBox(10);
+    private final List<UpgradeComponent> components = new ArrayList<>();
+
+    /**
+     * @param projections projections from the last rendered snapshot
+     * @param enabled whether an upgrade id can still be bought
+     * @param onPurchase called with the id of a clicked upgrade
+     */
+    public UpgradeRowCell(ProjectionEngine projections, Predicate<String> enabled, Consumer<String> onPurchase) {
+        this.projections = projections;
+        this.enabled = enabled;
+        this.onPurchase = onPurchase;
+        getStyleClass().add("upgrade-cell");
+    }
+
+    @Override
+    protected void updateItem(List<UpgradeEntry> entries, boolean empty) {
+        super.updateItem(entries, empty);
+        setText(null);
+        if (empty || entries == null) {
+            setGraphic(null);
+            return;
+        }
+        while (components.size() < entries.size()) {
+            components.add(new UpgradeComponent(onPurchase));
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            components.get(i).show(entries.get(i), enabled.test(entries.get(i).getId()));
+        }
+        if (row.getChildren().size() != entries.size()) {
+            row.getChildren().setAll(components.subList(0, entries.size()));
+        }
+        render(projections);
+        setGraphic(row);
+    }
+
+    /**
+     * Shows when each upgrade in the row becomes affordable.
+     *
+     * @return number of nodes updated, 0 if the cell is empty
+     */
+    public int render(ProjectionEngine projections) {
+        List<UpgradeEntry> entries = getItem();
+        if (isEmpty() || entries == null) {
+            return 0;
+        }
+        int updated = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            updated += components.get(i).render(projections);
+        }
+        return updated;
+    }
+}
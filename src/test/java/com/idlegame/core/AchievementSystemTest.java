@@ -0,0 +1,108 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class AchievementSystemTest {
+
+    @Test
+    void testUnlocksThresholdsInOrderFromLargeCatalog() {
+        // Thresholds added in random order still unlock in ascending order
+        List<Integer> thresholds = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            thresholds.add(i * 10);
+        }
+        Collections.shuffle(thresholds, new Random(42));
+        AchievementCatalog.Builder builder = new AchievementCatalog.Builder();
+        for (int threshold : thresholds) {
+            builder.add("clicks_" + threshold, AchievementDefinition.Metric.CLICKS, null, threshold,
+                AchievementDefinition.Reward.NONE);
+        }
+        ResourceSystem resources = new ResourceSystem();
+        BuildingSystem buildings = new BuildingSystem(resources);
+        AchievementSystem achievements = new AchievementSystem(resources, buildings, builder.build());
+        List<String> unlocked = new ArrayList<>();
+        achievements.setUnlockListener(unlocked::add);
+
+        achievements.registerClicks(25);
+        assertEquals(List.of("clicks_10", "clicks_20"), unlocked);
+
+        achievements.registerClicks(49_975);
+        assertEquals(5000, achievements.getUnlockedCount());
+        assertEquals("clicks_50000", unlocked.get(unlocked.size() - 1));
+        achievements.registerClicks(1_000_000);
+        assertEquals(5000, unlocked.size());
+    }
+
+    @Test
+    void testUnlocksPerBuildingAchievements() {
+        ResourceSystem resources = new ResourceSystem();
+        BuildingSystem buildings = new BuildingSystem(resources);
+        AchievementSystem achievements = new AchievementSystem(resources, buildings);
+        resources.setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(1e6));
+
+        buildings.purchaseBulk(GameConstants.BUILDING_GROWER, 5);
+        achievements.checkAchievements();
+
+        assertTrue(achievements.hasAchievement("grower_1"));
+        assertTrue(achievements.hasAchievement("grower_5"));
+        assertFalse(achievements.hasAchievement("grower_10"));
+        assertFalse(achievements.hasAchievement("greenhouse_1"));
+        assertEquals(2, achievements.getUnlockedCount());
+    }
+
+    @Test
+    void testChecksOnlyBuildingsWhoseCountChanged() {
+        ResourceSystem resources = new ResourceSystem();
+        BuildingSystem buildings = new BuildingSystem(resources);
+        AchievementSystem achievements = new AchievementSystem(resources, buildings);
+        resources.setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(1e6));
+        achievements.checkAchievements();
+        assertTrue(buildings.getChangedCounts().isEmpty());
+
+        buildings.purchaseBulk(GameConstants.BUILDING_GROWER, 5);
+        assertEquals(1, buildings.getChangedCounts().cardinality());
+        achievements.checkAchievements();
+        assertTrue(buildings.getChangedCounts().isEmpty());
+        assertTrue(achievements.hasAchievement("grower_5"));
+
+        // A restore changes any count, so every building is checked again
+        int[] counts = new int[buildings.getCatalog().size()];
+        double[] bonuses = new double[counts.length];
+        Arrays.fill(bonuses, 1.0);
+        counts[buildings.getCatalog().indexOf(GameConstants.BUILDING_GROWER)] = 5;
+        counts[buildings.getCatalog().indexOf(GameConstants.BUILDING_GREENHOUSE)] = 10;
+        buildings.restoreState(counts, bonuses);
+        achievements.checkAchievements();
+        assertTrue(achievements.hasAchievement("greenhouse_10"));
+        assertTrue(achievements.hasAchievement("buildings_10"));
+    }
+
+    @Test
+    void testRestoredAndReplayedUnlocksAreSkipped() {
+        ResourceSystem resources = new ResourceSystem();
+        BuildingSystem buildings = new BuildingSystem(resources);
+        AchievementSystem achievements = new AchievementSystem(resources, buildings);
+        List<String> unlocked = new ArrayList<>();
+        achievements.setUnlockListener(unlocked::add);
+
+        achievements.restoreState(List.of("clicks_100", "clicks_1000", "no_such_achievement"), 100, IdleNumber.zero());
+        assertEquals(2, achievements.getUnlockedCount());
+
+        // A replayed unlock ahead of the counter is not reported again when reached
+        achievements.unlock("clicks_5000");
+        achievements.registerClicks(4900);
+        assertEquals(List.of("clicks_5000", "clicks_500"), unlocked);
+        assertFalse(achievements.hasAchievement("clicks_10000"));
+
+        achievements.reset();
+        assertEquals(0, achievements.getUnlockedCount());
+        achievements.registerClicks(100);
+        assertTrue(achievements.hasAchievement("clicks_100"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AutosaveWriterTest {
+
+    @Test
+    void testWritesSnapshotAtomically(@TempDir Path dir) throws IOException {
+        SaveStore store = new SaveStore(dir);
+        AutosaveWriter writer = new AutosaveWriter(store);
+        SaveData snapshot = new SaveData.Builder()
+            .savedAt(42L)
+            .resource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(1234), IdleNumber.of(0.1))
+            .build();
+
+        writer.submit(snapshot);
+        writer.flush();
+
+        assertEquals(1, writer.getSaves());
+        assertTrue(writer.getLastLatencyNanos() > 0);
+        assertEquals(IdleNumber.of(1234), store.load().getAmount(GameConstants.PRIMARY_CURRENCY));
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count(), "temp file left behind");
+        }
+    }
+
+    @Test
+    void testSkipsUnchangedSnapshots(@TempDir Path dir) {
+        AutosaveWriter writer = new AutosaveWriter(new SaveStore(dir));
+        SaveData.Builder builder = new SaveData.Builder()
+            .resource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(5), null);
+
+        writer.submit(builder.savedAt(1_000L).build());
+        writer.flush();
+        writer.submit(builder.savedAt(61_000L).build());
+        writer.flush();
+        writer.submit(builder.resource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(6), null).build());
+        writer.flush();
+
+        assertEquals(2, writer.getSaves());
+        assertEquals(1, writer.getSkippedSaves());
+    }
+
+    @Test
+    void testCloseWritesPendingSnapshotAndAllowsReuse(@TempDir Path dir) throws IOException {
+        SaveStore store = new SaveStore(dir);
+        AutosaveWriter writer = new AutosaveWriter(store);
+        SaveData.Builder builder = new SaveData.Builder()
+            .resource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(5), null);
+
+        writer.submit(builder.savedAt(1_000L).build());
+        writer.close();
+        assertEquals(1, writer.getSaves());
+
+        // A closed writer starts a new thread for the next snapshot
+        writer.submit(builder.resource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(6), null).build());
+        writer.close();
+        assertEquals(2, writer.getSaves());
+        assertEquals(IdleNumber.of(6), store.load().getAmount(GameConstants.PRIMARY_CURRENCY));
+    }
+
+    @Test
+    void testStopGameFlushesFinalState(@TempDir Path dir) throws IOException {
+        VirtualClock clock = new VirtualClock(5_000L);
+        SaveStore store = new SaveStore(dir);
+        GameManager game = new GameManager(clock, store);
+        game.initialize();
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(777));
+
+        clock.advance(GameConstants.GAME_TICK_DURATION);
+        game.tick(GameConstants.GAME_TICK_DURATION);
+        game.stopGame();
+
+        SaveData saved = store.load();
+        assertNotNull(saved);
+        assertEquals(game.getPrimaryResource(), saved.getAmount(GameConstants.PRIMARY_CURRENCY));
+        assertEquals(1, game.getAutosaveWriter().getSaves());
+    }
+}
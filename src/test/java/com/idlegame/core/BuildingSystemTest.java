@@ -0,0 +1,96 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BuildingSystemTest {
+    private ResourceSystem resourceSystem;
+    private BuildingSystem buildingSystem;
+
+    @BeforeEach
+    void setUp() {
+        resourceSystem = new ResourceSystem();
+        buildingSystem = new BuildingSystem(resourceSystem);
+    }
+
+    @Test
+    void testBulkCostMatchesSumOfSingleCosts() {
+        String buildingId = GameConstants.BUILDING_GROWER;
+        resourceSystem.setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.parse("1e30"));
+        for (int i = 0; i < 7; i++) {
+            buildingSystem.purchaseBuilding(buildingId);
+        }
+
+        IdleNumber expected = IdleNumber.zero();
+        BuildingDefinition definition = buildingSystem.getBuilding(buildingId).getDefinition();
+        for (int i = 0; i < 25; i++) {
+            expected.addInPlace(definition.costAt(7 + i, new IdleNumber()));
+        }
+        IdleNumber actual = buildingSystem.costOf(buildingId, 25);
+        assertEquals(expected.toDouble(), actual.toDouble(), expected.toDouble() * 1e-12);
+    }
+
+    @Test
+    void testMaxAffordableIsExactAtTheBoundary() {
+        String buildingId = GameConstants.BUILDING_GREENHOUSE;
+        IdleNumber exactBudget = buildingSystem.costOf(buildingId, 40);
+
+        assertEquals(40, buildingSystem.maxAffordable(buildingId, exactBudget));
+        assertEquals(39, buildingSystem.maxAffordable(buildingId, exactBudget.multiply(0.999999)));
+        assertEquals(0, buildingSystem.maxAffordable(buildingId, IdleNumber.of(99)));
+    }
+
+    @Test
+    void testPurchaseBulkIsAllOrNothing() {
+        String buildingId = GameConstants.BUILDING_GROWER;
+        IdleNumber cost = buildingSystem.costOf(buildingId, 10);
+        resourceSystem.setResource(GameConstants.PRIMARY_CURRENCY, cost.multiply(0.99));
+
+        assertFalse(buildingSystem.purchaseBulk(buildingId, 10));
+        assertEquals(0, buildingSystem.getBuilding(buildingId).getCount());
+
+        resourceSystem.setResource(GameConstants.PRIMARY_CURRENCY, cost);
+        assertTrue(buildingSystem.purchaseBulk(buildingId, 10));
+        assertEquals(10, buildingSystem.getBuilding(buildingId).getCount());
+        assertEquals(10, buildingSystem.getTotalBuildingCount());
+        assertTrue(resourceSystem.getAmount(GameConstants.PRIMARY_CURRENCY).compareTo(1e-6) < 0);
+    }
+
+    @Test
+    void testBulkPurchaseAtMillionsOfBuildings() {
+        String buildingId = GameConstants.BUILDING_GROWER;
+        resourceSystem.setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.parse("1e70000"));
+
+        int affordable = buildingSystem.maxAffordable(buildingId, resourceSystem.getAmount(GameConstants.PRIMARY_CURRENCY));
+        assertTrue(affordable > 1_000_000);
+        assertTrue(buildingSystem.purchaseBulk(buildingId, 1_000_000));
+        assertEquals(1_000_000, buildingSystem.getBuilding(buildingId).getCount());
+        assertTrue(buildingSystem.getBuilding(buildingId).getNextCost().getExponent() > 60_000);
+    }
+
+    @Test
+    void testProductionTracksPurchases() {
+        resourceSystem.setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(1e6));
+        buildingSystem.purchaseBulk(GameConstants.BUILDING_GREENHOUSE, 3);
+        assertEquals(3.0, buildingSystem.getProduction().toDouble(), 1e-9);
+
+        buildingSystem.applyEfficiencyBonus(2.0);
+        assertEquals(6.0, buildingSystem.getProduction().toDouble(), 1e-9);
+    }
+
+    @Test
+    void testIncrementalProductionMatchesFullSum() {
+        resourceSystem.setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.parse("1e300"));
+        BuildingCatalog catalog = buildingSystem.getCatalog();
+        for (int i = 0; i < 5000; i++) {
+            buildingSystem.purchaseBuilding(i % catalog.size());
+        }
+
+        IdleNumber expected = IdleNumber.zero();
+        for (int i = 0; i < catalog.size(); i++) {
+            expected.addInPlace(buildingSystem.productionInto(i, new IdleNumber()));
+        }
+        assertEquals(expected.toDouble(), buildingSystem.getProduction().toDouble(), expected.toDouble() * 1e-12);
+    }
+}
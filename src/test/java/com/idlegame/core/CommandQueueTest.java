@@ -0,0 +1,75 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CommandQueueTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    @Test
+    void testConcurrentProducersKeepPerProducerOrder() throws InterruptedException {
+        CommandQueue queue = new CommandQueue();
+        int producers = 4;
+        int perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String id = "producer" + p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    queue.offer(PlayerCommand.buyBuilding(id, i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        int[] next = new int[producers];
+        long drained = 0;
+        while (drained < (long) producers * perProducer) {
+            drained += queue.drain(command -> {
+                int producer = command.getId().charAt(command.getId().length() - 1) - '0';
+                assertEquals(next[producer]++, (int) command.getAmount());
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, queue.getDrained());
+        assertEquals(queue.getOffered(), queue.getDrained());
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.getMaxLatencyNanos() >= queue.getAverageLatencyNanos());
+    }
+
+    @Test
+    void testTickAppliesSubmittedCommandsAsOneBatch() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = TestGames.headless(clock);
+
+        for (int i = 0; i < 250; i++) {
+            game.submit(PlayerCommand.click());
+        }
+        game.submit(PlayerCommand.buyBuilding(GameConstants.BUILDING_GROWER, PlayerCommand.BUY_MAX));
+        for (int i = 0; i < 50; i++) {
+            game.submit(PlayerCommand.click());
+        }
+        assertEquals(0, game.getAchievementSystem().getTotalClicks(), "commands wait for the next tick");
+
+        clock.advance(TICK);
+        game.tick(TICK);
+
+        CommandQueue queue = game.getCommandQueue();
+        assertEquals(301, queue.getLastBatchSize());
+        assertEquals(300, game.getAchievementSystem().getTotalClicks());
+        // Clicks are applied ahead of the purchase, so all of them fund it
+        int growers = game.getBuildingSystem().getBuilding(GameConstants.BUILDING_GROWER).getCount();
+        assertTrue(growers > 0);
+        assertTrue(game.getAchievementSystem().hasAchievement("clicks_100"));
+
+        clock.advance(TICK);
+        game.tick(TICK);
+        assertEquals(0, queue.getLastBatchSize());
+        assertEquals(2, queue.getBatches());
+    }
+}
@@ -0,0 +1,153 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EventJournalTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    @Test
+    void testRecordsSurviveTornTail(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve(EventJournal.JOURNAL_FILE);
+        EventJournal journal = new EventJournal(path);
+        journal.appendClicks(1_000L, 12);
+        journal.appendBuilding(1_050L, GameConstants.BUILDING_GROWER, 5);
+        journal.appendUpgrade(1_100L, "basic_click");
+        journal.appendAchievement(1_150L, "clicks_10");
+        journal.appendHeartbeat(2_000L);
+        journal.close();
+
+        // A crash mid-append leaves a partial record behind
+        Files.write(path, new byte[] {7, 1, 2}, StandardOpenOption.APPEND);
+
+        EventJournal reopened = new EventJournal(path);
+        assertEquals(5, reopened.getLastSequence());
+        reopened.appendPrestige(3_000L);
+        reopened.flush();
+
+        List<EventJournal.Record> records = reopened.readAfter(0);
+        assertEquals(6, records.size());
+        assertEquals(EventJournal.Type.CLICKS, records.get(0).getType());
+        assertEquals(12, records.get(0).getAmount());
+        assertEquals(GameConstants.BUILDING_GROWER, records.get(1).getId());
+        assertEquals(5, records.get(1).getAmount());
+        assertEquals(1_050L, records.get(1).getTimeMillis());
+        assertEquals("basic_click", records.get(2).getId());
+        assertEquals(EventJournal.Type.PRESTIGE, records.get(5).getType());
+        assertEquals(6, records.get(5).getSequence());
+        reopened.close();
+    }
+
+    @Test
+    void testUnwritablePathDisablesJournal(@TempDir Path dir) throws IOException {
+        // The journal's parent directory is a regular file, so the journal cannot be created
+        Path blocker = Files.createFile(dir.resolve("blocker"));
+        EventJournal journal = new EventJournal(blocker.resolve(EventJournal.JOURNAL_FILE));
+        for (int i = 0; i < 1_000; i++) {
+            journal.appendClicks(i, 1);
+        }
+
+        assertTrue(journal.isDisabled());
+        assertEquals(0, journal.getSize());
+        assertEquals(0, journal.getRecords());
+        journal.flush();
+        assertTrue(journal.readAfter(0).isEmpty());
+        journal.close();
+    }
+
+    @Test
+    void testCompactionKeepsOnlyTail(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve(EventJournal.JOURNAL_FILE);
+        EventJournal journal = new EventJournal(path);
+        for (int i = 0; i < 100; i++) {
+            journal.appendClicks(i * TICK, 3);
+        }
+        journal.flush();
+        long fullSize = Files.size(path);
+
+        journal.compact(98);
+        journal.appendHeartbeat(100 * TICK);
+        journal.flush();
+
+        List<EventJournal.Record> records = journal.readAfter(0);
+        assertEquals(3, records.size());
+        assertEquals(99, records.get(0).getSequence());
+        assertEquals(101, records.get(2).getSequence());
+        assertTrue(Files.size(path) < fullSize / 10);
+        assertEquals(1, journal.getCompactions());
+        journal.close();
+    }
+
+    @Test
+    void testFailedCompactionDisablesJournal(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve(EventJournal.JOURNAL_FILE);
+        // A non-empty directory where the temp file goes can be neither written nor replaced
+        Path blocker = Files.createDirectories(dir.resolve(EventJournal.JOURNAL_FILE + ".tmp"));
+        Files.createFile(blocker.resolve("keep"));
+        EventJournal journal = new EventJournal(path);
+        for (int i = 0; i < 100; i++) {
+            journal.appendClicks(i * TICK, 3);
+        }
+        journal.flush();
+
+        assertThrows(IOException.class, () -> journal.compact(98));
+        assertTrue(journal.isDisabled());
+        assertFalse(journal.isOpen());
+        for (int i = 0; i < 1_000; i++) {
+            journal.appendClicks(i, 1);
+        }
+        assertEquals(0, journal.getSize());
+        assertEquals(100, journal.getRecords());
+
+        journal.close();
+        assertFalse(journal.isOpen());
+        journal.appendHeartbeat(0);
+        assertFalse(journal.isOpen());
+        assertEquals(100, journal.readAfter(0).size());
+    }
+
+    @Test
+    void testLoadReplaysJournalAfterCrash(@TempDir Path dir) throws IOException {
+        VirtualClock clock = new VirtualClock(10_000L);
+        SaveStore store = new SaveStore(dir);
+        GameManager game = new GameManager(clock, store);
+        game.initialize();
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(5000));
+        store.save(game.createSaveData());
+
+        assertTrue(game.purchaseBuildings(GameConstants.BUILDING_GROWER, 10));
+        assertTrue(game.purchaseBuildings(GameConstants.BUILDING_GREENHOUSE, 2));
+        for (int i = 0; i < 60; i++) {
+            clock.advance(TICK);
+            if (i % 10 == 9) {
+                for (int c = 0; c < 4; c++) {
+                    game.clickMainAction();
+                }
+            }
+            game.tick(TICK);
+        }
+        // Simulate a crash: the journal reached disk, the next full save never happened
+        game.getJournal().flush();
+
+        GameManager restored = new GameManager(clock, store);
+        restored.initialize();
+        restored.loadGame();
+
+        assertEquals(game.getPrimaryResource().toDouble(), restored.getPrimaryResource().toDouble(),
+            game.getPrimaryResource().toDouble() * 1e-9);
+        assertEquals(game.getBuildingSystem().getProduction(), restored.getBuildingSystem().getProduction());
+        assertEquals(24, restored.getAchievementSystem().getTotalClicks());
+        assertEquals(game.getUnlockedAchievements(), restored.getUnlockedAchievements());
+
+        // Loading snapshots the replayed state, after which the journal is compacted away
+        restored.getAutosaveWriter().flush();
+        assertTrue(restored.getJournal().readAfter(0).isEmpty());
+        restored.stopGame();
+    }
+}
@@ -0,0 +1,87 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FlightRecorderTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    private static String dump(FlightRecorder recorder) throws IOException {
+        StringBuilder out = new StringBuilder();
+        recorder.dumpTo(out, handle -> "r" + handle, index -> "b" + index);
+        return out.toString();
+    }
+
+    @Test
+    void testKeepsNewestRecordsWhenFull() throws IOException {
+        FlightRecorder recorder = new FlightRecorder(3);
+        assertEquals(4, recorder.getCapacity());
+        for (int i = 0; i < 6; i++) {
+            recorder.setTick(i);
+            recorder.record(FlightRecorder.Event.ADD, i, IdleNumber.of(1500));
+        }
+        recorder.setEnabled(false);
+        recorder.record(FlightRecorder.Event.SPEND, 0, 1);
+
+        String[] lines = dump(recorder).split(System.lineSeparator());
+        assertEquals(6, recorder.getRecorded());
+        assertEquals(4, lines.length);
+        assertEquals("#2 tick=2 ADD r2 1.500000e3", lines[0]);
+        assertEquals("#5 tick=5 ADD r5 1.500000e3", lines[3]);
+    }
+
+    @Test
+    void testConcurrentWritersNeverMixRecords() throws Exception {
+        FlightRecorder recorder = new FlightRecorder(1 << 16);
+        int threads = 4;
+        int perThread = 10_000;
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int key = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    recorder.record(FlightRecorder.Event.PURCHASE, key, key);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        String[] lines = dump(recorder).split(System.lineSeparator());
+        assertEquals(threads * perThread, lines.length);
+        for (String line : lines) {
+            // Each writer pairs its building with the same amount
+            String[] fields = line.split(" ");
+            assertEquals("b" + fields[4], fields[3], line);
+        }
+    }
+
+    @Test
+    void testGameTraceDecodesNames(@TempDir Path dir) throws IOException {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = new GameManager(clock, new SaveStore(dir));
+        game.setAutoSaveEnabled(false);
+        game.initialize();
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(100));
+        game.clickMainAction();
+        game.submit(PlayerCommand.buyBuilding(GameConstants.BUILDING_GROWER, 1));
+        clock.advance(TICK);
+        game.tick(TICK);
+        assertFalse(game.purchaseBuildings(GameConstants.BUILDING_EMPIRE, 1));
+
+        Path path = game.dumpFlightRecorder();
+        assertEquals(dir.resolve(FlightRecorder.DUMP_FILE), path);
+        List<String> lines = Files.readAllLines(path);
+        assertTrue(lines.stream().anyMatch(l -> l.matches("#\\d+ tick=0 CLICK x1 1")), lines.toString());
+        assertTrue(lines.stream().anyMatch(l -> l.endsWith("tick=0 PURCHASE grower 15")), lines.toString());
+        assertTrue(lines.stream().anyMatch(l -> l.contains("tick=0 PURCHASE_DENIED empire ")), lines.toString());
+        assertTrue(lines.stream().anyMatch(l -> l.contains("tick=0 TICK 50")), lines.toString());
+    }
+}
@@ -0,0 +1,65 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GameEventsTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    @Test
+    void testBundledSettingsRecordGameEvents(@TempDir Path dir) throws Exception {
+        Configuration settings;
+        try (Reader reader = new InputStreamReader(
+                GameEvents.class.getResourceAsStream(GameEvents.SETTINGS), StandardCharsets.UTF_8)) {
+            settings = Configuration.create(reader);
+        }
+
+        Path file = dir.resolve("game.jfr");
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            VirtualClock clock = new VirtualClock(0L);
+            GameManager game = new GameManager(clock, new SaveStore(dir));
+            game.setAutoSaveEnabled(false);
+            game.initialize();
+            game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(100));
+            game.submit(PlayerCommand.click());
+            game.submit(PlayerCommand.buyBuilding(GameConstants.BUILDING_GROWER, 2));
+            clock.advance(TICK);
+            game.tick(TICK);
+            new SaveStore(dir).save(game.createSaveData());
+            new SaveStore(dir).load();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().startsWith("com.idlegame."))
+            .collect(Collectors.toList());
+        RecordedEvent tick = find(events, "com.idlegame.Tick");
+        assertEquals(TICK, tick.getDuration("delta").toMillis());
+        assertEquals(2, tick.getLong("actions"));
+        assertEquals(1, find(events, "com.idlegame.ClickBatch").getLong("clicks"));
+        RecordedEvent purchase = find(events, "com.idlegame.BuildingPurchase");
+        assertEquals(GameConstants.BUILDING_GROWER, purchase.getString("building"));
+        assertEquals(2, purchase.getInt("amount"));
+        assertTrue(purchase.getBoolean("purchased"));
+        assertTrue(find(events, "com.idlegame.Save").getLong("bytes") > 0);
+        assertEquals(find(events, "com.idlegame.Save").getLong("bytes"), find(events, "com.idlegame.Load").getLong("bytes"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst()
+            .orElseThrow(() -> new AssertionError("No " + name + " event in " + events));
+    }
+}
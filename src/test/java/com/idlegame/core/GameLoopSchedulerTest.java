@@ -0,0 +1,135 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class GameLoopSchedulerTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testJitterDoesNotChangeTickCount() {
+        AtomicLong steady = new AtomicLong();
+        AtomicLong jittery = new AtomicLong();
+        GameLoopScheduler steadyLoop = new GameLoopScheduler(steady::addAndGet, 50, 10);
+        GameLoopScheduler jitteryLoop = new GameLoopScheduler(jittery::addAndGet, 50, 10);
+        steadyLoop.resetFrameClock(0);
+        jitteryLoop.resetFrameClock(0);
+
+        long[] frameGaps = {50, 73, 31, 120, 49, 51, 200, 2, 98};
+        long now = 0;
+        for (int frame = 0; frame < 1000; frame++) {
+            now += frameGaps[frame % frameGaps.length] * MS;
+            jitteryLoop.runFrame(now);
+        }
+        for (long t = 50 * MS; t <= now; t += 50 * MS) {
+            steadyLoop.runFrame(t);
+        }
+
+        assertEquals(now / (50 * MS), jitteryLoop.getTicks());
+        assertEquals(steady.get(), jittery.get());
+        assertTrue(jitteryLoop.getLateTicks() > 0);
+        assertEquals(0, steadyLoop.getLateTicks());
+    }
+
+    @Test
+    void testOverrunCarriesBacklog() {
+        AtomicLong ticks = new AtomicLong();
+        GameLoopScheduler loop = new GameLoopScheduler(t -> ticks.incrementAndGet(), 50, 4);
+        loop.resetFrameClock(0);
+
+        assertEquals(4, loop.runFrame(500 * MS));
+        assertEquals(1, loop.getOverruns());
+        assertEquals(300, loop.getBacklogMillis());
+
+        assertEquals(4, loop.runFrame(500 * MS));
+        assertEquals(2, loop.runFrame(500 * MS));
+        assertEquals(10, ticks.get());
+        assertEquals(2, loop.getOverruns());
+    }
+
+    @Test
+    void testLongStallIsCreditedInOneStep() {
+        AtomicLong steady = new AtomicLong();
+        AtomicLong stalled = new AtomicLong();
+        AtomicLong skips = new AtomicLong();
+        GameLoopScheduler steadyLoop = new GameLoopScheduler(steady::addAndGet, 50, 4);
+        GameLoopScheduler stalledLoop = new GameLoopScheduler(stalled::addAndGet,
+            millis -> { skips.incrementAndGet(); stalled.addAndGet(millis); }, 50, 4, 1000, "test-loop");
+        stalledLoop.resetFrameClock(0);
+
+        // An hour of suspend leaves one catch-up window of backlog and skips the rest
+        long now = TimeUnit.HOURS.toNanos(1) + 30 * MS;
+        assertEquals(4, stalledLoop.runFrame(now));
+        assertEquals(1, skips.get());
+        assertEquals(3_600_000 - 1000, stalledLoop.getSkippedMillis());
+        assertEquals(830, stalledLoop.getBacklogMillis());
+
+        int frames = 1;
+        while (stalledLoop.getBacklogMillis() >= 50) {
+            now += 50 * MS;
+            stalledLoop.runFrame(now);
+            frames++;
+        }
+        assertTrue(frames < 10, "caught up in " + frames + " frames");
+
+        steadyLoop.resetFrameClock(0);
+        for (long t = 50 * MS; t <= now; t += 50 * MS) {
+            steadyLoop.runFrame(t);
+        }
+        steadyLoop.runFrame(now);
+        assertEquals(steady.get(), stalled.get());
+        assertEquals(stalledLoop.getBacklogMillis(), steadyLoop.getBacklogMillis());
+    }
+
+    @Test
+    void testLongStallKeepsGameTotals() {
+        GameManager ticked = newGame();
+        GameManager stalled = newGame();
+        GameLoopScheduler tickedLoop = new GameLoopScheduler(ticked::tick, 50, 10);
+        GameLoopScheduler stalledLoop = new GameLoopScheduler(stalled::tick, stalled::fastForward, 50, 10,
+            1000, "test-loop");
+        tickedLoop.resetFrameClock(0);
+        stalledLoop.resetFrameClock(0);
+
+        long stall = TimeUnit.MINUTES.toNanos(10);
+        for (long t = 50 * MS; t <= stall; t += 50 * MS) {
+            tickedLoop.runFrame(t);
+        }
+        // Frames that come due at the same instant work off the remaining window
+        while (stalledLoop.runFrame(stall) > 0) {
+            assertTrue(stalledLoop.getTicks() <= 20);
+        }
+
+        assertEquals(0, stalledLoop.getBacklogMillis());
+        assertEquals(600_000 - 1000, stalledLoop.getSkippedMillis());
+        double expected = ticked.getPrimaryResource().toDouble();
+        double actual = stalled.getPrimaryResource().toDouble();
+        assertEquals(expected, actual, expected * 1e-6);
+        assertEquals(ticked.getUnlockedAchievements(), stalled.getUnlockedAchievements());
+    }
+
+    private static GameManager newGame() {
+        GameManager game = TestGames.headless(new VirtualClock(), 5000, 10);
+        game.getAchievementSystem().checkAchievements();
+        return game;
+    }
+
+    @Test
+    void testStopEndsTheLoopThread() throws InterruptedException {
+        AtomicLong ticks = new AtomicLong();
+        GameLoopScheduler loop = new GameLoopScheduler(t -> ticks.incrementAndGet(), 5, 10);
+        loop.start();
+        Thread.sleep(100);
+        loop.stop();
+
+        assertFalse(loop.isRunning());
+        long afterStop = ticks.get();
+        assertTrue(afterStop > 0);
+        Thread.sleep(50);
+        assertEquals(afterStop, ticks.get());
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+            .noneMatch(thread -> thread.getName().equals("game-loop") && thread.isAlive()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class GameSnapshotTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    @Test
+    void testPublishesImmutableSnapshotPerTick() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = TestGames.headless(clock, 1000, 3);
+
+        clock.advance(TICK);
+        game.tick(TICK);
+        GameSnapshot first = game.getSnapshot();
+        IdleNumber firstAmount = first.getPrimaryAmount();
+        int grower = first.getCatalog().indexOf(GameConstants.BUILDING_GROWER);
+
+        assertEquals(1, first.getTick());
+        assertEquals(game.getPrimaryResource(), firstAmount);
+        assertEquals(3, first.getBuildingCount(grower));
+        assertEquals(game.getBuildingSystem().getBuilding(GameConstants.BUILDING_GROWER).getNextCost(),
+            first.getBuildingCost(grower));
+
+        // Later ticks and purchases publish new snapshots and leave old ones untouched
+        game.getBuildingSystem().purchaseBulk(GameConstants.BUILDING_GROWER, 1);
+        first.getPrimaryAmount().multiplyInPlace(2);
+        clock.advance(TICK);
+        game.tick(TICK);
+
+        assertNotSame(first, game.getSnapshot());
+        assertEquals(firstAmount, first.getPrimaryAmount());
+        assertEquals(3, first.getBuildingCount(grower));
+        assertEquals(4, game.getSnapshot().getBuildingCount(grower));
+        // Shared values are replaced in a copy, never in the array an older snapshot holds
+        IdleNumber threeCost = game.getBuildingSystem().getCatalog().get(grower).costAt(3, new IdleNumber());
+        assertEquals(threeCost, first.getBuildingCost(grower));
+        assertTrue(game.getSnapshot().getBuildingCost(grower).compareTo(threeCost) > 0);
+        assertEquals(game.getBuildingSystem().productionInto(grower, new IdleNumber()),
+            game.getSnapshot().getBuildingProduction(grower));
+    }
+
+    @Test
+    void testReportsEachNewAchievementOnce() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = TestGames.headless(clock);
+
+        for (int i = 0; i < GameConstants.CLICK_ACHIEVEMENT_THRESHOLDS[0]; i++) {
+            game.clickMainAction();
+        }
+        clock.advance(TICK);
+        game.tick(TICK);
+        assertEquals(1, game.getSnapshot().getNewAchievements().size());
+        assertEquals(1, game.getSnapshot().getUnlockedAchievementCount());
+
+        clock.advance(TICK);
+        game.tick(TICK);
+        assertTrue(game.getSnapshot().getNewAchievements().isEmpty());
+        assertEquals(1, game.getSnapshot().getUnlockedAchievementCount());
+    }
+
+    @Test
+    void testTicklessMatchesTicking() {
+        VirtualClock tickingClock = new VirtualClock(0L);
+        VirtualClock ticklessClock = new VirtualClock(0L);
+        GameManager ticking = newGame(tickingClock);
+        GameManager tickless = newGame(ticklessClock);
+        tickless.setTickless(true);
+
+        for (int i = 1; i <= 20000; i++) {
+            if (i % 400 == 0) {
+                for (GameManager game : new GameManager[] {ticking, tickless}) {
+                    game.submit(PlayerCommand.clicks(120));
+                    game.submit(PlayerCommand.buyBuilding(GameConstants.BUILDING_GROWER, 2));
+                    game.submit(PlayerCommand.buyBuilding(GameConstants.BUILDING_GREENHOUSE, 1));
+                }
+            }
+            tickingClock.advance(TICK);
+            ticking.tick(TICK);
+            ticklessClock.advance(TICK);
+            tickless.tick(TICK);
+            if (i % 250 == 0) {
+                assertClose(ticking.getPrimaryResource(), tickless.getSnapshot().getPrimaryAmount());
+            }
+        }
+
+        assertClose(ticking.getPrimaryResource(), tickless.getPrimaryResource());
+        assertClose(ticking.getAchievementSystem().getTotalResourcesGained(),
+            tickless.getAchievementSystem().getTotalResourcesGained());
+        assertEquals(ticking.getUnlockedAchievements(), tickless.getUnlockedAchievements());
+        assertTrue(ticking.getUnlockedAchievements().size() > 2);
+        assertEquals(ticking.getBuildingSystem().getTotalBuildingCount(),
+            tickless.getBuildingSystem().getTotalBuildingCount());
+    }
+
+    @Test
+    void testTicklessIdleTicksReissueTheSnapshot() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = newGame(clock);
+        game.setTickless(true);
+        // The first ticks unlock the building achievements, whose rewards change the rates
+        for (int i = 0; i < 3; i++) {
+            clock.advance(TICK);
+            game.tick(TICK);
+        }
+        GameSnapshot first = game.getSnapshot();
+        int grower = first.getCatalog().indexOf(GameConstants.BUILDING_GROWER);
+        long epoch = game.getResourceSystem().getAccrualEpoch();
+
+        // Nothing but time passes: no resource is touched, yet the snapshot keeps growing
+        boolean affordable = first.isBuildingAffordable(grower);
+        for (int i = 0; i < 600 && affordable == first.isBuildingAffordable(grower); i++) {
+            clock.advance(TICK);
+            game.tick(TICK);
+            affordable = game.getSnapshot().isBuildingAffordable(grower);
+        }
+        GameSnapshot later = game.getSnapshot();
+
+        assertEquals(epoch, game.getResourceSystem().getAccrualEpoch());
+        assertTrue(later.getTick() > first.getTick());
+        assertTrue(later.getPrimaryAmount().compareTo(first.getPrimaryAmount()) > 0);
+        assertClose(game.getPrimaryResource(), later.getPrimaryAmount());
+        assertTrue(affordable);
+        assertTrue(game.getResourceSystem().canAfford(ResourceRegistry.PRIMARY, later.getBuildingCost(grower)));
+    }
+
+    private static GameManager newGame(VirtualClock clock) {
+        return TestGames.headless(clock, 1000, 10);
+    }
+
+    private static void assertClose(IdleNumber expected, IdleNumber actual) {
+        double scale = Math.max(1.0, Math.abs(expected.toDouble()));
+        assertEquals(expected.toDouble(), actual.toDouble(), scale * 1e-9);
+    }
+}
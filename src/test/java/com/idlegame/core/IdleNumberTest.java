@@ -0,0 +1,85 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+
+public class IdleNumberTest {
+
+    @Test
+    void testNormalization() {
+        IdleNumber number = IdleNumber.of(1500);
+        assertEquals(1.5, number.getMantissa(), 1e-12);
+        assertEquals(3, number.getExponent());
+
+        IdleNumber small = IdleNumber.of(0.05);
+        assertEquals(5.0, small.getMantissa(), 1e-12);
+        assertEquals(-2, small.getExponent());
+    }
+
+    @Test
+    void testArithmeticBeyondDoubleRange() {
+        IdleNumber huge = IdleNumber.of(Double.MAX_VALUE).multiplyInPlace(IdleNumber.of(1e300));
+        assertEquals(608, huge.getExponent());
+        assertEquals(Double.POSITIVE_INFINITY, huge.toDouble());
+
+        huge.divideInPlace(IdleNumber.of(1e300));
+        assertEquals(Double.MAX_VALUE, huge.toDouble(), Double.MAX_VALUE * 1e-12);
+    }
+
+    @Test
+    void testAdditionIgnoresInsignificantOperand() {
+        IdleNumber big = new IdleNumber(1, 40);
+        big.addInPlace(IdleNumber.one());
+        assertEquals(0, big.compareTo(new IdleNumber(1, 40)));
+    }
+
+    @Test
+    void testSubtractionRenormalizes() {
+        IdleNumber value = IdleNumber.of(1000).subtractInPlace(IdleNumber.of(999.5));
+        assertEquals(0.5, value.toDouble(), 1e-9);
+    }
+
+    @Test
+    void testPowMatchesBigDecimal() {
+        BigDecimal expected = new BigDecimal("1.15").pow(250);
+        IdleNumber actual = IdleNumber.of(1.15).powInPlace(250);
+        assertEquals(expected.doubleValue(), actual.toDouble(), expected.doubleValue() * 1e-12);
+
+        IdleNumber beyondDouble = IdleNumber.of(1.15).powInPlace(10000);
+        assertEquals(10000 * Math.log10(1.15), beyondDouble.log10(), 1e-6);
+    }
+
+    @Test
+    void testComparison() {
+        assertTrue(IdleNumber.of(-5).compareTo(IdleNumber.of(3)) < 0);
+        assertTrue(IdleNumber.of(-500).compareTo(IdleNumber.of(-3)) < 0);
+        assertTrue(new IdleNumber(1, 400).compareTo(IdleNumber.of(Double.MAX_VALUE)) > 0);
+        assertTrue(IdleNumber.zero().compareTo(IdleNumber.of(0.001)) < 0);
+        assertEquals(0, IdleNumber.of(1000).compareTo(1000.0));
+    }
+
+    @Test
+    void testFloor() {
+        assertEquals(12.34, IdleNumber.of(12.3456).floorInPlace(2).toDouble(), 1e-12);
+        assertTrue(IdleNumber.of(0.004).floorInPlace(2).isZero());
+        assertEquals(-0.01, IdleNumber.of(-0.004).floorInPlace(2).toDouble(), 1e-15);
+        assertEquals(new IdleNumber(-1, -30), new IdleNumber(-1, -50).floorInPlace(30));
+        assertEquals(-1000.0, IdleNumber.of(-0.5).floorInPlace(-3).toDouble(), 1e-9);
+    }
+
+    @Test
+    void testBigDecimalRoundTrip() {
+        BigDecimal value = new BigDecimal("1.25e500");
+        assertEquals(0, value.compareTo(IdleNumber.of(value).toBigDecimal()));
+        assertEquals(0, new BigDecimal("0.5").compareTo(IdleNumber.of(0.5).toBigDecimal()));
+        assertThrows(ArithmeticException.class, () -> new IdleNumber(1, 1L << 40).toBigDecimal());
+        assertThrows(ArithmeticException.class, () -> new IdleNumber(1, -(1L << 40)).toBigDecimal());
+    }
+
+    @Test
+    void testParseAndFormat() {
+        assertEquals("1500", IdleNumber.parse("1500").toString());
+        assertEquals("1.50e300", IdleNumber.parse("1.5e300").toString());
+    }
+}
@@ -0,0 +1,66 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+public class MetricsRegistryTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    @Test
+    void testHistogramPercentilesUseBucketBounds() {
+        MetricsRegistry metrics = new MetricsRegistry("test");
+        MetricsRegistry.Histogram histogram = metrics.histogram("latency", "ns");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertSame(histogram, metrics.histogram("latency", "ns"));
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(63, histogram.getP50());
+        assertEquals(100, histogram.getP99(), "capped at the maximum");
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getP99());
+    }
+
+    @Test
+    void testMetricsAreReadableOverJmx() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry("jmx-test");
+        metrics.counter("saves").add(3);
+        metrics.registerMBeans();
+        try {
+            metrics.gauge("backlog", () -> 42);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(3L, server.getAttribute(metrics.objectName("Counter", "saves"), "Value"));
+            assertEquals(42L, server.getAttribute(metrics.objectName("Gauge", "backlog"), "Value"));
+            assertTrue(metrics.summary().contains("backlog=42"));
+        } finally {
+            metrics.unregisterMBeans();
+        }
+        assertTrue(ManagementFactory.getPlatformMBeanServer()
+            .queryNames(new ObjectName(MetricsRegistry.DOMAIN + ":scope=\"jmx-test\",*"), null).isEmpty());
+    }
+
+    @Test
+    void testTicksRecordDurationActionsAndAllocation() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = TestGames.headless(clock);
+        game.submit(PlayerCommand.click());
+        game.submit(PlayerCommand.click());
+        for (int i = 0; i < 5; i++) {
+            clock.advance(TICK);
+            game.tick(TICK);
+        }
+
+        MetricsRegistry metrics = game.getMetrics();
+        assertEquals(5, metrics.histogram(GameManager.METRIC_TICK_DURATION, "ns").getCount());
+        assertEquals(2, metrics.histogram(GameManager.METRIC_TICK_ACTIONS, "actions").getMax());
+        if (MetricsRegistry.currentThreadAllocatedBytes() >= 0) {
+            assertEquals(5, metrics.histogram(GameManager.METRIC_TICK_ALLOCATION, "bytes").getCount());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class NumberFormatterTest {
+
+    private static String format(NumberFormatter.Notation notation, int precision, String value) {
+        return new NumberFormatter(notation, precision).format(IdleNumber.parse(value));
+    }
+
+    @Test
+    void testNotations() {
+        assertEquals("0", format(NumberFormatter.Notation.SUFFIX, 2, "0"));
+        assertEquals("12.5", format(NumberFormatter.Notation.SUFFIX, 2, "12.5"));
+        assertEquals("0.05", format(NumberFormatter.Notation.SUFFIX, 2, "0.05"));
+        assertEquals("1.50K", format(NumberFormatter.Notation.SUFFIX, 2, "1500"));
+        assertEquals("270.00Qi", format(NumberFormatter.Notation.SUFFIX, 2, "270000000000000000000"));
+        assertEquals("-3.2M", format(NumberFormatter.Notation.SUFFIX, 1, "-3200000"));
+        assertEquals("1.00e66", format(NumberFormatter.Notation.SUFFIX, 2, "1e66"));
+
+        assertEquals("1.50a", format(NumberFormatter.Notation.LETTER, 2, "1500"));
+        assertEquals("1.00z", format(NumberFormatter.Notation.LETTER, 2, "1e78"));
+        assertEquals("1.00aa", format(NumberFormatter.Notation.LETTER, 2, "1e81"));
+
+        assertEquals("2.700e20", format(NumberFormatter.Notation.SCIENTIFIC, 3, "270000000000000000000"));
+        assertEquals("270.0e18", format(NumberFormatter.Notation.ENGINEERING, 1, "270000000000000000000"));
+        assertEquals("999", format(NumberFormatter.Notation.SCIENTIFIC, 2, "999"));
+    }
+
+    @Test
+    void testRoundingCarriesIntoNextUnit() {
+        assertEquals("1.00K", format(NumberFormatter.Notation.SUFFIX, 2, "999.999"));
+        assertEquals("1.00M", format(NumberFormatter.Notation.SUFFIX, 2, "999999"));
+        assertEquals("1e5", format(NumberFormatter.Notation.SCIENTIFIC, 0, "99999"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new NumberFormatter(NumberFormatter.Notation.SUFFIX, 10));
+    }
+
+    @Test
+    void testUnchangedValueReturnsCachedText() {
+        NumberFormatter formatter = NumberFormatter.standard();
+        IdleNumber value = IdleNumber.of(1234);
+        String text = formatter.format(value);
+        assertSame(text, formatter.format(IdleNumber.of(1234)));
+
+        value.addInPlace(IdleNumber.of(1000));
+        assertEquals("2.23K", formatter.format(value));
+
+        StringBuilder out = new StringBuilder("Cost: ");
+        assertEquals("Cost: 2.23K", formatter.formatTo(value, out).toString());
+    }
+
+    @Test
+    void testDurations() {
+        assertEquals("0s", NumberFormatter.formatDuration(0));
+        assertEquals("45s", NumberFormatter.formatDuration(44.2));
+        assertEquals("3m 05s", NumberFormatter.formatDuration(185));
+        assertEquals("2h 07m", NumberFormatter.formatDuration(2 * 3600 + 7 * 60 + 59));
+        assertEquals("3d 04h", NumberFormatter.formatDuration(3 * 86400 + 4 * 3600));
+        assertEquals("never", NumberFormatter.formatDuration(ProjectionEngine.NEVER));
+    }
+}
@@ -0,0 +1,117 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class OfflineProgressEngineTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    private static GameManager newGame(VirtualClock clock) {
+        GameManager game = TestGames.headless(clock, 5000, 10);
+        game.getBuildingSystem().purchaseBulk(GameConstants.BUILDING_GREENHOUSE, 5);
+        game.getAchievementSystem().checkAchievements();
+        return game;
+    }
+
+    private static OfflineProgressEngine engineFor(GameManager game) {
+        return new OfflineProgressEngine(game.getResourceSystem(), game.getBuildingSystem(),
+            game.getAchievementSystem(), 1.0);
+    }
+
+    private static void tick(GameManager game, VirtualClock clock, long millis, boolean autoBuy) {
+        for (long elapsed = 0; elapsed < millis; elapsed += TICK) {
+            if (autoBuy) {
+                buyCheapest(game.getBuildingSystem(), game.getResourceSystem());
+            }
+            clock.advance(TICK);
+            game.update();
+        }
+    }
+
+    private static void buyCheapest(BuildingSystem buildings, ResourceSystem resources) {
+        IdleNumber cost = new IdleNumber();
+        IdleNumber cheapest = new IdleNumber();
+        while (true) {
+            int choice = -1;
+            for (int i = 0; i < buildings.getCatalog().size(); i++) {
+                buildings.nextCostInto(i, cost);
+                if (choice < 0 || cost.compareTo(cheapest) < 0) {
+                    choice = i;
+                    cheapest.set(cost);
+                }
+            }
+            if (!resources.canAfford(GameConstants.PRIMARY_CURRENCY, cheapest)) {
+                return;
+            }
+            buildings.purchaseBuilding(choice);
+        }
+    }
+
+    private static void assertClose(IdleNumber expected, IdleNumber actual, double relativeTolerance) {
+        double difference = expected.subtract(actual).toDouble();
+        assertTrue(Math.abs(difference) <= Math.abs(expected.toDouble()) * relativeTolerance,
+            "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    void testMatchesTickByTickWithAchievements() {
+        long offline = 6 * 3600_000L;
+        VirtualClock tickClock = new VirtualClock();
+        GameManager ticked = newGame(tickClock);
+        tick(ticked, tickClock, offline, false);
+
+        GameManager caughtUp = newGame(new VirtualClock());
+        OfflineProgressEngine.Result result = engineFor(caughtUp).run(offline);
+
+        assertEquals(ticked.getAchievementSystem().getUnlockedAchievements(),
+            caughtUp.getAchievementSystem().getUnlockedAchievements());
+        assertTrue(caughtUp.getAchievementSystem().hasAchievement("resources_100000"));
+        for (String resourceId : ticked.getResourceSystem().getGeneratedResourceIds()) {
+            assertClose(ticked.getResourceSystem().getAmount(resourceId),
+                caughtUp.getResourceSystem().getAmount(resourceId), 1e-6);
+        }
+        assertTrue(result.getEvents() < 10, "events: " + result.getEvents());
+    }
+
+    @Test
+    void testAutoBuyMatchesTickByTick() {
+        long offline = 2 * 3600_000L;
+        VirtualClock tickClock = new VirtualClock();
+        GameManager ticked = newGame(tickClock);
+        tick(ticked, tickClock, offline, true);
+
+        GameManager caughtUp = newGame(new VirtualClock());
+        OfflineProgressEngine engine = engineFor(caughtUp);
+        engine.setAutoBuy(true);
+        OfflineProgressEngine.Result result = engine.run(offline);
+
+        int expectedBuildings = ticked.getBuildingSystem().getTotalBuildingCount();
+        int actualBuildings = caughtUp.getBuildingSystem().getTotalBuildingCount();
+        assertTrue(result.getPurchases() > 0);
+        assertTrue(Math.abs(expectedBuildings - actualBuildings) <= 1,
+            "expected " + expectedBuildings + " buildings but was " + actualBuildings);
+        assertClose(ticked.getAchievementSystem().getTotalResourcesGained(),
+            caughtUp.getAchievementSystem().getTotalResourcesGained(), 1e-3);
+    }
+
+    @Test
+    void testStopsAtCap() {
+        GameManager game = newGame(new VirtualClock());
+        game.getResourceSystem().setResourceCap(GameConstants.SECONDARY_CURRENCY, IdleNumber.of(50));
+
+        engineFor(game).run(GameConstants.MAX_OFFLINE_TIME);
+
+        assertEquals(IdleNumber.of(50), game.getResourceSystem().getAmount(GameConstants.SECONDARY_CURRENCY));
+    }
+
+    @Test
+    void testFullOfflineWindowTakesFewSteps() {
+        GameManager game = newGame(new VirtualClock());
+
+        OfflineProgressEngine.Result result = engineFor(game).run(GameConstants.MAX_OFFLINE_TIME);
+
+        assertEquals(GameConstants.MAX_OFFLINE_TIME, result.getSimulatedMillis());
+        assertTrue(result.getEvents() <= GameConstants.RESOURCE_ACHIEVEMENT_THRESHOLDS.length);
+        assertTrue(game.getAchievementSystem().hasAchievement("resources_1000000"));
+    }
+}
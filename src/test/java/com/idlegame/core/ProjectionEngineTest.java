@@ -0,0 +1,108 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class ProjectionEngineTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    private static GameManager newGame(VirtualClock clock) {
+        return TestGames.headless(clock);
+    }
+
+    private static void tick(GameManager game, VirtualClock clock) {
+        clock.advance(TICK);
+        game.tick(TICK);
+    }
+
+    @Test
+    void testBuildingEtaMatchesTickingAndRefreshesOnlyOnProductionChange() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = newGame(clock);
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(1000));
+        game.getBuildingSystem().purchaseBulk(GameConstants.BUILDING_GROWER, 5);
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.zero());
+        tick(game, clock);
+
+        ProjectionEngine projections = new ProjectionEngine();
+        assertTrue(projections.update(game.getSnapshot()));
+        assertFalse(projections.update(game.getSnapshot()));
+        int grower = game.getSnapshot().getCatalog().indexOf(GameConstants.BUILDING_GROWER);
+        double eta = projections.getBuildingEta(grower);
+        assertTrue(eta > 0 && eta < ProjectionEngine.NEVER);
+        assertEquals(eta, projections.getEta(game.getSnapshot().getBuildingCost(grower)), 1e-9);
+
+        int ticks = 0;
+        while (!game.getSnapshot().isBuildingAffordable(grower)) {
+            tick(game, clock);
+            ticks++;
+            projections.update(game.getSnapshot());
+            assertEquals(Math.max(0.0, eta - ticks * TICK / 1000.0), projections.getBuildingEta(grower), 1e-6);
+        }
+        assertEquals(eta, ticks * TICK / 1000.0, TICK / 1000.0);
+        assertEquals(0.0, projections.getBuildingEta(grower));
+        assertEquals(1, projections.getRefreshCount(), "plain ticks keep the cached figures");
+
+        game.getBuildingSystem().purchaseBulk(GameConstants.BUILDING_GROWER, 1);
+        tick(game, clock);
+        assertTrue(projections.update(game.getSnapshot()));
+        assertEquals(2, projections.getRefreshCount());
+    }
+
+    @Test
+    void testNothingProducedIsNeverAffordable() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = newGame(clock);
+        game.getResourceSystem().setGenerationRate(GameConstants.PRIMARY_CURRENCY, IdleNumber.zero());
+        tick(game, clock);
+
+        ProjectionEngine projections = new ProjectionEngine();
+        projections.update(game.getSnapshot());
+        assertTrue(game.getSnapshot().getPrimaryRate().isZero());
+        assertEquals(ProjectionEngine.NEVER, projections.getBuildingEta(0));
+        assertEquals(0.0, projections.getEta(IdleNumber.zero()));
+        assertEquals(ProjectionEngine.NEVER, projections.getBestPrestigeEta());
+    }
+
+    @Test
+    void testBestPrestigeIsEarliestWhenBankedAndHorizonWhenSpent() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = newGame(clock);
+        game.getResourceSystem().setGenerationRate(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(1000));
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(2_000_000));
+        tick(game, clock);
+
+        ProjectionEngine projections = new ProjectionEngine();
+        projections.update(game.getSnapshot());
+        assertEquals(0.0, projections.getPrestigeEta());
+        assertEquals(0.0, projections.getBestPrestigeEta());
+        assertEquals(IdleNumber.of(2.3), projections.getBestPrestigeGain());
+
+        // Spending everything leaves the amount behind rate * elapsed: waiting keeps paying
+        for (int i = 0; i < 100; i++) {
+            tick(game, clock);
+        }
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.zero());
+        tick(game, clock);
+        projections.update(game.getSnapshot());
+        double horizon = GameConstants.PRESTIGE_PROJECTION_HORIZON / 1000.0;
+        double earliest = projections.getPrestigeEta();
+        assertTrue(earliest > 0 && earliest <= horizon);
+        assertEquals(horizon, projections.getBestPrestigeEta());
+        assertFalse(projections.getBestPointsPerHour().isZero());
+
+        // A prestige starts a new run, whenever the engine first sees it
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(2_000_000));
+        long prestigedAt = clock.millis();
+        game.prestige();
+        for (int i = 0; i < 100; i++) {
+            tick(game, clock);
+        }
+        assertEquals(prestigedAt, game.getSnapshot().getRunStartMillis());
+        projections.update(game.getSnapshot());
+        ProjectionEngine late = new ProjectionEngine();
+        late.update(game.getSnapshot());
+        assertEquals(projections.getBestPrestigeEta(), late.getBestPrestigeEta());
+        assertEquals(projections.getBestPointsPerHour(), late.getBestPointsPerHour());
+    }
+}
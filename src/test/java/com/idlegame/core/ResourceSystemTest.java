@@ -82,4 +82,84 @@ public class ResourceSystemTest {
         assertEquals(0, expectedAmount.compareTo(actualAmount),
             "Resource generation for partial second should be proportional");
     }
+
+    @Test
+    void testRuntimeResourcesGetStableHandles() {
+        assertEquals(ResourceRegistry.PRIMARY, resourceSystem.getRegistry().indexOf(GameConstants.PRIMARY_CURRENCY));
+        assertEquals(-1, resourceSystem.getRegistry().indexOf("testResource"));
+        assertEquals(0, BigDecimal.ZERO.compareTo(resourceSystem.getResource("testResource")));
+
+        // Registering more resources than the initial capacity grows every array
+        for (int i = 0; i < 20; i++) {
+            resourceSystem.setGenerationRate("testResource" + i, BigDecimal.valueOf(i));
+        }
+        int handle = resourceSystem.register("testResource19");
+        resourceSystem.updateResources(buildingSystem, 1000);
+        assertEquals(0, BigDecimal.valueOf(19).compareTo(resourceSystem.getResource("testResource19")));
+        assertEquals(IdleNumber.of(19), resourceSystem.getAmount(handle));
+
+        // Reset clears state but keeps the handle
+        resourceSystem.reset();
+        assertFalse(resourceSystem.hasAmount(handle));
+        assertFalse(resourceSystem.getResourceIds().contains("testResource19"));
+        assertEquals(handle, resourceSystem.register("testResource19"));
+    }
+
+    @Test
+    void testTicklessMatchesTicking() {
+        ResourceSystem lazy = new ResourceSystem();
+        BigDecimal cap = BigDecimal.valueOf(3000.0);
+        for (ResourceSystem resources : new ResourceSystem[] {resourceSystem, lazy}) {
+            resources.setGenerationRate("testResource", BigDecimal.valueOf(2.5));
+            resources.setResourceCap("testResource", cap);
+        }
+        lazy.startTickless(0L, lazy.getRateStat(ResourceRegistry.PRIMARY));
+
+        for (int tick = 1; tick <= 20000; tick++) {
+            if (tick == 3000) {
+                // A rate change between ticks applies to the whole next tick in both modes
+                resourceSystem.setGenerationRate("testResource", BigDecimal.valueOf(7.0));
+                lazy.setGenerationRate("testResource", BigDecimal.valueOf(7.0));
+            }
+            if (tick == 5000) {
+                resourceSystem.spend(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(40));
+                lazy.spend(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(40));
+            }
+            resourceSystem.updateResources(buildingSystem, 100);
+            lazy.advanceTo(tick * 100L);
+            if (tick % 1000 == 0) {
+                for (String id : new String[] {GameConstants.PRIMARY_CURRENCY, "testResource"}) {
+                    double expected = resourceSystem.getResource(id).doubleValue();
+                    assertEquals(expected, lazy.getResource(id).doubleValue(), Math.max(1.0, expected) * 1e-9, id);
+                }
+            }
+        }
+        assertEquals(0, cap.compareTo(lazy.getResource("testResource")));
+    }
+
+    @Test
+    void testSpendDeniesUnknownHandles() {
+        IdleNumber before = resourceSystem.getAmount(ResourceRegistry.PRIMARY);
+        assertDoesNotThrow(() -> resourceSystem.spend(-1, IdleNumber.zero()));
+        assertDoesNotThrow(() -> resourceSystem.spend(1_000, IdleNumber.zero()));
+        assertDoesNotThrow(() -> resourceSystem.spend("missing", IdleNumber.of(-5)));
+        assertEquals(before, resourceSystem.getAmount(ResourceRegistry.PRIMARY));
+
+        // A fresh system's arrays are exactly as long as its registry
+        int[] unknown = {-1, resourceSystem.getRegistry().size(), 1_000, Integer.MAX_VALUE};
+        resourceSystem.startTickless(0L, null);
+        for (int handle : unknown) {
+            IdleNumber out = IdleNumber.of(7);
+            assertFalse(resourceSystem.hasAmount(handle));
+            assertFalse(resourceSystem.isGenerated(handle));
+            assertTrue(resourceSystem.canAfford(handle, IdleNumber.zero()));
+            assertFalse(resourceSystem.canAfford(handle, IdleNumber.one()));
+            assertEquals(IdleNumber.zero(), resourceSystem.getAmountInto(handle, out));
+            assertEquals(IdleNumber.zero(), resourceSystem.getAmount(handle));
+            assertNull(resourceSystem.getResourceCapInto(handle, out));
+            assertNull(resourceSystem.getAccrualRateInto(handle, out));
+            assertNull(resourceSystem.getRateStat(handle));
+            assertEquals(IdleNumber.zero(), resourceSystem.effectiveGenerationRateInto(handle, buildingSystem, out));
+        }
+    }
 }
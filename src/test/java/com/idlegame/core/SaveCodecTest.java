@@ -0,0 +1,101 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SaveCodecTest {
+
+    private static GameManager playedGame(SaveStore store) {
+        GameManager game = new GameManager(new VirtualClock(1_000_000L), store);
+        game.setAutoSaveEnabled(false);
+        game.initialize();
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.parse("1e40"));
+        game.getBuildingSystem().purchaseBulk(GameConstants.BUILDING_GROWER, 120);
+        game.getBuildingSystem().purchaseBulk(GameConstants.BUILDING_EMPIRE, 3);
+        for (int i = 0; i < 150; i++) {
+            game.clickMainAction();
+        }
+        game.getAchievementSystem().checkAchievements();
+        game.getPrestigeSystem().restoreState(IdleNumber.of(12.5), IdleNumber.of(1.125), 400_000L);
+        return game;
+    }
+
+    @Test
+    void testRoundTripRestoresGame(@TempDir Path dir) throws IOException {
+        SaveStore store = new SaveStore(dir);
+        GameManager original = playedGame(store);
+        SaveData saved = original.createSaveData();
+
+        SaveData decoded = SaveCodec.decode(SaveCodec.encode(saved));
+        assertEquals(saved.getSections(), decoded.getSections());
+        assertEquals(saved.getAchievements(), decoded.getAchievements());
+        assertEquals(saved.getAmount(GameConstants.PRIMARY_CURRENCY), decoded.getAmount(GameConstants.PRIMARY_CURRENCY));
+
+        store.save(saved);
+        GameManager restored = new GameManager(new VirtualClock(1_000_000L), store);
+        restored.initialize();
+        restored.loadGame();
+
+        assertEquals(original.getPrimaryResource(), restored.getPrimaryResource());
+        assertEquals(original.getBuildingSystem().getProduction(), restored.getBuildingSystem().getProduction());
+        assertEquals(original.getResourceSystem().getClickMultiplier(), restored.getResourceSystem().getClickMultiplier());
+        assertEquals(original.getAchievementSystem().getUnlockedAchievements(),
+            restored.getAchievementSystem().getUnlockedAchievements());
+        assertEquals(150, restored.getAchievementSystem().getTotalClicks());
+        assertEquals(IdleNumber.of(12.5), restored.getPrestigePoints());
+        assertEquals(400_000L, restored.getPrestigeSystem().getRunStartMillis());
+    }
+
+    @Test
+    void testDecodesOnlyRequestedSections() throws IOException {
+        ByteBuffer encoded = SaveCodec.encode(playedGame(new SaveStore()).createSaveData());
+
+        SaveData meta = SaveCodec.decode(encoded, EnumSet.of(SaveData.Section.META));
+
+        assertEquals(1_000_000L, meta.getSavedAtMillis());
+        assertTrue(meta.hasSection(SaveData.Section.META));
+        assertFalse(meta.hasSection(SaveData.Section.BUILDINGS));
+        assertTrue(meta.getBuildingIds().isEmpty());
+    }
+
+    @Test
+    void testRejectsNewerVersionAndCorruptFiles() {
+        ByteBuffer encoded = SaveCodec.encode(playedGame(new SaveStore()).createSaveData());
+
+        ByteBuffer newer = encoded.duplicate();
+        newer.putShort(4, (short) (SaveCodec.FORMAT_VERSION + 1));
+        assertThrows(IOException.class, () -> SaveCodec.decode(newer));
+
+        ByteBuffer truncated = encoded.duplicate();
+        truncated.limit(truncated.limit() - 5);
+        assertThrows(IOException.class, () -> SaveCodec.decode(truncated));
+    }
+
+    @Test
+    void testMigratesLegacySave(@TempDir Path dir) throws IOException {
+        Files.copy(Paths.get("saves", SaveStore.LEGACY_SAVE_FILE), dir.resolve(SaveStore.LEGACY_SAVE_FILE));
+        SaveStore store = new SaveStore(dir);
+
+        SaveData migrated = store.load();
+
+        assertNotNull(migrated);
+        assertTrue(migrated.getResourceIds().contains(GameConstants.PRIMARY_CURRENCY));
+        assertTrue(migrated.getSavedAtMillis() > 0);
+        assertTrue(Files.exists(store.getSavePath()));
+        assertFalse(Files.exists(store.getLegacySavePath()));
+        assertTrue(Files.size(store.getSavePath()) < Files.size(
+            dir.resolve(SaveStore.LEGACY_SAVE_FILE + SaveStore.MIGRATED_SUFFIX)));
+
+        GameManager game = new GameManager(new VirtualClock(migrated.getSavedAtMillis()), store);
+        game.initialize();
+        game.loadGame();
+        assertEquals(migrated.getAmount(GameConstants.PRIMARY_CURRENCY), game.getPrimaryResource());
+    }
+}
@@ -0,0 +1,81 @@
+package com.idlegame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class StatGraphTest {
+    private static final long TICK = GameConstants.GAME_TICK_DURATION;
+
+    @Test
+    void testRecomputesOnlyAffectedStats() {
+        StatGraph graph = new StatGraph();
+        StatGraph.Stat base = graph.input("base", 2.0);
+        StatGraph.Stat bonus = graph.input("bonus", 3.0);
+        StatGraph.Stat other = graph.input("other", 5.0);
+        StatGraph.Stat click = graph.product("click", base, bonus);
+        StatGraph.Stat rate = graph.product("rate", other);
+        StatGraph.Stat total = graph.sum("total", click, rate);
+
+        assertEquals(IdleNumber.of(11), total.get());
+        long recomputations = graph.getRecomputations();
+        total.get();
+        click.get();
+        assertEquals(recomputations, graph.getRecomputations(), "clean stats are cached");
+
+        bonus.set(4.0);
+        assertEquals(IdleNumber.of(13), total.get());
+        assertEquals(recomputations + 2, graph.getRecomputations(), "rate is not recomputed");
+
+        // Setting an input to its current value invalidates nothing
+        long version = graph.getVersion();
+        base.set(IdleNumber.of(2));
+        assertEquals(version, graph.getVersion());
+    }
+
+    @Test
+    void testSourcesCanChangeButNotFormCycles() {
+        StatGraph graph = new StatGraph();
+        StatGraph.Stat base = graph.input("base", 2.0);
+        StatGraph.Stat rate = graph.product("rate", base);
+        StatGraph.Stat total = graph.sum("total", rate);
+        StatGraph.Stat prestige = graph.input("prestige", 1.5);
+
+        rate.addInput(prestige);
+        assertEquals(IdleNumber.of(3), total.get());
+        rate.removeInput(prestige);
+        assertEquals(IdleNumber.of(2), total.get());
+
+        assertThrows(IllegalArgumentException.class, () -> rate.addInput(total));
+        assertThrows(IllegalStateException.class, () -> total.set(1.0));
+        assertSame(base, graph.input("base", 9.0));
+    }
+
+    @Test
+    void testSteadyStateTickRecomputesNothing() {
+        VirtualClock clock = new VirtualClock(0L);
+        GameManager game = TestGames.headless(clock, 1000, 3);
+        clock.advance(TICK);
+        game.tick(TICK);
+
+        StatGraph stats = game.getResourceSystem().getStats();
+        long recomputations = stats.getRecomputations();
+        StatBreakdown rate = game.getSnapshot().getRateBreakdown();
+        for (int i = 0; i < 10; i++) {
+            clock.advance(TICK);
+            game.tick(TICK);
+        }
+        assertEquals(recomputations, stats.getRecomputations());
+        assertSame(rate, game.getSnapshot().getRateBreakdown());
+
+        // A purchase changes production, and only that part of the breakdown
+        game.getBuildingSystem().purchaseBuilding(GameConstants.BUILDING_GROWER);
+        clock.advance(TICK);
+        game.tick(TICK);
+        StatBreakdown updated = game.getSnapshot().getRateBreakdown();
+        assertNotSame(rate, updated);
+        assertEquals(rate.getSourceValue(0), updated.getSourceValue(0));
+        assertTrue(updated.getSourceValue(1).compareTo(rate.getSourceValue(1)) > 0);
+        assertEquals(game.getSnapshot().getClickBreakdown().getTotal(),
+            game.getSnapshot().getClickMultiplier().multiplyInPlace(GameConstants.BASE_CLICK_POWER));
+    }
+}
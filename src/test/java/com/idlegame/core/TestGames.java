@@ -0,0 +1,27 @@
+package com.idlegame.core;
+
+import com.idlegame.simulation.SimulationRunner;
+
+/**
+ * Headless games for tests, built like the simulation's: initialized, no autosave or
+ * journal, and a save store that is never written.
+ */
+final class TestGames {
+    private TestGames() {
+    }
+
+    static GameManager headless(VirtualClock clock) {
+        return SimulationRunner.newGame(clock);
+    }
+
+    /**
+     * A headless game given {@code primary} of the primary currency, which then pays for
+     * {@code growers} growers.
+     */
+    static GameManager headless(VirtualClock clock, double primary, int growers) {
+        GameManager game = headless(clock);
+        game.getResourceSystem().setResource(GameConstants.PRIMARY_CURRENCY, IdleNumber.of(primary));
+        game.getBuildingSystem().purchaseBulk(GameConstants.BUILDING_GROWER, growers);
+        return game;
+    }
+}
@@ -0,0 +1,108 @@
+package com.idlegame.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.idlegame.core.GameConstants;
+import com.idlegame.core.GameManager;
+import com.idlegame.core.IdleNumber;
+import com.idlegame.core.PlayerCommand;
+import com.idlegame.core.SaveStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GameServerTest {
+    private static final long TICK_MS = 50;
+
+    @Test
+    void testSpreadsSessionsAndTicksEachOnce() {
+        GameServer server = new GameServer(3, TICK_MS, null);
+        for (int i = 0; i < 10; i++) {
+            server.openSession("player-" + i);
+        }
+        server.submit("player-4", PlayerCommand.clicks(3));
+
+        for (Shard shard : server.getShards()) {
+            assertTrue(shard.getSessionCount() == 3 || shard.getSessionCount() == 4);
+            shard.tick(TICK_MS);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, server.getSnapshot("player-" + i).getTick(), "player-" + i);
+        }
+        IdleNumber clicked = server.getSnapshot("player-4").getPrimaryAmount();
+        assertTrue(clicked.compareTo(server.getSnapshot("player-5").getPrimaryAmount()) > 0);
+        assertThrows(IllegalStateException.class, () -> server.openSession("player-4"));
+        assertThrows(IllegalArgumentException.class, () -> server.openSession("../escape"));
+        server.stop();
+        assertEquals(0, server.getSessionCount());
+    }
+
+    @Test
+    void testMemoryOnlySessionsNeverWriteTheDesktopSave() throws IOException {
+        GameServer server = new GameServer(1, TICK_MS, null);
+        GameManager game = server.openSession("player-1").getGame();
+        Path journal = game.getJournal().getPath();
+        assertFalse(journal.toAbsolutePath().startsWith(Paths.get("saves").toAbsolutePath()));
+
+        // A save forced through the public game lands in the session's scratch directory
+        game.setAutoSaveEnabled(true);
+        game.stopGame();
+        Path save = journal.resolveSibling(SaveStore.SAVE_FILE);
+        assertTrue(Files.exists(save));
+        server.stop();
+        Files.delete(save);
+        Files.deleteIfExists(journal);
+        Files.delete(save.getParent());
+        Files.delete(save.getParent().getParent());
+    }
+
+    @Test
+    void testRebalanceMovesSessionsOffHotShard() {
+        GameServer server = new GameServer(2, TICK_MS, null);
+        for (int i = 0; i < 20; i++) {
+            server.openSession("player-" + i);
+        }
+        Shard hot = server.getShards().get(0);
+        Shard cold = server.getShards().get(1);
+        cold.moveTo(hot, cold.getSessionCount());
+
+        assertEquals(0, server.rebalance(), "idle shards should stay put");
+
+        // 40 ms of a 50 ms tick for 20 sessions: 2 ms each
+        for (int i = 0; i < 200; i++) {
+            hot.recordPass(40_000_000L);
+        }
+        assertTrue(hot.getLoad() > GameConstants.SHARD_HOT_LOAD);
+        int moved = server.rebalance();
+
+        assertEquals(10, moved);
+        assertEquals(10, hot.getSessionCount());
+        assertEquals(10, cold.getSessionCount());
+        assertEquals(10, hot.getMetrics().counter(Shard.METRIC_SESSIONS_MOVED).getValue());
+        for (int i = 0; i < 20; i++) {
+            Shard owner = server.getSession("player-" + i).getShard();
+            assertTrue(owner == hot || owner == cold);
+        }
+        server.stop();
+    }
+
+    @Test
+    void testClosedSessionReopensFromSave(@TempDir Path dir) {
+        GameServer server = new GameServer(1, TICK_MS, dir);
+        Session session = server.openSession("alice");
+        session.submit(PlayerCommand.clicks(100));
+        server.getShards().get(0).tick(TICK_MS);
+        IdleNumber earned = session.getSnapshot().getPrimaryAmount();
+
+        server.closeSession("alice");
+        assertNull(session.getShard());
+        assertNull(server.getSession("alice"));
+
+        Session reopened = server.openSession("alice");
+        assertTrue(reopened.getGame().getPrimaryResource().compareTo(earned) >= 0);
+        server.stop();
+    }
+}
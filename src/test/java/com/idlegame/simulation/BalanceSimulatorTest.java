@@ -0,0 +1,54 @@
+package com.idlegame.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+public class BalanceSimulatorTest {
+    private static final long TICK_MS = 1000;
+    private static final long DURATION_MS = 30 * 60 * 1000;
+
+    @Test
+    void testSweepIsIndependentOfThreadCount() throws IOException {
+        BalanceSimulator simulator = new BalanceSimulator(TICK_MS, DURATION_MS);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            List<BalanceSimulator.Run> sequential = simulator.run(8, 42L, single);
+            List<BalanceSimulator.Run> concurrent = simulator.run(8, 42L, parallel);
+
+            StringBuilder expected = new StringBuilder();
+            StringBuilder actual = new StringBuilder();
+            simulator.writeRuns(sequential, expected);
+            simulator.writeRuns(concurrent, actual);
+            assertEquals(expected.toString(), actual.toString());
+            for (int i = 0; i < 8; i++) {
+                assertEquals(i, concurrent.get(i).getIndex());
+            }
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void testSummaryCoversEveryMilestone() throws IOException {
+        BalanceSimulator simulator = new BalanceSimulator(TICK_MS, DURATION_MS);
+        List<BalanceSimulator.Run> runs = List.of(simulator.simulate(0, 7L), simulator.simulate(1, 8L));
+        StringBuilder csv = new StringBuilder();
+        simulator.writeSummary(runs, csv);
+
+        String[] lines = csv.toString().split("\n");
+        // Header, then ALL and one row per strategy for 20 buildings and the first prestige
+        assertEquals(1 + 21 * 3, lines.length);
+        assertTrue(lines[1].startsWith("grower,ALL,2,2,"), lines[1]);
+        assertTrue(lines[lines.length - 3].startsWith("prestige,ALL,2,"));
+        for (BalanceSimulator.Run run : runs) {
+            // Every player buys a first grower within the first half hour
+            assertTrue(run.getFirstBuildingMillis(0) >= 0);
+            assertTrue(run.getFirstBuildingMillis(0) <= DURATION_MS);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.idlegame.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class HeadlessMainTest {
+    @Test
+    void testParsesKnownOptionsAndDefaults() {
+        HeadlessMain.Options options = HeadlessMain.parse(
+            new String[] {"--runs", "50", "--hours", "2.5"}, "usage", "--runs", "--hours", "--out");
+
+        assertEquals(50, options.getInt("--runs", 1));
+        assertEquals(2.5, options.getDouble("--hours", 1.0));
+        assertEquals("milestones.csv", options.get("--out", "milestones.csv"));
+    }
+
+    @Test
+    void testRejectsUnknownOptionsAndMissingValues() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+            () -> HeadlessMain.parse(new String[] {"--bogus", "1"}, "usage", "--runs"));
+        assertTrue(unknown.getMessage().endsWith("usage"));
+        assertThrows(IllegalArgumentException.class,
+            () -> HeadlessMain.parse(new String[] {"--runs"}, "usage", "--runs"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.idlegame.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.idlegame.core.GameConstants;
+import org.junit.jupiter.api.Test;
+
+public class SimulationRunnerTest {
+
+    @Test
+    void testSimulationAdvancesVirtualTime() {
+        PlayPolicy policy = new ScriptedPolicy(2.0, 1000, ScriptedPolicy.BuyStrategy.CHEAPEST);
+        SimulationResult result = new SimulationRunner(50, policy).run(10 * 60_000L);
+
+        assertEquals(10 * 60_000L, result.getSimulatedMillis());
+        assertEquals(12_000, result.getTicks());
+        assertTrue(result.getGame().getBuildingSystem().getTotalBuildingCount() > 0);
+    }
+
+    @Test
+    void testSimulationIsDeterministic() {
+        SimulationResult first = new SimulationRunner(50,
+            new ScriptedPolicy(5.0, 500, ScriptedPolicy.BuyStrategy.BEST_VALUE)).run(30 * 60_000L);
+        SimulationResult second = new SimulationRunner(50,
+            new ScriptedPolicy(5.0, 500, ScriptedPolicy.BuyStrategy.BEST_VALUE)).run(30 * 60_000L);
+
+        assertEquals(
+            first.getGame().getResourceSystem().getAmount(GameConstants.PRIMARY_CURRENCY),
+            second.getGame().getResourceSystem().getAmount(GameConstants.PRIMARY_CURRENCY));
+        assertEquals(
+            first.getGame().getBuildingSystem().getTotalBuildingCount(),
+            second.getGame().getBuildingSystem().getTotalBuildingCount());
+    }
+}